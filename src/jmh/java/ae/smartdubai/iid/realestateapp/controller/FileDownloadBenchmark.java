@@ -0,0 +1,104 @@
+package ae.smartdubai.iid.realestateapp.controller;
+
+import ae.smartdubai.iid.realestateapp.service.PdfReportBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of many concurrent downloads of a large comprehensive report (20 pages) over
+ * loopback sockets: {@link FileDownloads#transfer} against copying the file through a heap
+ * buffer, as a plain resource response does. Each thread has its own connection, drained by
+ * a background reader.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class FileDownloadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Report {
+        Path file;
+        long size;
+
+        @Setup
+        public void setup() throws IOException {
+            file = Files.createTempFile("report_", ".pdf");
+            Files.write(file, PdfReportBenchmark.renderTwentyPageReport());
+            size = Files.size(file);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+        ServerSocketChannel server;
+        SocketChannel client;
+        Thread drain;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            client = SocketChannel.open(server.getLocalAddress());
+            SocketChannel accepted = server.accept();
+            drain = new Thread(() -> {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+                try (accepted) {
+                    while (accepted.read(buffer.clear()) >= 0) {
+                        // Discard everything the client sends
+                    }
+                } catch (IOException e) {
+                    // Connection closed at tear down
+                }
+            });
+            drain.setDaemon(true);
+            drain.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException, InterruptedException {
+            client.close();
+            drain.join(1000);
+            server.close();
+        }
+    }
+
+    @Benchmark
+    public long transferTo(Report report, Connection connection) throws IOException {
+        try (FileChannel channel = FileChannel.open(report.file, StandardOpenOption.READ)) {
+            return FileDownloads.transfer(channel, 0, report.size, connection.client);
+        }
+    }
+
+    @Benchmark
+    public long heapCopy(Report report, Connection connection) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(report.file)) {
+            return inputStream.transferTo(Channels.newOutputStream(connection.client));
+        }
+    }
+}
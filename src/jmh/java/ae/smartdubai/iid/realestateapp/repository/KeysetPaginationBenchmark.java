@@ -0,0 +1,123 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of fetching one page of 50 loan calculations from an H2 table of up to 10 million
+ * rows, at the start, the middle and the end of the table. The keyset queries have the shape
+ * Hibernate generates for {@link LoanCalculationRepository#findPage}, without and with a date
+ * range; the offset query is what a page number would cost. Keyset pages stay flat as the table and the position grow, while
+ * offset pages grow with the number of rows skipped.
+ * <p>
+ * Filling the table takes a while and about 2 GB of heap, so it is done once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KeysetPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String KEYSET_QUERY = "select id, property_id, loan_amount, interest_rate, tenure_years, "
+            + "monthly_emi, calculation_date from loan_calculation where id > ? "
+            + "order by id fetch first ? rows only";
+
+    private static final String KEYSET_DATES_QUERY = "select id, property_id, loan_amount, interest_rate, "
+            + "tenure_years, monthly_emi, calculation_date from loan_calculation "
+            + "where calculation_date between ? and ? and id > ? order by id fetch first ? rows only";
+
+    private static final String OFFSET_QUERY = "select id, property_id, loan_amount, interest_rate, tenure_years, "
+            + "monthly_emi, calculation_date from loan_calculation "
+            + "order by id offset ? rows fetch first ? rows only";
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    // Fraction of the table before the page
+    @Param({"0", "0.5", "0.99"})
+    private double position;
+
+    private Connection connection;
+    private PreparedStatement keysetPage;
+    private PreparedStatement keysetDatesPage;
+    private PreparedStatement offsetPage;
+    private long afterId;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:keyset", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table loan_calculation (id bigint primary key, property_id bigint, "
+                    + "loan_amount double, interest_rate double, tenure_years int, monthly_emi double, "
+                    + "calculation_date date)");
+            // One day of calculations per 10,000 rows, like a steadily growing table
+            statement.execute("insert into loan_calculation select x, mod(x, 500) + 1, 800000 + mod(x, 1000), "
+                    + "3.5, 25, 4000 + mod(x, 100), dateadd(day, x / 10000, date '2020-01-01') "
+                    + "from system_range(1, " + rows + ")");
+        }
+        keysetPage = connection.prepareStatement(KEYSET_QUERY);
+        keysetDatesPage = connection.prepareStatement(KEYSET_DATES_QUERY);
+        offsetPage = connection.prepareStatement(OFFSET_QUERY);
+        afterId = (long) (rows * position);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void keyset(Blackhole blackhole) throws SQLException {
+        keysetPage.setLong(1, afterId);
+        keysetPage.setInt(2, PAGE_SIZE);
+        read(keysetPage, blackhole);
+    }
+
+    @Benchmark
+    public void keysetWithinDates(Blackhole blackhole) throws SQLException {
+        // The whole table, so the date filter only adds its per-row cost
+        keysetDatesPage.setDate(1, Date.valueOf(LocalDate.of(2020, 1, 1)));
+        keysetDatesPage.setDate(2, Date.valueOf(LocalDate.of(2100, 1, 1)));
+        keysetDatesPage.setLong(3, afterId);
+        keysetDatesPage.setInt(4, PAGE_SIZE);
+        read(keysetDatesPage, blackhole);
+    }
+
+    @Benchmark
+    public void offset(Blackhole blackhole) throws SQLException {
+        offsetPage.setLong(1, afterId);
+        offsetPage.setInt(2, PAGE_SIZE);
+        read(offsetPage, blackhole);
+    }
+
+    private static void read(PreparedStatement page, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = page.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+                blackhole.consume(resultSet.getDouble(3));
+                blackhole.consume(resultSet.getDate(7));
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to delete the loan calculations of one property from an H2 table that also holds the
+ * calculations of 99 other properties. The row-by-row delete is what the derived
+ * {@code deleteByProperty} did: select the rows, then delete each one by its id. The set-based
+ * delete is the single statement {@link LoanCalculationRepository#deleteByProperty} now issues.
+ * <p>
+ * Each iteration deletes the rows, so the property's calculations are inserted again before it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PropertyPurgeBenchmark {
+
+    private static final long PROPERTY_ID = 1;
+    private static final int OTHER_PROPERTIES = 99;
+    private static final int OTHER_CALCULATIONS = 1000;
+
+    // Historical calculations of the purged property
+    @Param({"10000", "100000"})
+    private int calculations;
+
+    private Connection connection;
+    private PreparedStatement selectIds;
+    private PreparedStatement deleteById;
+    private PreparedStatement deleteByProperty;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:purge", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table property (id bigint primary key, name varchar(255))");
+            statement.execute("create table loan_calculation (id bigint auto_increment primary key, "
+                    + "property_id bigint not null references property (id), loan_amount double, "
+                    + "interest_rate double, tenure_years int, monthly_emi double)");
+            statement.execute("create index idx_loan_calculation_property on loan_calculation (property_id)");
+            statement.execute("insert into property select x, 'Property ' || x "
+                    + "from system_range(1, " + (OTHER_PROPERTIES + 1) + ")");
+            // The other properties keep their calculations, so the deletes have to find the purged rows
+            statement.execute("insert into loan_calculation (property_id, loan_amount, interest_rate, "
+                    + "tenure_years, monthly_emi) select mod(x, " + OTHER_PROPERTIES + ") + 2, 800000, 3.5, 25, 4000 "
+                    + "from system_range(1, " + OTHER_PROPERTIES * OTHER_CALCULATIONS + ")");
+        }
+        connection.setAutoCommit(false);
+        selectIds = connection.prepareStatement("select id from loan_calculation where property_id = ?");
+        deleteById = connection.prepareStatement("delete from loan_calculation where id = ?");
+        deleteByProperty = connection.prepareStatement("delete from loan_calculation where property_id = ?");
+    }
+
+    @Setup(Level.Iteration)
+    public void insertCalculations() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("insert into loan_calculation (property_id, loan_amount, interest_rate, "
+                    + "tenure_years, monthly_emi) select " + PROPERTY_ID + ", 800000 + x, 3.5, 25, 4000 "
+                    + "from system_range(1, " + calculations + ")");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int rowByRow() throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        selectIds.setLong(1, PROPERTY_ID);
+        try (ResultSet resultSet = selectIds.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        int deleted = 0;
+        for (Long id : ids) {
+            deleteById.setLong(1, id);
+            deleted += deleteById.executeUpdate();
+        }
+        connection.commit();
+        return deleted;
+    }
+
+    @Benchmark
+    public int setBased() throws SQLException {
+        deleteByProperty.setLong(1, PROPERTY_ID);
+        int deleted = deleteByProperty.executeUpdate();
+        connection.commit();
+        return deleted;
+    }
+}
@@ -0,0 +1,110 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
+import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import ae.smartdubai.iid.realestateapp.model.RentVsBuyAnalysis;
+import ae.smartdubai.iid.realestateapp.model.ServiceChargeEstimate;
+import ae.smartdubai.iid.realestateapp.repository.DocumentChecklistRepository;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.repository.RentVsBuyAnalysisRepository;
+import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the calculation service hot paths with stubbed repositories.
+ * The break-even search on its own is covered by {@code RentVsBuySimulationBenchmark}.
+ * The calculation cache is built with a zero TTL, so every call misses and the
+ * benchmarks time the calculation rather than a cache lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalculationServiceBenchmark {
+
+    private LoanCalculationService loanCalculationService;
+    private RentVsBuyAnalysisService rentVsBuyAnalysisService;
+    private PropertyComparisonService propertyComparisonService;
+    private ServiceChargeEstimateService serviceChargeEstimateService;
+    private DocumentChecklistService documentChecklistService;
+
+    @Setup
+    public void setup() {
+        Property property = benchmarkProperty();
+        PropertyRepository propertyRepository = RepositoryStubs.stub(PropertyRepository.class, property);
+        CalculationMetrics calculationMetrics = new CalculationMetrics(new SimpleMeterRegistry());
+        CalculationCache calculationCache = new CalculationCache(new SimpleMeterRegistry(), 1, Duration.ZERO);
+
+        loanCalculationService = new LoanCalculationService(
+                RepositoryStubs.stub(LoanCalculationRepository.class, null),
+                propertyRepository, calculationMetrics, calculationCache);
+        rentVsBuyAnalysisService = new RentVsBuyAnalysisService(
+                RepositoryStubs.stub(RentVsBuyAnalysisRepository.class, null),
+                propertyRepository, calculationMetrics);
+        propertyComparisonService = new PropertyComparisonService(
+                RepositoryStubs.stub(PropertyComparisonRepository.class, null),
+                propertyRepository, calculationMetrics);
+        serviceChargeEstimateService = new ServiceChargeEstimateService(
+                RepositoryStubs.stub(ServiceChargeEstimateRepository.class, null),
+                propertyRepository, calculationMetrics, calculationCache);
+        documentChecklistService = new DocumentChecklistService(
+                RepositoryStubs.stub(DocumentChecklistRepository.class, null),
+                propertyRepository);
+    }
+
+    @Benchmark
+    public LoanCalculation calculateLoan() {
+        return loanCalculationService.calculateLoan(1L, 400000.0, 4.5, 25);
+    }
+
+    @Benchmark
+    public RentVsBuyAnalysis calculateRentVsBuy() {
+        return rentVsBuyAnalysisService.calculateRentVsBuy(1L, 400000.0, 4.5, 25, 3.0,
+                15000.0, 0.0, 8000.0, 5.0, 8000.0, 6.0, 20);
+    }
+
+    @Benchmark
+    public PropertyComparison compareRentVsBuy() {
+        return propertyComparisonService.compareRentVsBuy(1L, 8000.0, 5.0, 6.0, 3.0, 20);
+    }
+
+    @Benchmark
+    public ServiceChargeEstimate calculateServiceCharges() {
+        return serviceChargeEstimateService.calculateServiceCharges(1L, "Dubai Marina", "APARTMENT", 1500.0);
+    }
+
+    @Benchmark
+    public DocumentChecklist generateDocumentChecklist() {
+        return documentChecklistService.generateDocumentChecklist(1L, "SALARIED", "Emirates NBD",
+                "Indian", "UAE_RESIDENT", true, false, true);
+    }
+
+    static Property benchmarkProperty() {
+        Property property = new Property();
+        property.setId(1L);
+        property.setName("Marina Heights 1204");
+        property.setLocation("Dubai Marina");
+        property.setPrice(2000000.0);
+        property.setSize(1500.0);
+        property.setBedrooms(2);
+        property.setBathrooms(2);
+        property.setPropertyType("Apartment");
+        property.setCommunityName("Dubai Marina");
+        property.setIsFurnished(false);
+        property.setYearBuilt(2015);
+        return property;
+    }
+}
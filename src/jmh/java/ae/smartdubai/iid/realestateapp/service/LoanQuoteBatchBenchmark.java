@@ -0,0 +1,49 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the batch quote kernel on a 100k scenario grid
+ * (down payment x interest rate x tenure).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoanQuoteBatchBenchmark {
+
+    private static final double PRICE = 2000000.0;
+    private static final int SCENARIOS = 100_000;
+
+    private double[] downPayments;
+    private double[] interestRates;
+    private int[] tenureYears;
+
+    @Setup
+    public void setup() {
+        downPayments = new double[SCENARIOS];
+        interestRates = new double[SCENARIOS];
+        tenureYears = new int[SCENARIOS];
+
+        for (int i = 0; i < SCENARIOS; i++) {
+            downPayments[i] = 200000.0 + (i % 100) * 10000.0;
+            interestRates[i] = 2.0 + ((i / 100) % 29) * 0.25;
+            tenureYears[i] = 1 + (i / 2900) % 35;
+        }
+    }
+
+    @Benchmark
+    public LoanQuoteBatchResult evaluate100kScenarios() {
+        LoanQuoteBatchResult result = new LoanQuoteBatchResult(1L, SCENARIOS);
+        LoanQuoteBatchService.evaluate(PRICE, downPayments, interestRates, tenureYears, result);
+        return result;
+    }
+}
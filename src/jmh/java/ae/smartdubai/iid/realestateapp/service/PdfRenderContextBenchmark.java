@@ -0,0 +1,121 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.util.PdfRenderContext;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-report latency of rendering a comprehensive report with embedded TrueType fonts (an
+ * Arabic property name), a logo and a property photo, with the render context's cache on and
+ * off. Without the cache every report parses both fonts and fetches, decodes and re-encodes
+ * both images; with it, they are parsed and encoded once. Allocation per report is reported
+ * by the gc profiler as gc.alloc.rate.norm.
+ * <p>
+ * Images are served over loopback by an in-process HTTP server. The fonts default to DejaVu
+ * Sans, which has Arabic glyphs; point the font parameters at any TrueType files on other
+ * systems.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfRenderContextBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    @Param({"/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf"})
+    public String regularFont;
+
+    @Param({"/usr/share/fonts/truetype/dejavu/DejaVuSans-Bold.ttf"})
+    public String boldFont;
+
+    private HttpServer imageServer;
+    private PdfReportService pdfReportService;
+    private PdfReport pdfReport;
+    private ByteArrayOutputStream outputStream;
+
+    @Setup
+    public void setup() throws IOException {
+        imageServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serve("/logo.png", png(600, 160));
+        serve("/photo.png", png(3000, 2000));
+        imageServer.start();
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        String baseUrl = "http://" + host + ":" + imageServer.getAddress().getPort();
+
+        // The images are served on the loopback address, so private addresses are allowed
+        PdfRenderContext renderContext = new PdfRenderContext(Paths.get(regularFont), Paths.get(boldFont),
+                baseUrl + "/logo.png", Set.of(host), true,
+                cacheEnabled, 64L * 1024 * 1024, Duration.ofHours(1), 10_000);
+        pdfReportService = PdfReportBenchmark.pdfReportService(renderContext);
+
+        Property property = CalculationServiceBenchmark.benchmarkProperty();
+        property.setName("برج مارينا - Marina Tower");
+        property.setImages(List.of(baseUrl + "/photo.png"));
+        pdfReport = PdfReportBenchmark.comprehensiveReport(property);
+        outputStream = new ByteArrayOutputStream(256 * 1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        imageServer.stop(0);
+    }
+
+    @Benchmark
+    public int renderReport() throws IOException {
+        outputStream.reset();
+        pdfReportService.writePdf(pdfReport, outputStream);
+        return outputStream.size();
+    }
+
+    private void serve(String path, byte[] content) {
+        imageServer.createContext(path, exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            exchange.sendResponseHeaders(200, content.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(content);
+            }
+        });
+    }
+
+    /**
+     * A gradient picture, like a photo in that it does not compress to nothing.
+     */
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(30, 90, 160), width, height, new Color(240, 200, 120)));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        return png.toByteArray();
+    }
+}
@@ -0,0 +1,231 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
+import ae.smartdubai.iid.realestateapp.repository.DocumentChecklistRepository;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
+import ae.smartdubai.iid.realestateapp.util.PdfRenderContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering of a comprehensive PDF report (every section included), both as generated
+ * from the services and with a document checklist long enough to fill 20 pages.
+ * The document is written to memory, so file system latency is not part of the score. The size
+ * and page count of the document are reported as {@link DocumentSize} counters next to the score,
+ * so they are recorded in the results and compared against the baseline too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfReportBenchmark {
+
+    // Pages of the long report
+    private static final int LONG_REPORT_PAGES = 20;
+
+    private PdfReportService pdfReportService;
+    private PdfReport pdfReport;
+    private PdfReport longPdfReport;
+    private ByteArrayOutputStream outputStream;
+    private int pages;
+    private int longReportPages;
+
+    /**
+     * Size of the document rendered by a benchmark. The counters hold the size of the last
+     * document rather than a sum, since every invocation renders the same document.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DocumentSize {
+        public long documentBytes;
+        public long documentPages;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            documentBytes = 0;
+            documentPages = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        pdfReport = comprehensiveReport(CalculationServiceBenchmark.benchmarkProperty());
+        pdfReportService = pdfReportService(PdfRenderContext.standard());
+        outputStream = new ByteArrayOutputStream(64 * 1024);
+
+        longPdfReport = longReport(pdfReport);
+        // Counted once here, since parsing the document back is not part of rendering it
+        pages = pageCount(pdfReport);
+        longReportPages = pageCount(longPdfReport);
+    }
+
+    /**
+     * Build a report of a property with every section, as calculated by the services.
+     *
+     * @param property the property
+     * @return the prepared report
+     */
+    static PdfReport comprehensiveReport(Property property) {
+        PropertyRepository propertyRepository = RepositoryStubs.stub(PropertyRepository.class, property);
+        CalculationMetrics calculationMetrics = new CalculationMetrics(new SimpleMeterRegistry());
+        CalculationCache calculationCache = new CalculationCache(new SimpleMeterRegistry(), 1, Duration.ZERO);
+
+        PdfReport pdfReport = new PdfReport();
+        pdfReport.setProperty(property);
+        pdfReport.setTitle("Comprehensive Property Report");
+        pdfReport.setReportType("COMPREHENSIVE");
+        pdfReport.setGenerationDate(LocalDate.now());
+        pdfReport.setIncludesCostBreakdown(true);
+        pdfReport.setIncludesLoanCalculation(true);
+        pdfReport.setIncludesPropertyComparison(true);
+        pdfReport.setIncludesDocumentChecklist(true);
+        pdfReport.setIncludesServiceChargeEstimate(true);
+        pdfReport.setCostBreakdown(new CostBreakdownService(
+                RepositoryStubs.stub(CostBreakdownRepository.class, null), propertyRepository,
+                calculationMetrics, calculationCache)
+                .calculateCostBreakdown(1L, 1600000.0, 2000.0, 5000.0, 3000.0, 4000.0));
+        pdfReport.setLoanCalculation(new LoanCalculationService(
+                RepositoryStubs.stub(LoanCalculationRepository.class, null), propertyRepository,
+                calculationMetrics, calculationCache)
+                .calculateLoan(1L, 400000.0, 4.5, 25));
+        pdfReport.setPropertyComparison(new PropertyComparisonService(
+                RepositoryStubs.stub(PropertyComparisonRepository.class, null), propertyRepository,
+                calculationMetrics)
+                .compareRentVsBuy(1L, 8000.0, 5.0, 6.0, 3.0, 20));
+        pdfReport.setDocumentChecklist(new DocumentChecklistService(
+                RepositoryStubs.stub(DocumentChecklistRepository.class, null), propertyRepository)
+                .generateDocumentChecklist(1L, "SALARIED", "Emirates NBD", "Indian", "UAE_RESIDENT", true, false, true));
+        pdfReport.setServiceChargeEstimate(new ServiceChargeEstimateService(
+                RepositoryStubs.stub(ServiceChargeEstimateRepository.class, null), propertyRepository,
+                calculationMetrics, calculationCache)
+                .calculateServiceCharges(1L, "Dubai Marina", "APARTMENT", 1500.0));
+        return pdfReport;
+    }
+
+    /**
+     * Create a report service that renders with the given context.
+     *
+     * @param renderContext the fonts and images of the reports
+     * @return the report service
+     */
+    static PdfReportService pdfReportService(PdfRenderContext renderContext) {
+        return new PdfReportService(
+                RepositoryStubs.stub(PdfReportRepository.class, null),
+                RepositoryStubs.stub(PropertyRepository.class, null),
+                RepositoryStubs.stub(CostBreakdownRepository.class, null),
+                RepositoryStubs.stub(LoanCalculationRepository.class, null),
+                RepositoryStubs.stub(PropertyComparisonRepository.class, null),
+                RepositoryStubs.stub(DocumentChecklistRepository.class, null),
+                RepositoryStubs.stub(ServiceChargeEstimateRepository.class, null),
+                // The benchmarks render to memory and never touch the storage
+                new LocalReportStorage(Paths.get("pdf-reports")),
+                renderContext,
+                null,
+                null);
+    }
+
+    /**
+     * Render the 20-page comprehensive report, for benchmarks that need a large real report.
+     *
+     * @return the PDF document
+     * @throws IOException if the report cannot be rendered
+     */
+    public static byte[] renderTwentyPageReport() throws IOException {
+        PdfReportBenchmark benchmark = new PdfReportBenchmark();
+        benchmark.setup();
+        benchmark.generateTwentyPagePdfFile(new DocumentSize());
+        return benchmark.outputStream.toByteArray();
+    }
+
+    /**
+     * Copy the report with identity and income proof lists grown until the document has 20 pages.
+     */
+    private PdfReport longReport(PdfReport template) throws IOException {
+        DocumentChecklist base = template.getDocumentChecklist();
+        DocumentChecklist documentChecklist = new DocumentChecklist();
+        documentChecklist.setBuyerType(base.getBuyerType());
+        documentChecklist.setSelectedBank(base.getSelectedBank());
+        documentChecklist.setNationality(base.getNationality());
+        documentChecklist.setResidenceStatus(base.getResidenceStatus());
+        List<String> identityDocuments = new ArrayList<>();
+        List<String> incomeProofDocuments = new ArrayList<>();
+        documentChecklist.setIdentityDocuments(identityDocuments);
+        documentChecklist.setIncomeProofDocuments(incomeProofDocuments);
+
+        PdfReport longReport = new PdfReport();
+        longReport.setProperty(template.getProperty());
+        longReport.setTitle(template.getTitle());
+        longReport.setReportType(template.getReportType());
+        longReport.setGenerationDate(template.getGenerationDate());
+        longReport.setIncludesCostBreakdown(true);
+        longReport.setIncludesLoanCalculation(true);
+        longReport.setIncludesPropertyComparison(true);
+        longReport.setIncludesDocumentChecklist(true);
+        longReport.setIncludesServiceChargeEstimate(true);
+        longReport.setCostBreakdown(template.getCostBreakdown());
+        longReport.setLoanCalculation(template.getLoanCalculation());
+        longReport.setPropertyComparison(template.getPropertyComparison());
+        longReport.setDocumentChecklist(documentChecklist);
+        longReport.setServiceChargeEstimate(template.getServiceChargeEstimate());
+
+        int item = 0;
+        while (pageCount(longReport) < LONG_REPORT_PAGES) {
+            for (int i = 0; i < 25; i++, item++) {
+                identityDocuments.add("Certified copy of supporting identity document number " + item);
+                incomeProofDocuments.add("Salary certificate or bank statement for month " + item
+                        + ", stamped by the issuing bank and not older than 30 days");
+            }
+        }
+        return longReport;
+    }
+
+    private int pageCount(PdfReport report) throws IOException {
+        outputStream.reset();
+        pdfReportService.writePdf(report, outputStream);
+        try (PDDocument document = PDDocument.load(outputStream.toByteArray())) {
+            return document.getNumberOfPages();
+        }
+    }
+
+    @Benchmark
+    public int generatePdfFile(DocumentSize documentSize) throws IOException {
+        outputStream.reset();
+        pdfReportService.writePdf(pdfReport, outputStream);
+        documentSize.documentBytes = outputStream.size();
+        documentSize.documentPages = pages;
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public int generateTwentyPagePdfFile(DocumentSize documentSize) throws IOException {
+        outputStream.reset();
+        pdfReportService.writePdf(longPdfReport, outputStream);
+        documentSize.documentBytes = outputStream.size();
+        documentSize.documentPages = longReportPages;
+        return outputStream.size();
+    }
+}
@@ -0,0 +1,56 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuySimulationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures 100k Monte Carlo rent vs buy paths at different pool sizes, to check that the
+ * simulation scales with the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RentVsBuySimulationBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private ForkJoinPool simulationPool;
+    private RentVsBuySimulationService simulationService;
+    private RentVsBuySimulationService.PathModel model;
+    private double[] buyNetWorth;
+    private double[] rentNetWorth;
+
+    @Setup
+    public void setup() {
+        simulationPool = new ForkJoinPool(parallelism);
+        simulationService = new RentVsBuySimulationService(null, simulationPool);
+        model = new RentVsBuySimulationService.PathModel(2000000.0, new RentVsBuySimulationRequest(
+                1L, 400000.0, 4.5, 25, 15000.0, 0.0, 8000.0, 20,
+                3.0, 5.0, 3.0, 2.0, 6.0, 10.0, RentVsBuySimulationService.DEFAULT_PATHS, 42L));
+        buyNetWorth = new double[RentVsBuySimulationService.DEFAULT_PATHS];
+        rentNetWorth = new double[RentVsBuySimulationService.DEFAULT_PATHS];
+    }
+
+    @TearDown
+    public void tearDown() {
+        simulationPool.shutdown();
+    }
+
+    @Benchmark
+    public double[] simulate100kPaths() {
+        simulationService.run(model, 42L, buyNetWorth, rentNetWorth);
+        return rentNetWorth;
+    }
+}
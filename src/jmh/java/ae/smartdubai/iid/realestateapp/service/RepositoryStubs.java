@@ -0,0 +1,47 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+/**
+ * In-memory stand-ins for Spring Data repositories, so that service benchmarks measure
+ * the calculation itself rather than database access.
+ * <p>
+ * {@code findById} returns the given entity and {@code save} returns its argument;
+ * any other repository method fails loudly.
+ */
+final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    /**
+     * Create a repository stub.
+     *
+     * @param repositoryType the repository interface
+     * @param entity the entity returned by findById, or null for an empty result
+     * @return the stub
+     */
+    static <T> T stub(Class<T> repositoryType, Object entity) {
+        Optional<Object> found = Optional.ofNullable(entity);
+        Object stub = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findById":
+                            return found;
+                        case "save":
+                            return args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "Stub" + repositoryType.getSimpleName();
+                        default:
+                            throw new UnsupportedOperationException(
+                                    repositoryType.getSimpleName() + "." + method.getName() + " is not stubbed");
+                    }
+                });
+        return repositoryType.cast(stub);
+    }
+}
@@ -0,0 +1,61 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the closed-form last-EMI split against the full amortization loop
+ * that {@code LoanCalculationService.calculateLoan} used to run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnnuityMathBenchmark {
+
+    @Param({"5", "25", "35"})
+    private int tenureYears;
+
+    private double loanAmount;
+    private double monthlyRate;
+    private int totalPayments;
+
+    @Setup
+    public void setup() {
+        loanAmount = 800000.0;
+        monthlyRate = AnnuityMath.monthlyRate(4.5);
+        totalPayments = tenureYears * 12;
+    }
+
+    @Benchmark
+    public double lastEmiInterestLoop() {
+        double emi = AnnuityMath.payment(loanAmount, monthlyRate, totalPayments);
+        double remainingLoan = loanAmount;
+        double lastEmiInterest = 0;
+
+        for (int i = 0; i < totalPayments; i++) {
+            double monthlyInterest = remainingLoan * monthlyRate;
+            double monthlyPrincipal = emi - monthlyInterest;
+
+            if (i == totalPayments - 1) {
+                lastEmiInterest = monthlyInterest;
+            }
+
+            remainingLoan -= monthlyPrincipal;
+        }
+
+        return lastEmiInterest;
+    }
+
+    @Benchmark
+    public double lastEmiInterestClosedForm() {
+        return AnnuityMath.interestPortion(loanAmount, monthlyRate, totalPayments, totalPayments);
+    }
+}
@@ -0,0 +1,51 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of evaluating one prepayment strategy on a fixed-then-variable mortgage, by number
+ * of yearly prepayments alternating between reducing the tenure and reducing the EMI.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MortgageScheduleEngineBenchmark {
+
+    @Param({"0", "5", "24"})
+    private int prepayments;
+
+    private MortgageScheduleEngine engine;
+    private int[] prepaymentMonths;
+    private double[] prepaymentAmounts;
+    private MortgageScheduleEngine.PrepaymentMode[] modes;
+
+    @Setup
+    public void setup() {
+        engine = new MortgageScheduleEngine(1600000.0, 3.99, 25, new int[] {37, 61}, new double[] {5.75, 5.25}, 1.0, 10000.0);
+        prepaymentMonths = new int[prepayments];
+        prepaymentAmounts = new double[prepayments];
+        modes = new MortgageScheduleEngine.PrepaymentMode[prepayments];
+        for (int i = 0; i < prepayments; i++) {
+            prepaymentMonths[i] = 12 * (i + 1);
+            prepaymentAmounts[i] = 20000.0;
+            modes[i] = i % 2 == 0
+                    ? MortgageScheduleEngine.PrepaymentMode.REDUCE_TENURE
+                    : MortgageScheduleEngine.PrepaymentMode.REDUCE_EMI;
+        }
+    }
+
+    @Benchmark
+    public double evaluateStrategy() {
+        engine.evaluate(prepaymentMonths, prepaymentAmounts, modes);
+        return engine.getTotalInterest();
+    }
+}
@@ -0,0 +1,83 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass rent vs buy simulation against the break-even search that
+ * {@code RentVsBuyAnalysisService} used to run, which restarted the investment simulation
+ * from month zero for every candidate year (about 5,580 months instead of 360).
+ * With the lower rent buying never catches up, the old search's worst case; with the higher
+ * rent it catches up within the first year, its best case.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RentVsBuySimulationBenchmark {
+
+    private static final double PROPERTY_PRICE = 2000000.0;
+    private static final double DOWN_PAYMENT = 400000.0;
+    private static final double INTEREST_RATE = 4.5;
+    private static final int LOAN_TENURE_YEARS = 25;
+    private static final double APPRECIATION_RATE = 1.0;
+    private static final double ANNUAL_MAINTENANCE_COST = 15000.0;
+    private static final double ANNUAL_PROPERTY_TAX = 0.0;
+    private static final double RENT_INCREASE_RATE = 2.0;
+    private static final double INVESTMENT_RETURN_RATE = 8.0;
+
+    @Param({"6000", "12000"})
+    private double monthlyRent;
+
+    private double monthlyMortgagePayment;
+
+    @Setup
+    public void setup() {
+        monthlyMortgagePayment = AnnuityMath.payment(PROPERTY_PRICE - DOWN_PAYMENT,
+                AnnuityMath.monthlyRate(INTEREST_RATE), LOAN_TENURE_YEARS * 12);
+    }
+
+    @Benchmark
+    public double breakEvenYearlyRestart() {
+        double monthlyOwningCost = monthlyMortgagePayment + ANNUAL_MAINTENANCE_COST / 12 + ANNUAL_PROPERTY_TAX / 12;
+
+        for (int year = 1; year <= RentVsBuySimulation.MAX_YEARS; year++) {
+            double propertyValue = PROPERTY_PRICE * Math.pow(1 + APPRECIATION_RATE / 100, year);
+            double remainingMortgage = AnnuityMath.balanceAfter(PROPERTY_PRICE - DOWN_PAYMENT,
+                    AnnuityMath.monthlyRate(INVESTMENT_RETURN_RATE), 30 * 12, year * 12);
+
+            double investmentValue = DOWN_PAYMENT;
+            double rent = monthlyRent;
+            for (int month = 0; month < year * 12; month++) {
+                double monthlySavings = monthlyOwningCost - rent;
+                if (monthlySavings > 0) {
+                    investmentValue += monthlySavings;
+                }
+                investmentValue *= (1 + INVESTMENT_RETURN_RATE / 100 / 12);
+                if (month % 12 == 11) {
+                    rent *= (1 + RENT_INCREASE_RATE / 100);
+                }
+            }
+
+            if (propertyValue - remainingMortgage >= investmentValue) {
+                return year;
+            }
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+
+    @Benchmark
+    public double breakEvenSinglePass() {
+        return RentVsBuySimulation.run(PROPERTY_PRICE, DOWN_PAYMENT, INTEREST_RATE, LOAN_TENURE_YEARS,
+                APPRECIATION_RATE, ANNUAL_MAINTENANCE_COST, ANNUAL_PROPERTY_TAX, monthlyRent,
+                RENT_INCREASE_RATE, INVESTMENT_RETURN_RATE, RentVsBuySimulation.MAX_YEARS).breakEvenYears();
+    }
+}
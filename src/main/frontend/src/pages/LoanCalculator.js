@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useLocation, Link } from 'react-router-dom';
 import axios from 'axios';
+import fetchAllPages from '../utils/fetchAllPages';
 
 const LoanCalculator = () => {
   const location = useLocation();
@@ -23,8 +24,7 @@ const LoanCalculator = () => {
   useEffect(() => {
     const fetchProperties = async () => {
       try {
-        const response = await axios.get('/api/properties');
-        setProperties(response.data);
+        setProperties(await fetchAllPages('/api/properties'));
       } catch (err) {
         console.error('Error fetching properties:', err);
         setError('Failed to load properties. Please try again later.');
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link, useLocation, useNavigate } from 'react-router-dom';
 import axios from 'axios';
+import fetchAllPages from '../utils/fetchAllPages';
 
 const PropertyComparison = () => {
   const location = useLocation();
@@ -26,8 +27,7 @@ const PropertyComparison = () => {
   useEffect(() => {
     const fetchProperties = async () => {
       try {
-        const response = await axios.get('/api/properties');
-        setProperties(response.data);
+        setProperties(await fetchAllPages('/api/properties'));
       } catch (err) {
         console.error('Error fetching properties:', err);
         setError('Failed to load properties. Please try again later.');
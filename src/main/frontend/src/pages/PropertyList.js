@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import axios from 'axios';
+import fetchAllPages from '../utils/fetchAllPages';
 
 const PropertyList = () => {
   const [properties, setProperties] = useState([]);
@@ -21,8 +22,7 @@ const PropertyList = () => {
   const fetchProperties = async () => {
     try {
       setLoading(true);
-      const response = await axios.get('/api/properties');
-      setProperties(response.data);
+      setProperties(await fetchAllPages('/api/properties'));
       setError(null);
     } catch (err) {
       setError('Failed to fetch properties. Please try again later.');
@@ -44,7 +44,7 @@ const PropertyList = () => {
     e.preventDefault();
     try {
       setLoading(true);
-      let endpoint = '/api/properties';
+      let endpoint = null;
       
       if (filters.location) {
         endpoint = `/api/properties/search/location?location=${encodeURIComponent(filters.location)}`;
@@ -56,8 +56,13 @@ const PropertyList = () => {
         endpoint = `/api/properties/search/community?communityName=${encodeURIComponent(filters.communityName)}`;
       }
       
-      const response = await axios.get(endpoint);
-      setProperties(response.data);
+      // Without a filter the whole list is paged
+      if (endpoint) {
+        const response = await axios.get(endpoint);
+        setProperties(response.data);
+      } else {
+        setProperties(await fetchAllPages('/api/properties'));
+      }
       setError(null);
     } catch (err) {
       setError('Failed to apply filters. Please try again later.');
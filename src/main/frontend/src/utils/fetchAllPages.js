@@ -0,0 +1,26 @@
+import axios from 'axios';
+
+// Largest page the server returns; list endpoints cap the limit at this size
+const PAGE_SIZE = 500;
+
+// List endpoints return one page at a time and link the next one in the Link header
+const nextCursor = (linkHeader) => {
+  const match = /<([^>]*)>;\s*rel="next"/.exec(linkHeader || '');
+  return match ? new URL(match[1], window.location.origin).searchParams.get('cursor') : null;
+};
+
+// Fetch every page of a list endpoint, following the next cursor until the last page
+const fetchAllPages = async (url, params = {}) => {
+  const rows = [];
+  let cursor = null;
+  do {
+    const response = await axios.get(url, {
+      params: cursor ? { ...params, limit: PAGE_SIZE, cursor } : { ...params, limit: PAGE_SIZE }
+    });
+    rows.push(...response.data);
+    cursor = nextCursor(response.headers.link);
+  } while (cursor);
+  return rows;
+};
+
+export default fetchAllPages;
@@ -0,0 +1,90 @@
+package ae.smartdubai.iid.realestateapp.config;
+
+import ae.smartdubai.iid.realestateapp.util.PdfRenderContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the worker pools that render PDF reports and the fonts and images
+ * they share.
+ */
+@Configuration
+public class PdfReportConfig {
+
+    /**
+     * Creates the bounded pool PDF report jobs run on. Once all workers are busy and the queue
+     * is full, new jobs are rejected instead of piling up.
+     *
+     * @param workers the number of rendering threads
+     * @param queueCapacity the maximum number of jobs waiting for a worker
+     * @param meterRegistry the registry the pool and queue metrics are published to
+     * @return the PDF report pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor pdfReportExecutor(@Value("${pdf.jobs.workers:2}") int workers,
+                                                @Value("${pdf.jobs.queue-capacity:100}") int queueCapacity,
+                                                MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("pdf-report-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "pdfReports", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Creates the pool portfolio jobs render their reports on, in parallel across cores.
+     *
+     * @param parallelism the number of rendering threads, 0 for one per available processor
+     * @return the PDF render pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool pdfRenderPool(@Value("${pdf.render.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates the fonts, images and wrapped report sections shared by every PDF render.
+     *
+     * @param regularFont the TrueType file of the regular text font, empty for Helvetica
+     * @param boldFont the TrueType file of the bold font, empty for Helvetica Bold
+     * @param logo the location of the logo (an http(s) URL or a classpath: resource), empty for none
+     * @param imageHosts the hosts the logo and property photos may be fetched from, empty for none
+     * @param cacheEnabled whether fonts and images are kept between renders
+     * @param imageCacheSize the maximum size of the cached images
+     * @param imageCacheTtl how long an image is cached before it is fetched again
+     * @param sectionCacheSize the maximum number of cached report sections
+     * @return the PDF render context
+     */
+    @Bean
+    public PdfRenderContext pdfRenderContext(@Value("${pdf.fonts.regular:}") String regularFont,
+                                             @Value("${pdf.fonts.bold:}") String boldFont,
+                                             @Value("${pdf.logo:}") String logo,
+                                             @Value("${pdf.images.allowed-hosts:}") Set<String> imageHosts,
+                                             @Value("${pdf.render.cache.enabled:true}") boolean cacheEnabled,
+                                             @Value("${pdf.render.cache.image-size:64MB}") DataSize imageCacheSize,
+                                             @Value("${pdf.render.cache.ttl:1h}") Duration imageCacheTtl,
+                                             @Value("${pdf.render.cache.sections:10000}") long sectionCacheSize) {
+        return new PdfRenderContext(
+                StringUtils.hasText(regularFont) ? Paths.get(regularFont) : null,
+                StringUtils.hasText(boldFont) ? Paths.get(boldFont) : null,
+                StringUtils.hasText(logo) ? logo : null,
+                imageHosts,
+                cacheEnabled, imageCacheSize.toBytes(), imageCacheTtl, sectionCacheSize);
+    }
+}
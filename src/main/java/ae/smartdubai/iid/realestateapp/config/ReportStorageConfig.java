@@ -0,0 +1,53 @@
+package ae.smartdubai.iid.realestateapp.config;
+
+import ae.smartdubai.iid.realestateapp.service.LocalReportStorage;
+import ae.smartdubai.iid.realestateapp.service.ReportStorage;
+import ae.smartdubai.iid.realestateapp.service.S3ReportStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+/**
+ * Configuration class for where generated report files are stored, selected with
+ * {@code report.storage.type}: a local directory (the default) or an S3-compatible bucket,
+ * which every node of a cluster can share.
+ */
+@Configuration
+public class ReportStorageConfig {
+
+    /**
+     * Creates the storage in a local directory.
+     *
+     * @param directory the root directory of the stored reports
+     * @return the local report storage
+     */
+    @Bean
+    @ConditionalOnProperty(name = "report.storage.type", havingValue = "local", matchIfMissing = true)
+    public ReportStorage localReportStorage(@Value("${report.storage.local.directory:pdf-reports}") String directory) {
+        return new LocalReportStorage(Paths.get(directory));
+    }
+
+    /**
+     * Creates the storage in an S3-compatible bucket.
+     *
+     * @param endpoint the base URL of the object store
+     * @param bucket the bucket name
+     * @param region the region requests are signed for
+     * @param accessKey the access key id
+     * @param secretKey the secret access key
+     * @return the S3 report storage
+     */
+    @Bean
+    @ConditionalOnProperty(name = "report.storage.type", havingValue = "s3")
+    public ReportStorage s3ReportStorage(@Value("${report.storage.s3.endpoint}") URI endpoint,
+                                         @Value("${report.storage.s3.bucket}") String bucket,
+                                         @Value("${report.storage.s3.region:us-east-1}") String region,
+                                         @Value("${report.storage.s3.access-key}") String accessKey,
+                                         @Value("${report.storage.s3.secret-key}") String secretKey) {
+        return new S3ReportStorage(endpoint, bucket, region, accessKey, secretKey);
+    }
+}
@@ -0,0 +1,74 @@
+package ae.smartdubai.iid.realestateapp.config;
+
+import ae.smartdubai.iid.realestateapp.service.LoggingShareTransport;
+import ae.smartdubai.iid.realestateapp.service.MailShareTransport;
+import ae.smartdubai.iid.realestateapp.service.ReportStorage;
+import ae.smartdubai.iid.realestateapp.service.ShareTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for delivering shared reports: the scheduled outbox dispatcher, the pool
+ * it delivers on and the transport, selected with {@code report.share.transport}: log (the
+ * default) or mail, which sends over the SMTP server configured with {@code spring.mail.*}.
+ */
+@Configuration
+@EnableScheduling
+public class ShareOutboxConfig {
+
+    /**
+     * Creates the pool shares are delivered on. Its size is the maximum number of deliveries
+     * running at once; the queue holds at most one claimed batch.
+     *
+     * @param concurrency the number of delivery threads
+     * @param meterRegistry the registry the pool metrics are published to
+     * @return the share dispatch pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shareDispatchExecutor(@Value("${report.share.concurrency:4}") int concurrency,
+                                                 MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("share-dispatch-"));
+        new ExecutorServiceMetrics(executor, "shareDispatch", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Creates the transport that only logs shares.
+     *
+     * @return the logging share transport
+     */
+    @Bean
+    @ConditionalOnProperty(name = "report.share.transport", havingValue = "log", matchIfMissing = true)
+    public ShareTransport loggingShareTransport() {
+        return new LoggingShareTransport();
+    }
+
+    /**
+     * Creates the transport that emails shared reports.
+     *
+     * @param mailSender the SMTP client
+     * @param reportStorage the storage the report files are read from
+     * @param from the sender address
+     * @return the mail share transport
+     */
+    @Bean
+    @ConditionalOnProperty(name = "report.share.transport", havingValue = "mail")
+    public ShareTransport mailShareTransport(JavaMailSender mailSender, ReportStorage reportStorage,
+                                             @Value("${report.share.mail.from}") String from) {
+        return new MailShareTransport(mailSender, reportStorage, from);
+    }
+}
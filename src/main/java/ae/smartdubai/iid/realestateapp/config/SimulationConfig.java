@@ -0,0 +1,29 @@
+package ae.smartdubai.iid.realestateapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Configuration class for the thread pool that runs in-memory simulations.
+ */
+@Configuration
+public class SimulationConfig {
+
+    /**
+     * Creates the fork-join pool shared by the Monte Carlo and sensitivity grid simulations.
+     * It is kept apart from the common pool so long simulations cannot starve parallel streams,
+     * and is the default fork-join pool for injection.
+     *
+     * @param parallelism the number of worker threads, 0 for one per available processor
+     * @return the simulation pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public ForkJoinPool simulationPool(@Value("${simulation.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
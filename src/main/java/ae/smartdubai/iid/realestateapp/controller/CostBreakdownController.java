@@ -1,11 +1,17 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.CostBreakdownSummary;
 import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
+import ae.smartdubai.iid.realestateapp.service.CalculationExportService;
 import ae.smartdubai.iid.realestateapp.service.CostBreakdownService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -14,20 +20,46 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/cost-breakdowns")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class CostBreakdownController {
 
     private final CostBreakdownService costBreakdownService;
+    private final CalculationExportService calculationExportService;
 
     /**
-     * GET /api/cost-breakdowns : Get all cost breakdowns.
+     * GET /api/cost-breakdowns : Get a page of cost breakdowns, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of cost breakdowns in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @param from only cost breakdowns with this calculation date or later
+     * @param to only cost breakdowns with this calculation date or earlier
+     * @return the ResponseEntity with status 200 (OK), the page of cost breakdowns in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<CostBreakdown>> getAllCostBreakdowns() {
-        List<CostBreakdown> costBreakdowns = costBreakdownService.getAllCostBreakdowns();
-        return ResponseEntity.ok(costBreakdowns);
+    public ResponseEntity<List<CostBreakdownSummary>> getAllCostBreakdowns(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPages.limit(limit);
+        List<CostBreakdownSummary> costBreakdowns = costBreakdownService.getCostBreakdownPage(
+                KeysetPages.afterId(cursor), from, to, pageSize + 1);
+        return KeysetPages.respond(costBreakdowns, pageSize, CostBreakdownSummary::getId);
+    }
+
+    /**
+     * GET /api/cost-breakdowns/export : Export all cost breakdowns, in ID order, as NDJSON or CSV.
+     * Rows are streamed as they are read, with the IDs of their properties instead of the properties.
+     *
+     * @param format the output format, ndjson (default) or csv
+     * @return the ResponseEntity with status 200 (OK) and the streamed cost breakdowns in body,
+     * or with status 400 (Bad Request) for an unknown format
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCostBreakdowns(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return Exports.stream(format, "cost-breakdowns", calculationExportService::exportCostBreakdowns);
     }
 
     /**
@@ -64,6 +96,7 @@ public class CostBreakdownController {
      * @param maintenanceDeposit the maintenance deposit (0 if not applicable)
      * @param utilityConnectionFees the utility connection fees
      * @param movingCosts the moving costs
+     * @param preview whether to return the result without saving it
      * @return the ResponseEntity with status 200 (OK) and with body the calculated cost breakdown
      */
     @PostMapping("/calculate")
@@ -73,10 +106,14 @@ public class CostBreakdownController {
             @RequestParam(defaultValue = "0") Double lifeInsuranceCost,
             @RequestParam(defaultValue = "0") Double maintenanceDeposit,
             @RequestParam(defaultValue = "0") Double utilityConnectionFees,
-            @RequestParam(defaultValue = "0") Double movingCosts) {
+            @RequestParam(defaultValue = "0") Double movingCosts,
+            @RequestParam(defaultValue = "false") Boolean preview) {
         
-        CostBreakdown costBreakdown = costBreakdownService.calculateCostBreakdown(
-                propertyId, mortgageAmount, lifeInsuranceCost, maintenanceDeposit, utilityConnectionFees, movingCosts);
+        CostBreakdown costBreakdown = preview
+                ? costBreakdownService.previewCostBreakdown(
+                        propertyId, mortgageAmount, lifeInsuranceCost, maintenanceDeposit, utilityConnectionFees, movingCosts)
+                : costBreakdownService.calculateCostBreakdown(
+                        propertyId, mortgageAmount, lifeInsuranceCost, maintenanceDeposit, utilityConnectionFees, movingCosts);
         
         return ResponseEntity.ok(costBreakdown);
     }
@@ -1,11 +1,15 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.DocumentChecklistSummary;
 import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
 import ae.smartdubai.iid.realestateapp.service.DocumentChecklistService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -14,20 +18,31 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/document-checklists")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class DocumentChecklistController {
 
     private final DocumentChecklistService documentChecklistService;
 
     /**
-     * GET /api/document-checklists : Get all document checklists.
+     * GET /api/document-checklists : Get a page of document checklists, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of document checklists in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @param from only document checklists with this creation date or later
+     * @param to only document checklists with this creation date or earlier
+     * @return the ResponseEntity with status 200 (OK), the page of document checklists in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<DocumentChecklist>> getAllDocumentChecklists() {
-        List<DocumentChecklist> documentChecklists = documentChecklistService.getAllDocumentChecklists();
-        return ResponseEntity.ok(documentChecklists);
+    public ResponseEntity<List<DocumentChecklistSummary>> getAllDocumentChecklists(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPages.limit(limit);
+        List<DocumentChecklistSummary> documentChecklists = documentChecklistService.getDocumentChecklistPage(
+                KeysetPages.afterId(cursor), from, to, pageSize + 1);
+        return KeysetPages.respond(documentChecklists, pageSize, DocumentChecklistSummary::getId);
     }
 
     /**
@@ -0,0 +1,64 @@
+package ae.smartdubai.iid.realestateapp.controller;
+
+import ae.smartdubai.iid.realestateapp.util.RecordWriter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streamed NDJSON and CSV downloads for the export endpoints.
+ */
+final class Exports {
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private Exports() {
+    }
+
+    /**
+     * Writes an export in the given format.
+     */
+    interface Export {
+        void writeTo(RecordWriter.Format format, Writer writer) throws IOException;
+    }
+
+    /**
+     * Build the response for an export. The rows are written while the response is sent, so
+     * the download starts right away and nothing is held in memory.
+     *
+     * @param format the requested format, ndjson or csv
+     * @param name the file name of the download, without extension
+     * @param export writes the rows
+     * @return the ResponseEntity with status 200 (OK) and the streamed rows in body,
+     * or with status 400 (Bad Request) if the format is unknown
+     */
+    static ResponseEntity<StreamingResponseBody> stream(String format, String name, Export export) {
+        RecordWriter.Format exportFormat = RecordWriter.Format.parse(format);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            export.writeTo(exportFormat, writer);
+            writer.flush();
+        };
+
+        boolean csv = exportFormat == RecordWriter.Format.CSV;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + (csv ? ".csv" : ".ndjson"))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
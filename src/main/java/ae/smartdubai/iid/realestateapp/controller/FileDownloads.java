@@ -0,0 +1,181 @@
+package ae.smartdubai.iid.realestateapp.controller;
+
+import ae.smartdubai.iid.realestateapp.service.ReportStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves stored report files with validators, conditional GET and byte ranges, without
+ * holding them in the heap.
+ * <p>
+ * Every response carries an ETag and Last-Modified, and a matching If-None-Match or
+ * If-Modified-Since gets a 304. A single byte range (honouring If-Range) gets a 206;
+ * several ranges are answered with the whole file, which HTTP allows. Files on the local
+ * disk are handed to Tomcat's sendfile support, so they go from the page cache to the
+ * socket without entering the JVM, or are written with {@link FileChannel#transferTo};
+ * files in remote storage are streamed through a small buffer.
+ */
+final class FileDownloads {
+
+    // Tomcat request attributes for sendfile, as used by its DefaultServlet
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileDownloads() {
+    }
+
+    /**
+     * Write a stored file, or the requested range of it, as an attachment, or a 404 if it
+     * does not exist.
+     *
+     * @param storage the storage holding the file
+     * @param key the storage key of the file, also used as its download name
+     * @param eTag the strong ETag of the content, quoted, or null to derive one from the file size and time
+     * @param contentType the content type
+     * @param request the request
+     * @param response the response
+     * @throws IOException if the file cannot be read or the response cannot be written
+     */
+    static void serve(ReportStorage storage, String key, String eTag, MediaType contentType,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ReportStorage.StoredObject> stored = storage.stat(key);
+        if (stored.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = stored.get().getSize();
+        long lastModified = stored.get().getLastModified().toEpochMilli();
+        String tag = eTag != null ? eTag : "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, tag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets 304 (or 412 for failed preconditions) when the client's copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(tag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(contentType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(key).build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, tag, lastModified);
+        if (range != null) {
+            start = range.getRangeStart(length);
+            end = Math.min(range.getRangeEnd(length), length - 1);
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        Optional<Path> file = storage.localPath(key);
+        if (file.isEmpty()) {
+            try (InputStream inputStream = storage.open(key, start, count)) {
+                inputStream.transferTo(response.getOutputStream());
+            }
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the body with sendfile once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.get(), StandardOpenOption.READ)) {
+            transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * Copy part of a file to a channel with {@link FileChannel#transferTo}, which the OS
+     * performs without a user-space copy when the target is a socket or a file.
+     *
+     * @param source the file
+     * @param position the first byte to copy
+     * @param count the number of bytes to copy
+     * @param target the channel to copy to
+     * @return the number of bytes copied
+     * @throws IOException if the file ends early or the target cannot be written
+     */
+    static long transfer(FileChannel source, long position, long count, WritableByteChannel target) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            long written = source.transferTo(position + transferred, count - transferred, target);
+            if (written <= 0) {
+                throw new EOFException("File ended after " + (position + transferred) + " bytes");
+            }
+            transferred += written;
+        }
+        return transferred;
+    }
+
+    /**
+     * The single byte range to serve, or null to serve the whole file: when there is no
+     * valid Range header, when it asks for several ranges, or when If-Range no longer matches.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String tag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(request, tag, lastModified)) {
+            return null;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // A malformed Range header is ignored
+            return null;
+        }
+        return ranges.size() == 1 ? ranges.get(0) : null;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String tag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range requires a strong comparison, which a weak tag never passes
+            return ifRange.equals(tag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
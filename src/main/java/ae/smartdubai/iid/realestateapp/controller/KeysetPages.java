@@ -0,0 +1,112 @@
+package ae.smartdubai.iid.realestateapp.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination for the collection endpoints.
+ * <p>
+ * Pages are in ID order and continue after the last ID of the previous page, so an unfiltered
+ * page is an index range scan of the same cost however deep it is, and rows inserted meanwhile
+ * neither shift nor repeat rows on later pages. A page filtered by a date range is not constant
+ * time: it reads the rows of the range from the date index and sorts them by ID, so its cost
+ * grows with the number of rows in the range, though not with the rows outside it. The body stays a plain JSON array; when
+ * there is a next page its URL, carrying an opaque cursor, is sent in a
+ * {@code Link: <...>; rel="next"} header. The page size is capped by the server.
+ */
+final class KeysetPages {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetPages() {
+    }
+
+    /**
+     * Get the ID a page continues after.
+     *
+     * @param cursor the cursor from the previous page, or null for the first page
+     * @return the last ID of the previous page, or 0 for the first page
+     * @throws ResponseStatusException with status 400 (Bad Request) if the cursor is not valid
+     */
+    static long afterId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                long id = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+                if (id >= 0) {
+                    return id;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64 or not a number, rejected below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    /**
+     * Get the page size, capped at {@link #MAX_LIMIT}.
+     *
+     * @param limit the requested page size, or null for {@link #DEFAULT_LIMIT}
+     * @return the page size
+     * @throws ResponseStatusException with status 400 (Bad Request) if the limit is not positive
+     */
+    static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Build the response for a page. The rows must have been fetched with one row more than the
+     * page size; that row only tells whether there is a next page and is not returned.
+     *
+     * @param rows the rows in ID order, at most limit + 1
+     * @param limit the page size
+     * @param id extracts the ID of a row
+     * @param <T> the row type
+     * @return the ResponseEntity with status 200 (OK), the page in body and the next page in the Link header
+     */
+    static <T> ResponseEntity<List<T>> respond(List<T> rows, int limit, Function<T, Long> id) {
+        if (rows.size() <= limit) {
+            return ResponseEntity.ok(rows);
+        }
+        List<T> page = rows.subList(0, limit);
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", cursor(id.apply(page.get(limit - 1))))
+                .replaceQueryParam("limit", limit)
+                .build()
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page);
+    }
+
+    /**
+     * Get the cursor of the page after the given ID.
+     *
+     * @param lastId the last ID of a page
+     * @return the opaque cursor
+     */
+    static String cursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,11 +1,30 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.LoanCalculationSummary;
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchRequest;
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchResult;
+import ae.smartdubai.iid.realestateapp.dto.LoanStrategyRanking;
+import ae.smartdubai.iid.realestateapp.dto.LoanStrategyRequest;
 import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import ae.smartdubai.iid.realestateapp.service.CalculationExportService;
 import ae.smartdubai.iid.realestateapp.service.LoanCalculationService;
+import ae.smartdubai.iid.realestateapp.service.LoanQuoteBatchService;
+import ae.smartdubai.iid.realestateapp.service.LoanStrategyService;
+import ae.smartdubai.iid.realestateapp.util.AmortizationScheduleWriter;
+import ae.smartdubai.iid.realestateapp.util.RecordWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -14,20 +33,48 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/loan-calculations")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class LoanCalculationController {
 
     private final LoanCalculationService loanCalculationService;
+    private final LoanQuoteBatchService loanQuoteBatchService;
+    private final LoanStrategyService loanStrategyService;
+    private final CalculationExportService calculationExportService;
 
     /**
-     * GET /api/loan-calculations : Get all loan calculations.
+     * GET /api/loan-calculations : Get a page of loan calculations, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of loan calculations in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @param from only loan calculations with this calculation date or later
+     * @param to only loan calculations with this calculation date or earlier
+     * @return the ResponseEntity with status 200 (OK), the page of loan calculations in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<LoanCalculation>> getAllLoanCalculations() {
-        List<LoanCalculation> loanCalculations = loanCalculationService.getAllLoanCalculations();
-        return ResponseEntity.ok(loanCalculations);
+    public ResponseEntity<List<LoanCalculationSummary>> getAllLoanCalculations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPages.limit(limit);
+        List<LoanCalculationSummary> loanCalculations = loanCalculationService.getLoanCalculationPage(
+                KeysetPages.afterId(cursor), from, to, pageSize + 1);
+        return KeysetPages.respond(loanCalculations, pageSize, LoanCalculationSummary::getId);
+    }
+
+    /**
+     * GET /api/loan-calculations/export : Export all loan calculations, in ID order, as NDJSON or CSV.
+     * Rows are streamed as they are read, with the IDs of their properties instead of the properties.
+     *
+     * @param format the output format, ndjson (default) or csv
+     * @return the ResponseEntity with status 200 (OK) and the streamed loan calculations in body,
+     * or with status 400 (Bad Request) for an unknown format
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLoanCalculations(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return Exports.stream(format, "loan-calculations", calculationExportService::exportLoanCalculations);
     }
 
     /**
@@ -43,6 +90,48 @@ public class LoanCalculationController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * GET /api/loan-calculations/:id/schedule : Stream the full amortization schedule of the "id" loan calculation.
+     *
+     * @param id the id of the loan calculation
+     * @param format the output format, either ndjson or csv
+     * @return the ResponseEntity with status 200 (OK) and the streamed schedule in body, with status 400 (Bad Request)
+     * for an unknown format, or with status 404 (Not Found)
+     */
+    @GetMapping("/{id}/schedule")
+    public ResponseEntity<StreamingResponseBody> getAmortizationSchedule(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        RecordWriter.Format scheduleFormat = RecordWriter.Format.parse(format);
+        if (scheduleFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return loanCalculationService.getLoanCalculationById(id)
+                .map(loanCalculation -> {
+                    // Capture primitives only, so the entity is not retained while the response streams
+                    double loanAmount = loanCalculation.getLoanAmount();
+                    double interestRate = loanCalculation.getInterestRate();
+                    int totalPayments = loanCalculation.getTenureYears() * 12;
+
+                    StreamingResponseBody body = outputStream -> {
+                        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                        AmortizationScheduleWriter.write(loanAmount, interestRate, totalPayments, scheduleFormat, writer);
+                        writer.flush();
+                    };
+
+                    MediaType mediaType = scheduleFormat == RecordWriter.Format.CSV
+                            ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                            : MediaType.APPLICATION_NDJSON;
+
+                    return ResponseEntity.ok()
+                            .contentType(mediaType)
+                            .body(body);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * GET /api/loan-calculations/property/:propertyId : Get loan calculations by property.
      *
@@ -62,6 +151,7 @@ public class LoanCalculationController {
      * @param downPayment the down payment amount
      * @param interestRate the annual interest rate (in percentage)
      * @param tenureYears the loan tenure in years
+     * @param preview whether to return the result without saving it
      * @return the ResponseEntity with status 200 (OK) and with body the calculated loan calculation
      */
     @PostMapping("/calculate")
@@ -69,14 +159,40 @@ public class LoanCalculationController {
             @RequestParam Long propertyId,
             @RequestParam Double downPayment,
             @RequestParam Double interestRate,
-            @RequestParam Integer tenureYears) {
+            @RequestParam Integer tenureYears,
+            @RequestParam(defaultValue = "false") Boolean preview) {
         
-        LoanCalculation loanCalculation = loanCalculationService.calculateLoan(
-                propertyId, downPayment, interestRate, tenureYears);
+        LoanCalculation loanCalculation = preview
+                ? loanCalculationService.previewLoan(propertyId, downPayment, interestRate, tenureYears)
+                : loanCalculationService.calculateLoan(propertyId, downPayment, interestRate, tenureYears);
         
         return ResponseEntity.ok(loanCalculation);
     }
 
+    /**
+     * POST /api/loan-calculations/batch : Quote many loan scenarios for one property.
+     *
+     * @param request the property, the scenario columns and whether to persist the results
+     * @return the ResponseEntity with status 200 (OK) and with body the column-wise quote results
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<LoanQuoteBatchResult> quoteLoans(@RequestBody LoanQuoteBatchRequest request) {
+        LoanQuoteBatchResult result = loanQuoteBatchService.quoteLoans(request);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * POST /api/loan-calculations/strategies : Rank prepayment strategies for a loan with rate steps by total interest saved.
+     *
+     * @param request the loan, its rate steps, the early settlement fee and the strategies to compare
+     * @return the ResponseEntity with status 200 (OK) and with body the strategies, best first
+     */
+    @PostMapping("/strategies")
+    public ResponseEntity<LoanStrategyRanking> rankStrategies(@RequestBody LoanStrategyRequest request) {
+        LoanStrategyRanking ranking = loanStrategyService.rankStrategies(request);
+        return ResponseEntity.ok(ranking);
+    }
+
     /**
      * DELETE /api/loan-calculations/:id : Delete the "id" loan calculation.
      *
@@ -1,17 +1,30 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.PdfReportJob;
+import ae.smartdubai.iid.realestateapp.dto.PdfReportSummary;
+import ae.smartdubai.iid.realestateapp.dto.PortfolioReportJob;
+import ae.smartdubai.iid.realestateapp.dto.PortfolioReportRequest;
 import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.service.PdfReportJobService;
 import ae.smartdubai.iid.realestateapp.service.PdfReportService;
+import ae.smartdubai.iid.realestateapp.service.PortfolioReportJobService;
+import ae.smartdubai.iid.realestateapp.service.ReportStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST controller for managing PDF reports.
@@ -19,20 +32,34 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/pdf-reports")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class PdfReportController {
 
     private final PdfReportService pdfReportService;
+    private final PdfReportJobService pdfReportJobService;
+    private final PortfolioReportJobService portfolioReportJobService;
+    private final ReportStorage reportStorage;
 
     /**
-     * GET /api/pdf-reports : Get all PDF reports.
+     * GET /api/pdf-reports : Get a page of PDF reports, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of PDF reports in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @param from only PDF reports with this generation date or later
+     * @param to only PDF reports with this generation date or earlier
+     * @return the ResponseEntity with status 200 (OK), the page of PDF reports in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<PdfReport>> getAllPdfReports() {
-        List<PdfReport> pdfReports = pdfReportService.getAllPdfReports();
-        return ResponseEntity.ok(pdfReports);
+    public ResponseEntity<List<PdfReportSummary>> getAllPdfReports(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPages.limit(limit);
+        List<PdfReportSummary> pdfReports = pdfReportService.getPdfReportPage(
+                KeysetPages.afterId(cursor), from, to, pageSize + 1);
+        return KeysetPages.respond(pdfReports, pageSize, PdfReportSummary::getId);
     }
 
     /**
@@ -62,27 +89,43 @@ public class PdfReportController {
 
     /**
      * GET /api/pdf-reports/:id/download : Download the PDF file for the "id" PDF report.
+     * Supports conditional GET with the ETag (the report's content hash) or Last-Modified, and single byte ranges.
      *
      * @param id the id of the PDF report
-     * @return the ResponseEntity with status 200 (OK) and with body the PDF file, or with status 404 (Not Found)
+     * @param request the request
+     * @param response the response, with status 200 (OK) and the PDF file, 206 (Partial Content) and the
+     * requested range, 304 (Not Modified), 416 (Range Not Satisfiable), or 404 (Not Found)
+     * @throws IOException if the file cannot be read or written
      */
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadPdfReport(@PathVariable Long id) {
-        return pdfReportService.getPdfReportById(id)
-                .map(pdfReport -> {
-                    File file = new File(pdfReport.getFilePath());
-                    Resource resource = new FileSystemResource(file);
-                    
-                    return ResponseEntity.ok()
-                            .contentType(MediaType.APPLICATION_PDF)
-                            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-                            .body(resource);
-                })
+    public void downloadPdfReport(@PathVariable Long id, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        Optional<PdfReport> pdfReport = pdfReportService.getPdfReportById(id);
+        if (pdfReport.isEmpty() || pdfReport.get().getFilePath() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        String contentHash = pdfReport.get().getContentHash();
+        FileDownloads.serve(reportStorage, pdfReport.get().getFilePath(),
+                contentHash != null ? "\"" + contentHash + "\"" : null, MediaType.APPLICATION_PDF, request, response);
+    }
+
+    /**
+     * GET /api/pdf-reports/jobs/:jobId : Get the state of the "jobId" PDF report generation job.
+     *
+     * @param jobId the id of the job
+     * @return the ResponseEntity with status 200 (OK) and with body the job, or with status 404 (Not Found)
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<PdfReportJob> getPdfReportJob(@PathVariable String jobId) {
+        return pdfReportJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * POST /api/pdf-reports/generate : Generate a PDF report for a property with various calculations.
+     * POST /api/pdf-reports/generate : Queue the generation of a PDF report for a property with various calculations.
      *
      * @param propertyId the property ID
      * @param title the report title
@@ -96,10 +139,12 @@ public class PdfReportController {
      * @param documentChecklistId the document checklist ID (if including document checklist)
      * @param includeServiceChargeEstimate whether to include service charge estimate
      * @param serviceChargeEstimateId the service charge estimate ID (if including service charge estimate)
-     * @return the ResponseEntity with status 200 (OK) and with body the generated PDF report
+     * @return the ResponseEntity with status 202 (Accepted) and with body the queued job, with status
+     * 400 (Bad Request) if an included component belongs to another property, or with status
+     * 503 (Service Unavailable) if the job queue is full
      */
     @PostMapping("/generate")
-    public ResponseEntity<PdfReport> generatePdfReport(
+    public ResponseEntity<PdfReportJob> generatePdfReport(
             @RequestParam Long propertyId,
             @RequestParam String title,
             @RequestParam(defaultValue = "false") Boolean includeCostBreakdown,
@@ -113,12 +158,111 @@ public class PdfReportController {
             @RequestParam(defaultValue = "false") Boolean includeServiceChargeEstimate,
             @RequestParam(required = false) Long serviceChargeEstimateId) {
         
-        PdfReport pdfReport = pdfReportService.generatePdfReport(
-                propertyId, title, includeCostBreakdown, costBreakdownId,
-                includeLoanCalculation, loanCalculationId, includePropertyComparison, propertyComparisonId,
-                includeDocumentChecklist, documentChecklistId, includeServiceChargeEstimate, serviceChargeEstimateId);
+        PdfReportJob job;
+        try {
+            job = pdfReportJobService.submitPdfReport(
+                    propertyId, title, includeCostBreakdown, costBreakdownId,
+                    includeLoanCalculation, loanCalculationId, includePropertyComparison, propertyComparisonId,
+                    includeDocumentChecklist, documentChecklistId, includeServiceChargeEstimate, serviceChargeEstimateId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            // Backpressure: ask the client to come back instead of queueing without bound
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
         
-        return ResponseEntity.ok(pdfReport);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/pdf-reports/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * POST /api/pdf-reports/portfolio-jobs : Queue a portfolio report job, rendering one report per property into a ZIP.
+     *
+     * @param request the properties and the components to include
+     * @return the ResponseEntity with status 202 (Accepted) and with body the queued job, with status
+     * 400 (Bad Request) if the property IDs are invalid, or with status 503 (Service Unavailable) if the
+     * job queue is full
+     */
+    @PostMapping("/portfolio-jobs")
+    public ResponseEntity<PortfolioReportJob> generatePortfolioReport(@RequestBody PortfolioReportRequest request) {
+        PortfolioReportJob job;
+        try {
+            job = portfolioReportJobService.submitPortfolioReport(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/pdf-reports/portfolio-jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * GET /api/pdf-reports/portfolio-jobs/:jobId : Get the state and progress of the "jobId" portfolio report job.
+     *
+     * @param jobId the id of the job
+     * @return the ResponseEntity with status 200 (OK) and with body the job, or with status 404 (Not Found)
+     */
+    @GetMapping("/portfolio-jobs/{jobId}")
+    public ResponseEntity<PortfolioReportJob> getPortfolioReportJob(@PathVariable String jobId) {
+        return portfolioReportJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/pdf-reports/portfolio-jobs/:jobId/download : Download the ZIP of the "jobId" portfolio report job.
+     * Supports conditional GET and single byte ranges.
+     *
+     * @param jobId the id of the job
+     * @param request the request
+     * @param response the response, with status 200 (OK) and the ZIP file, 206 (Partial Content) and the
+     * requested range, 304 (Not Modified), 416 (Range Not Satisfiable), or 404 (Not Found) if the job is
+     * unknown or has not completed
+     * @throws IOException if the file cannot be read or written
+     */
+    @GetMapping("/portfolio-jobs/{jobId}/download")
+    public void downloadPortfolioReport(@PathVariable String jobId, HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        Optional<String> archive = portfolioReportJobService.getArchive(jobId);
+        if (archive.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        FileDownloads.serve(reportStorage, archive.get(), null, MediaType.parseMediaType("application/zip"),
+                request, response);
+    }
+
+    /**
+     * POST /api/pdf-reports/:id/regenerate : Queue the regeneration of the "id" PDF report with the current
+     * data of its property, e.g. once the property changed and the report was marked stale.
+     *
+     * @param id the id of the PDF report
+     * @return the ResponseEntity with status 202 (Accepted) and with body the queued job, or with status
+     * 503 (Service Unavailable) if the job queue is full
+     */
+    @PostMapping("/{id}/regenerate")
+    public ResponseEntity<PdfReportJob> regeneratePdfReport(@PathVariable Long id) {
+        PdfReportJob job;
+        try {
+            job = pdfReportJobService.submitRegeneration(id);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/pdf-reports/jobs/" + job.getJobId()))
+                .body(job);
     }
 
     /**
@@ -1,11 +1,17 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertyComparisonSummary;
 import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import ae.smartdubai.iid.realestateapp.service.CalculationExportService;
 import ae.smartdubai.iid.realestateapp.service.PropertyComparisonService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -14,20 +20,46 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/property-comparisons")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class PropertyComparisonController {
 
     private final PropertyComparisonService propertyComparisonService;
+    private final CalculationExportService calculationExportService;
 
     /**
-     * GET /api/property-comparisons : Get all property comparisons.
+     * GET /api/property-comparisons : Get a page of property comparisons, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of property comparisons in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @param from only property comparisons with this comparison date or later
+     * @param to only property comparisons with this comparison date or earlier
+     * @return the ResponseEntity with status 200 (OK), the page of property comparisons in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<PropertyComparison>> getAllPropertyComparisons() {
-        List<PropertyComparison> propertyComparisons = propertyComparisonService.getAllPropertyComparisons();
-        return ResponseEntity.ok(propertyComparisons);
+    public ResponseEntity<List<PropertyComparisonSummary>> getAllPropertyComparisons(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPages.limit(limit);
+        List<PropertyComparisonSummary> propertyComparisons = propertyComparisonService.getPropertyComparisonPage(
+                KeysetPages.afterId(cursor), from, to, pageSize + 1);
+        return KeysetPages.respond(propertyComparisons, pageSize, PropertyComparisonSummary::getId);
+    }
+
+    /**
+     * GET /api/property-comparisons/export : Export all property comparisons, in ID order, as NDJSON or CSV.
+     * Rows are streamed as they are read, with the IDs of their properties instead of the properties.
+     *
+     * @param format the output format, ndjson (default) or csv
+     * @return the ResponseEntity with status 200 (OK) and the streamed property comparisons in body,
+     * or with status 400 (Bad Request) for an unknown format
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPropertyComparisons(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return Exports.stream(format, "property-comparisons", calculationExportService::exportPropertyComparisons);
     }
 
     /**
@@ -62,6 +94,7 @@ public class PropertyComparisonController {
      * @param property2Id the second property ID
      * @param propertyAppreciationRate the expected annual property appreciation rate (in percentage)
      * @param holdingPeriodYears the expected holding period in years
+     * @param preview whether to return the result without saving it
      * @return the ResponseEntity with status 200 (OK) and with body the property comparison
      */
     @PostMapping("/compare-properties")
@@ -69,10 +102,14 @@ public class PropertyComparisonController {
             @RequestParam Long property1Id,
             @RequestParam Long property2Id,
             @RequestParam Double propertyAppreciationRate,
-            @RequestParam Integer holdingPeriodYears) {
+            @RequestParam Integer holdingPeriodYears,
+            @RequestParam(defaultValue = "false") Boolean preview) {
         
-        PropertyComparison comparison = propertyComparisonService.compareProperties(
-                property1Id, property2Id, propertyAppreciationRate, holdingPeriodYears);
+        PropertyComparison comparison = preview
+                ? propertyComparisonService.previewCompareProperties(
+                        property1Id, property2Id, propertyAppreciationRate, holdingPeriodYears)
+                : propertyComparisonService.compareProperties(
+                        property1Id, property2Id, propertyAppreciationRate, holdingPeriodYears);
         
         return ResponseEntity.ok(comparison);
     }
@@ -86,6 +123,7 @@ public class PropertyComparisonController {
      * @param investmentReturnRate the investment return rate for opportunity cost calculation
      * @param propertyAppreciationRate the expected annual property appreciation rate
      * @param holdingPeriodYears the expected holding period in years
+     * @param preview whether to return the result without saving it
      * @return the ResponseEntity with status 200 (OK) and with body the property comparison
      */
     @PostMapping("/compare-rent-vs-buy")
@@ -95,11 +133,16 @@ public class PropertyComparisonController {
             @RequestParam Double annualRentIncrease,
             @RequestParam Double investmentReturnRate,
             @RequestParam Double propertyAppreciationRate,
-            @RequestParam Integer holdingPeriodYears) {
+            @RequestParam Integer holdingPeriodYears,
+            @RequestParam(defaultValue = "false") Boolean preview) {
         
-        PropertyComparison comparison = propertyComparisonService.compareRentVsBuy(
-                propertyId, monthlyRent, annualRentIncrease, investmentReturnRate, 
-                propertyAppreciationRate, holdingPeriodYears);
+        PropertyComparison comparison = preview
+                ? propertyComparisonService.previewCompareRentVsBuy(
+                        propertyId, monthlyRent, annualRentIncrease, investmentReturnRate,
+                        propertyAppreciationRate, holdingPeriodYears)
+                : propertyComparisonService.compareRentVsBuy(
+                        propertyId, monthlyRent, annualRentIncrease, investmentReturnRate,
+                        propertyAppreciationRate, holdingPeriodYears);
         
         return ResponseEntity.ok(comparison);
     }
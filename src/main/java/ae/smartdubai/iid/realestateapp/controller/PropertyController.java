@@ -1,8 +1,10 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertySummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.service.PropertyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,20 +18,26 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/properties")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class PropertyController {
 
     private final PropertyService propertyService;
 
     /**
-     * GET /api/properties : Get all properties.
+     * GET /api/properties : Get a page of properties, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of properties in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @return the ResponseEntity with status 200 (OK), the page of properties in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<Property>> getAllProperties() {
-        List<Property> properties = propertyService.getAllProperties();
-        return ResponseEntity.ok(properties);
+    public ResponseEntity<List<PropertySummary>> getAllProperties(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = KeysetPages.limit(limit);
+        List<PropertySummary> properties = propertyService.getPropertyPage(KeysetPages.afterId(cursor), pageSize + 1);
+        return KeysetPages.respond(properties, pageSize, PropertySummary::getId);
     }
 
     /**
@@ -71,7 +79,8 @@ public class PropertyController {
     }
 
     /**
-     * DELETE /api/properties/:id : Delete the "id" property.
+     * DELETE /api/properties/:id : Delete the "id" property with its calculations, comparisons, checklists
+     * and PDF reports.
      *
      * @param id the id of the property to delete
      * @return the ResponseEntity with status 204 (NO_CONTENT)
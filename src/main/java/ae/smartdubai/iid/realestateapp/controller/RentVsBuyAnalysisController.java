@@ -1,11 +1,28 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuyAnalysisSummary;
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuyGridRequest;
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuySimulationRequest;
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuySimulationResult;
 import ae.smartdubai.iid.realestateapp.model.RentVsBuyAnalysis;
+import ae.smartdubai.iid.realestateapp.service.CalculationExportService;
 import ae.smartdubai.iid.realestateapp.service.RentVsBuyAnalysisService;
+import ae.smartdubai.iid.realestateapp.service.RentVsBuyGridService;
+import ae.smartdubai.iid.realestateapp.service.RentVsBuySimulationService;
+import ae.smartdubai.iid.realestateapp.util.RentVsBuyGrid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -14,20 +31,48 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/rent-vs-buy-analyses")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class RentVsBuyAnalysisController {
 
     private final RentVsBuyAnalysisService rentVsBuyAnalysisService;
+    private final RentVsBuySimulationService rentVsBuySimulationService;
+    private final RentVsBuyGridService rentVsBuyGridService;
+    private final CalculationExportService calculationExportService;
 
     /**
-     * GET /api/rent-vs-buy-analyses : Get all rent vs buy analyses.
+     * GET /api/rent-vs-buy-analyses : Get a page of rent vs buy analyses, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of rent vs buy analyses in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @param from only rent vs buy analyses with this analysis date or later
+     * @param to only rent vs buy analyses with this analysis date or earlier
+     * @return the ResponseEntity with status 200 (OK), the page of rent vs buy analyses in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<RentVsBuyAnalysis>> getAllRentVsBuyAnalyses() {
-        List<RentVsBuyAnalysis> analyses = rentVsBuyAnalysisService.getAllRentVsBuyAnalyses();
-        return ResponseEntity.ok(analyses);
+    public ResponseEntity<List<RentVsBuyAnalysisSummary>> getAllRentVsBuyAnalyses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPages.limit(limit);
+        List<RentVsBuyAnalysisSummary> analyses = rentVsBuyAnalysisService.getRentVsBuyAnalysisPage(
+                KeysetPages.afterId(cursor), from, to, pageSize + 1);
+        return KeysetPages.respond(analyses, pageSize, RentVsBuyAnalysisSummary::getId);
+    }
+
+    /**
+     * GET /api/rent-vs-buy-analyses/export : Export all rent vs buy analyses, in ID order, as NDJSON or CSV.
+     * Rows are streamed as they are read, with the IDs of their properties instead of the properties.
+     *
+     * @param format the output format, ndjson (default) or csv
+     * @return the ResponseEntity with status 200 (OK) and the streamed rent vs buy analyses in body,
+     * or with status 400 (Bad Request) for an unknown format
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRentVsBuyAnalyses(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return Exports.stream(format, "rent-vs-buy-analyses", calculationExportService::exportRentVsBuyAnalyses);
     }
 
     /**
@@ -70,6 +115,7 @@ public class RentVsBuyAnalysisController {
      * @param securityDeposit the security deposit amount
      * @param investmentReturnRate the annual investment return rate (in percentage)
      * @param analysisPeriodYears the analysis period in years
+     * @param preview whether to return the result without saving it
      * @return the ResponseEntity with status 200 (OK) and with body the calculated rent vs buy analysis
      */
     @PostMapping("/calculate")
@@ -85,25 +131,75 @@ public class RentVsBuyAnalysisController {
             @RequestParam Double annualRentIncreaseRate,
             @RequestParam Double securityDeposit,
             @RequestParam Double investmentReturnRate,
-            @RequestParam Integer analysisPeriodYears) {
+            @RequestParam Integer analysisPeriodYears,
+            @RequestParam(defaultValue = "false") Boolean preview) {
         
-        RentVsBuyAnalysis analysis = rentVsBuyAnalysisService.calculateRentVsBuy(
-                propertyId,
-                downPayment,
-                interestRate,
-                loanTenureYears,
-                propertyAppreciationRate,
-                annualMaintenanceCost,
-                annualPropertyTax,
-                monthlyRent,
-                annualRentIncreaseRate,
-                securityDeposit,
-                investmentReturnRate,
-                analysisPeriodYears);
+        RentVsBuyAnalysis analysis = preview
+                ? rentVsBuyAnalysisService.previewRentVsBuy(
+                        propertyId,
+                        downPayment,
+                        interestRate,
+                        loanTenureYears,
+                        propertyAppreciationRate,
+                        annualMaintenanceCost,
+                        annualPropertyTax,
+                        monthlyRent,
+                        annualRentIncreaseRate,
+                        securityDeposit,
+                        investmentReturnRate,
+                        analysisPeriodYears)
+                : rentVsBuyAnalysisService.calculateRentVsBuy(
+                        propertyId,
+                        downPayment,
+                        interestRate,
+                        loanTenureYears,
+                        propertyAppreciationRate,
+                        annualMaintenanceCost,
+                        annualPropertyTax,
+                        monthlyRent,
+                        annualRentIncreaseRate,
+                        securityDeposit,
+                        investmentReturnRate,
+                        analysisPeriodYears);
         
         return ResponseEntity.ok(analysis);
     }
 
+    /**
+     * POST /api/rent-vs-buy-analyses/simulate : Run a Monte Carlo rent vs buy simulation for a property.
+     *
+     * @param request the simulation inputs, including rate volatilities, number of paths and seed
+     * @return the ResponseEntity with status 200 (OK) and with body the net worth percentiles and the probability that buying is better
+     */
+    @PostMapping("/simulate")
+    public ResponseEntity<RentVsBuySimulationResult> simulateRentVsBuy(@RequestBody RentVsBuySimulationRequest request) {
+        RentVsBuySimulationResult result = rentVsBuySimulationService.simulate(request);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * POST /api/rent-vs-buy-analyses/grid : Stream a rent vs buy sensitivity grid over two parameters for a property.
+     * Cells are written as NDJSON, a row at a time in completion order, and carry their row and column index.
+     *
+     * @param request the base inputs and the row and column parameters with their values
+     * @return the ResponseEntity with status 200 (OK) and the streamed grid cells in body
+     */
+    @PostMapping("/grid")
+    public ResponseEntity<StreamingResponseBody> streamRentVsBuyGrid(@RequestBody RentVsBuyGridRequest request) {
+        // Validate and load the property before the response is committed
+        RentVsBuyGrid grid = rentVsBuyGridService.prepareGrid(request);
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            rentVsBuyGridService.writeGrid(grid, writer);
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * DELETE /api/rent-vs-buy-analyses/:id : Delete the "id" rent vs buy analysis.
      *
@@ -1,11 +1,17 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.ServiceChargeEstimateSummary;
 import ae.smartdubai.iid.realestateapp.model.ServiceChargeEstimate;
+import ae.smartdubai.iid.realestateapp.service.CalculationExportService;
 import ae.smartdubai.iid.realestateapp.service.ServiceChargeEstimateService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -14,20 +20,47 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/service-charge-estimates")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LINK)
 public class ServiceChargeEstimateController {
 
     private final ServiceChargeEstimateService serviceChargeEstimateService;
+    private final CalculationExportService calculationExportService;
 
     /**
-     * GET /api/service-charge-estimates : Get all service charge estimates.
+     * GET /api/service-charge-estimates : Get a page of service charge estimates, in ID order.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of service charge estimates in body
+     * @param cursor the cursor from the Link header of the previous page, or none for the first page
+     * @param limit the page size, capped by the server
+     * @param from only service charge estimates with this estimate date or later
+     * @param to only service charge estimates with this estimate date or earlier
+     * @return the ResponseEntity with status 200 (OK), the page of service charge estimates in body and the URL of the
+     * next page in the Link header, or with status 400 (Bad Request) for an invalid cursor or limit
      */
     @GetMapping
-    public ResponseEntity<List<ServiceChargeEstimate>> getAllServiceChargeEstimates() {
-        List<ServiceChargeEstimate> serviceChargeEstimates = serviceChargeEstimateService.getAllServiceChargeEstimates();
-        return ResponseEntity.ok(serviceChargeEstimates);
+    public ResponseEntity<List<ServiceChargeEstimateSummary>> getAllServiceChargeEstimates(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int pageSize = KeysetPages.limit(limit);
+        List<ServiceChargeEstimateSummary> serviceChargeEstimates =
+                serviceChargeEstimateService.getServiceChargeEstimatePage(
+                        KeysetPages.afterId(cursor), from, to, pageSize + 1);
+        return KeysetPages.respond(serviceChargeEstimates, pageSize, ServiceChargeEstimateSummary::getId);
+    }
+
+    /**
+     * GET /api/service-charge-estimates/export : Export all service charge estimates, in ID order, as NDJSON or CSV.
+     * Rows are streamed as they are read, with the IDs of their properties instead of the properties.
+     *
+     * @param format the output format, ndjson (default) or csv
+     * @return the ResponseEntity with status 200 (OK) and the streamed service charge estimates in body,
+     * or with status 400 (Bad Request) for an unknown format
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportServiceChargeEstimates(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return Exports.stream(format, "service-charge-estimates", calculationExportService::exportServiceChargeEstimates);
     }
 
     /**
@@ -74,6 +107,7 @@ public class ServiceChargeEstimateController {
      * @param communityName the community name
      * @param propertyType the property type
      * @param propertySize the property size in square feet
+     * @param preview whether to return the result without saving it
      * @return the ResponseEntity with status 200 (OK) and with body the calculated service charge estimate
      */
     @PostMapping("/calculate")
@@ -81,10 +115,12 @@ public class ServiceChargeEstimateController {
             @RequestParam Long propertyId,
             @RequestParam String communityName,
             @RequestParam String propertyType,
-            @RequestParam Double propertySize) {
+            @RequestParam Double propertySize,
+            @RequestParam(defaultValue = "false") Boolean preview) {
         
-        ServiceChargeEstimate serviceChargeEstimate = serviceChargeEstimateService.calculateServiceCharges(
-                propertyId, communityName, propertyType, propertySize);
+        ServiceChargeEstimate serviceChargeEstimate = preview
+                ? serviceChargeEstimateService.previewServiceCharges(propertyId, communityName, propertyType, propertySize)
+                : serviceChargeEstimateService.calculateServiceCharges(propertyId, communityName, propertyType, propertySize);
         
         return ResponseEntity.ok(serviceChargeEstimate);
     }
@@ -0,0 +1,36 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A cost breakdown in the cost breakdown list, with the ID of its property instead of the property.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostBreakdownSummary {
+
+    private Long id;
+
+    private Long propertyId;
+
+    private Double dldFee;
+
+    private Double agencyFee;
+
+    private Double registrationFee;
+
+    private Double mortgageRegistrationFee;
+
+    private Double valuationFee;
+
+    private Double mortgageProcessingFee;
+
+    private Double totalCost;
+
+    private LocalDate calculationDate;
+}
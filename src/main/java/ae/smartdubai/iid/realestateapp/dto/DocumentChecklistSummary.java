@@ -0,0 +1,37 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A document checklist in the checklist list, with the ID of its property instead of the property
+ * and without its document lists.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentChecklistSummary {
+
+    private Long id;
+
+    private Long propertyId;
+
+    private String buyerType;
+
+    private String selectedBank;
+
+    private String nationality;
+
+    private String residenceStatus;
+
+    private LocalDate creationDate;
+
+    private Boolean isMortgageRequired;
+
+    private Boolean isOffPlan;
+
+    private Boolean isReady;
+}
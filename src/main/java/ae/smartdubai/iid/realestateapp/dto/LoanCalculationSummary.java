@@ -0,0 +1,38 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A loan calculation in the loan calculation list, with the ID of its property instead of the property.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanCalculationSummary {
+
+    private Long id;
+
+    private Long propertyId;
+
+    private Double loanAmount;
+
+    private Double downPayment;
+
+    private Double interestRate;
+
+    private Integer tenureYears;
+
+    private Double monthlyEmi;
+
+    private Double totalInterest;
+
+    private Double totalPayable;
+
+    private Double loanToValueRatio;
+
+    private LocalDate calculationDate;
+}
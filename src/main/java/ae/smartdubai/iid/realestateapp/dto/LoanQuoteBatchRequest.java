@@ -0,0 +1,32 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request for quoting many loan scenarios against a single property.
+ * <p>
+ * Scenarios are sent column-wise: the i-th scenario is made of the i-th down payment,
+ * interest rate and tenure. Primitive arrays keep large grids compact and unboxed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanQuoteBatchRequest {
+
+    // Property all scenarios are quoted against
+    private Long propertyId;
+
+    // Down payment amount per scenario
+    private double[] downPayments;
+
+    // Annual interest rate (in percentage) per scenario
+    private double[] interestRates;
+
+    // Loan tenure in years per scenario
+    private int[] tenureYears;
+
+    // Whether to store every scenario as a LoanCalculation row
+    private boolean persist;
+}
@@ -0,0 +1,60 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Column-wise results of a batch loan quote. The i-th element of each array belongs
+ * to the i-th scenario of the {@link LoanQuoteBatchRequest}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanQuoteBatchResult {
+
+    private Long propertyId;
+
+    private int scenarioCount;
+
+    // Number of scenarios stored as LoanCalculation rows (0 unless persistence was requested)
+    private int persistedCount;
+
+    private double[] loanAmounts;
+
+    private double[] loanToValueRatios;
+
+    private double[] monthlyEmis;
+
+    private double[] totalPayables;
+
+    private double[] totalInterests;
+
+    private double[] firstEmiPrincipals;
+
+    private double[] firstEmiInterests;
+
+    private double[] lastEmiPrincipals;
+
+    private double[] lastEmiInterests;
+
+    /**
+     * Allocate result columns for the given number of scenarios.
+     *
+     * @param propertyId the property ID
+     * @param scenarioCount the number of scenarios
+     */
+    public LoanQuoteBatchResult(Long propertyId, int scenarioCount) {
+        this.propertyId = propertyId;
+        this.scenarioCount = scenarioCount;
+        this.loanAmounts = new double[scenarioCount];
+        this.loanToValueRatios = new double[scenarioCount];
+        this.monthlyEmis = new double[scenarioCount];
+        this.totalPayables = new double[scenarioCount];
+        this.totalInterests = new double[scenarioCount];
+        this.firstEmiPrincipals = new double[scenarioCount];
+        this.firstEmiInterests = new double[scenarioCount];
+        this.lastEmiPrincipals = new double[scenarioCount];
+        this.lastEmiInterests = new double[scenarioCount];
+    }
+}
@@ -0,0 +1,60 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Prepayment strategies of a {@link LoanStrategyRequest}, ranked by total interest saved
+ * against the same loan without prepayments.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanStrategyRanking {
+
+    private Long propertyId;
+
+    private double loanAmount;
+
+    private double initialMonthlyEmi;
+
+    // Interest paid with the rate steps but without any prepayment
+    private double baselineTotalInterest;
+
+    private int baselinePayoffMonth;
+
+    // Best strategy first
+    private List<RankedStrategy> strategies;
+
+    /**
+     * Outcome of a single strategy.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RankedStrategy {
+
+        // Position of the strategy in the request
+        private int index;
+
+        private String name;
+
+        private double totalInterest;
+
+        private double interestSaved;
+
+        private double earlySettlementFees;
+
+        // Interest saved minus early settlement fees
+        private double netSaving;
+
+        // Month of the last payment
+        private int payoffMonth;
+
+        // EMI in force at the end of the loan
+        private double finalMonthlyEmi;
+    }
+}
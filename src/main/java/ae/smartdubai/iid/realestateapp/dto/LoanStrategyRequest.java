@@ -0,0 +1,62 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import ae.smartdubai.iid.realestateapp.util.MortgageScheduleEngine;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request for ranking prepayment strategies on a mortgage with rate steps.
+ * <p>
+ * The loan starts at the given interest rate; from each rate step month on, the matching
+ * step rate applies, e.g. a three-year fixed period followed by a variable rate. Every
+ * strategy is a list of lump-sum prepayments, sent column-wise.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanStrategyRequest {
+
+    private Long propertyId;
+
+    private Double downPayment;
+
+    // Annual interest rate (in percentage) at the start of the loan
+    private Double interestRate;
+
+    private Integer tenureYears;
+
+    // First payment each new rate applies to, in ascending order
+    private int[] rateStepMonths;
+
+    // Annual interest rate (in percentage) from each step on
+    private double[] rateStepRates;
+
+    // Early settlement fee charged on every prepaid amount (in percentage)
+    private Double earlySettlementFeeRate;
+
+    // Maximum early settlement fee per prepayment, 0 for no cap
+    private Double earlySettlementFeeCap;
+
+    private List<Strategy> strategies;
+
+    /**
+     * A prepayment strategy. The i-th prepayment is made of the i-th month, amount and mode.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Strategy {
+
+        private String name;
+
+        // Payment after which each prepayment is made, in ascending order
+        private int[] prepaymentMonths;
+
+        private double[] prepaymentAmounts;
+
+        private MortgageScheduleEngine.PrepaymentMode[] modes;
+    }
+}
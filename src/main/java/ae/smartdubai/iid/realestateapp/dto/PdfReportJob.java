@@ -0,0 +1,44 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronous PDF report generation job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfReportJob {
+
+    /**
+     * Lifecycle of a job.
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String jobId;
+
+    private Status status;
+
+    private Long propertyId;
+
+    // Id of the generated PDF report, once the job has completed
+    private Long reportId;
+
+    // Reason the job failed, if it did
+    private String error;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,37 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A PDF report in the report list, with the ID of its property instead of the property and
+ * without the calculations it was generated from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfReportSummary {
+
+    private Long id;
+
+    private Long propertyId;
+
+    private String title;
+
+    private String reportType;
+
+    private Long fileSize;
+
+    private LocalDate generationDate;
+
+    private String sharedToEmail;
+
+    private LocalDate sharedDate;
+
+    // When the property changed after the report was rendered; null while the file is up to date
+    private LocalDateTime staleSince;
+}
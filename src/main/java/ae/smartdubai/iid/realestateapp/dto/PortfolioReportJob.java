@@ -0,0 +1,34 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State and progress of a portfolio report job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioReportJob {
+
+    private String jobId;
+
+    private PdfReportJob.Status status;
+
+    private int propertyCount;
+
+    // Number of reports rendered and written to the ZIP so far
+    private int renderedCount;
+
+    // Reason the job failed, if it did
+    private String error;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
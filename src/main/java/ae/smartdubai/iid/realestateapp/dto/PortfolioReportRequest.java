@@ -0,0 +1,28 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request for a portfolio report pack: one PDF report per property, delivered as a single ZIP.
+ * Each included component is the latest one calculated for the property, if there is any.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioReportRequest {
+
+    private List<Long> propertyIds;
+
+    // Title of every report in the pack
+    private String title;
+
+    private boolean includeCostBreakdown;
+
+    private boolean includeLoanCalculation;
+
+    private boolean includeServiceChargeEstimate;
+}
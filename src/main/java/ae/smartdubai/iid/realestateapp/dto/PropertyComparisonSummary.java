@@ -0,0 +1,39 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A property comparison in the comparison list, with the IDs of the compared properties instead of the properties.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyComparisonSummary {
+
+    private Long id;
+
+    private Long property1Id;
+
+    // Null for a rent vs buy comparison
+    private Long property2Id;
+
+    private Boolean isRentVsBuy;
+
+    private Integer holdingPeriodYears;
+
+    private LocalDate comparisonDate;
+
+    private Double breakEvenYears;
+
+    private Double property1TotalCost;
+
+    private Double property2TotalCost;
+
+    private Double property1Roi;
+
+    private Double property2Roi;
+}
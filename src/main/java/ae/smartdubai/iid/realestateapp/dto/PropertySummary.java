@@ -0,0 +1,37 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A property in the property list, without its images.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertySummary {
+
+    private Long id;
+
+    private String name;
+
+    private String location;
+
+    private Double price;
+
+    // Size in square feet
+    private Double size;
+
+    private Integer bedrooms;
+
+    private Integer bathrooms;
+
+    private String propertyType;
+
+    private String communityName;
+
+    private Boolean isFurnished;
+
+    private Integer yearBuilt;
+}
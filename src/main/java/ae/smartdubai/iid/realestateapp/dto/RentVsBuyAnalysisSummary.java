@@ -0,0 +1,38 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A rent vs buy analysis in the analysis list, with the ID of its property instead of the property.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentVsBuyAnalysisSummary {
+
+    private Long id;
+
+    private Long propertyId;
+
+    private Double monthlyRent;
+
+    private Integer analysisPeriodYears;
+
+    private Double totalCostOfBuying;
+
+    private Double totalCostOfRenting;
+
+    private Double netWorthAfterBuying;
+
+    private Double netWorthAfterRenting;
+
+    private Boolean isBuyingBetter;
+
+    private Double breakEvenYears;
+
+    private LocalDate analysisDate;
+}
@@ -0,0 +1,49 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import ae.smartdubai.iid.realestateapp.util.RentVsBuyGrid;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request for a rent vs buy sensitivity grid.
+ * <p>
+ * The base inputs have the same meaning as for a rent vs buy analysis. Each cell of the grid
+ * replaces the row parameter with one of the row values and the column parameter with one of
+ * the column values.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentVsBuyGridRequest {
+
+    private Long propertyId;
+
+    private Double downPayment;
+
+    private Double interestRate;
+
+    private Integer loanTenureYears;
+
+    private Double propertyAppreciationRate;
+
+    private Double annualMaintenanceCost;
+
+    private Double annualPropertyTax;
+
+    private Double monthlyRent;
+
+    private Double annualRentIncreaseRate;
+
+    private Double investmentReturnRate;
+
+    private Integer analysisPeriodYears;
+
+    private RentVsBuyGrid.Parameter rowParameter;
+
+    private double[] rowValues;
+
+    private RentVsBuyGrid.Parameter columnParameter;
+
+    private double[] columnValues;
+}
@@ -0,0 +1,53 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request for a Monte Carlo rent vs buy simulation.
+ * <p>
+ * Property appreciation, rent increase and investment return are drawn every year of every
+ * path from a normal distribution with the given mean rate and volatility (both in percentage).
+ * The remaining inputs have the same meaning as for a rent vs buy analysis.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentVsBuySimulationRequest {
+
+    private Long propertyId;
+
+    private Double downPayment;
+
+    // Annual mortgage interest rate (in percentage), fixed for the whole loan
+    private Double interestRate;
+
+    private Integer loanTenureYears;
+
+    private Double annualMaintenanceCost;
+
+    private Double annualPropertyTax;
+
+    private Double monthlyRent;
+
+    private Integer analysisPeriodYears;
+
+    private Double propertyAppreciationRate;
+
+    private Double propertyAppreciationVolatility;
+
+    private Double annualRentIncreaseRate;
+
+    private Double annualRentIncreaseVolatility;
+
+    private Double investmentReturnRate;
+
+    private Double investmentReturnVolatility;
+
+    // Number of simulated paths (defaults to 100,000)
+    private Integer paths;
+
+    // Random seed; the same seed and inputs always give the same result
+    private Long seed;
+}
@@ -0,0 +1,38 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Distribution of net worth at the end of a Monte Carlo rent vs buy simulation.
+ * The i-th element of each percentile array belongs to the i-th entry of {@code percentiles}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentVsBuySimulationResult {
+
+    private Long propertyId;
+
+    private int paths;
+
+    // Seed used for the run, to reproduce it later
+    private long seed;
+
+    private int analysisPeriodYears;
+
+    // Percentile levels, e.g. 5 for the 5th percentile
+    private double[] percentiles;
+
+    private double[] netWorthAfterBuyingPercentiles;
+
+    private double[] netWorthAfterRentingPercentiles;
+
+    private double meanNetWorthAfterBuying;
+
+    private double meanNetWorthAfterRenting;
+
+    // Share of paths in which buying ends with a higher net worth than renting
+    private double probabilityBuyingBetter;
+}
@@ -0,0 +1,39 @@
+package ae.smartdubai.iid.realestateapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A service charge estimate in the estimate list, with the ID of its property instead of the property.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceChargeEstimateSummary {
+
+    private Long id;
+
+    // Null for the pre-filled community estimates
+    private Long propertyId;
+
+    private String communityName;
+
+    private String propertyType;
+
+    private Double propertySize;
+
+    private Double annualServiceCharge;
+
+    private Double totalAnnualCharges;
+
+    private Double monthlyCharges;
+
+    private Integer estimateYear;
+
+    private LocalDate estimateDate;
+
+    private Boolean isPreFilled;
+}
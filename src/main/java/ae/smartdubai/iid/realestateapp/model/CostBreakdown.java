@@ -4,7 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +15,11 @@ import lombok.NoArgsConstructor;
  * Entity representing a cost breakdown for a property purchase.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_cost_breakdown_property_date", columnList = "property_id, calculation_date"),
+        @Index(name = "idx_cost_breakdown_date", columnList = "calculation_date"),
+        @Index(name = "idx_cost_breakdown_total", columnList = "total_cost")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,10 +6,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
@@ -17,6 +20,14 @@ import java.util.List;
  * Entity representing a document checklist for property purchase.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_document_checklist_property_date", columnList = "property_id, creation_date"),
+        @Index(name = "idx_document_checklist_buyer_type", columnList = "buyer_type"),
+        @Index(name = "idx_document_checklist_bank", columnList = "selected_bank"),
+        @Index(name = "idx_document_checklist_nationality", columnList = "nationality"),
+        @Index(name = "idx_document_checklist_residence", columnList = "residence_status"),
+        @Index(name = "idx_document_checklist_date", columnList = "creation_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,28 +52,34 @@ public class DocumentChecklist {
     // Residence status (UAE Resident, Non-Resident)
     private String residenceStatus;
 
-    // List of required identity documents
+    // List of required identity documents; each list is loaded for up to 100 checklists per query
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> identityDocuments;
 
     // List of required income proof documents
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> incomeProofDocuments;
 
     // List of required property documents
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> propertyDocuments;
 
     // List of required bank documents
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> bankDocuments;
 
     // List of required visa/residency documents
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> visaDocuments;
 
     // Additional documents based on specific requirements
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> additionalDocuments;
 
     // Notes or special instructions
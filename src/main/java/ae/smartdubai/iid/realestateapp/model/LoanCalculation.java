@@ -4,7 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -17,6 +19,13 @@ import lombok.NoArgsConstructor;
  * Entity representing a loan/mortgage calculation for a property.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_loan_calculation_property_date", columnList = "property_id, calculation_date"),
+        @Index(name = "idx_loan_calculation_date", columnList = "calculation_date"),
+        @Index(name = "idx_loan_calculation_amount", columnList = "loan_amount"),
+        @Index(name = "idx_loan_calculation_rate", columnList = "interest_rate"),
+        @Index(name = "idx_loan_calculation_tenure", columnList = "tenure_years")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
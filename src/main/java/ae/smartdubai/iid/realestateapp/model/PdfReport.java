@@ -4,7 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +15,19 @@ import lombok.NoArgsConstructor;
  * Entity representing a generated PDF report.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_pdf_report_property_date", columnList = "property_id, generation_date"),
+        @Index(name = "idx_pdf_report_type", columnList = "report_type"),
+        @Index(name = "idx_pdf_report_date", columnList = "generation_date"),
+        @Index(name = "idx_pdf_report_shared_to", columnList = "shared_to_email"),
+        @Index(name = "idx_pdf_report_shared_date", columnList = "shared_date"),
+        @Index(name = "idx_pdf_report_file", columnList = "file_path"),
+        @Index(name = "idx_pdf_report_comparison", columnList = "property_comparison_id"),
+        @Index(name = "idx_pdf_report_cost_breakdown", columnList = "cost_breakdown_id"),
+        @Index(name = "idx_pdf_report_loan_calculation", columnList = "loan_calculation_id"),
+        @Index(name = "idx_pdf_report_document_checklist", columnList = "document_checklist_id"),
+        @Index(name = "idx_pdf_report_service_charge_estimate", columnList = "service_charge_estimate_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,12 +47,15 @@ public class PdfReport {
     // Report type (COST_BREAKDOWN, LOAN_CALCULATION, COMPARISON, etc.)
     private String reportType;
 
-    // Path to the stored PDF file
+    // Report storage key of the PDF file
     private String filePath;
 
     // File size in KB
     private Long fileSize;
 
+    // SHA-256 of the normalized report inputs; reports with the same hash share one file
+    private String contentHash;
+
     // Date of report generation
     private java.time.LocalDate generationDate;
 
@@ -47,6 +65,9 @@ public class PdfReport {
     // Date when the report was shared (if applicable)
     private java.time.LocalDate sharedDate;
 
+    // When the property changed after the report was rendered; null while the file is up to date
+    private java.time.LocalDateTime staleSince;
+
     // Flag to indicate if the report includes cost breakdown
     private Boolean includesCostBreakdown;
 
@@ -7,13 +7,16 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +25,12 @@ import java.util.List;
  * Entity representing a real estate property.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_property_price", columnList = "price"),
+        @Index(name = "idx_property_size", columnList = "size"),
+        @Index(name = "idx_property_bedrooms", columnList = "bedrooms"),
+        @Index(name = "idx_property_type", columnList = "property_type")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,6 +57,9 @@ public class Property {
 
     private Integer bathrooms;
 
+    // H2's case-insensitive type, so the index also serves case-insensitive lookups; other
+    // databases need a case-insensitive collation here instead
+    @Column(columnDefinition = "varchar_ignorecase(255)")
     private String propertyType; // Apartment, Villa, Townhouse, etc.
 
     private String communityName;
@@ -56,7 +68,9 @@ public class Property {
 
     private Integer yearBuilt;
 
+    // Loaded for up to 100 properties per query when reports read them in bulk
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "property_images", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "image_url")
     private List<String> images = new ArrayList<>();
@@ -4,7 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,6 +16,12 @@ import lombok.NoArgsConstructor;
  * Entity representing a comparison between two properties or rent vs buy analysis.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_property_comparison_pair", columnList = "property1_id, property2_id"),
+        @Index(name = "idx_property_comparison_property1_date", columnList = "property1_id, comparison_date"),
+        @Index(name = "idx_property_comparison_property2", columnList = "property2_id"),
+        @Index(name = "idx_property_comparison_date", columnList = "comparison_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -4,7 +4,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -19,6 +21,10 @@ import java.time.LocalDate;
  * Entity representing a rent vs buy analysis for a property.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_rent_vs_buy_analysis_property", columnList = "property_id"),
+        @Index(name = "idx_rent_vs_buy_analysis_date", columnList = "analysis_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
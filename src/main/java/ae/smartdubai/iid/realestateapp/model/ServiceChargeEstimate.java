@@ -1,10 +1,13 @@
 package ae.smartdubai.iid.realestateapp.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
@@ -15,6 +18,15 @@ import lombok.NoArgsConstructor;
  * Entity representing a service charge estimate for a property.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_service_charge_estimate_property_date", columnList = "property_id, estimate_date"),
+        @Index(name = "idx_service_charge_estimate_community", columnList = "community_name"),
+        @Index(name = "idx_service_charge_estimate_prefilled", columnList = "is_pre_filled, community_name"),
+        @Index(name = "idx_service_charge_estimate_type", columnList = "property_type"),
+        @Index(name = "idx_service_charge_estimate_size", columnList = "property_size"),
+        @Index(name = "idx_service_charge_estimate_charge", columnList = "annual_service_charge"),
+        @Index(name = "idx_service_charge_estimate_date", columnList = "estimate_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,10 +39,13 @@ public class ServiceChargeEstimate {
     @ManyToOne
     private Property property;
 
-    // Community name (e.g., JVC, Dubai Marina, etc.)
+    // Community name (e.g., JVC, Dubai Marina, etc.), compared without case; H2's type, other
+    // databases need a case-insensitive collation here instead
+    @Column(columnDefinition = "varchar_ignorecase(255)")
     private String communityName;
 
-    // Property type (Apartment, Villa, Townhouse, etc.)
+    // Property type (Apartment, Villa, Townhouse, etc.), compared without case
+    @Column(columnDefinition = "varchar_ignorecase(255)")
     private String propertyType;
 
     // Property size in square feet
@@ -0,0 +1,73 @@
+package ae.smartdubai.iid.realestateapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a report share waiting to be delivered, written in the same transaction
+ * as the share itself and delivered later by the share dispatcher.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_share_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_share_outbox_created", columnList = "status, created_at"),
+        @Index(name = "idx_share_outbox_report", columnList = "pdf_report_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShareOutboxEvent {
+
+    /**
+     * Delivery state of a share.
+     */
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Id of the shared PDF report
+    private Long pdfReportId;
+
+    // Email address the report is sent to
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    // Number of failed delivery attempts
+    private int attempts;
+
+    private LocalDateTime createdAt;
+
+    // Earliest time of the next delivery attempt; also the end of the lease of a claimed event
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime sentAt;
+
+    // Reason the last attempt failed, if it did
+    @Column(length = 1000)
+    private String lastError;
+
+    // Stops two dispatchers from claiming the same event
+    @Version
+    private Long version;
+}
@@ -1,13 +1,24 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.CostBreakdownSummary;
 import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for CostBreakdown entity.
@@ -23,6 +34,23 @@ public interface CostBreakdownRepository extends JpaRepository<CostBreakdown, Lo
      */
     List<CostBreakdown> findByProperty(Property property);
 
+    /**
+     * Find the latest cost breakdown of each of several properties in a single query: the one
+     * with the latest calculation date, and of those the one with the highest ID. Only the latest
+     * row per property is read into memory, however long the history. Undated rows are never picked.
+     *
+     * @param propertyIds the IDs of the properties to search for
+     * @return at most one cost breakdown per property
+     */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("select c from CostBreakdown c where c.id in ("
+            + "select max(m.id) from CostBreakdown m join ("
+            + "select d.property.id as propertyId, max(d.calculationDate) as latestDate from CostBreakdown d "
+            + "where d.property.id in :propertyIds group by d.property.id) latest "
+            + "on m.property.id = latest.propertyId and m.calculationDate = latest.latestDate "
+            + "group by m.property.id)")
+    List<CostBreakdown> findLatestByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+
     /**
      * Find the latest cost breakdown for a property.
      *
@@ -38,6 +66,7 @@ public interface CostBreakdownRepository extends JpaRepository<CostBreakdown, Lo
      * @param endDate the end date
      * @return list of cost breakdowns within the specified date range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<CostBreakdown> findByCalculationDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
@@ -47,12 +76,83 @@ public interface CostBreakdownRepository extends JpaRepository<CostBreakdown, Lo
      * @param maxTotalCost the maximum total cost
      * @return list of cost breakdowns within the specified total cost range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<CostBreakdown> findByTotalCostBetween(Double minTotalCost, Double maxTotalCost);
 
     /**
-     * Delete all cost breakdowns for a property.
+     * Delete all cost breakdowns for a property with a single statement, without loading them.
      *
      * @param property the property to delete cost breakdowns for
+     * @return the number of cost breakdowns deleted
+     */
+    @Modifying
+    @Query("delete from CostBreakdown c where c.property = :property")
+    int deleteByProperty(@Param("property") Property property);
+
+    /**
+     * Find a page of cost breakdowns in ID order.
+     *
+     * @param afterId only cost breakdowns with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of cost breakdowns
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.CostBreakdownSummary("
+            + "c.id, c.property.id, c.dldFee, c.agencyFee, c.registrationFee, "
+            + "c.mortgageRegistrationFee, c.valuationFee, c.mortgageProcessingFee, "
+            + "c.totalCost, c.calculationDate)"
+            + " from CostBreakdown c where c.id > :afterId order by c.id")
+    List<CostBreakdownSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find a page of cost breakdowns within a calculation date range in ID order.
+     *
+     * @param from the first calculation date
+     * @param to the last calculation date
+     * @param afterId only cost breakdowns with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of cost breakdowns
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.CostBreakdownSummary("
+            + "c.id, c.property.id, c.dldFee, c.agencyFee, c.registrationFee, "
+            + "c.mortgageRegistrationFee, c.valuationFee, c.mortgageProcessingFee, "
+            + "c.totalCost, c.calculationDate)"
+            + " from CostBreakdown c where c.calculationDate between :from and :to"
+            + " and c.id > :afterId order by c.id")
+    List<CostBreakdownSummary> findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of cost breakdowns in ID order, optionally within a calculation date range.
+     * Without a range cost breakdowns without a calculation date are included.
+     * Within a range the page reads every row of the range from the date index and sorts them
+     * by ID, so unlike an unfiltered page its cost grows with the number of rows in the range.
+     *
+     * @param afterId only cost breakdowns with a greater ID are returned
+     * @param from the first calculation date, or null for no lower bound
+     * @param to the last calculation date, or null for no upper bound
+     * @param pageable the page size
+     * @return the summaries of the page of cost breakdowns
+     */
+    default List<CostBreakdownSummary> findPage(long afterId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null && to == null) {
+            return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc(from != null ? from : DateRange.EARLIEST,
+                to != null ? to : DateRange.LATEST, afterId, pageable);
+    }
+
+    /**
+     * Stream all cost breakdowns in ID order, with their properties, for export. The rows are read
+     * in batches of the fetch size and are not tracked for changes; the stream must be consumed
+     * within a transaction and closed.
+     *
+     * @return the stream of cost breakdowns
      */
-    void deleteByProperty(Property property);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from CostBreakdown c left join fetch c.property order by c.id")
+    Stream<CostBreakdown> streamAll();
 }
\ No newline at end of file
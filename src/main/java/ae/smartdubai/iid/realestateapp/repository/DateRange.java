@@ -0,0 +1,15 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Bounds for date range queries that are open on one side.
+ */
+final class DateRange {
+
+    static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private DateRange() {
+    }
+}
@@ -1,8 +1,14 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.DocumentChecklistSummary;
 import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -37,6 +43,7 @@ public interface DocumentChecklistRepository extends JpaRepository<DocumentCheck
      * @param buyerType the buyer type to search for
      * @return list of document checklists for the specified buyer type
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<DocumentChecklist> findByBuyerType(String buyerType);
 
     /**
@@ -45,6 +52,7 @@ public interface DocumentChecklistRepository extends JpaRepository<DocumentCheck
      * @param selectedBank the selected bank to search for
      * @return list of document checklists for the specified selected bank
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<DocumentChecklist> findBySelectedBank(String selectedBank);
 
     /**
@@ -53,6 +61,7 @@ public interface DocumentChecklistRepository extends JpaRepository<DocumentCheck
      * @param nationality the nationality to search for
      * @return list of document checklists for the specified nationality
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<DocumentChecklist> findByNationality(String nationality);
 
     /**
@@ -61,6 +70,7 @@ public interface DocumentChecklistRepository extends JpaRepository<DocumentCheck
      * @param residenceStatus the residence status to search for
      * @return list of document checklists for the specified residence status
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<DocumentChecklist> findByResidenceStatus(String residenceStatus);
 
     /**
@@ -70,6 +80,7 @@ public interface DocumentChecklistRepository extends JpaRepository<DocumentCheck
      * @param endDate the end date
      * @return list of document checklists within the specified date range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<DocumentChecklist> findByCreationDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
@@ -78,12 +89,67 @@ public interface DocumentChecklistRepository extends JpaRepository<DocumentCheck
      * @param isMortgageRequired the mortgage requirement flag
      * @return list of document checklists with the specified mortgage requirement
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<DocumentChecklist> findByIsMortgageRequired(Boolean isMortgageRequired);
 
     /**
-     * Delete all document checklists for a property.
+     * Delete all document checklists for a property with a single statement, without loading them.
      *
      * @param property the property to delete document checklists for
+     * @return the number of document checklists deleted
      */
-    void deleteByProperty(Property property);
+    @Modifying
+    @Query("delete from DocumentChecklist d where d.property = :property")
+    int deleteByProperty(@Param("property") Property property);
+
+    /**
+     * Find a page of document checklists in ID order.
+     *
+     * @param afterId only document checklists with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of document checklists
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.DocumentChecklistSummary("
+            + "d.id, d.property.id, d.buyerType, d.selectedBank, d.nationality, "
+            + "d.residenceStatus, d.creationDate, d.isMortgageRequired, d.isOffPlan, d.isReady)"
+            + " from DocumentChecklist d where d.id > :afterId order by d.id")
+    List<DocumentChecklistSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find a page of document checklists within a creation date range in ID order.
+     *
+     * @param from the first creation date
+     * @param to the last creation date
+     * @param afterId only document checklists with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of document checklists
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.DocumentChecklistSummary("
+            + "d.id, d.property.id, d.buyerType, d.selectedBank, d.nationality, "
+            + "d.residenceStatus, d.creationDate, d.isMortgageRequired, d.isOffPlan, d.isReady)"
+            + " from DocumentChecklist d where d.creationDate between :from and :to"
+            + " and d.id > :afterId order by d.id")
+    List<DocumentChecklistSummary> findByCreationDateBetweenAndIdGreaterThanOrderByIdAsc(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of document checklists in ID order, optionally within a creation date range.
+     * Without a range document checklists without a creation date are included.
+     * Within a range the page reads every row of the range from the date index and sorts them
+     * by ID, so unlike an unfiltered page its cost grows with the number of rows in the range.
+     *
+     * @param afterId only document checklists with a greater ID are returned
+     * @param from the first creation date, or null for no lower bound
+     * @param to the last creation date, or null for no upper bound
+     * @param pageable the page size
+     * @return the summaries of the page of document checklists
+     */
+    default List<DocumentChecklistSummary> findPage(long afterId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null && to == null) {
+            return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return findByCreationDateBetweenAndIdGreaterThanOrderByIdAsc(from != null ? from : DateRange.EARLIEST,
+                to != null ? to : DateRange.LATEST, afterId, pageable);
+    }
 }
\ No newline at end of file
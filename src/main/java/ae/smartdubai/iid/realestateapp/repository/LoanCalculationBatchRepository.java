@@ -0,0 +1,87 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * JDBC batch writer for LoanCalculation rows.
+ * <p>
+ * Bypasses the persistence context so that large quote grids are inserted as a few
+ * batched statements instead of one entity save per scenario.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanCalculationBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO loan_calculation "
+            + "(property_id, loan_amount, down_payment, interest_rate, tenure_years, monthly_emi, total_interest, "
+            + "total_payable, loan_to_value_ratio, calculation_date, first_emi_principal, first_emi_interest, "
+            + "last_emi_principal, last_emi_interest) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert every scenario of a batch quote as a loan calculation row, all or none.
+     *
+     * @param result the computed batch quote
+     * @param downPayments the down payment per scenario
+     * @param interestRates the interest rate per scenario
+     * @param tenureYears the tenure per scenario
+     * @param calculationDate the calculation date stored on every row
+     * @return the number of inserted rows
+     */
+    @Transactional
+    public int insertAll(LoanQuoteBatchResult result, double[] downPayments, double[] interestRates,
+                         int[] tenureYears, LocalDate calculationDate) {
+        Date sqlDate = Date.valueOf(calculationDate);
+        long propertyId = result.getPropertyId();
+        int total = result.getScenarioCount();
+        int inserted = 0;
+
+        for (int offset = 0; offset < total; offset += BATCH_SIZE) {
+            int start = offset;
+            int size = Math.min(BATCH_SIZE, total - offset);
+
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int index = start + i;
+                    ps.setLong(1, propertyId);
+                    ps.setDouble(2, result.getLoanAmounts()[index]);
+                    ps.setDouble(3, downPayments[index]);
+                    ps.setDouble(4, interestRates[index]);
+                    ps.setInt(5, tenureYears[index]);
+                    ps.setDouble(6, result.getMonthlyEmis()[index]);
+                    ps.setDouble(7, result.getTotalInterests()[index]);
+                    ps.setDouble(8, result.getTotalPayables()[index]);
+                    ps.setDouble(9, result.getLoanToValueRatios()[index]);
+                    ps.setDate(10, sqlDate);
+                    ps.setDouble(11, result.getFirstEmiPrincipals()[index]);
+                    ps.setDouble(12, result.getFirstEmiInterests()[index]);
+                    ps.setDouble(13, result.getLastEmiPrincipals()[index]);
+                    ps.setDouble(14, result.getLastEmiInterests()[index]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+            inserted += size;
+        }
+
+        return inserted;
+    }
+}
@@ -1,13 +1,24 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.LoanCalculationSummary;
 import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for LoanCalculation entity.
@@ -23,6 +34,23 @@ public interface LoanCalculationRepository extends JpaRepository<LoanCalculation
      */
     List<LoanCalculation> findByProperty(Property property);
 
+    /**
+     * Find the latest loan calculation of each of several properties in a single query: the one
+     * with the latest calculation date, and of those the one with the highest ID. Only the latest
+     * row per property is read into memory, however long the history. Undated rows are never picked.
+     *
+     * @param propertyIds the IDs of the properties to search for
+     * @return at most one loan calculation per property
+     */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("select l from LoanCalculation l where l.id in ("
+            + "select max(m.id) from LoanCalculation m join ("
+            + "select d.property.id as propertyId, max(d.calculationDate) as latestDate from LoanCalculation d "
+            + "where d.property.id in :propertyIds group by d.property.id) latest "
+            + "on m.property.id = latest.propertyId and m.calculationDate = latest.latestDate "
+            + "group by m.property.id)")
+    List<LoanCalculation> findLatestByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+
     /**
      * Find the latest loan calculation for a property.
      *
@@ -38,6 +66,7 @@ public interface LoanCalculationRepository extends JpaRepository<LoanCalculation
      * @param endDate the end date
      * @return list of loan calculations within the specified date range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<LoanCalculation> findByCalculationDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
@@ -47,6 +76,7 @@ public interface LoanCalculationRepository extends JpaRepository<LoanCalculation
      * @param maxLoanAmount the maximum loan amount
      * @return list of loan calculations within the specified loan amount range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<LoanCalculation> findByLoanAmountBetween(Double minLoanAmount, Double maxLoanAmount);
 
     /**
@@ -56,6 +86,7 @@ public interface LoanCalculationRepository extends JpaRepository<LoanCalculation
      * @param maxInterestRate the maximum interest rate
      * @return list of loan calculations within the specified interest rate range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<LoanCalculation> findByInterestRateBetween(Double minInterestRate, Double maxInterestRate);
 
     /**
@@ -64,12 +95,83 @@ public interface LoanCalculationRepository extends JpaRepository<LoanCalculation
      * @param tenureYears the tenure years to search for
      * @return list of loan calculations with the specified tenure years
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<LoanCalculation> findByTenureYears(Integer tenureYears);
 
     /**
-     * Delete all loan calculations for a property.
+     * Delete all loan calculations for a property with a single statement, without loading them.
      *
      * @param property the property to delete loan calculations for
+     * @return the number of loan calculations deleted
+     */
+    @Modifying
+    @Query("delete from LoanCalculation l where l.property = :property")
+    int deleteByProperty(@Param("property") Property property);
+
+    /**
+     * Find a page of loan calculations in ID order.
+     *
+     * @param afterId only loan calculations with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of loan calculations
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.LoanCalculationSummary("
+            + "l.id, l.property.id, l.loanAmount, l.downPayment, l.interestRate, "
+            + "l.tenureYears, l.monthlyEmi, l.totalInterest, l.totalPayable, "
+            + "l.loanToValueRatio, l.calculationDate)"
+            + " from LoanCalculation l where l.id > :afterId order by l.id")
+    List<LoanCalculationSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find a page of loan calculations within a calculation date range in ID order.
+     *
+     * @param from the first calculation date
+     * @param to the last calculation date
+     * @param afterId only loan calculations with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of loan calculations
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.LoanCalculationSummary("
+            + "l.id, l.property.id, l.loanAmount, l.downPayment, l.interestRate, "
+            + "l.tenureYears, l.monthlyEmi, l.totalInterest, l.totalPayable, "
+            + "l.loanToValueRatio, l.calculationDate)"
+            + " from LoanCalculation l where l.calculationDate between :from and :to"
+            + " and l.id > :afterId order by l.id")
+    List<LoanCalculationSummary> findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of loan calculations in ID order, optionally within a calculation date range.
+     * Without a range loan calculations without a calculation date are included.
+     * Within a range the page reads every row of the range from the date index and sorts them
+     * by ID, so unlike an unfiltered page its cost grows with the number of rows in the range.
+     *
+     * @param afterId only loan calculations with a greater ID are returned
+     * @param from the first calculation date, or null for no lower bound
+     * @param to the last calculation date, or null for no upper bound
+     * @param pageable the page size
+     * @return the summaries of the page of loan calculations
+     */
+    default List<LoanCalculationSummary> findPage(long afterId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null && to == null) {
+            return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc(from != null ? from : DateRange.EARLIEST,
+                to != null ? to : DateRange.LATEST, afterId, pageable);
+    }
+
+    /**
+     * Stream all loan calculations in ID order, with their properties, for export. The rows are read
+     * in batches of the fetch size and are not tracked for changes; the stream must be consumed
+     * within a transaction and closed.
+     *
+     * @return the stream of loan calculations
      */
-    void deleteByProperty(Property property);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select l from LoanCalculation l left join fetch l.property order by l.id")
+    Stream<LoanCalculation> streamAll();
 }
\ No newline at end of file
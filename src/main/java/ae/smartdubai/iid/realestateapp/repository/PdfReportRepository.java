@@ -1,13 +1,23 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.PdfReportSummary;
 import ae.smartdubai.iid.realestateapp.model.PdfReport;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository for PdfReport entity.
@@ -37,6 +47,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      * @param reportType the report type to search for
      * @return list of PDF reports of the specified type
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findByReportType(String reportType);
 
     /**
@@ -46,6 +57,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      * @param endDate the end date
      * @return list of PDF reports within the specified generation date range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findByGenerationDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
@@ -54,6 +66,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      * @param sharedToEmail the email address to search for
      * @return list of PDF reports shared to the specified email address
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findBySharedToEmail(String sharedToEmail);
 
     /**
@@ -63,6 +76,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      * @param endDate the end date
      * @return list of PDF reports within the specified shared date range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findBySharedDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
@@ -70,6 +84,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      *
      * @return list of PDF reports that include cost breakdown
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findByIncludesCostBreakdownTrue();
 
     /**
@@ -77,6 +92,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      *
      * @return list of PDF reports that include loan calculation
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findByIncludesLoanCalculationTrue();
 
     /**
@@ -84,6 +100,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      *
      * @return list of PDF reports that include property comparison
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findByIncludesPropertyComparisonTrue();
 
     /**
@@ -91,6 +108,7 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      *
      * @return list of PDF reports that include document checklist
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findByIncludesDocumentChecklistTrue();
 
     /**
@@ -98,12 +116,344 @@ public interface PdfReportRepository extends JpaRepository<PdfReport, Long> {
      *
      * @return list of PDF reports that include service charge estimate
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<PdfReport> findByIncludesServiceChargeEstimateTrue();
 
     /**
-     * Delete all PDF reports for a property.
+     * Count the PDF reports that point to a file.
+     *
+     * @param filePath the path of the PDF file
+     * @return the number of PDF reports using the file
+     */
+    long countByFilePath(String filePath);
+
+    /**
+     * Find which of the given file paths some PDF report points to.
+     *
+     * @param filePaths the paths of the PDF files
+     * @return the paths that are in use
+     */
+    @Query("select distinct r.filePath from PdfReport r where r.filePath in :filePaths")
+    Set<String> findReferencedFilePaths(@Param("filePaths") Collection<String> filePaths);
+
+    /**
+     * Find the oldest PDF reports generated before a date.
+     *
+     * @param date the date to search before
+     * @return up to 500 PDF reports generated before the date
+     */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
+    List<PdfReport> findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(LocalDate date);
+
+    /**
+     * Mark every PDF report that prints a property as stale: the reports of the property and the
+     * reports with a property comparison that includes it.
+     *
+     * <p>
+     * Each side is marked by its own statement, since an OR across columns cannot use an index
+     * and would scan every report on each property update.
+     *
+     * @param propertyId the ID of the changed property
+     * @param staleSince the time of the change
+     * @return the number of PDF reports marked
+     */
+    default int markStaleByProperty(Long propertyId, LocalDateTime staleSince) {
+        return markStaleOfProperty(propertyId, staleSince)
+                + markStaleComparingAsProperty1(propertyId, staleSince)
+                + markStaleComparingAsProperty2(propertyId, staleSince);
+    }
+
+    /**
+     * Mark the PDF reports of a property as stale.
+     *
+     * @param propertyId the ID of the changed property
+     * @param staleSince the time of the change
+     * @return the number of PDF reports marked
+     */
+    @Modifying
+    @Query("update PdfReport r set r.staleSince = :staleSince where r.property.id = :propertyId")
+    int markStaleOfProperty(@Param("propertyId") Long propertyId, @Param("staleSince") LocalDateTime staleSince);
+
+    /**
+     * Mark the PDF reports of comparisons with a property as the first property as stale,
+     * skipping those already marked with the same time.
+     *
+     * @param propertyId the ID of the changed property
+     * @param staleSince the time of the change
+     * @return the number of PDF reports marked
+     */
+    @Modifying
+    @Query("update PdfReport r set r.staleSince = :staleSince where r.propertyComparison.id in "
+            + "(select c.id from PropertyComparison c where c.property1.id = :propertyId) "
+            + "and (r.staleSince is null or r.staleSince <> :staleSince)")
+    int markStaleComparingAsProperty1(@Param("propertyId") Long propertyId,
+                                      @Param("staleSince") LocalDateTime staleSince);
+
+    /**
+     * Mark the PDF reports of comparisons with a property as the second property as stale,
+     * skipping those already marked with the same time.
+     *
+     * @param propertyId the ID of the changed property
+     * @param staleSince the time of the change
+     * @return the number of PDF reports marked
+     */
+    @Modifying
+    @Query("update PdfReport r set r.staleSince = :staleSince where r.propertyComparison.id in "
+            + "(select c.id from PropertyComparison c where c.property2.id = :propertyId) "
+            + "and (r.staleSince is null or r.staleSince <> :staleSince)")
+    int markStaleComparingAsProperty2(@Param("propertyId") Long propertyId,
+                                      @Param("staleSince") LocalDateTime staleSince);
+
+    /**
+     * Point a regenerated PDF report to its new file and mark it up to date, unless it was marked
+     * stale again since it was loaded for regeneration.
+     *
+     * @param id the PDF report ID
+     * @param staleSince the stale time the report was loaded with, or null if it was up to date
+     * @param filePath the storage key of the new file
+     * @param fileSize the size of the new file in KB
+     * @param contentHash the content hash of the new file
+     * @param generationDate the date of the regeneration
+     * @return 1 if the report was updated, 0 if it changed or was deleted meanwhile
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PdfReport r set r.filePath = :filePath, r.fileSize = :fileSize, r.contentHash = :contentHash, "
+            + "r.generationDate = :generationDate, r.staleSince = null where r.id = :id "
+            + "and (r.staleSince = :staleSince or (r.staleSince is null and :staleSince is null))")
+    int replaceFile(@Param("id") Long id, @Param("staleSince") LocalDateTime staleSince,
+                    @Param("filePath") String filePath, @Param("fileSize") Long fileSize,
+                    @Param("contentHash") String contentHash, @Param("generationDate") LocalDate generationDate);
+
+    /**
+     * Delete all PDF reports for a property with a single statement, without loading them.
      *
      * @param property the property to delete PDF reports for
+     * @return the number of PDF reports deleted
+     */
+    @Modifying
+    @Query("delete from PdfReport r where r.property = :property")
+    int deleteByProperty(@Param("property") Property property);
+
+    /**
+     * Delete every PDF report that prints a property: the reports with a property comparison
+     * that includes it, the reports of the property and the reports of other properties that
+     * include one of its calculations or checklists (which reports prepared today never do).
+     * Each kind is deleted by its own statement, like {@link #markStaleByProperty}.
+     *
+     * @param property the property to delete PDF reports for
+     * @return the number of PDF reports deleted
+     */
+    default int deletePrintingProperty(Property property) {
+        return deleteComparingAsProperty1(property.getId())
+                + deleteComparingAsProperty2(property.getId())
+                + deleteWithCostBreakdownOf(property.getId())
+                + deleteWithLoanCalculationOf(property.getId())
+                + deleteWithDocumentChecklistOf(property.getId())
+                + deleteWithServiceChargeEstimateOf(property.getId())
+                + deleteByProperty(property);
+    }
+
+    /**
+     * Delete the PDF reports of comparisons with a property as the first property.
+     *
+     * @param propertyId the property ID
+     * @return the number of PDF reports deleted
+     */
+    @Modifying
+    @Query("delete from PdfReport r where r.propertyComparison.id in "
+            + "(select c.id from PropertyComparison c where c.property1.id = :propertyId)")
+    int deleteComparingAsProperty1(@Param("propertyId") Long propertyId);
+
+    /**
+     * Delete the PDF reports of comparisons with a property as the second property.
+     *
+     * @param propertyId the property ID
+     * @return the number of PDF reports deleted
+     */
+    @Modifying
+    @Query("delete from PdfReport r where r.propertyComparison.id in "
+            + "(select c.id from PropertyComparison c where c.property2.id = :propertyId)")
+    int deleteComparingAsProperty2(@Param("propertyId") Long propertyId);
+
+    /**
+     * Delete the PDF reports that include a cost breakdown of a property.
+     *
+     * @param propertyId the property ID
+     * @return the number of PDF reports deleted
+     */
+    @Modifying
+    @Query("delete from PdfReport r where r.costBreakdown.id in "
+            + "(select c.id from CostBreakdown c where c.property.id = :propertyId)")
+    int deleteWithCostBreakdownOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Delete the PDF reports that include a loan calculation of a property.
+     *
+     * @param propertyId the property ID
+     * @return the number of PDF reports deleted
+     */
+    @Modifying
+    @Query("delete from PdfReport r where r.loanCalculation.id in "
+            + "(select l.id from LoanCalculation l where l.property.id = :propertyId)")
+    int deleteWithLoanCalculationOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Delete the PDF reports that include a document checklist of a property.
+     *
+     * @param propertyId the property ID
+     * @return the number of PDF reports deleted
+     */
+    @Modifying
+    @Query("delete from PdfReport r where r.documentChecklist.id in "
+            + "(select d.id from DocumentChecklist d where d.property.id = :propertyId)")
+    int deleteWithDocumentChecklistOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Delete the PDF reports that include a service charge estimate of a property.
+     *
+     * @param propertyId the property ID
+     * @return the number of PDF reports deleted
+     */
+    @Modifying
+    @Query("delete from PdfReport r where r.serviceChargeEstimate.id in "
+            + "(select e.id from ServiceChargeEstimate e where e.property.id = :propertyId)")
+    int deleteWithServiceChargeEstimateOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find the files of every PDF report that prints a property, as deleted by
+     * {@link #deletePrintingProperty}. A file may be listed more than once.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    default List<String> findFilePathsPrintingProperty(Long propertyId) {
+        List<String> filePaths = new ArrayList<>(findFilePathsOfProperty(propertyId));
+        filePaths.addAll(findFilePathsComparingAsProperty1(propertyId));
+        filePaths.addAll(findFilePathsComparingAsProperty2(propertyId));
+        filePaths.addAll(findFilePathsWithCostBreakdownOf(propertyId));
+        filePaths.addAll(findFilePathsWithLoanCalculationOf(propertyId));
+        filePaths.addAll(findFilePathsWithDocumentChecklistOf(propertyId));
+        filePaths.addAll(findFilePathsWithServiceChargeEstimateOf(propertyId));
+        return filePaths;
+    }
+
+    /**
+     * Find the files of the PDF reports of a property.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    @Query("select r.filePath from PdfReport r where r.property.id = :propertyId")
+    List<String> findFilePathsOfProperty(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find the files of the PDF reports of comparisons with a property as the first property.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    @Query("select r.filePath from PdfReport r where r.propertyComparison.id in "
+            + "(select c.id from PropertyComparison c where c.property1.id = :propertyId)")
+    List<String> findFilePathsComparingAsProperty1(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find the files of the PDF reports of comparisons with a property as the second property.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    @Query("select r.filePath from PdfReport r where r.propertyComparison.id in "
+            + "(select c.id from PropertyComparison c where c.property2.id = :propertyId)")
+    List<String> findFilePathsComparingAsProperty2(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find the files of the PDF reports that include a cost breakdown of a property.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    @Query("select r.filePath from PdfReport r where r.costBreakdown.id in "
+            + "(select c.id from CostBreakdown c where c.property.id = :propertyId)")
+    List<String> findFilePathsWithCostBreakdownOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find the files of the PDF reports that include a loan calculation of a property.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    @Query("select r.filePath from PdfReport r where r.loanCalculation.id in "
+            + "(select l.id from LoanCalculation l where l.property.id = :propertyId)")
+    List<String> findFilePathsWithLoanCalculationOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find the files of the PDF reports that include a document checklist of a property.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    @Query("select r.filePath from PdfReport r where r.documentChecklist.id in "
+            + "(select d.id from DocumentChecklist d where d.property.id = :propertyId)")
+    List<String> findFilePathsWithDocumentChecklistOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find the files of the PDF reports that include a service charge estimate of a property.
+     *
+     * @param propertyId the property ID
+     * @return the paths of the PDF files
+     */
+    @Query("select r.filePath from PdfReport r where r.serviceChargeEstimate.id in "
+            + "(select e.id from ServiceChargeEstimate e where e.property.id = :propertyId)")
+    List<String> findFilePathsWithServiceChargeEstimateOf(@Param("propertyId") Long propertyId);
+
+    /**
+     * Find a page of PDF reports in ID order.
+     *
+     * @param afterId only PDF reports with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of PDF reports
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.PdfReportSummary("
+            + "r.id, r.property.id, r.title, r.reportType, r.fileSize, "
+            + "r.generationDate, r.sharedToEmail, r.sharedDate, r.staleSince)"
+            + " from PdfReport r where r.id > :afterId order by r.id")
+    List<PdfReportSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find a page of PDF reports within a generation date range in ID order.
+     *
+     * @param from the first generation date
+     * @param to the last generation date
+     * @param afterId only PDF reports with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of PDF reports
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.PdfReportSummary("
+            + "r.id, r.property.id, r.title, r.reportType, r.fileSize, "
+            + "r.generationDate, r.sharedToEmail, r.sharedDate, r.staleSince)"
+            + " from PdfReport r where r.generationDate between :from and :to"
+            + " and r.id > :afterId order by r.id")
+    List<PdfReportSummary> findByGenerationDateBetweenAndIdGreaterThanOrderByIdAsc(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of PDF reports in ID order, optionally within a generation date range.
+     * Without a range PDF reports without a generation date are included.
+     * Within a range the page reads every row of the range from the date index and sorts them
+     * by ID, so unlike an unfiltered page its cost grows with the number of rows in the range.
+     *
+     * @param afterId only PDF reports with a greater ID are returned
+     * @param from the first generation date, or null for no lower bound
+     * @param to the last generation date, or null for no upper bound
+     * @param pageable the page size
+     * @return the summaries of the page of PDF reports
      */
-    void deleteByProperty(Property property);
+    default List<PdfReportSummary> findPage(long afterId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null && to == null) {
+            return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return findByGenerationDateBetweenAndIdGreaterThanOrderByIdAsc(from != null ? from : DateRange.EARLIEST,
+                to != null ? to : DateRange.LATEST, afterId, pageable);
+    }
 }
\ No newline at end of file
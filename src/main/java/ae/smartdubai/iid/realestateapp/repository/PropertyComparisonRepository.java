@@ -1,13 +1,23 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertyComparisonSummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for PropertyComparison entity.
@@ -21,6 +31,7 @@ public interface PropertyComparisonRepository extends JpaRepository<PropertyComp
      * @param property1 the first property to search for
      * @return list of property comparisons for the specified first property
      */
+    @EntityGraph(attributePaths = {"property1", "property2"}, type = EntityGraph.EntityGraphType.LOAD)
     List<PropertyComparison> findByProperty1(Property property1);
 
     /**
@@ -29,6 +40,7 @@ public interface PropertyComparisonRepository extends JpaRepository<PropertyComp
      * @param property2 the second property to search for
      * @return list of property comparisons for the specified second property
      */
+    @EntityGraph(attributePaths = {"property1", "property2"}, type = EntityGraph.EntityGraphType.LOAD)
     List<PropertyComparison> findByProperty2(Property property2);
 
     /**
@@ -55,6 +67,7 @@ public interface PropertyComparisonRepository extends JpaRepository<PropertyComp
      * @param endDate the end date
      * @return list of property comparisons within the specified date range
      */
+    @EntityGraph(attributePaths = {"property1", "property2"}, type = EntityGraph.EntityGraphType.LOAD)
     List<PropertyComparison> findByComparisonDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
@@ -62,6 +75,7 @@ public interface PropertyComparisonRepository extends JpaRepository<PropertyComp
      *
      * @return list of rent vs buy comparisons
      */
+    @EntityGraph(attributePaths = {"property1", "property2"}, type = EntityGraph.EntityGraphType.LOAD)
     List<PropertyComparison> findByIsRentVsBuyTrue();
 
     /**
@@ -69,13 +83,108 @@ public interface PropertyComparisonRepository extends JpaRepository<PropertyComp
      *
      * @return list of property vs property comparisons
      */
+    @EntityGraph(attributePaths = {"property1", "property2"}, type = EntityGraph.EntityGraphType.LOAD)
     List<PropertyComparison> findByIsRentVsBuyFalse();
 
     /**
-     * Delete all property comparisons for a property.
+     * Delete all property comparisons for a property. Each side is looked up through its own
+     * index, since an OR across the two columns would scan every comparison.
      *
      * @param property1 the first property to delete property comparisons for
      * @param property2 the second property to delete property comparisons for
+     * @return the number of property comparisons deleted
      */
-    void deleteByProperty1OrProperty2(Property property1, Property property2);
+    default int deleteByProperty1OrProperty2(Property property1, Property property2) {
+        return deleteByProperty1(property1) + deleteByProperty2(property2);
+    }
+
+    /**
+     * Delete all property comparisons with a property as the first property with a single
+     * statement, without loading them.
+     *
+     * @param property1 the first property to delete property comparisons for
+     * @return the number of property comparisons deleted
+     */
+    @Modifying
+    @Query("delete from PropertyComparison c where c.property1 = :property1")
+    int deleteByProperty1(@Param("property1") Property property1);
+
+    /**
+     * Delete all property comparisons with a property as the second property with a single
+     * statement, without loading them.
+     *
+     * @param property2 the second property to delete property comparisons for
+     * @return the number of property comparisons deleted
+     */
+    @Modifying
+    @Query("delete from PropertyComparison c where c.property2 = :property2")
+    int deleteByProperty2(@Param("property2") Property property2);
+
+    /**
+     * Find a page of property comparisons in ID order.
+     *
+     * @param afterId only property comparisons with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of property comparisons
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.PropertyComparisonSummary("
+            + "c.id, c.property1.id, c.property2.id, c.isRentVsBuy, "
+            + "c.holdingPeriodYears, c.comparisonDate, c.breakEvenYears, "
+            + "c.property1TotalCost, c.property2TotalCost, c.property1Roi, c.property2Roi)"
+            + " from PropertyComparison c where c.id > :afterId order by c.id")
+    List<PropertyComparisonSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find a page of property comparisons within a comparison date range in ID order.
+     *
+     * @param from the first comparison date
+     * @param to the last comparison date
+     * @param afterId only property comparisons with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of property comparisons
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.PropertyComparisonSummary("
+            + "c.id, c.property1.id, c.property2.id, c.isRentVsBuy, "
+            + "c.holdingPeriodYears, c.comparisonDate, c.breakEvenYears, "
+            + "c.property1TotalCost, c.property2TotalCost, c.property1Roi, c.property2Roi)"
+            + " from PropertyComparison c where c.comparisonDate between :from and :to"
+            + " and c.id > :afterId order by c.id")
+    List<PropertyComparisonSummary> findByComparisonDateBetweenAndIdGreaterThanOrderByIdAsc(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of property comparisons in ID order, optionally within a comparison date range.
+     * Without a range property comparisons without a comparison date are included.
+     * Within a range the page reads every row of the range from the date index and sorts them
+     * by ID, so unlike an unfiltered page its cost grows with the number of rows in the range.
+     *
+     * @param afterId only property comparisons with a greater ID are returned
+     * @param from the first comparison date, or null for no lower bound
+     * @param to the last comparison date, or null for no upper bound
+     * @param pageable the page size
+     * @return the summaries of the page of property comparisons
+     */
+    default List<PropertyComparisonSummary> findPage(long afterId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null && to == null) {
+            return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return findByComparisonDateBetweenAndIdGreaterThanOrderByIdAsc(from != null ? from : DateRange.EARLIEST,
+                to != null ? to : DateRange.LATEST, afterId, pageable);
+    }
+
+    /**
+     * Stream all property comparisons in ID order, with both properties, for export. The rows
+     * are read in batches of the fetch size and are not tracked for changes; the stream must be
+     * consumed within a transaction and closed.
+     *
+     * @return the stream of property comparisons
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from PropertyComparison c left join fetch c.property1 left join fetch c.property2 "
+            + "order by c.id")
+    Stream<PropertyComparison> streamAll();
 }
@@ -1,7 +1,11 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertySummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -30,12 +34,14 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
     List<Property> findByPriceBetween(Double minPrice, Double maxPrice);
 
     /**
-     * Find properties by property type.
+     * Find properties by property type, in any case. The match ignores case only because the
+     * column is H2's VARCHAR_IGNORECASE, which lets plain equality use the index; on another
+     * database the column needs a case-insensitive collation, or this becomes case-sensitive.
      *
      * @param propertyType the property type to search for
      * @return list of properties of the specified type
      */
-    List<Property> findByPropertyTypeIgnoreCase(String propertyType);
+    List<Property> findByPropertyType(String propertyType);
 
     /**
      * Find properties by community name.
@@ -61,4 +67,17 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
      * @return list of properties within the specified size range
      */
     List<Property> findBySizeBetween(Double minSize, Double maxSize);
+
+    /**
+     * Find a page of properties in ID order.
+     *
+     * @param afterId only properties with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of properties
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.PropertySummary("
+            + "p.id, p.name, p.location, p.price, p.size, p.bedrooms, p.bathrooms, "
+            + "p.propertyType, p.communityName, p.isFurnished, p.yearBuilt)"
+            + " from Property p where p.id > :afterId order by p.id")
+    List<PropertySummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
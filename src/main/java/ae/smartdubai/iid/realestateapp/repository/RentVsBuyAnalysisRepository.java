@@ -1,11 +1,21 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuyAnalysisSummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.model.RentVsBuyAnalysis;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for the RentVsBuyAnalysis entity.
@@ -22,9 +32,79 @@ public interface RentVsBuyAnalysisRepository extends JpaRepository<RentVsBuyAnal
     List<RentVsBuyAnalysis> findByProperty(Property property);
     
     /**
-     * Delete all analyses for a specific property.
+     * Delete all analyses for a specific property with a single statement, without loading them.
      *
      * @param property the property
+     * @return the number of analyses deleted
      */
-    void deleteByProperty(Property property);
+    @Modifying
+    @Query("delete from RentVsBuyAnalysis a where a.property = :property")
+    int deleteByProperty(@Param("property") Property property);
+
+    /**
+     * Find a page of rent vs buy analyses in ID order.
+     *
+     * @param afterId only rent vs buy analyses with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of rent vs buy analyses
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.RentVsBuyAnalysisSummary("
+            + "r.id, r.property.id, r.monthlyRent, r.analysisPeriodYears, "
+            + "r.totalCostOfBuying, r.totalCostOfRenting, r.netWorthAfterBuying, "
+            + "r.netWorthAfterRenting, r.isBuyingBetter, r.breakEvenYears, r.analysisDate)"
+            + " from RentVsBuyAnalysis r where r.id > :afterId order by r.id")
+    List<RentVsBuyAnalysisSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Find a page of rent vs buy analyses within an analysis date range in ID order.
+     *
+     * @param from the first analysis date
+     * @param to the last analysis date
+     * @param afterId only rent vs buy analyses with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of rent vs buy analyses
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.RentVsBuyAnalysisSummary("
+            + "r.id, r.property.id, r.monthlyRent, r.analysisPeriodYears, "
+            + "r.totalCostOfBuying, r.totalCostOfRenting, r.netWorthAfterBuying, "
+            + "r.netWorthAfterRenting, r.isBuyingBetter, r.breakEvenYears, r.analysisDate)"
+            + " from RentVsBuyAnalysis r where r.analysisDate between :from and :to"
+            + " and r.id > :afterId order by r.id")
+    List<RentVsBuyAnalysisSummary> findByAnalysisDateBetweenAndIdGreaterThanOrderByIdAsc(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of rent vs buy analyses in ID order, optionally within an analysis date range.
+     * Without a range rent vs buy analyses without an analysis date are included.
+     * Within a range the page reads every row of the range from the date index and sorts them
+     * by ID, so unlike an unfiltered page its cost grows with the number of rows in the range.
+     *
+     * @param afterId only rent vs buy analyses with a greater ID are returned
+     * @param from the first analysis date, or null for no lower bound
+     * @param to the last analysis date, or null for no upper bound
+     * @param pageable the page size
+     * @return the summaries of the page of rent vs buy analyses
+     */
+    default List<RentVsBuyAnalysisSummary> findPage(long afterId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null && to == null) {
+            return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return findByAnalysisDateBetweenAndIdGreaterThanOrderByIdAsc(from != null ? from : DateRange.EARLIEST,
+                to != null ? to : DateRange.LATEST, afterId, pageable);
+    }
+
+    /**
+     * Stream all rent vs buy analyses in ID order, with their properties, for export. The rows are read
+     * in batches of the fetch size and are not tracked for changes; the stream must be consumed
+     * within a transaction and closed.
+     *
+     * @return the stream of rent vs buy analyses
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from RentVsBuyAnalysis a left join fetch a.property order by a.id")
+    Stream<RentVsBuyAnalysis> streamAll();
 }
\ No newline at end of file
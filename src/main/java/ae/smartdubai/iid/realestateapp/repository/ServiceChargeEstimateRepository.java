@@ -1,13 +1,24 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.ServiceChargeEstimateSummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.model.ServiceChargeEstimate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for ServiceChargeEstimate entity.
@@ -23,6 +34,23 @@ public interface ServiceChargeEstimateRepository extends JpaRepository<ServiceCh
      */
     List<ServiceChargeEstimate> findByProperty(Property property);
 
+    /**
+     * Find the latest service charge estimate of each of several properties in a single query: the one
+     * with the latest estimate date, and of those the one with the highest ID. Only the latest
+     * row per property is read into memory, however long the history. Undated rows are never picked.
+     *
+     * @param propertyIds the IDs of the properties to search for
+     * @return at most one service charge estimate per property
+     */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("select e from ServiceChargeEstimate e where e.id in ("
+            + "select max(m.id) from ServiceChargeEstimate m join ("
+            + "select d.property.id as propertyId, max(d.estimateDate) as latestDate from ServiceChargeEstimate d "
+            + "where d.property.id in :propertyIds group by d.property.id) latest "
+            + "on m.property.id = latest.propertyId and m.estimateDate = latest.latestDate "
+            + "group by m.property.id)")
+    List<ServiceChargeEstimate> findLatestByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+
     /**
      * Find the latest service charge estimate for a property.
      *
@@ -32,20 +60,26 @@ public interface ServiceChargeEstimateRepository extends JpaRepository<ServiceCh
     Optional<ServiceChargeEstimate> findFirstByPropertyOrderByEstimateDateDesc(Property property);
 
     /**
-     * Find service charge estimates by community name.
+     * Find service charge estimates by community name, in any case. The match ignores case only
+     * because the column is H2's VARCHAR_IGNORECASE, which lets plain equality use the index; on
+     * another database the column needs a case-insensitive collation, or this becomes case-sensitive.
      *
      * @param communityName the community name to search for
      * @return list of service charge estimates for the specified community
      */
-    List<ServiceChargeEstimate> findByCommunityNameIgnoreCase(String communityName);
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
+    List<ServiceChargeEstimate> findByCommunityName(String communityName);
 
     /**
-     * Find service charge estimates by property type.
+     * Find service charge estimates by property type, in any case. The match ignores case only
+     * because the column is H2's VARCHAR_IGNORECASE; on another database the column needs a
+     * case-insensitive collation, or this becomes case-sensitive.
      *
      * @param propertyType the property type to search for
      * @return list of service charge estimates for the specified property type
      */
-    List<ServiceChargeEstimate> findByPropertyTypeIgnoreCase(String propertyType);
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
+    List<ServiceChargeEstimate> findByPropertyType(String propertyType);
 
     /**
      * Find service charge estimates by property size range.
@@ -54,6 +88,7 @@ public interface ServiceChargeEstimateRepository extends JpaRepository<ServiceCh
      * @param maxSize the maximum property size
      * @return list of service charge estimates within the specified property size range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<ServiceChargeEstimate> findByPropertySizeBetween(Double minSize, Double maxSize);
 
     /**
@@ -63,6 +98,7 @@ public interface ServiceChargeEstimateRepository extends JpaRepository<ServiceCh
      * @param maxCharge the maximum annual service charge
      * @return list of service charge estimates within the specified annual service charge range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<ServiceChargeEstimate> findByAnnualServiceChargeBetween(Double minCharge, Double maxCharge);
 
     /**
@@ -72,6 +108,7 @@ public interface ServiceChargeEstimateRepository extends JpaRepository<ServiceCh
      * @param endDate the end date
      * @return list of service charge estimates within the specified date range
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<ServiceChargeEstimate> findByEstimateDateBetween(LocalDate startDate, LocalDate endDate);
 
     /**
@@ -79,20 +116,95 @@ public interface ServiceChargeEstimateRepository extends JpaRepository<ServiceCh
      *
      * @return list of pre-filled service charge estimates
      */
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
     List<ServiceChargeEstimate> findByIsPreFilledTrue();
 
     /**
-     * Find pre-filled service charge estimates by community name.
+     * Find pre-filled service charge estimates by community name, in any case. The match ignores
+     * case only because the column is H2's VARCHAR_IGNORECASE; on another database the column
+     * needs a case-insensitive collation, or this becomes case-sensitive.
      *
      * @param communityName the community name to search for
      * @return list of pre-filled service charge estimates for the specified community
      */
-    List<ServiceChargeEstimate> findByIsPreFilledTrueAndCommunityNameIgnoreCase(String communityName);
+    @EntityGraph(attributePaths = "property", type = EntityGraph.EntityGraphType.LOAD)
+    List<ServiceChargeEstimate> findByIsPreFilledTrueAndCommunityName(String communityName);
 
     /**
-     * Delete all service charge estimates for a property.
+     * Delete all service charge estimates for a property with a single statement, without loading them.
      *
      * @param property the property to delete service charge estimates for
+     * @return the number of service charge estimates deleted
+     */
+    @Modifying
+    @Query("delete from ServiceChargeEstimate e where e.property = :property")
+    int deleteByProperty(@Param("property") Property property);
+
+    /**
+     * Find a page of service charge estimates in ID order.
+     *
+     * @param afterId only service charge estimates with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of service charge estimates
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.ServiceChargeEstimateSummary("
+            + "s.id, s.property.id, s.communityName, s.propertyType, s.propertySize, "
+            + "s.annualServiceCharge, s.totalAnnualCharges, s.monthlyCharges, "
+            + "s.estimateYear, s.estimateDate, s.isPreFilled)"
+            + " from ServiceChargeEstimate s where s.id > :afterId order by s.id")
+    List<ServiceChargeEstimateSummary> findByIdGreaterThanOrderByIdAsc(@Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of service charge estimates within an estimate date range in ID order.
+     *
+     * @param from the first estimate date
+     * @param to the last estimate date
+     * @param afterId only service charge estimates with a greater ID are returned
+     * @param pageable the page size
+     * @return the summaries of the page of service charge estimates
+     */
+    @Query("select new ae.smartdubai.iid.realestateapp.dto.ServiceChargeEstimateSummary("
+            + "s.id, s.property.id, s.communityName, s.propertyType, s.propertySize, "
+            + "s.annualServiceCharge, s.totalAnnualCharges, s.monthlyCharges, "
+            + "s.estimateYear, s.estimateDate, s.isPreFilled)"
+            + " from ServiceChargeEstimate s where s.estimateDate between :from and :to"
+            + " and s.id > :afterId order by s.id")
+    List<ServiceChargeEstimateSummary> findByEstimateDateBetweenAndIdGreaterThanOrderByIdAsc(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Find a page of service charge estimates in ID order, optionally within an estimate date range.
+     * Without a range service charge estimates without an estimate date are included.
+     * Within a range the page reads every row of the range from the date index and sorts them
+     * by ID, so unlike an unfiltered page its cost grows with the number of rows in the range.
+     *
+     * @param afterId only service charge estimates with a greater ID are returned
+     * @param from the first estimate date, or null for no lower bound
+     * @param to the last estimate date, or null for no upper bound
+     * @param pageable the page size
+     * @return the summaries of the page of service charge estimates
+     */
+    default List<ServiceChargeEstimateSummary> findPage(long afterId, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from == null && to == null) {
+            return findByIdGreaterThanOrderByIdAsc(afterId, pageable);
+        }
+        return findByEstimateDateBetweenAndIdGreaterThanOrderByIdAsc(from != null ? from : DateRange.EARLIEST,
+                to != null ? to : DateRange.LATEST, afterId, pageable);
+    }
+
+    /**
+     * Stream all service charge estimates in ID order, with their properties, for export. The rows are read
+     * in batches of the fetch size and are not tracked for changes; the stream must be consumed
+     * within a transaction and closed.
+     *
+     * @return the stream of service charge estimates
      */
-    void deleteByProperty(Property property);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from ServiceChargeEstimate e left join fetch e.property order by e.id")
+    Stream<ServiceChargeEstimate> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import ae.smartdubai.iid.realestateapp.model.ShareOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for ShareOutboxEvent entity.
+ */
+@Repository
+public interface ShareOutboxRepository extends JpaRepository<ShareOutboxEvent, Long> {
+
+    /**
+     * Find the events of a status that are due, oldest due first.
+     *
+     * @param status the status to search for
+     * @param now the current time
+     * @param pageable the maximum number of events
+     * @return the due events
+     */
+    List<ShareOutboxEvent> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            ShareOutboxEvent.Status status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Find the oldest event of a status.
+     *
+     * @param status the status to search for
+     * @return the oldest event with the status
+     */
+    Optional<ShareOutboxEvent> findFirstByStatusOrderByCreatedAtAsc(ShareOutboxEvent.Status status);
+
+    /**
+     * Count the events of a status.
+     *
+     * @param status the status to count
+     * @return the number of events with the status
+     */
+    long countByStatus(ShareOutboxEvent.Status status);
+
+    /**
+     * Find the events of a PDF report.
+     *
+     * @param pdfReportId the PDF report ID
+     * @return the events of the report
+     */
+    List<ShareOutboxEvent> findByPdfReportId(Long pdfReportId);
+}
@@ -0,0 +1,134 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bounded, TTL-evicting cache of deterministic calculator results.
+ * <p>
+ * Results are keyed by calculator, property and the normalized request parameters. Since they
+ * also depend on the property itself, {@link #invalidateProperty(Long)} must be called whenever a
+ * property changes. Values are copied on the way in and out, so callers are free to modify
+ * (and save) what they get back. Hit and miss counts are published as {@code cache.gets}
+ * metrics with {@code cache=calculations}.
+ */
+@Component
+public class CalculationCache {
+
+    private final Cache<Key, Object> cache;
+
+    public CalculationCache(MeterRegistry meterRegistry,
+                            @Value("${calculation.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${calculation.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "calculations");
+    }
+
+    /**
+     * Get a copy of a cached result.
+     *
+     * @param key the cache key
+     * @param type the result type
+     * @return a copy of the cached result, or null on a miss
+     */
+    public <T> T get(Key key, Class<T> type) {
+        Object cached = cache.getIfPresent(key);
+        return cached == null ? null : copy(type.cast(cached));
+    }
+
+    /**
+     * Store a copy of a computed result.
+     *
+     * @param key the cache key
+     * @param value the computed result
+     */
+    public void put(Key key, Object value) {
+        cache.put(key, copy(value));
+    }
+
+    /**
+     * Remove every cached result computed for a property.
+     *
+     * @param propertyId the property ID
+     */
+    public void invalidateProperty(Long propertyId) {
+        cache.asMap().keySet().removeIf(key -> propertyId.equals(key.getPropertyId()));
+    }
+
+    /**
+     * Get the number of cache hits so far.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Get the number of cache misses so far.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T copy(T source) {
+        T target = (T) BeanUtils.instantiateClass(source.getClass());
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+
+    /**
+     * Cache key made of the calculator name, the property ID and the normalized inputs.
+     */
+    @Data
+    public static class Key {
+        private final String calculator;
+        private final Long propertyId;
+        private final List<Object> inputs;
+
+        /**
+         * Build a key, normalizing inputs so that equivalent requests share an entry:
+         * strings are upper-cased, and negative zero is folded into zero.
+         *
+         * @param calculator the calculator name
+         * @param propertyId the property ID
+         * @param inputs the request parameters
+         * @return the cache key
+         */
+        public static Key of(String calculator, Long propertyId, Object... inputs) {
+            Object[] normalized = new Object[inputs.length];
+            for (int i = 0; i < inputs.length; i++) {
+                normalized[i] = normalize(inputs[i]);
+            }
+            return new Key(calculator, propertyId, Arrays.asList(normalized));
+        }
+
+        private static Object normalize(Object input) {
+            if (input instanceof String) {
+                return ((String) input).toUpperCase(Locale.ROOT);
+            }
+            if (input instanceof Double) {
+                return (Double) input + 0.0;
+            }
+            return input;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
+import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import ae.smartdubai.iid.realestateapp.model.RentVsBuyAnalysis;
+import ae.smartdubai.iid.realestateapp.model.ServiceChargeEstimate;
+import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
+import ae.smartdubai.iid.realestateapp.repository.RentVsBuyAnalysisRepository;
+import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
+import ae.smartdubai.iid.realestateapp.util.RecordWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for exporting the full history of calculations as NDJSON or CSV.
+ * <p>
+ * Rows are streamed from the database in batches of the fetch size and written one at a
+ * time, and the persistence context is cleared after every batch, so heap use stays the
+ * same however many rows are exported. Each row carries the IDs of its properties rather
+ * than the properties themselves.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalculationExportService {
+
+    // Rows read between two clears of the persistence context, the fetch size of the export queries
+    static final int CLEAR_INTERVAL = 500;
+
+    private static final String[] LOAN_CALCULATION_COLUMNS = {
+            "id", "propertyId", "loanAmount", "downPayment", "interestRate", "tenureYears", "monthlyEmi",
+            "totalInterest", "totalPayable", "loanToValueRatio", "calculationDate", "firstEmiPrincipal",
+            "firstEmiInterest", "lastEmiPrincipal", "lastEmiInterest"
+    };
+
+    private static final String[] COST_BREAKDOWN_COLUMNS = {
+            "id", "propertyId", "dldFee", "agencyFee", "registrationFee", "mortgageRegistrationFee", "valuationFee",
+            "mortgageProcessingFee", "lifeInsuranceCost", "propertyInsuranceCost", "maintenanceDeposit",
+            "utilityConnectionFees", "movingCosts", "totalCost", "calculationDate"
+    };
+
+    private static final String[] RENT_VS_BUY_ANALYSIS_COLUMNS = {
+            "id", "propertyId", "downPayment", "interestRate", "loanTenureYears", "propertyAppreciationRate",
+            "annualMaintenanceCost", "annualPropertyTax", "monthlyRent", "annualRentIncreaseRate", "securityDeposit",
+            "investmentReturnRate", "analysisPeriodYears", "totalCostOfBuying", "totalCostOfRenting",
+            "netWorthAfterBuying", "netWorthAfterRenting", "isBuyingBetter", "breakEvenYears", "analysisDate"
+    };
+
+    private static final String[] SERVICE_CHARGE_ESTIMATE_COLUMNS = {
+            "id", "propertyId", "communityName", "propertyType", "propertySize", "serviceChargeRatePerSqFt",
+            "annualServiceCharge", "coolingCharges", "buildingMaintenanceFee", "securityFee", "cleaningFee",
+            "parkingFee", "gymAndPoolFee", "miscCharges", "totalAnnualCharges", "monthlyCharges", "estimateYear",
+            "estimateDate", "isPreFilled"
+    };
+
+    private static final String[] PROPERTY_COMPARISON_COLUMNS = {
+            "id", "property1Id", "property2Id", "isRentVsBuy", "monthlyRent", "annualRentIncrease",
+            "investmentReturnRate", "propertyAppreciationRate", "holdingPeriodYears", "comparisonDate",
+            "breakEvenYears", "buyingNpv", "rentingNpv", "property1TotalCost", "property2TotalCost",
+            "property1Roi", "property2Roi"
+    };
+
+    private final LoanCalculationRepository loanCalculationRepository;
+    private final CostBreakdownRepository costBreakdownRepository;
+    private final RentVsBuyAnalysisRepository rentVsBuyAnalysisRepository;
+    private final ServiceChargeEstimateRepository serviceChargeEstimateRepository;
+    private final PropertyComparisonRepository propertyComparisonRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Export all loan calculations in ID order.
+     *
+     * @param format the output format
+     * @param writer the writer to write rows to (not flushed or closed)
+     * @return the number of rows exported
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long exportLoanCalculations(RecordWriter.Format format, Writer writer) throws IOException {
+        try (Stream<LoanCalculation> rows = loanCalculationRepository.streamAll()) {
+            return export(rows, format, writer, LOAN_CALCULATION_COLUMNS, calculation -> new Object[]{
+                    calculation.getId(), propertyId(calculation.getProperty()), calculation.getLoanAmount(),
+                    calculation.getDownPayment(), calculation.getInterestRate(), calculation.getTenureYears(),
+                    calculation.getMonthlyEmi(), calculation.getTotalInterest(), calculation.getTotalPayable(),
+                    calculation.getLoanToValueRatio(), calculation.getCalculationDate(),
+                    calculation.getFirstEmiPrincipal(), calculation.getFirstEmiInterest(),
+                    calculation.getLastEmiPrincipal(), calculation.getLastEmiInterest()
+            });
+        }
+    }
+
+    /**
+     * Export all cost breakdowns in ID order.
+     *
+     * @param format the output format
+     * @param writer the writer to write rows to (not flushed or closed)
+     * @return the number of rows exported
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long exportCostBreakdowns(RecordWriter.Format format, Writer writer) throws IOException {
+        try (Stream<CostBreakdown> rows = costBreakdownRepository.streamAll()) {
+            return export(rows, format, writer, COST_BREAKDOWN_COLUMNS, breakdown -> new Object[]{
+                    breakdown.getId(), propertyId(breakdown.getProperty()), breakdown.getDldFee(),
+                    breakdown.getAgencyFee(), breakdown.getRegistrationFee(), breakdown.getMortgageRegistrationFee(),
+                    breakdown.getValuationFee(), breakdown.getMortgageProcessingFee(),
+                    breakdown.getLifeInsuranceCost(), breakdown.getPropertyInsuranceCost(),
+                    breakdown.getMaintenanceDeposit(), breakdown.getUtilityConnectionFees(),
+                    breakdown.getMovingCosts(), breakdown.getTotalCost(), breakdown.getCalculationDate()
+            });
+        }
+    }
+
+    /**
+     * Export all rent vs buy analyses in ID order.
+     *
+     * @param format the output format
+     * @param writer the writer to write rows to (not flushed or closed)
+     * @return the number of rows exported
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long exportRentVsBuyAnalyses(RecordWriter.Format format, Writer writer) throws IOException {
+        try (Stream<RentVsBuyAnalysis> rows = rentVsBuyAnalysisRepository.streamAll()) {
+            return export(rows, format, writer, RENT_VS_BUY_ANALYSIS_COLUMNS, analysis -> new Object[]{
+                    analysis.getId(), propertyId(analysis.getProperty()), analysis.getDownPayment(),
+                    analysis.getInterestRate(), analysis.getLoanTenureYears(), analysis.getPropertyAppreciationRate(),
+                    analysis.getAnnualMaintenanceCost(), analysis.getAnnualPropertyTax(), analysis.getMonthlyRent(),
+                    analysis.getAnnualRentIncreaseRate(), analysis.getSecurityDeposit(),
+                    analysis.getInvestmentReturnRate(), analysis.getAnalysisPeriodYears(),
+                    analysis.getTotalCostOfBuying(), analysis.getTotalCostOfRenting(),
+                    analysis.getNetWorthAfterBuying(), analysis.getNetWorthAfterRenting(),
+                    analysis.getIsBuyingBetter(), analysis.getBreakEvenYears(), analysis.getAnalysisDate()
+            });
+        }
+    }
+
+    /**
+     * Export all service charge estimates in ID order.
+     *
+     * @param format the output format
+     * @param writer the writer to write rows to (not flushed or closed)
+     * @return the number of rows exported
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long exportServiceChargeEstimates(RecordWriter.Format format, Writer writer) throws IOException {
+        try (Stream<ServiceChargeEstimate> rows = serviceChargeEstimateRepository.streamAll()) {
+            return export(rows, format, writer, SERVICE_CHARGE_ESTIMATE_COLUMNS, estimate -> new Object[]{
+                    estimate.getId(), propertyId(estimate.getProperty()), estimate.getCommunityName(),
+                    estimate.getPropertyType(), estimate.getPropertySize(), estimate.getServiceChargeRatePerSqFt(),
+                    estimate.getAnnualServiceCharge(), estimate.getCoolingCharges(),
+                    estimate.getBuildingMaintenanceFee(), estimate.getSecurityFee(), estimate.getCleaningFee(),
+                    estimate.getParkingFee(), estimate.getGymAndPoolFee(), estimate.getMiscCharges(),
+                    estimate.getTotalAnnualCharges(), estimate.getMonthlyCharges(), estimate.getEstimateYear(),
+                    estimate.getEstimateDate(), estimate.getIsPreFilled()
+            });
+        }
+    }
+
+    /**
+     * Export all property comparisons in ID order.
+     *
+     * @param format the output format
+     * @param writer the writer to write rows to (not flushed or closed)
+     * @return the number of rows exported
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long exportPropertyComparisons(RecordWriter.Format format, Writer writer) throws IOException {
+        try (Stream<PropertyComparison> rows = propertyComparisonRepository.streamAll()) {
+            return export(rows, format, writer, PROPERTY_COMPARISON_COLUMNS, comparison -> new Object[]{
+                    comparison.getId(), propertyId(comparison.getProperty1()), propertyId(comparison.getProperty2()),
+                    comparison.getIsRentVsBuy(), comparison.getMonthlyRent(), comparison.getAnnualRentIncrease(),
+                    comparison.getInvestmentReturnRate(), comparison.getPropertyAppreciationRate(),
+                    comparison.getHoldingPeriodYears(), comparison.getComparisonDate(),
+                    comparison.getBreakEvenYears(), comparison.getBuyingNpv(), comparison.getRentingNpv(),
+                    comparison.getProperty1TotalCost(), comparison.getProperty2TotalCost(),
+                    comparison.getProperty1Roi(), comparison.getProperty2Roi()
+            });
+        }
+    }
+
+    /**
+     * Write the rows of a stream, clearing the persistence context after every batch so the
+     * rows already written can be collected.
+     */
+    private <T> long export(Stream<T> rows, RecordWriter.Format format, Writer writer, String[] columns,
+                            RowValues<T> values) throws IOException {
+        RecordWriter recordWriter = RecordWriter.start(writer, format, columns);
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            recordWriter.write(values.of(iterator.next()));
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+
+    private static Long propertyId(Property property) {
+        return property != null ? property.getId() : null;
+    }
+
+    /**
+     * Extracts the column values of a row.
+     */
+    private interface RowValues<T> {
+        Object[] of(T row);
+    }
+}
@@ -0,0 +1,51 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters for calculator invocations, split by whether the result was stored.
+ * <p>
+ * {@code calculations.persisted} counts database writes performed by the calculators and
+ * {@code calculations.preview} counts the writes avoided by preview requests, both tagged with
+ * the calculator name. They are available under /actuator/metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class CalculationMetrics {
+
+    public static final String LOAN = "loan";
+    public static final String COST_BREAKDOWN = "cost-breakdown";
+    public static final String SERVICE_CHARGE = "service-charge";
+    public static final String RENT_VS_BUY = "rent-vs-buy";
+    public static final String PROPERTY_COMPARISON = "property-comparison";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Record a calculation that was saved to the database.
+     *
+     * @param calculator the calculator name
+     */
+    public void recordPersisted(String calculator) {
+        counter("calculations.persisted", calculator, "Calculator results written to the database").increment();
+    }
+
+    /**
+     * Record a preview calculation, i.e. a database write that was avoided.
+     *
+     * @param calculator the calculator name
+     */
+    public void recordPreview(String calculator) {
+        counter("calculations.preview", calculator, "Calculator results returned without a database write").increment();
+    }
+
+    private Counter counter(String name, String calculator, String description) {
+        return Counter.builder(name)
+                .tag("calculator", calculator)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
@@ -1,10 +1,12 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.CostBreakdownSummary;
 import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,8 @@ public class CostBreakdownService {
 
     private final CostBreakdownRepository costBreakdownRepository;
     private final PropertyRepository propertyRepository;
+    private final CalculationMetrics calculationMetrics;
+    private final CalculationCache calculationCache;
 
     // Constants for fee calculations
     private static final double DLD_FEE_PERCENTAGE = 0.04; // 4% of property price
@@ -33,13 +37,17 @@ public class CostBreakdownService {
     private static final double PROPERTY_INSURANCE_PERCENTAGE = 0.0025; // 0.25% of property price per year
 
     /**
-     * Get all cost breakdowns.
+     * Get a page of cost breakdowns in ID order, optionally within a calculation date range.
      *
-     * @return list of all cost breakdowns
+     * @param afterId only cost breakdowns with a greater ID are returned
+     * @param from the first calculation date, or null for no lower bound
+     * @param to the last calculation date, or null for no upper bound
+     * @param limit the maximum number of cost breakdowns
+     * @return the summaries of the page of cost breakdowns
      */
     @Transactional(readOnly = true)
-    public List<CostBreakdown> getAllCostBreakdowns() {
-        return costBreakdownRepository.findAll();
+    public List<CostBreakdownSummary> getCostBreakdownPage(long afterId, LocalDate from, LocalDate to, int limit) {
+        return costBreakdownRepository.findPage(afterId, from, to, PageRequest.of(0, limit));
     }
 
     /**
@@ -80,6 +88,58 @@ public class CostBreakdownService {
     public CostBreakdown calculateCostBreakdown(Long propertyId, Double mortgageAmount, 
                                                Double lifeInsuranceCost, Double maintenanceDeposit,
                                                Double utilityConnectionFees, Double movingCosts) {
+        CostBreakdown costBreakdown = computeCostBreakdown(propertyId, mortgageAmount, lifeInsuranceCost,
+                maintenanceDeposit, utilityConnectionFees, movingCosts);
+        calculationMetrics.recordPersisted(CalculationMetrics.COST_BREAKDOWN);
+        return costBreakdownRepository.save(costBreakdown);
+    }
+
+    /**
+     * Calculate a cost breakdown for a property without saving it.
+     *
+     * @param propertyId the property ID
+     * @param mortgageAmount the mortgage amount (0 if no mortgage)
+     * @param lifeInsuranceCost the life insurance cost (0 if not applicable)
+     * @param maintenanceDeposit the maintenance deposit (0 if not applicable)
+     * @param utilityConnectionFees the utility connection fees
+     * @param movingCosts the moving costs
+     * @return the calculated, unsaved cost breakdown
+     */
+    @Transactional(readOnly = true)
+    public CostBreakdown previewCostBreakdown(Long propertyId, Double mortgageAmount,
+                                             Double lifeInsuranceCost, Double maintenanceDeposit,
+                                             Double utilityConnectionFees, Double movingCosts) {
+        CostBreakdown costBreakdown = computeCostBreakdown(propertyId, mortgageAmount, lifeInsuranceCost,
+                maintenanceDeposit, utilityConnectionFees, movingCosts);
+        calculationMetrics.recordPreview(CalculationMetrics.COST_BREAKDOWN);
+        return costBreakdown;
+    }
+
+    /**
+     * Get a cost breakdown from the cache, computing and caching it on a miss.
+     */
+    private CostBreakdown computeCostBreakdown(Long propertyId, Double mortgageAmount,
+                                               Double lifeInsuranceCost, Double maintenanceDeposit,
+                                               Double utilityConnectionFees, Double movingCosts) {
+        CalculationCache.Key cacheKey = CalculationCache.Key.of(CalculationMetrics.COST_BREAKDOWN, propertyId,
+                mortgageAmount, lifeInsuranceCost, maintenanceDeposit, utilityConnectionFees, movingCosts);
+        CostBreakdown costBreakdown = calculationCache.get(cacheKey, CostBreakdown.class);
+        if (costBreakdown == null) {
+            costBreakdown = buildCostBreakdown(propertyId, mortgageAmount, lifeInsuranceCost,
+                    maintenanceDeposit, utilityConnectionFees, movingCosts);
+            calculationCache.put(cacheKey, costBreakdown);
+        } else {
+            costBreakdown.setCalculationDate(LocalDate.now());
+        }
+        return costBreakdown;
+    }
+
+    /**
+     * Compute a cost breakdown for a property.
+     */
+    private CostBreakdown buildCostBreakdown(Long propertyId, Double mortgageAmount,
+                                             Double lifeInsuranceCost, Double maintenanceDeposit,
+                                             Double utilityConnectionFees, Double movingCosts) {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
         
@@ -135,7 +195,7 @@ public class CostBreakdownService {
         costBreakdown.setTotalCost(totalCost);
         costBreakdown.setCalculationDate(LocalDate.now());
         
-        return costBreakdownRepository.save(costBreakdown);
+        return costBreakdown;
     }
 
     /**
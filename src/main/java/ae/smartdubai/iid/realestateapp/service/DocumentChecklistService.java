@@ -1,10 +1,12 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.DocumentChecklistSummary;
 import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.repository.DocumentChecklistRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,13 +28,18 @@ public class DocumentChecklistService {
     private final PropertyRepository propertyRepository;
 
     /**
-     * Get all document checklists.
+     * Get a page of document checklists in ID order, optionally within a creation date range.
      *
-     * @return list of all document checklists
+     * @param afterId only document checklists with a greater ID are returned
+     * @param from the first creation date, or null for no lower bound
+     * @param to the last creation date, or null for no upper bound
+     * @param limit the maximum number of document checklists
+     * @return the summaries of the page of document checklists
      */
     @Transactional(readOnly = true)
-    public List<DocumentChecklist> getAllDocumentChecklists() {
-        return documentChecklistRepository.findAll();
+    public List<DocumentChecklistSummary> getDocumentChecklistPage(long afterId, LocalDate from, LocalDate to,
+            int limit) {
+        return documentChecklistRepository.findPage(afterId, from, to, PageRequest.of(0, limit));
     }
 
     /**
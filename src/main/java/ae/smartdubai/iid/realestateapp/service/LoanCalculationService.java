@@ -1,10 +1,13 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.LoanCalculationSummary;
 import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.AnnuityMath;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,15 +25,21 @@ public class LoanCalculationService {
 
     private final LoanCalculationRepository loanCalculationRepository;
     private final PropertyRepository propertyRepository;
+    private final CalculationMetrics calculationMetrics;
+    private final CalculationCache calculationCache;
 
     /**
-     * Get all loan calculations.
+     * Get a page of loan calculations in ID order, optionally within a calculation date range.
      *
-     * @return list of all loan calculations
+     * @param afterId only loan calculations with a greater ID are returned
+     * @param from the first calculation date, or null for no lower bound
+     * @param to the last calculation date, or null for no upper bound
+     * @param limit the maximum number of loan calculations
+     * @return the summaries of the page of loan calculations
      */
     @Transactional(readOnly = true)
-    public List<LoanCalculation> getAllLoanCalculations() {
-        return loanCalculationRepository.findAll();
+    public List<LoanCalculationSummary> getLoanCalculationPage(long afterId, LocalDate from, LocalDate to, int limit) {
+        return loanCalculationRepository.findPage(afterId, from, to, PageRequest.of(0, limit));
     }
 
     /**
@@ -67,6 +76,46 @@ public class LoanCalculationService {
      * @return the calculated loan calculation
      */
     public LoanCalculation calculateLoan(Long propertyId, Double downPayment, Double interestRate, Integer tenureYears) {
+        LoanCalculation loanCalculation = computeLoanCalculation(propertyId, downPayment, interestRate, tenureYears);
+        calculationMetrics.recordPersisted(CalculationMetrics.LOAN);
+        return loanCalculationRepository.save(loanCalculation);
+    }
+
+    /**
+     * Calculate a loan for a property without saving it.
+     *
+     * @param propertyId the property ID
+     * @param downPayment the down payment amount
+     * @param interestRate the annual interest rate (in percentage)
+     * @param tenureYears the loan tenure in years
+     * @return the calculated, unsaved loan calculation
+     */
+    @Transactional(readOnly = true)
+    public LoanCalculation previewLoan(Long propertyId, Double downPayment, Double interestRate, Integer tenureYears) {
+        LoanCalculation loanCalculation = computeLoanCalculation(propertyId, downPayment, interestRate, tenureYears);
+        calculationMetrics.recordPreview(CalculationMetrics.LOAN);
+        return loanCalculation;
+    }
+
+    /**
+     * Get a loan calculation from the cache, computing and caching it on a miss.
+     */
+    private LoanCalculation computeLoanCalculation(Long propertyId, Double downPayment, Double interestRate, Integer tenureYears) {
+        CalculationCache.Key cacheKey = CalculationCache.Key.of(CalculationMetrics.LOAN, propertyId, downPayment, interestRate, tenureYears);
+        LoanCalculation loanCalculation = calculationCache.get(cacheKey, LoanCalculation.class);
+        if (loanCalculation == null) {
+            loanCalculation = buildLoanCalculation(propertyId, downPayment, interestRate, tenureYears);
+            calculationCache.put(cacheKey, loanCalculation);
+        } else {
+            loanCalculation.setCalculationDate(LocalDate.now());
+        }
+        return loanCalculation;
+    }
+
+    /**
+     * Validate the inputs and compute a loan calculation for a property.
+     */
+    private LoanCalculation buildLoanCalculation(Long propertyId, Double downPayment, Double interestRate, Integer tenureYears) {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
         
@@ -107,11 +156,10 @@ public class LoanCalculationService {
         // Calculate monthly EMI
         // Formula: EMI = P * r * (1 + r)^n / ((1 + r)^n - 1)
         // where P = principal (loan amount), r = monthly interest rate, n = number of monthly installments
-        double monthlyInterestRate = (interestRate / 100) / 12;
+        double monthlyInterestRate = AnnuityMath.monthlyRate(interestRate);
         int numberOfInstallments = tenureYears * 12;
         
-        double emi = loanAmount * monthlyInterestRate * Math.pow(1 + monthlyInterestRate, numberOfInstallments) 
-                / (Math.pow(1 + monthlyInterestRate, numberOfInstallments) - 1);
+        double emi = AnnuityMath.payment(loanAmount, monthlyInterestRate, numberOfInstallments);
         loanCalculation.setMonthlyEmi(emi);
         
         // Calculate total amount payable
@@ -128,30 +176,16 @@ public class LoanCalculationService {
         loanCalculation.setFirstEmiInterest(firstEmiInterest);
         loanCalculation.setFirstEmiPrincipal(firstEmiPrincipal);
         
-        // Calculate last EMI split (principal and interest)
-        // For this, we need to simulate the entire amortization schedule
-        double remainingLoan = loanAmount;
-        double lastEmiPrincipal = 0;
-        double lastEmiInterest = 0;
-        
-        for (int i = 0; i < numberOfInstallments; i++) {
-            double monthlyInterest = remainingLoan * monthlyInterestRate;
-            double monthlyPrincipal = emi - monthlyInterest;
-            
-            if (i == numberOfInstallments - 1) {
-                lastEmiPrincipal = monthlyPrincipal;
-                lastEmiInterest = monthlyInterest;
-            }
-            
-            remainingLoan -= monthlyPrincipal;
-        }
-        
+        // Calculate last EMI split (principal and interest) in closed form
+        double lastEmiInterest = AnnuityMath.interestPortion(
+                loanAmount, monthlyInterestRate, numberOfInstallments, numberOfInstallments);
+        double lastEmiPrincipal = emi - lastEmiInterest;
         loanCalculation.setLastEmiPrincipal(lastEmiPrincipal);
         loanCalculation.setLastEmiInterest(lastEmiInterest);
         
         loanCalculation.setCalculationDate(LocalDate.now());
         
-        return loanCalculationRepository.save(loanCalculation);
+        return loanCalculation;
     }
 
     /**
@@ -0,0 +1,127 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchRequest;
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchResult;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationBatchRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.AnnuityMath;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Service for quoting many loan scenarios against one property in a single call.
+ * <p>
+ * Not transactional: the grid is computed without holding a connection, and only the
+ * optional insert runs in a transaction of its own.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanQuoteBatchService {
+
+    // Upper bound on scenarios accepted in a single request
+    public static final int MAX_SCENARIOS = 100_000;
+
+    private final PropertyRepository propertyRepository;
+    private final LoanCalculationBatchRepository loanCalculationBatchRepository;
+
+    /**
+     * Quote every scenario of the request, optionally storing them as loan calculations.
+     *
+     * @param request the batch quote request
+     * @return the column-wise quote results
+     */
+    public LoanQuoteBatchResult quoteLoans(LoanQuoteBatchRequest request) {
+        double[] downPayments = request.getDownPayments();
+        double[] interestRates = request.getInterestRates();
+        int[] tenureYears = request.getTenureYears();
+
+        if (downPayments == null || interestRates == null || tenureYears == null) {
+            throw new IllegalArgumentException("Down payments, interest rates and tenures are required");
+        }
+
+        if (downPayments.length != interestRates.length || downPayments.length != tenureYears.length) {
+            throw new IllegalArgumentException("Down payments, interest rates and tenures must have the same length");
+        }
+
+        if (downPayments.length == 0 || downPayments.length > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("Number of scenarios must be between 1 and " + MAX_SCENARIOS);
+        }
+
+        // Load the property once for the whole grid
+        Long propertyId = request.getPropertyId();
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
+
+        if (property.getPrice() == null || property.getPrice() <= 0) {
+            throw new IllegalArgumentException("Property price must be positive");
+        }
+
+        LoanQuoteBatchResult result = new LoanQuoteBatchResult(propertyId, downPayments.length);
+        evaluate(property.getPrice(), downPayments, interestRates, tenureYears, result);
+
+        if (request.isPersist()) {
+            int persisted = loanCalculationBatchRepository.insertAll(
+                    result, downPayments, interestRates, tenureYears, LocalDate.now());
+            result.setPersistedCount(persisted);
+        }
+
+        return result;
+    }
+
+    /**
+     * Evaluate all scenarios over primitive arrays.
+     * Uses the same {@link AnnuityMath} formulas as {@link LoanCalculationService#calculateLoan}.
+     */
+    static void evaluate(double price, double[] downPayments, double[] interestRates, int[] tenureYears,
+                         LoanQuoteBatchResult result) {
+        double[] loanAmounts = result.getLoanAmounts();
+        double[] loanToValueRatios = result.getLoanToValueRatios();
+        double[] monthlyEmis = result.getMonthlyEmis();
+        double[] totalPayables = result.getTotalPayables();
+        double[] totalInterests = result.getTotalInterests();
+        double[] firstEmiPrincipals = result.getFirstEmiPrincipals();
+        double[] firstEmiInterests = result.getFirstEmiInterests();
+        double[] lastEmiPrincipals = result.getLastEmiPrincipals();
+        double[] lastEmiInterests = result.getLastEmiInterests();
+
+        for (int i = 0; i < downPayments.length; i++) {
+            double downPayment = downPayments[i];
+            double interestRate = interestRates[i];
+            int tenure = tenureYears[i];
+
+            if (downPayment <= 0 || downPayment >= price) {
+                throw new IllegalArgumentException("Scenario " + i
+                        + ": down payment must be positive and less than the property price");
+            }
+
+            if (interestRate <= 0 || interestRate > 100) {
+                throw new IllegalArgumentException("Scenario " + i + ": interest rate must be between 0 and 100");
+            }
+
+            if (tenure <= 0 || tenure > 35) {
+                throw new IllegalArgumentException("Scenario " + i + ": tenure must be between 1 and 35 years");
+            }
+
+            double loanAmount = price - downPayment;
+            double monthlyRate = AnnuityMath.monthlyRate(interestRate);
+            int installments = tenure * 12;
+            double emi = AnnuityMath.payment(loanAmount, monthlyRate, installments);
+            double totalPayable = emi * installments;
+            double firstInterest = AnnuityMath.interestPortion(loanAmount, monthlyRate, installments, 1);
+            double lastInterest = AnnuityMath.interestPortion(loanAmount, monthlyRate, installments, installments);
+
+            loanAmounts[i] = loanAmount;
+            loanToValueRatios[i] = (loanAmount / price) * 100;
+            monthlyEmis[i] = emi;
+            totalPayables[i] = totalPayable;
+            totalInterests[i] = totalPayable - loanAmount;
+            firstEmiInterests[i] = firstInterest;
+            firstEmiPrincipals[i] = emi - firstInterest;
+            lastEmiPrincipals[i] = emi - lastInterest;
+            lastEmiInterests[i] = lastInterest;
+        }
+    }
+}
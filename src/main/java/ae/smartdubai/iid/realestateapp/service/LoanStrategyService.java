@@ -0,0 +1,158 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.LoanStrategyRanking;
+import ae.smartdubai.iid.realestateapp.dto.LoanStrategyRequest;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.MortgageScheduleEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service for comparing prepayment strategies on mortgages with fixed-then-variable rates.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LoanStrategyService {
+
+    // Upper bound on strategies accepted in a single request
+    public static final int MAX_STRATEGIES = 10_000;
+
+    private final PropertyRepository propertyRepository;
+
+    /**
+     * Evaluate every strategy of the request and rank them by total interest saved.
+     *
+     * @param request the loan, its rate steps and the strategies to compare
+     * @return the strategies, best first, with the baseline they are compared against
+     */
+    public LoanStrategyRanking rankStrategies(LoanStrategyRequest request) {
+        Long propertyId = request.getPropertyId();
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
+
+        if (property.getPrice() == null || property.getPrice() <= 0) {
+            throw new IllegalArgumentException("Property price must be positive");
+        }
+
+        Double downPayment = request.getDownPayment();
+        if (downPayment == null || downPayment < 0) {
+            throw new IllegalArgumentException("Down payment cannot be negative");
+        }
+
+        if (downPayment >= property.getPrice()) {
+            throw new IllegalArgumentException("Down payment cannot be greater than or equal to property price");
+        }
+
+        Double interestRate = request.getInterestRate();
+        if (interestRate == null || interestRate <= 0 || interestRate > 100) {
+            throw new IllegalArgumentException("Interest rate must be between 0 and 100");
+        }
+
+        Integer tenureYears = request.getTenureYears();
+        if (tenureYears == null || tenureYears <= 0 || tenureYears > 35) {
+            throw new IllegalArgumentException("Tenure must be between 1 and 35 years");
+        }
+
+        int tenureMonths = tenureYears * 12;
+        int[] rateStepMonths = request.getRateStepMonths() != null ? request.getRateStepMonths() : new int[0];
+        double[] rateStepRates = request.getRateStepRates() != null ? request.getRateStepRates() : new double[0];
+        validateRateSteps(rateStepMonths, rateStepRates, tenureMonths);
+
+        double feeRate = request.getEarlySettlementFeeRate() != null ? request.getEarlySettlementFeeRate() : 0.0;
+        double feeCap = request.getEarlySettlementFeeCap() != null ? request.getEarlySettlementFeeCap() : 0.0;
+        if (feeRate < 0 || feeRate > 100) {
+            throw new IllegalArgumentException("Early settlement fee rate must be between 0 and 100");
+        }
+        if (feeCap < 0) {
+            throw new IllegalArgumentException("Early settlement fee cap cannot be negative");
+        }
+
+        List<LoanStrategyRequest.Strategy> strategies = request.getStrategies();
+        if (strategies == null || strategies.isEmpty() || strategies.size() > MAX_STRATEGIES) {
+            throw new IllegalArgumentException("Number of strategies must be between 1 and " + MAX_STRATEGIES);
+        }
+        for (int i = 0; i < strategies.size(); i++) {
+            validateStrategy(i, strategies.get(i), tenureMonths);
+        }
+
+        double loanAmount = property.getPrice() - downPayment;
+        MortgageScheduleEngine engine = new MortgageScheduleEngine(
+                loanAmount, interestRate, tenureYears, rateStepMonths, rateStepRates, feeRate, feeCap);
+
+        engine.evaluate(new int[0], new double[0], new MortgageScheduleEngine.PrepaymentMode[0]);
+        double baselineInterest = engine.getTotalInterest();
+        int baselinePayoffMonth = engine.getPayoffMonth();
+
+        List<LoanStrategyRanking.RankedStrategy> ranked = new ArrayList<>(strategies.size());
+        for (int i = 0; i < strategies.size(); i++) {
+            LoanStrategyRequest.Strategy strategy = strategies.get(i);
+            engine.evaluate(strategy.getPrepaymentMonths(), strategy.getPrepaymentAmounts(), strategy.getModes());
+
+            double interestSaved = baselineInterest - engine.getTotalInterest();
+            ranked.add(new LoanStrategyRanking.RankedStrategy(
+                    i,
+                    strategy.getName(),
+                    engine.getTotalInterest(),
+                    interestSaved,
+                    engine.getTotalFees(),
+                    interestSaved - engine.getTotalFees(),
+                    engine.getPayoffMonth(),
+                    engine.getFinalEmi()));
+        }
+        ranked.sort(Comparator.comparingDouble(LoanStrategyRanking.RankedStrategy::getInterestSaved).reversed());
+
+        return new LoanStrategyRanking(
+                propertyId,
+                loanAmount,
+                engine.getInitialEmi(),
+                baselineInterest,
+                baselinePayoffMonth,
+                ranked);
+    }
+
+    private static void validateRateSteps(int[] months, double[] rates, int tenureMonths) {
+        if (months.length != rates.length) {
+            throw new IllegalArgumentException("Rate step months and rates must have the same length");
+        }
+        for (int i = 0; i < months.length; i++) {
+            if (months[i] < 1 || months[i] > tenureMonths || (i > 0 && months[i] <= months[i - 1])) {
+                throw new IllegalArgumentException("Rate step months must be ascending and between 1 and " + tenureMonths);
+            }
+            if (rates[i] <= 0 || rates[i] > 100) {
+                throw new IllegalArgumentException("Rate step " + i + ": interest rate must be between 0 and 100");
+            }
+        }
+    }
+
+    private static void validateStrategy(int index, LoanStrategyRequest.Strategy strategy, int tenureMonths) {
+        int[] months = strategy.getPrepaymentMonths();
+        double[] amounts = strategy.getPrepaymentAmounts();
+        MortgageScheduleEngine.PrepaymentMode[] modes = strategy.getModes();
+
+        if (months == null || amounts == null || modes == null) {
+            throw new IllegalArgumentException("Strategy " + index + ": prepayment months, amounts and modes are required");
+        }
+        if (months.length != amounts.length || months.length != modes.length) {
+            throw new IllegalArgumentException("Strategy " + index + ": prepayment months, amounts and modes must have the same length");
+        }
+        for (int i = 0; i < months.length; i++) {
+            if (months[i] < 1 || months[i] >= tenureMonths || (i > 0 && months[i] < months[i - 1])) {
+                throw new IllegalArgumentException("Strategy " + index
+                        + ": prepayment months must be in ascending order and between 1 and " + (tenureMonths - 1));
+            }
+            if (amounts[i] <= 0) {
+                throw new IllegalArgumentException("Strategy " + index + ": prepayment amounts must be positive");
+            }
+            if (modes[i] == null) {
+                throw new IllegalArgumentException("Strategy " + index + ": prepayment modes are required");
+            }
+        }
+    }
+}
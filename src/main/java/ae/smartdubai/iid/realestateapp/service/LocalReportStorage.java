@@ -0,0 +1,267 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Report storage in a local directory, sharded into two levels of subdirectories named after
+ * the first four hex digits of the SHA-256 of the key ({@code ab/cd/<key>}), so that no
+ * directory holds more than a small fraction of the files.
+ * <p>
+ * Objects are written to a temporary file in their shard and hard linked into place, which
+ * atomically fails when the object already exists. A conditional delete moves the file aside
+ * before it checks its time, so a concurrent touch either lands before the check or finds no
+ * object and stores it again.
+ * Listings walk the shards in order, with the cursor being the {@code ab/cd/<key>} path of the
+ * last listed object.
+ */
+public class LocalReportStorage implements ReportStorage {
+
+    // Keys are file names; anything else could escape the root directory
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final Pattern SHARD = Pattern.compile("[0-9a-f]{2}");
+
+    private final Path root;
+
+    /**
+     * Create a storage in a directory, which is created on first use.
+     *
+     * @param root the root directory
+     */
+    public LocalReportStorage(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void store(String key, ContentWriter writer) throws IOException {
+        Path path = resolve(key);
+        Files.createDirectories(path.getParent());
+        Path temporary = Files.createTempFile(path.getParent(), key, ".tmp");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                writer.writeTo(outputStream);
+            }
+            try {
+                Files.createLink(path, temporary);
+            } catch (FileAlreadyExistsException e) {
+                // Stored objects never change, so the existing one is kept
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            return attributes.isRegularFile()
+                    ? Optional.of(new StoredObject(attributes.size(), attributes.lastModifiedTime().toInstant()))
+                    : Optional.empty();
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> touch(String key) throws IOException {
+        try {
+            Files.setLastModifiedTime(resolve(key), FileTime.from(Instant.now()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        return stat(key);
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        channel.position(offset);
+        return new LimitedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public boolean deleteIfUnmodifiedSince(String key, Instant lastModified) throws IOException {
+        Path path = resolve(key);
+        // Named after the key, so listings skip it like the temporary files of uploads
+        Path aside = path.resolveSibling(key + "." + UUID.randomUUID() + ".deleted");
+        try {
+            Files.move(path, aside, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+        try {
+            if (!Files.getLastModifiedTime(aside).toInstant().isAfter(lastModified)) {
+                return true;
+            }
+            try {
+                Files.createLink(path, aside);
+            } catch (FileAlreadyExistsException e) {
+                // Stored again in the meantime; stored objects never change, so it is the same
+            }
+            return false;
+        } finally {
+            Files.deleteIfExists(aside);
+        }
+    }
+
+    @Override
+    public Listing list(String cursor, int limit) throws IOException {
+        List<ListedObject> objects = new ArrayList<>();
+        String cursorShard = cursor != null ? cursor.substring(0, Math.min(5, cursor.length())) : "";
+        for (String first : sortedNames(root, SHARD)) {
+            if (first.compareTo(cursorShard.substring(0, Math.min(2, cursorShard.length()))) < 0) {
+                continue;
+            }
+            for (String second : sortedNames(root.resolve(first), SHARD)) {
+                String shard = first + "/" + second;
+                if (shard.compareTo(cursorShard) < 0) {
+                    continue;
+                }
+                Path directory = root.resolve(first).resolve(second);
+                for (String name : sortedNames(directory, KEY)) {
+                    String position = shard + "/" + name;
+                    if (cursor != null && position.compareTo(cursor) <= 0) {
+                        continue;
+                    }
+                    // Temporary files of uploads live in the shard of their key, not their own name
+                    Path file = directory.resolve(name);
+                    if (!file.equals(resolve(name))) {
+                        continue;
+                    }
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (!attributes.isRegularFile()) {
+                            continue;
+                        }
+                        objects.add(new ListedObject(name, attributes.size(),
+                                attributes.lastModifiedTime().toInstant()));
+                    } catch (NoSuchFileException e) {
+                        // Deleted since the directory was read
+                        continue;
+                    }
+                    if (objects.size() == limit) {
+                        return new Listing(objects, position);
+                    }
+                }
+            }
+        }
+        return new Listing(objects, null);
+    }
+
+    private static List<String> sortedNames(Path directory, Pattern pattern) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.map(entry -> entry.getFileName().toString())
+                    .filter(name -> pattern.matcher(name).matches())
+                    .sorted()
+                    .toList();
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    /**
+     * Path of an object: {@code root/ab/cd/key}, where abcd starts the SHA-256 of the key.
+     *
+     * @param key the object key
+     * @return the path of the object's file
+     */
+    Path resolve(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid report storage key: " + key);
+        }
+        String hash = HexFormat.of().formatHex(sha256(key));
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(key);
+    }
+
+    private static byte[] sha256(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stream that ends after a fixed number of bytes.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream inputStream, long length) {
+            super(inputStream);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read();
+            if (read >= 0) {
+                remaining--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
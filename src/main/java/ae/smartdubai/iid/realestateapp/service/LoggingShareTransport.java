@@ -0,0 +1,16 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Share transport that only logs each share, for environments without a mail server.
+ */
+@Slf4j
+public class LoggingShareTransport implements ShareTransport {
+
+    @Override
+    public void send(ShareMessage message) {
+        log.info("Report {} ({}) shared with {}", message.getPdfReportId(), message.getTitle(),
+                message.getRecipient());
+    }
+}
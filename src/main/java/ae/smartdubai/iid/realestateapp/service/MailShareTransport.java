@@ -0,0 +1,65 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Share transport that emails the report as a PDF attachment over SMTP.
+ */
+public class MailShareTransport implements ShareTransport {
+
+    // Larger files are rejected by most mail servers anyway
+    private static final long MAX_ATTACHMENT_BYTES = 20L * 1024 * 1024;
+
+    private final JavaMailSender mailSender;
+    private final ReportStorage reportStorage;
+    private final String from;
+
+    /**
+     * Create a transport.
+     *
+     * @param mailSender the SMTP client
+     * @param reportStorage the storage the report files are read from
+     * @param from the sender address
+     */
+    public MailShareTransport(JavaMailSender mailSender, ReportStorage reportStorage, String from) {
+        this.mailSender = mailSender;
+        this.reportStorage = reportStorage;
+        this.from = from;
+    }
+
+    @Override
+    public void send(ShareMessage message) throws IOException {
+        ReportStorage.StoredObject stored = reportStorage.stat(message.getStorageKey())
+                .orElseThrow(() -> new IOException("Report file not found: " + message.getStorageKey()));
+        if (stored.getSize() > MAX_ATTACHMENT_BYTES) {
+            throw new IOException("Report file too large to attach: " + stored.getSize() + " bytes");
+        }
+        byte[] pdf;
+        try (InputStream inputStream = reportStorage.open(message.getStorageKey(), 0, stored.getSize())) {
+            pdf = inputStream.readAllBytes();
+        }
+
+        try {
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
+            helper.setFrom(from);
+            helper.setTo(message.getRecipient());
+            helper.setSubject(message.getTitle() != null ? message.getTitle() : "Property report");
+            helper.setText("Please find the property report attached.");
+            helper.addAttachment("report_" + message.getPdfReportId() + ".pdf", new ByteArrayResource(pdf),
+                    "application/pdf");
+            // Lets receiving systems drop duplicates of a retried delivery
+            mimeMessage.setHeader("X-Share-Id", String.valueOf(message.getEventId()));
+            mailSender.send(mimeMessage);
+        } catch (MessagingException e) {
+            throw new IOException("Share email could not be built: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.PdfReportJob;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Service for generating PDF reports asynchronously.
+ * <p>
+ * A job is prepared in the caller's thread, so unknown ids fail the request straight away,
+ * then rendered and saved on the bounded PDF report pool. Loading, rendering and saving each
+ * run in their own short transaction or in none at all, so database connections are never held
+ * while a document is rendered. Queued and running jobs are kept in memory until they finish;
+ * there are never more of them than the pool has workers and queue slots. Finished jobs are kept
+ * for a limited time, and only up to a maximum number of jobs.
+ */
+@Slf4j
+@Service
+public class PdfReportJobService {
+
+    private final PdfReportService pdfReportService;
+    private final ThreadPoolExecutor pdfReportExecutor;
+    private final Map<String, PdfReportJob> liveJobs = new ConcurrentHashMap<>();
+    private final Cache<String, PdfReportJob> finishedJobs;
+
+    public PdfReportJobService(PdfReportService pdfReportService,
+                               ThreadPoolExecutor pdfReportExecutor,
+                               @Value("${pdf.jobs.retention:1h}") Duration retention,
+                               @Value("${pdf.jobs.maximum-size:10000}") long maximumSize) {
+        this.pdfReportService = pdfReportService;
+        this.pdfReportExecutor = pdfReportExecutor;
+        this.finishedJobs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Queue the generation of a PDF report for a property with various calculations.
+     *
+     * @param propertyId the property ID
+     * @param title the report title
+     * @param includeCostBreakdown whether to include cost breakdown
+     * @param costBreakdownId the cost breakdown ID (if including cost breakdown)
+     * @param includeLoanCalculation whether to include loan calculation
+     * @param loanCalculationId the loan calculation ID (if including loan calculation)
+     * @param includePropertyComparison whether to include property comparison
+     * @param propertyComparisonId the property comparison ID (if including property comparison)
+     * @param includeDocumentChecklist whether to include document checklist
+     * @param documentChecklistId the document checklist ID (if including document checklist)
+     * @param includeServiceChargeEstimate whether to include service charge estimate
+     * @param serviceChargeEstimateId the service charge estimate ID (if including service charge estimate)
+     * @return the queued job
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public PdfReportJob submitPdfReport(Long propertyId, String title,
+                                        Boolean includeCostBreakdown, Long costBreakdownId,
+                                        Boolean includeLoanCalculation, Long loanCalculationId,
+                                        Boolean includePropertyComparison, Long propertyComparisonId,
+                                        Boolean includeDocumentChecklist, Long documentChecklistId,
+                                        Boolean includeServiceChargeEstimate, Long serviceChargeEstimateId) {
+        PdfReport pdfReport = pdfReportService.prepareReport(
+                propertyId, title, includeCostBreakdown, costBreakdownId,
+                includeLoanCalculation, loanCalculationId, includePropertyComparison, propertyComparisonId,
+                includeDocumentChecklist, documentChecklistId, includeServiceChargeEstimate, serviceChargeEstimateId);
+
+        return submit(propertyId, () -> pdfReportService.saveReport(pdfReportService.renderReport(pdfReport)));
+    }
+
+    /**
+     * Queue the regeneration of a saved PDF report with the current data of its property. Only
+     * the sections whose content changed are laid out again.
+     *
+     * @param reportId the PDF report ID
+     * @return the queued job
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public PdfReportJob submitRegeneration(Long reportId) {
+        PdfReport pdfReport = pdfReportService.prepareRegeneration(reportId);
+
+        return submit(pdfReport.getProperty().getId(),
+                () -> pdfReportService.saveRegeneratedReport(pdfReportService.renderReport(pdfReport)));
+    }
+
+    /**
+     * Get the state of a job.
+     *
+     * @param jobId the job ID
+     * @return the job if it is known and has not expired
+     */
+    public Optional<PdfReportJob> getJob(String jobId) {
+        // A finishing job is added to the finished jobs before it leaves the live ones
+        PdfReportJob live = liveJobs.get(jobId);
+        return Optional.ofNullable(live != null ? live : finishedJobs.getIfPresent(jobId));
+    }
+
+    /**
+     * Get the number of jobs waiting for a worker.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return pdfReportExecutor.getQueue().size();
+    }
+
+    private PdfReportJob submit(Long propertyId, Supplier<PdfReport> task) {
+        String jobId = UUID.randomUUID().toString();
+        PdfReportJob job = new PdfReportJob(jobId, PdfReportJob.Status.QUEUED, propertyId,
+                null, null, LocalDateTime.now(), null, null);
+        liveJobs.put(jobId, job);
+
+        try {
+            pdfReportExecutor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            liveJobs.remove(jobId);
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(PdfReportJob queued, Supplier<PdfReport> task) {
+        // Every state change publishes a new job object, so readers never see one half-updated
+        PdfReportJob running = new PdfReportJob(queued.getJobId(), PdfReportJob.Status.RUNNING, queued.getPropertyId(),
+                null, null, queued.getSubmittedAt(), LocalDateTime.now(), null);
+        liveJobs.put(running.getJobId(), running);
+
+        try {
+            PdfReport saved = task.get();
+            finish(new PdfReportJob(running.getJobId(), PdfReportJob.Status.COMPLETED,
+                    running.getPropertyId(), saved.getId(), null,
+                    running.getSubmittedAt(), running.getStartedAt(), LocalDateTime.now()));
+        } catch (RuntimeException | Error e) {
+            // Errors from PDFBox, such as a stack overflow on a deeply nested document, fail the job too
+            log.warn("PDF report job {} failed", running.getJobId(), e);
+            finish(new PdfReportJob(running.getJobId(), PdfReportJob.Status.FAILED,
+                    running.getPropertyId(), null, e.getMessage(),
+                    running.getSubmittedAt(), running.getStartedAt(), LocalDateTime.now()));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private void finish(PdfReportJob finished) {
+        finishedJobs.put(finished.getJobId(), finished);
+        liveJobs.remove(finished.getJobId());
+    }
+}
@@ -1,5 +1,6 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.PdfReportSummary;
 import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
 import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
 import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
@@ -14,25 +15,34 @@ import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
 import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
+import ae.smartdubai.iid.realestateapp.util.PdfLayout;
+import ae.smartdubai.iid.realestateapp.util.PdfRenderContext;
+import ae.smartdubai.iid.realestateapp.util.PdfSection;
 import lombok.RequiredArgsConstructor;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * Service for managing PDF reports.
@@ -49,21 +59,42 @@ public class PdfReportService {
     private final PropertyComparisonRepository propertyComparisonRepository;
     private final DocumentChecklistRepository documentChecklistRepository;
     private final ServiceChargeEstimateRepository serviceChargeEstimateRepository;
-    
-    // Directory to store PDF files
-    private static final String PDF_DIRECTORY = "pdf-reports";
+    private final ReportStorage reportStorage;
+    private final PdfRenderContext renderContext;
+    private final ShareOutboxService shareOutboxService;
+    private final ReportFileJanitor reportFileJanitor;
+
+    // Maximum number of ids in a single IN query when prefetching portfolio components
+    private static final int PREFETCH_BATCH_SIZE = 500;
     
     // Date formatter for PDF content
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+    // Layout of PDF content
+    private static final float PAGE_MARGIN = 50;
+    private static final float LOGO_HEIGHT = 40;
+    private static final float PHOTO_HEIGHT = 220;
+    private static final float SECTION_SPACING = 20;
+    private static final float[] TABLE_COLUMN_WIDTHS = {0.6f, 0.4f};
+    private static final boolean[] TABLE_ALIGNMENT = {false, true};
+
+    // Fonts of the report content
+    private static final PdfSection.Weight TITLE = PdfSection.Weight.BOLD;
+    private static final PdfSection.Weight HEADING = PdfSection.Weight.BOLD;
+    private static final PdfSection.Weight TEXT = PdfSection.Weight.REGULAR;
+
     /**
-     * Get all PDF reports.
+     * Get a page of PDF reports in ID order, optionally within a generation date range.
      *
-     * @return list of all PDF reports
+     * @param afterId only PDF reports with a greater ID are returned
+     * @param from the first generation date, or null for no lower bound
+     * @param to the last generation date, or null for no upper bound
+     * @param limit the maximum number of PDF reports
+     * @return the summaries of the page of PDF reports
      */
     @Transactional(readOnly = true)
-    public List<PdfReport> getAllPdfReports() {
-        return pdfReportRepository.findAll();
+    public List<PdfReportSummary> getPdfReportPage(long afterId, LocalDate from, LocalDate to, int limit) {
+        return pdfReportRepository.findPage(afterId, from, to, PageRequest.of(0, limit));
     }
 
     /**
@@ -91,7 +122,9 @@ public class PdfReportService {
     }
 
     /**
-     * Generate a PDF report for a property with various calculations.
+     * Load the property and the included components of a report, without rendering or saving it.
+     * Everything the PDF needs is loaded here, so the report can be rendered after the
+     * transaction has ended and its connection has gone back to the pool.
      *
      * @param propertyId the property ID
      * @param title the report title
@@ -105,16 +138,20 @@ public class PdfReportService {
      * @param documentChecklistId the document checklist ID (if including document checklist)
      * @param includeServiceChargeEstimate whether to include service charge estimate
      * @param serviceChargeEstimateId the service charge estimate ID (if including service charge estimate)
-     * @return the generated PDF report
-     */
-    public PdfReport generatePdfReport(Long propertyId, String title,
-                                     Boolean includeCostBreakdown, Long costBreakdownId,
-                                     Boolean includeLoanCalculation, Long loanCalculationId,
-                                     Boolean includePropertyComparison, Long propertyComparisonId,
-                                     Boolean includeDocumentChecklist, Long documentChecklistId,
-                                     Boolean includeServiceChargeEstimate, Long serviceChargeEstimateId) {
+     * @return the unsaved PDF report, ready to be rendered
+     * @throws IllegalArgumentException if an included component belongs to another property
+     */
+    @Transactional(readOnly = true)
+    public PdfReport prepareReport(Long propertyId, String title,
+                                 Boolean includeCostBreakdown, Long costBreakdownId,
+                                 Boolean includeLoanCalculation, Long loanCalculationId,
+                                 Boolean includePropertyComparison, Long propertyComparisonId,
+                                 Boolean includeDocumentChecklist, Long documentChecklistId,
+                                 Boolean includeServiceChargeEstimate, Long serviceChargeEstimateId) {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
+        // Images are lazy and the photo is rendered outside this transaction
+        Hibernate.initialize(property.getImages());
         
         // Create PDF report entity
         PdfReport pdfReport = new PdfReport();
@@ -138,49 +175,274 @@ public class PdfReportService {
         if (includeCostBreakdown && costBreakdownId != null) {
             CostBreakdown costBreakdown = costBreakdownRepository.findById(costBreakdownId)
                     .orElseThrow(() -> new RuntimeException("Cost breakdown not found with id " + costBreakdownId));
+            checkOwnedBy(property, costBreakdown.getProperty(), "Cost breakdown", costBreakdownId);
             pdfReport.setCostBreakdown(costBreakdown);
         }
         
         if (includeLoanCalculation && loanCalculationId != null) {
             LoanCalculation loanCalculation = loanCalculationRepository.findById(loanCalculationId)
                     .orElseThrow(() -> new RuntimeException("Loan calculation not found with id " + loanCalculationId));
+            checkOwnedBy(property, loanCalculation.getProperty(), "Loan calculation", loanCalculationId);
             pdfReport.setLoanCalculation(loanCalculation);
         }
         
         if (includePropertyComparison && propertyComparisonId != null) {
             PropertyComparison propertyComparison = propertyComparisonRepository.findById(propertyComparisonId)
                     .orElseThrow(() -> new RuntimeException("Property comparison not found with id " + propertyComparisonId));
+            checkCompares(property, propertyComparison);
             pdfReport.setPropertyComparison(propertyComparison);
         }
         
         if (includeDocumentChecklist && documentChecklistId != null) {
             DocumentChecklist documentChecklist = documentChecklistRepository.findById(documentChecklistId)
                     .orElseThrow(() -> new RuntimeException("Document checklist not found with id " + documentChecklistId));
+            checkOwnedBy(property, documentChecklist.getProperty(), "Document checklist", documentChecklistId);
+            initializeDocumentLists(documentChecklist);
             pdfReport.setDocumentChecklist(documentChecklist);
         }
         
         if (includeServiceChargeEstimate && serviceChargeEstimateId != null) {
             ServiceChargeEstimate serviceChargeEstimate = serviceChargeEstimateRepository.findById(serviceChargeEstimateId)
                     .orElseThrow(() -> new RuntimeException("Service charge estimate not found with id " + serviceChargeEstimateId));
+            checkOwnedBy(property, serviceChargeEstimate.getProperty(), "Service charge estimate",
+                    serviceChargeEstimateId);
             pdfReport.setServiceChargeEstimate(serviceChargeEstimate);
         }
         
-        // Generate PDF file
-        String filePath = generatePdfFile(pdfReport);
-        pdfReport.setFilePath(filePath);
+        return pdfReport;
+    }
+
+    /**
+     * Check that a component included in a report belongs to the report's property, so a report
+     * never prints the data of another property, and deleting that property never trips over it.
+     * Components of no property, such as pre-filled service charge estimates, may be included
+     * in any report.
+     */
+    private static void checkOwnedBy(Property property, Property owner, String component, Long componentId) {
+        if (owner != null && !property.getId().equals(owner.getId())) {
+            throw new IllegalArgumentException(component + " with id " + componentId
+                    + " does not belong to property with id " + property.getId());
+        }
+    }
+
+    /**
+     * Check that a property comparison included in a report compares the report's property with
+     * another one, like {@link #checkOwnedBy} does for the other components.
+     */
+    private static void checkCompares(Property property, PropertyComparison propertyComparison) {
+        if (!isProperty(property, propertyComparison.getProperty1())
+                && !isProperty(property, propertyComparison.getProperty2())) {
+            throw new IllegalArgumentException("Property comparison with id " + propertyComparison.getId()
+                    + " does not compare property with id " + property.getId());
+        }
+    }
+
+    private static boolean isProperty(Property property, Property other) {
+        return other != null && property.getId().equals(other.getId());
+    }
+
+    /**
+     * Load a saved report for rendering it again with the current data of its property. The
+     * report keeps its components; it gets today's generation date.
+     *
+     * @param id the PDF report ID
+     * @return the report, detached and ready to be rendered
+     * @throws RuntimeException if the PDF report is not found
+     */
+    @Transactional(readOnly = true)
+    public PdfReport prepareRegeneration(Long id) {
+        PdfReport pdfReport = pdfReportRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("PDF report not found with id " + id));
+        // Lazy collections are rendered outside this transaction
+        Hibernate.initialize(pdfReport.getProperty().getImages());
+        if (pdfReport.getDocumentChecklist() != null) {
+            initializeDocumentLists(pdfReport.getDocumentChecklist());
+        }
+        // The transaction is read-only, so the new date is never flushed
+        pdfReport.setGenerationDate(LocalDate.now());
+        return pdfReport;
+    }
+
+    /**
+     * Load the properties of a portfolio and the latest included components of each, without
+     * rendering or saving anything. Properties and components are fetched with a few IN
+     * queries per batch of ids instead of one lookup per report, and only the latest component
+     * of each property is loaded; the components find their property already in the
+     * persistence context.
+     *
+     * @param propertyIds the property IDs, in the order the reports are wanted
+     * @param title the title of every report
+     * @param includeCostBreakdown whether to include the latest cost breakdown
+     * @param includeLoanCalculation whether to include the latest loan calculation
+     * @param includeServiceChargeEstimate whether to include the latest service charge estimate
+     * @return one unsaved PDF report per property, ready to be rendered
+     */
+    @Transactional(readOnly = true)
+    public List<PdfReport> preparePortfolioReports(List<Long> propertyIds, String title,
+                                                   boolean includeCostBreakdown,
+                                                   boolean includeLoanCalculation,
+                                                   boolean includeServiceChargeEstimate) {
+        Map<Long, Property> properties = new HashMap<>();
+        Map<Long, CostBreakdown> costBreakdowns = new HashMap<>();
+        Map<Long, LoanCalculation> loanCalculations = new HashMap<>();
+        Map<Long, ServiceChargeEstimate> serviceChargeEstimates = new HashMap<>();
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(propertyIds));
+        for (int from = 0; from < distinctIds.size(); from += PREFETCH_BATCH_SIZE) {
+            List<Long> batch = distinctIds.subList(from, Math.min(from + PREFETCH_BATCH_SIZE, distinctIds.size()));
+
+            for (Property property : propertyRepository.findAllById(batch)) {
+                // Images are batch fetched, so this takes one query per batch of properties
+                Hibernate.initialize(property.getImages());
+                properties.put(property.getId(), property);
+            }
+            if (includeCostBreakdown) {
+                for (CostBreakdown costBreakdown : costBreakdownRepository.findLatestByPropertyIdIn(batch)) {
+                    costBreakdowns.put(costBreakdown.getProperty().getId(), costBreakdown);
+                }
+            }
+            if (includeLoanCalculation) {
+                for (LoanCalculation loanCalculation : loanCalculationRepository.findLatestByPropertyIdIn(batch)) {
+                    loanCalculations.put(loanCalculation.getProperty().getId(), loanCalculation);
+                }
+            }
+            if (includeServiceChargeEstimate) {
+                for (ServiceChargeEstimate estimate : serviceChargeEstimateRepository.findLatestByPropertyIdIn(batch)) {
+                    serviceChargeEstimates.put(estimate.getProperty().getId(), estimate);
+                }
+            }
+        }
+
+        String reportType = determineReportType(includeCostBreakdown, includeLoanCalculation,
+                false, false, includeServiceChargeEstimate);
+        List<PdfReport> pdfReports = new ArrayList<>(propertyIds.size());
+        for (Long propertyId : propertyIds) {
+            Property property = properties.get(propertyId);
+            if (property == null) {
+                throw new RuntimeException("Property not found with id " + propertyId);
+            }
+
+            PdfReport pdfReport = new PdfReport();
+            pdfReport.setProperty(property);
+            pdfReport.setTitle(title);
+            pdfReport.setGenerationDate(LocalDate.now());
+            pdfReport.setReportType(reportType);
+            pdfReport.setIncludesCostBreakdown(includeCostBreakdown);
+            pdfReport.setIncludesLoanCalculation(includeLoanCalculation);
+            pdfReport.setIncludesPropertyComparison(false);
+            pdfReport.setIncludesDocumentChecklist(false);
+            pdfReport.setIncludesServiceChargeEstimate(includeServiceChargeEstimate);
+            pdfReport.setCostBreakdown(costBreakdowns.get(propertyId));
+            pdfReport.setLoanCalculation(loanCalculations.get(propertyId));
+            pdfReport.setServiceChargeEstimate(serviceChargeEstimates.get(propertyId));
+            pdfReports.add(pdfReport);
+        }
+        return pdfReports;
+    }
+
+    /**
+     * Render a prepared report into memory.
+     * Runs outside any transaction, so no database connection is held while rendering.
+     *
+     * @param pdfReport the prepared PDF report
+     * @return the PDF document
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public byte[] renderReportContent(PdfReport pdfReport) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(16 * 1024);
+        try {
+            writePdf(pdfReport, outputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Error generating PDF: " + e.getMessage(), e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Render a prepared report into the report storage and record its key, size and content hash.
+     * Stored files are named after the hash of the report inputs, so a report whose file already
+     * exists is not rendered again and shares the file with the earlier reports.
+     * Runs outside any transaction, so no database connection is held while rendering.
+     *
+     * @param pdfReport the prepared PDF report
+     * @return the same report with its storage key, size and content hash set
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PdfReport renderReport(PdfReport pdfReport) {
+        String contentHash = ReportContentHash.of(pdfReport, renderContext.getFingerprint());
+        String key = storageKey(contentHash);
         
-        // Get file size
         try {
-            Path path = Paths.get(filePath);
-            long fileSize = Files.size(path) / 1024; // Convert to KB
+            // A reused file gets a fresh time, so the janitor cannot take it for an old orphan
+            // before the row of this report is inserted
+            Optional<ReportStorage.StoredObject> stored = reportStorage.touch(key);
+            if (stored.isEmpty()) {
+                // The document is streamed into the storage, never held in memory as a whole
+                reportStorage.store(key, outputStream -> writePdf(pdfReport, outputStream));
+                stored = reportStorage.stat(key);
+            }
+            long fileSize = stored
+                    .orElseThrow(() -> new IOException("Stored PDF not found: " + key))
+                    .getSize() / 1024; // Convert to KB
             pdfReport.setFileSize(fileSize);
         } catch (IOException e) {
-            throw new RuntimeException("Error getting file size: " + e.getMessage(), e);
+            throw new RuntimeException("Error generating PDF: " + e.getMessage(), e);
         }
+        pdfReport.setContentHash(contentHash);
+        pdfReport.setFilePath(key);
         
+        return pdfReport;
+    }
+
+    /**
+     * Storage key of the PDF file of a report.
+     *
+     * @param contentHash the content hash of the report
+     * @return the storage key
+     */
+    static String storageKey(String contentHash) {
+        return "report_" + contentHash + ".pdf";
+    }
+
+    /**
+     * Save a rendered report.
+     *
+     * @param pdfReport the rendered PDF report
+     * @return the saved PDF report
+     */
+    public PdfReport saveReport(PdfReport pdfReport) {
         return pdfReportRepository.save(pdfReport);
     }
 
+    /**
+     * Save a regenerated report: point it to its new file and mark it up to date. The previous
+     * file is removed in the background unless another report shares it.
+     *
+     * @param pdfReport the regenerated PDF report, as prepared by {@link #prepareRegeneration}
+     * @return the saved PDF report
+     * @throws RuntimeException if the report was deleted, or marked stale again while it was rendered
+     */
+    public PdfReport saveRegeneratedReport(PdfReport pdfReport) {
+        Long id = pdfReport.getId();
+        String previousFilePath = pdfReportRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("PDF report not found with id " + id))
+                .getFilePath();
+        
+        int updated = pdfReportRepository.replaceFile(id, pdfReport.getStaleSince(), pdfReport.getFilePath(),
+                pdfReport.getFileSize(), pdfReport.getContentHash(), pdfReport.getGenerationDate());
+        if (updated == 0) {
+            // The report keeps its previous file; the new one goes unless another report uses it
+            reportFileJanitor.releaseFiles(List.of(pdfReport.getFilePath()));
+            throw new RuntimeException("PDF report changed while it was regenerated with id " + id);
+        }
+        if (!pdfReport.getFilePath().equals(previousFilePath)) {
+            releaseFiles(List.of(previousFilePath));
+        }
+        
+        return pdfReportRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("PDF report not found with id " + id));
+    }
+
     /**
      * Determine the report type based on included components.
      *
@@ -215,467 +477,332 @@ public class PdfReportService {
     }
 
     /**
-     * Generate a PDF file for the report.
+     * Render the report as a PDF document. Sections flow over as many pages as they need,
+     * and every page gets the footer and its page number. Fonts, the logo and the property
+     * photo come from the shared render context, and so does every section that was already
+     * wrapped for the same content; only sections with new content are laid out.
      *
      * @param pdfReport the PDF report entity
-     * @return the file path of the generated PDF
+     * @param outputStream the stream the document is written to
+     * @throws IOException if the document cannot be rendered or written
      */
-    private String generatePdfFile(PdfReport pdfReport) {
-        // Create directory if it doesn't exist
-        File directory = new File(PDF_DIRECTORY);
-        if (!directory.exists()) {
-            directory.mkdirs();
-        }
-        
-        // Generate unique file name
-        String fileName = "report_" + UUID.randomUUID().toString() + ".pdf";
-        String filePath = PDF_DIRECTORY + File.separator + fileName;
-        
+    void writePdf(PdfReport pdfReport, OutputStream outputStream) throws IOException {
         try (PDDocument document = new PDDocument()) {
-            // Add a page
-            PDPage page = new PDPage(PDRectangle.A4);
-            document.addPage(page);
+            List<String> footer = List.of(
+                    "Generated on: " + pdfReport.getGenerationDate().format(DATE_FORMATTER),
+                    "Real Estate Cost Calculator - A Micro SaaS Application");
+
+            PDFont regular = renderContext.regularFont(document);
+            PDFont bold = renderContext.boldFont(document);
             
-            // Create a content stream for writing to the page
-            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-                // Set fonts
-                PDType1Font titleFont = PDType1Font.HELVETICA_BOLD;
-                PDType1Font headingFont = PDType1Font.HELVETICA_BOLD;
-                PDType1Font textFont = PDType1Font.HELVETICA;
+            try (PdfLayout layout = new PdfLayout(document, PDRectangle.A4, PAGE_MARGIN, footer, regular, 10)) {
+                ReportSections sections = new ReportSections(layout, regular, bold);
                 
-                // Add title
-                contentStream.beginText();
-                contentStream.setFont(titleFont, 18);
-                contentStream.newLineAtOffset(50, 750);
-                contentStream.showText(pdfReport.getTitle());
-                contentStream.endText();
+                // Add logo
+                Optional<PDImageXObject> logo = renderContext.logo(document);
+                if (logo.isPresent()) {
+                    layout.image(logo.get(), LOGO_HEIGHT);
+                    layout.space(8);
+                }
                 
-                // Add property details
+                // Add title and property details
+                String title = pdfReport.getTitle();
                 Property property = pdfReport.getProperty();
-                contentStream.beginText();
-                contentStream.setFont(headingFont, 14);
-                contentStream.newLineAtOffset(50, 720);
-                contentStream.showText("Property Details");
-                contentStream.endText();
+                sections.add(ReportContentHash.ofHeader(title, property),
+                        section -> addHeaderToPdf(section, title, property));
                 
-                contentStream.beginText();
-                contentStream.setFont(textFont, 12);
-                contentStream.newLineAtOffset(50, 700);
-                contentStream.showText("Name: " + property.getName());
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Location: " + property.getLocation());
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Price: AED " + formatNumber(property.getPrice()));
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Size: " + formatNumber(property.getSize()) + " sq ft");
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Bedrooms: " + (property.getBedrooms() != null ? property.getBedrooms() : "N/A"));
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Bathrooms: " + (property.getBathrooms() != null ? property.getBathrooms() : "N/A"));
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Property Type: " + (property.getPropertyType() != null ? property.getPropertyType() : "N/A"));
-                contentStream.endText();
-                
-                int yPosition = 580;
+                // Add the first property photo
+                String photo = firstImage(property);
+                if (photo != null) {
+                    Optional<PDImageXObject> image = renderContext.image(document, photo);
+                    if (image.isPresent()) {
+                        layout.space(8);
+                        layout.image(image.get(), PHOTO_HEIGHT);
+                    }
+                }
+                layout.space(SECTION_SPACING);
                 
                 // Add cost breakdown if included
-                if (pdfReport.getIncludesCostBreakdown() && pdfReport.getCostBreakdown() != null) {
-                    yPosition = addCostBreakdownToPdf(contentStream, pdfReport.getCostBreakdown(), headingFont, textFont, yPosition);
+                CostBreakdown costBreakdown = pdfReport.getCostBreakdown();
+                if (pdfReport.getIncludesCostBreakdown() && costBreakdown != null) {
+                    sections.add(ReportContentHash.ofCostBreakdown(costBreakdown),
+                            section -> addCostBreakdownToPdf(section, costBreakdown));
                 }
                 
                 // Add loan calculation if included
-                if (pdfReport.getIncludesLoanCalculation() && pdfReport.getLoanCalculation() != null) {
-                    yPosition = addLoanCalculationToPdf(contentStream, pdfReport.getLoanCalculation(), headingFont, textFont, yPosition);
+                LoanCalculation loanCalculation = pdfReport.getLoanCalculation();
+                if (pdfReport.getIncludesLoanCalculation() && loanCalculation != null) {
+                    sections.add(ReportContentHash.ofLoanCalculation(loanCalculation),
+                            section -> addLoanCalculationToPdf(section, loanCalculation));
                 }
                 
                 // Add property comparison if included
-                if (pdfReport.getIncludesPropertyComparison() && pdfReport.getPropertyComparison() != null) {
-                    yPosition = addPropertyComparisonToPdf(contentStream, pdfReport.getPropertyComparison(), headingFont, textFont, yPosition);
+                PropertyComparison propertyComparison = pdfReport.getPropertyComparison();
+                if (pdfReport.getIncludesPropertyComparison() && propertyComparison != null) {
+                    sections.add(ReportContentHash.ofPropertyComparison(propertyComparison),
+                            section -> addPropertyComparisonToPdf(section, propertyComparison));
                 }
                 
                 // Add document checklist if included
-                if (pdfReport.getIncludesDocumentChecklist() && pdfReport.getDocumentChecklist() != null) {
-                    yPosition = addDocumentChecklistToPdf(contentStream, pdfReport.getDocumentChecklist(), headingFont, textFont, yPosition);
+                DocumentChecklist documentChecklist = pdfReport.getDocumentChecklist();
+                if (pdfReport.getIncludesDocumentChecklist() && documentChecklist != null) {
+                    sections.add(ReportContentHash.ofDocumentChecklist(documentChecklist),
+                            section -> addDocumentChecklistToPdf(section, documentChecklist));
                 }
                 
                 // Add service charge estimate if included
-                if (pdfReport.getIncludesServiceChargeEstimate() && pdfReport.getServiceChargeEstimate() != null) {
-                    yPosition = addServiceChargeEstimateToPdf(contentStream, pdfReport.getServiceChargeEstimate(), headingFont, textFont, yPosition);
+                ServiceChargeEstimate serviceChargeEstimate = pdfReport.getServiceChargeEstimate();
+                if (pdfReport.getIncludesServiceChargeEstimate() && serviceChargeEstimate != null) {
+                    sections.add(ReportContentHash.ofServiceChargeEstimate(serviceChargeEstimate),
+                            section -> addServiceChargeEstimateToPdf(section, serviceChargeEstimate));
                 }
                 
-                // Add footer
-                contentStream.beginText();
-                contentStream.setFont(textFont, 10);
-                contentStream.newLineAtOffset(50, 50);
-                contentStream.showText("Generated on: " + pdfReport.getGenerationDate().format(DATE_FORMATTER));
-                contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Real Estate Cost Calculator - A Micro SaaS Application");
-                contentStream.endText();
+                layout.finish();
             }
             
             // Save the document
-            document.save(filePath);
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating PDF: " + e.getMessage(), e);
+            document.save(outputStream);
         }
-        
-        return filePath;
+    }
+
+    /**
+     * Add the title and property details to PDF. The property photo is not part of the section;
+     * images belong to one document.
+     *
+     * @param section the section being built
+     * @param title the report title
+     * @param property the property
+     */
+    private void addHeaderToPdf(PdfSection.Builder section, String title, Property property) throws IOException {
+        section.heading(title, TITLE, 18, 14);
+        section.space(8);
+        
+        section.heading("Property Details", HEADING, 14, 12);
+        section.text("Name: " + property.getName(), TEXT, 12, 0);
+        section.text("Location: " + property.getLocation(), TEXT, 12, 0);
+        section.text("Price: AED " + formatNumber(property.getPrice()), TEXT, 12, 0);
+        section.text("Size: " + formatNumber(property.getSize()) + " sq ft", TEXT, 12, 0);
+        section.text("Bedrooms: " + (property.getBedrooms() != null ? property.getBedrooms() : "N/A"), TEXT, 12, 0);
+        section.text("Bathrooms: " + (property.getBathrooms() != null ? property.getBathrooms() : "N/A"), TEXT, 12, 0);
+        section.text("Property Type: " + (property.getPropertyType() != null ? property.getPropertyType() : "N/A"), TEXT, 12, 0);
     }
 
     /**
      * Add cost breakdown to PDF.
      *
-     * @param contentStream the PDF content stream
+     * @param section the section being built
      * @param costBreakdown the cost breakdown
-     * @param headingFont the heading font
-     * @param textFont the text font
-     * @param yPosition the current Y position
-     * @return the new Y position
-     */
-    private int addCostBreakdownToPdf(PDPageContentStream contentStream, CostBreakdown costBreakdown,
-                                    PDType1Font headingFont, PDType1Font textFont, int yPosition) throws IOException {
-        // Add section heading
-        contentStream.beginText();
-        contentStream.setFont(headingFont, 14);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("Cost Breakdown");
-        contentStream.endText();
-        
-        yPosition -= 20;
-        
-        // Add cost breakdown details
-        contentStream.beginText();
-        contentStream.setFont(textFont, 12);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("DLD Fee: AED " + formatNumber(costBreakdown.getDldFee()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Agency Fee: AED " + formatNumber(costBreakdown.getAgencyFee()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Registration Fee: AED " + formatNumber(costBreakdown.getRegistrationFee()));
-        contentStream.newLineAtOffset(0, -15);
-        
-        if (costBreakdown.getMortgageRegistrationFee() != null && costBreakdown.getMortgageRegistrationFee() > 0) {
-            contentStream.showText("Mortgage Registration Fee: AED " + formatNumber(costBreakdown.getMortgageRegistrationFee()));
-            contentStream.newLineAtOffset(0, -15);
-        }
-        
-        if (costBreakdown.getValuationFee() != null && costBreakdown.getValuationFee() > 0) {
-            contentStream.showText("Valuation Fee: AED " + formatNumber(costBreakdown.getValuationFee()));
-            contentStream.newLineAtOffset(0, -15);
-        }
-        
-        if (costBreakdown.getMortgageProcessingFee() != null && costBreakdown.getMortgageProcessingFee() > 0) {
-            contentStream.showText("Mortgage Processing Fee: AED " + formatNumber(costBreakdown.getMortgageProcessingFee()));
-            contentStream.newLineAtOffset(0, -15);
-        }
-        
-        if (costBreakdown.getLifeInsuranceCost() != null && costBreakdown.getLifeInsuranceCost() > 0) {
-            contentStream.showText("Life Insurance Cost: AED " + formatNumber(costBreakdown.getLifeInsuranceCost()));
-            contentStream.newLineAtOffset(0, -15);
-        }
-        
-        contentStream.showText("Property Insurance Cost: AED " + formatNumber(costBreakdown.getPropertyInsuranceCost()));
-        contentStream.newLineAtOffset(0, -15);
-        
-        if (costBreakdown.getMaintenanceDeposit() != null && costBreakdown.getMaintenanceDeposit() > 0) {
-            contentStream.showText("Maintenance Deposit: AED " + formatNumber(costBreakdown.getMaintenanceDeposit()));
-            contentStream.newLineAtOffset(0, -15);
-        }
-        
-        contentStream.showText("Utility Connection Fees: AED " + formatNumber(costBreakdown.getUtilityConnectionFees()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Moving Costs: AED " + formatNumber(costBreakdown.getMovingCosts()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Total Cost: AED " + formatNumber(costBreakdown.getTotalCost()));
-        contentStream.endText();
-        
-        return yPosition - 180;
+     */
+    private void addCostBreakdownToPdf(PdfSection.Builder section, CostBreakdown costBreakdown) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(row("DLD Fee", formatNumber(costBreakdown.getDldFee())));
+        rows.add(row("Agency Fee", formatNumber(costBreakdown.getAgencyFee())));
+        rows.add(row("Registration Fee", formatNumber(costBreakdown.getRegistrationFee())));
+        addIfPositive(rows, "Mortgage Registration Fee", costBreakdown.getMortgageRegistrationFee());
+        addIfPositive(rows, "Valuation Fee", costBreakdown.getValuationFee());
+        addIfPositive(rows, "Mortgage Processing Fee", costBreakdown.getMortgageProcessingFee());
+        addIfPositive(rows, "Life Insurance Cost", costBreakdown.getLifeInsuranceCost());
+        rows.add(row("Property Insurance Cost", formatNumber(costBreakdown.getPropertyInsuranceCost())));
+        addIfPositive(rows, "Maintenance Deposit", costBreakdown.getMaintenanceDeposit());
+        rows.add(row("Utility Connection Fees", formatNumber(costBreakdown.getUtilityConnectionFees())));
+        rows.add(row("Moving Costs", formatNumber(costBreakdown.getMovingCosts())));
+        rows.add(row("Total Cost", formatNumber(costBreakdown.getTotalCost())));
+        
+        section.heading("Cost Breakdown", HEADING, 14, 12);
+        addTable(section, "Amount (AED)", rows);
     }
 
     /**
      * Add loan calculation to PDF.
      *
-     * @param contentStream the PDF content stream
+     * @param section the section being built
      * @param loanCalculation the loan calculation
-     * @param headingFont the heading font
-     * @param textFont the text font
-     * @param yPosition the current Y position
-     * @return the new Y position
-     */
-    private int addLoanCalculationToPdf(PDPageContentStream contentStream, LoanCalculation loanCalculation,
-                                      PDType1Font headingFont, PDType1Font textFont, int yPosition) throws IOException {
-        // Add section heading
-        contentStream.beginText();
-        contentStream.setFont(headingFont, 14);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("Loan Calculation");
-        contentStream.endText();
-        
-        yPosition -= 20;
-        
-        // Add loan calculation details
-        contentStream.beginText();
-        contentStream.setFont(textFont, 12);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("Loan Amount: AED " + formatNumber(loanCalculation.getLoanAmount()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Down Payment: AED " + formatNumber(loanCalculation.getDownPayment()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Interest Rate: " + formatNumber(loanCalculation.getInterestRate()) + "%");
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Tenure: " + loanCalculation.getTenureYears() + " years");
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Monthly EMI: AED " + formatNumber(loanCalculation.getMonthlyEmi()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Total Interest: AED " + formatNumber(loanCalculation.getTotalInterest()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Total Payable: AED " + formatNumber(loanCalculation.getTotalPayable()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Loan to Value Ratio: " + formatNumber(loanCalculation.getLoanToValueRatio()) + "%");
-        contentStream.endText();
-        
-        return yPosition - 140;
+     */
+    private void addLoanCalculationToPdf(PdfSection.Builder section, LoanCalculation loanCalculation) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(row("Loan Amount", "AED " + formatNumber(loanCalculation.getLoanAmount())));
+        rows.add(row("Down Payment", "AED " + formatNumber(loanCalculation.getDownPayment())));
+        rows.add(row("Interest Rate", formatNumber(loanCalculation.getInterestRate()) + "%"));
+        rows.add(row("Tenure", loanCalculation.getTenureYears() + " years"));
+        rows.add(row("Monthly EMI", "AED " + formatNumber(loanCalculation.getMonthlyEmi())));
+        rows.add(row("Total Interest", "AED " + formatNumber(loanCalculation.getTotalInterest())));
+        rows.add(row("Total Payable", "AED " + formatNumber(loanCalculation.getTotalPayable())));
+        rows.add(row("Loan to Value Ratio", formatNumber(loanCalculation.getLoanToValueRatio()) + "%"));
+        
+        section.heading("Loan Calculation", HEADING, 14, 12);
+        addTable(section, "Value", rows);
     }
 
     /**
      * Add property comparison to PDF.
      *
-     * @param contentStream the PDF content stream
+     * @param section the section being built
      * @param propertyComparison the property comparison
-     * @param headingFont the heading font
-     * @param textFont the text font
-     * @param yPosition the current Y position
-     * @return the new Y position
-     */
-    private int addPropertyComparisonToPdf(PDPageContentStream contentStream, PropertyComparison propertyComparison,
-                                         PDType1Font headingFont, PDType1Font textFont, int yPosition) throws IOException {
-        // Add section heading
-        contentStream.beginText();
-        contentStream.setFont(headingFont, 14);
-        contentStream.newLineAtOffset(50, yPosition);
-        
-        if (propertyComparison.getIsRentVsBuy()) {
-            contentStream.showText("Rent vs Buy Comparison");
-        } else {
-            contentStream.showText("Property Comparison");
-        }
-        
-        contentStream.endText();
-        
-        yPosition -= 20;
-        
-        // Add property comparison details
-        contentStream.beginText();
-        contentStream.setFont(textFont, 12);
-        contentStream.newLineAtOffset(50, yPosition);
+     */
+    private void addPropertyComparisonToPdf(PdfSection.Builder section, PropertyComparison propertyComparison) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        String recommendation;
         
         if (propertyComparison.getIsRentVsBuy()) {
             // Rent vs Buy comparison
-            contentStream.showText("Monthly Rent: AED " + formatNumber(propertyComparison.getMonthlyRent()));
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Annual Rent Increase: " + formatNumber(propertyComparison.getAnnualRentIncrease()) + "%");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Investment Return Rate: " + formatNumber(propertyComparison.getInvestmentReturnRate()) + "%");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Property Appreciation Rate: " + formatNumber(propertyComparison.getPropertyAppreciationRate()) + "%");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Holding Period: " + propertyComparison.getHoldingPeriodYears() + " years");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Break-even Point: " + formatNumber(propertyComparison.getBreakEvenYears()) + " years");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Buying NPV: AED " + formatNumber(propertyComparison.getBuyingNpv()));
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Renting NPV: AED " + formatNumber(propertyComparison.getRentingNpv()));
-            contentStream.newLineAtOffset(0, -15);
+            section.heading("Rent vs Buy Comparison", HEADING, 14, 12);
+            rows.add(row("Monthly Rent", "AED " + formatNumber(propertyComparison.getMonthlyRent())));
+            rows.add(row("Annual Rent Increase", formatNumber(propertyComparison.getAnnualRentIncrease()) + "%"));
+            rows.add(row("Investment Return Rate", formatNumber(propertyComparison.getInvestmentReturnRate()) + "%"));
+            rows.add(row("Property Appreciation Rate", formatNumber(propertyComparison.getPropertyAppreciationRate()) + "%"));
+            rows.add(row("Holding Period", propertyComparison.getHoldingPeriodYears() + " years"));
+            rows.add(row("Break-even Point", formatNumber(propertyComparison.getBreakEvenYears()) + " years"));
+            rows.add(row("Buying NPV", "AED " + formatNumber(propertyComparison.getBuyingNpv())));
+            rows.add(row("Renting NPV", "AED " + formatNumber(propertyComparison.getRentingNpv())));
             
             if (propertyComparison.getBuyingNpv() > propertyComparison.getRentingNpv()) {
-                contentStream.showText("Recommendation: Buying is financially better in the long run");
+                recommendation = "Recommendation: Buying is financially better in the long run";
             } else {
-                contentStream.showText("Recommendation: Renting is financially better in the long run");
+                recommendation = "Recommendation: Renting is financially better in the long run";
             }
         } else {
             // Property vs Property comparison
-            contentStream.showText("Property 1: " + propertyComparison.getProperty1().getName());
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Property 2: " + propertyComparison.getProperty2().getName());
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Property Appreciation Rate: " + formatNumber(propertyComparison.getPropertyAppreciationRate()) + "%");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Holding Period: " + propertyComparison.getHoldingPeriodYears() + " years");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Property 1 Total Cost: AED " + formatNumber(propertyComparison.getProperty1TotalCost()));
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Property 2 Total Cost: AED " + formatNumber(propertyComparison.getProperty2TotalCost()));
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Cost Difference: AED " + formatNumber(propertyComparison.getCostDifference()));
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Property 1 ROI: " + formatNumber(propertyComparison.getProperty1Roi()) + "%");
-            contentStream.newLineAtOffset(0, -15);
-            contentStream.showText("Property 2 ROI: " + formatNumber(propertyComparison.getProperty2Roi()) + "%");
-            contentStream.newLineAtOffset(0, -15);
+            section.heading("Property Comparison", HEADING, 14, 12);
+            rows.add(row("Property 1", propertyComparison.getProperty1().getName()));
+            rows.add(row("Property 2", propertyComparison.getProperty2().getName()));
+            rows.add(row("Property Appreciation Rate", formatNumber(propertyComparison.getPropertyAppreciationRate()) + "%"));
+            rows.add(row("Holding Period", propertyComparison.getHoldingPeriodYears() + " years"));
+            rows.add(row("Property 1 Total Cost", "AED " + formatNumber(propertyComparison.getProperty1TotalCost())));
+            rows.add(row("Property 2 Total Cost", "AED " + formatNumber(propertyComparison.getProperty2TotalCost())));
+            rows.add(row("Cost Difference", "AED " + formatNumber(propertyComparison.getCostDifference())));
+            rows.add(row("Property 1 ROI", formatNumber(propertyComparison.getProperty1Roi()) + "%"));
+            rows.add(row("Property 2 ROI", formatNumber(propertyComparison.getProperty2Roi()) + "%"));
             
             if (propertyComparison.getProperty1Roi() > propertyComparison.getProperty2Roi()) {
-                contentStream.showText("Recommendation: Property 1 has better ROI");
+                recommendation = "Recommendation: Property 1 has better ROI";
             } else {
-                contentStream.showText("Recommendation: Property 2 has better ROI");
+                recommendation = "Recommendation: Property 2 has better ROI";
             }
         }
         
-        contentStream.endText();
-        
-        return yPosition - 180;
+        section.table(new String[] {"Item", "Value"}, rows, TABLE_COLUMN_WIDTHS, TABLE_ALIGNMENT,
+                HEADING, TEXT, 12);
+        section.space(6);
+        section.text(recommendation, HEADING, 12, 0);
+        section.space(SECTION_SPACING);
     }
 
     /**
-     * Add document checklist to PDF.
+     * Add document checklist to PDF. Every document list is printed in full, over as many
+     * pages as it takes.
      *
-     * @param contentStream the PDF content stream
+     * @param section the section being built
      * @param documentChecklist the document checklist
-     * @param headingFont the heading font
-     * @param textFont the text font
-     * @param yPosition the current Y position
-     * @return the new Y position
-     */
-    private int addDocumentChecklistToPdf(PDPageContentStream contentStream, DocumentChecklist documentChecklist,
-                                        PDType1Font headingFont, PDType1Font textFont, int yPosition) throws IOException {
-        // Add section heading
-        contentStream.beginText();
-        contentStream.setFont(headingFont, 14);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("Document Checklist");
-        contentStream.endText();
-        
-        yPosition -= 20;
-        
-        // Add document checklist details
-        contentStream.beginText();
-        contentStream.setFont(textFont, 12);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("Buyer Type: " + documentChecklist.getBuyerType());
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Selected Bank: " + (documentChecklist.getSelectedBank() != null ? documentChecklist.getSelectedBank() : "N/A"));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Nationality: " + documentChecklist.getNationality());
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Residence Status: " + documentChecklist.getResidenceStatus());
-        contentStream.endText();
-        
-        yPosition -= 60;
-        
-        // Add identity documents
-        if (documentChecklist.getIdentityDocuments() != null && !documentChecklist.getIdentityDocuments().isEmpty()) {
-            contentStream.beginText();
-            contentStream.setFont(headingFont, 12);
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText("Identity Documents:");
-            contentStream.endText();
-            
-            yPosition -= 15;
-            
-            contentStream.beginText();
-            contentStream.setFont(textFont, 10);
-            contentStream.newLineAtOffset(70, yPosition);
-            
-            for (String document : documentChecklist.getIdentityDocuments()) {
-                contentStream.showText("• " + document);
-                contentStream.newLineAtOffset(0, -12);
-                yPosition -= 12;
-            }
-            
-            contentStream.endText();
-        }
-        
-        yPosition -= 10;
-        
-        // Add income proof documents
-        if (documentChecklist.getIncomeProofDocuments() != null && !documentChecklist.getIncomeProofDocuments().isEmpty()) {
-            contentStream.beginText();
-            contentStream.setFont(headingFont, 12);
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText("Income Proof Documents:");
-            contentStream.endText();
-            
-            yPosition -= 15;
-            
-            contentStream.beginText();
-            contentStream.setFont(textFont, 10);
-            contentStream.newLineAtOffset(70, yPosition);
-            
-            for (String document : documentChecklist.getIncomeProofDocuments()) {
-                contentStream.showText("• " + document);
-                contentStream.newLineAtOffset(0, -12);
-                yPosition -= 12;
-            }
-            
-            contentStream.endText();
+     */
+    private void addDocumentChecklistToPdf(PdfSection.Builder section, DocumentChecklist documentChecklist) throws IOException {
+        section.heading("Document Checklist", HEADING, 14, 12);
+        section.text("Buyer Type: " + documentChecklist.getBuyerType(), TEXT, 12, 0);
+        section.text("Selected Bank: " + (documentChecklist.getSelectedBank() != null ? documentChecklist.getSelectedBank() : "N/A"), TEXT, 12, 0);
+        section.text("Nationality: " + documentChecklist.getNationality(), TEXT, 12, 0);
+        section.text("Residence Status: " + documentChecklist.getResidenceStatus(), TEXT, 12, 0);
+        
+        addDocumentListToPdf(section, "Identity Documents:", documentChecklist.getIdentityDocuments());
+        addDocumentListToPdf(section, "Income Proof Documents:", documentChecklist.getIncomeProofDocuments());
+        addDocumentListToPdf(section, "Property Documents:", documentChecklist.getPropertyDocuments());
+        addDocumentListToPdf(section, "Bank Documents:", documentChecklist.getBankDocuments());
+        addDocumentListToPdf(section, "Visa Documents:", documentChecklist.getVisaDocuments());
+        addDocumentListToPdf(section, "Additional Documents:", documentChecklist.getAdditionalDocuments());
+        
+        section.space(SECTION_SPACING);
+    }
+
+    /**
+     * Add one titled document list of a checklist to PDF, if it has any documents.
+     *
+     * @param section the section being built
+     * @param title the list title
+     * @param documents the documents
+     */
+    private void addDocumentListToPdf(PdfSection.Builder section, String title, List<String> documents) throws IOException {
+        if (documents == null || documents.isEmpty()) {
+            return;
         }
         
-        return yPosition - 20;
+        section.space(10);
+        section.heading(title, HEADING, 12, 10);
+        section.bulletList(documents, TEXT, 10, 20);
     }
 
     /**
      * Add service charge estimate to PDF.
      *
-     * @param contentStream the PDF content stream
+     * @param section the section being built
      * @param serviceChargeEstimate the service charge estimate
-     * @param headingFont the heading font
-     * @param textFont the text font
-     * @param yPosition the current Y position
-     * @return the new Y position
-     */
-    private int addServiceChargeEstimateToPdf(PDPageContentStream contentStream, ServiceChargeEstimate serviceChargeEstimate,
-                                            PDType1Font headingFont, PDType1Font textFont, int yPosition) throws IOException {
-        // Add section heading
-        contentStream.beginText();
-        contentStream.setFont(headingFont, 14);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("Service Charge Estimate");
-        contentStream.endText();
-        
-        yPosition -= 20;
-        
-        // Add service charge estimate details
-        contentStream.beginText();
-        contentStream.setFont(textFont, 12);
-        contentStream.newLineAtOffset(50, yPosition);
-        contentStream.showText("Community: " + serviceChargeEstimate.getCommunityName());
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Property Type: " + serviceChargeEstimate.getPropertyType());
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Property Size: " + formatNumber(serviceChargeEstimate.getPropertySize()) + " sq ft");
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Service Charge Rate: AED " + formatNumber(serviceChargeEstimate.getServiceChargeRatePerSqFt()) + " per sq ft");
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Annual Service Charge: AED " + formatNumber(serviceChargeEstimate.getAnnualServiceCharge()));
-        contentStream.newLineAtOffset(0, -15);
-        
-        if (serviceChargeEstimate.getCoolingCharges() != null && serviceChargeEstimate.getCoolingCharges() > 0) {
-            contentStream.showText("Cooling Charges: AED " + formatNumber(serviceChargeEstimate.getCoolingCharges()));
-            contentStream.newLineAtOffset(0, -15);
-        }
-        
-        contentStream.showText("Building Maintenance Fee: AED " + formatNumber(serviceChargeEstimate.getBuildingMaintenanceFee()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Security Fee: AED " + formatNumber(serviceChargeEstimate.getSecurityFee()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Cleaning Fee: AED " + formatNumber(serviceChargeEstimate.getCleaningFee()));
-        contentStream.newLineAtOffset(0, -15);
-        
-        if (serviceChargeEstimate.getParkingFee() != null && serviceChargeEstimate.getParkingFee() > 0) {
-            contentStream.showText("Parking Fee: AED " + formatNumber(serviceChargeEstimate.getParkingFee()));
-            contentStream.newLineAtOffset(0, -15);
+     */
+    private void addServiceChargeEstimateToPdf(PdfSection.Builder section, ServiceChargeEstimate serviceChargeEstimate) throws IOException {
+        section.heading("Service Charge Estimate", HEADING, 14, 12);
+        section.text("Community: " + serviceChargeEstimate.getCommunityName(), TEXT, 12, 0);
+        section.text("Property Type: " + serviceChargeEstimate.getPropertyType(), TEXT, 12, 0);
+        section.text("Property Size: " + formatNumber(serviceChargeEstimate.getPropertySize()) + " sq ft", TEXT, 12, 0);
+        section.text("Service Charge Rate: AED " + formatNumber(serviceChargeEstimate.getServiceChargeRatePerSqFt()) + " per sq ft", TEXT, 12, 0);
+        section.space(6);
+        
+        List<String[]> rows = new ArrayList<>();
+        rows.add(row("Annual Service Charge", formatNumber(serviceChargeEstimate.getAnnualServiceCharge())));
+        addIfPositive(rows, "Cooling Charges", serviceChargeEstimate.getCoolingCharges());
+        rows.add(row("Building Maintenance Fee", formatNumber(serviceChargeEstimate.getBuildingMaintenanceFee())));
+        rows.add(row("Security Fee", formatNumber(serviceChargeEstimate.getSecurityFee())));
+        rows.add(row("Cleaning Fee", formatNumber(serviceChargeEstimate.getCleaningFee())));
+        addIfPositive(rows, "Parking Fee", serviceChargeEstimate.getParkingFee());
+        rows.add(row("Gym and Pool Fee", formatNumber(serviceChargeEstimate.getGymAndPoolFee())));
+        rows.add(row("Miscellaneous Charges", formatNumber(serviceChargeEstimate.getMiscCharges())));
+        rows.add(row("Total Annual Charges", formatNumber(serviceChargeEstimate.getTotalAnnualCharges())));
+        rows.add(row("Monthly Charges", formatNumber(serviceChargeEstimate.getMonthlyCharges())));
+        
+        addTable(section, "Amount (AED)", rows);
+    }
+
+    /**
+     * Add a two-column table of items and right-aligned values, followed by section spacing.
+     *
+     * @param section the section being built
+     * @param valueHeader the header of the value column
+     * @param rows the item and value of each row
+     */
+    private void addTable(PdfSection.Builder section, String valueHeader, List<String[]> rows) throws IOException {
+        section.table(new String[] {"Item", valueHeader}, rows, TABLE_COLUMN_WIDTHS, TABLE_ALIGNMENT,
+                HEADING, TEXT, 12);
+        section.space(SECTION_SPACING);
+    }
+
+    /**
+     * Load the document lists of a checklist, which are lazy and rendered outside the transaction.
+     *
+     * @param documentChecklist the document checklist
+     */
+    private static void initializeDocumentLists(DocumentChecklist documentChecklist) {
+        Hibernate.initialize(documentChecklist.getIdentityDocuments());
+        Hibernate.initialize(documentChecklist.getIncomeProofDocuments());
+        Hibernate.initialize(documentChecklist.getPropertyDocuments());
+        Hibernate.initialize(documentChecklist.getBankDocuments());
+        Hibernate.initialize(documentChecklist.getVisaDocuments());
+        Hibernate.initialize(documentChecklist.getAdditionalDocuments());
+    }
+
+    /**
+     * Get the photo printed in a report.
+     *
+     * @param property the property
+     * @return the location of the property's first image, or null if it has none
+     */
+    static String firstImage(Property property) {
+        List<String> images = property.getImages();
+        return images != null && !images.isEmpty() ? images.get(0) : null;
+    }
+
+    private static String[] row(String item, String value) {
+        return new String[] {item, value};
+    }
+
+    private void addIfPositive(List<String[]> rows, String item, Double amount) {
+        if (amount != null && amount > 0) {
+            rows.add(row(item, formatNumber(amount)));
         }
-        
-        contentStream.showText("Gym and Pool Fee: AED " + formatNumber(serviceChargeEstimate.getGymAndPoolFee()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Miscellaneous Charges: AED " + formatNumber(serviceChargeEstimate.getMiscCharges()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Total Annual Charges: AED " + formatNumber(serviceChargeEstimate.getTotalAnnualCharges()));
-        contentStream.newLineAtOffset(0, -15);
-        contentStream.showText("Monthly Charges: AED " + formatNumber(serviceChargeEstimate.getMonthlyCharges()));
-        contentStream.endText();
-        
-        return yPosition - 180;
     }
 
     /**
@@ -692,7 +819,8 @@ public class PdfReportService {
     }
 
     /**
-     * Share a PDF report via email.
+     * Share a PDF report via email. The email is sent in the background by the share
+     * dispatcher, once this transaction has committed.
      *
      * @param reportId the PDF report ID
      * @param email the email address to share with
@@ -702,9 +830,7 @@ public class PdfReportService {
         PdfReport pdfReport = pdfReportRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("PDF report not found with id " + reportId));
         
-        // In a real application, you would send an email with the PDF attachment here
-        // For this example, we'll just update the report entity
-        
+        shareOutboxService.enqueue(pdfReport, email);
         pdfReport.setSharedToEmail(email);
         pdfReport.setSharedDate(LocalDate.now());
         
@@ -712,7 +838,8 @@ public class PdfReportService {
     }
 
     /**
-     * Delete a PDF report.
+     * Delete a PDF report. Its file is removed in the background, only if no other report
+     * shares it.
      *
      * @param id the PDF report ID
      */
@@ -720,19 +847,13 @@ public class PdfReportService {
         PdfReport pdfReport = pdfReportRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("PDF report not found with id " + id));
         
-        // Delete the PDF file
-        try {
-            Files.deleteIfExists(Paths.get(pdfReport.getFilePath()));
-        } catch (IOException e) {
-            // Log the error but continue with deleting the entity
-            System.err.println("Error deleting PDF file: " + e.getMessage());
-        }
-        
         pdfReportRepository.deleteById(id);
+        releaseFiles(List.of(pdfReport.getFilePath()));
     }
 
     /**
-     * Delete all PDF reports for a property.
+     * Delete all PDF reports for a property. Their files are removed in the background unless
+     * reports of other properties share them.
      *
      * @param propertyId the property ID
      */
@@ -740,18 +861,77 @@ public class PdfReportService {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
         
-        List<PdfReport> reports = pdfReportRepository.findByProperty(property);
-        
-        // Delete all PDF files
-        for (PdfReport report : reports) {
-            try {
-                Files.deleteIfExists(Paths.get(report.getFilePath()));
-            } catch (IOException e) {
-                // Log the error but continue with deleting the entities
-                System.err.println("Error deleting PDF file: " + e.getMessage());
-            }
-        }
-        
+        List<String> filePaths = pdfReportRepository.findFilePathsOfProperty(propertyId);
         pdfReportRepository.deleteByProperty(property);
+        releaseFiles(filePaths);
+    }
+
+    /**
+     * Delete every PDF report that prints a property, as part of deleting the property: its own
+     * reports and the reports of comparisons with it, whichever property they belong to. The
+     * reports are deleted without loading them, and their files are removed in the background
+     * unless reports of other properties share them.
+     *
+     * @param property the property being deleted
+     * @return the number of PDF reports deleted
+     */
+    public int deletePdfReportsPrintingProperty(Property property) {
+        List<String> filePaths = pdfReportRepository.findFilePathsPrintingProperty(property.getId());
+        int deleted = pdfReportRepository.deletePrintingProperty(property);
+        releaseFiles(filePaths);
+        return deleted;
+    }
+
+    /**
+     * Hand the files of deleted reports to the janitor once the deleting transaction has
+     * committed. The janitor deletes them in the background unless another report still uses
+     * them, so the request does no storage I/O. A rollback leaves every file in place.
+     *
+     * @param filePaths the storage keys of the files of the deleted reports
+     */
+    private void releaseFiles(Collection<String> filePaths) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reportFileJanitor.releaseFiles(filePaths);
+                }
+            });
+        } else {
+            reportFileJanitor.releaseFiles(filePaths);
+        }
+    }
+
+    /**
+     * Adds the sections of one document to its layout. A section whose content has been
+     * rendered before is taken wrapped from the render context instead of being laid out again.
+     */
+    private final class ReportSections {
+        private final PdfLayout layout;
+        private final PDFont regular;
+        private final PDFont bold;
+
+        ReportSections(PdfLayout layout, PDFont regular, PDFont bold) {
+            this.layout = layout;
+            this.regular = regular;
+            this.bold = bold;
+        }
+
+        void add(String key, SectionContent content) throws IOException {
+            PdfSection section = renderContext.section(key, () -> {
+                PdfSection.Builder builder = PdfSection.builder(layout.getContentWidth(), regular, bold);
+                content.addTo(builder);
+                return builder.build();
+            });
+            layout.section(section, regular, bold);
+        }
+    }
+
+    /**
+     * Adds the content of one section.
+     */
+    @FunctionalInterface
+    private interface SectionContent {
+        void addTo(PdfSection.Builder section) throws IOException;
     }
-}
\ No newline at end of file
+}
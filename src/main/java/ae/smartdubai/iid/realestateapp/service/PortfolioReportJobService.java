@@ -0,0 +1,240 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.PdfReportJob;
+import ae.smartdubai.iid.realestateapp.dto.PortfolioReportJob;
+import ae.smartdubai.iid.realestateapp.dto.PortfolioReportRequest;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Service for portfolio report jobs: one PDF report per property, written into a single ZIP.
+ * <p>
+ * All properties and components are prefetched in the caller's thread with a few batched
+ * queries. The job itself takes one slot of the PDF report pool, like any other report job,
+ * and fans the rendering out over the PDF render pool. Rendered reports are added to the ZIP
+ * in the order they complete, with a bounded number in flight, and progress is published
+ * after every report. Queued and running jobs are kept until they finish, finished jobs for a
+ * limited time and only up to a maximum number of jobs.
+ */
+@Slf4j
+@Service
+public class PortfolioReportJobService {
+
+    // Upper bound on properties accepted in a single portfolio
+    public static final int MAX_PROPERTIES = 1000;
+
+    private final PdfReportService pdfReportService;
+    private final ThreadPoolExecutor pdfReportExecutor;
+    private final ForkJoinPool pdfRenderPool;
+    private final ReportStorage reportStorage;
+    private final Map<String, PortfolioReportJob> liveJobs = new ConcurrentHashMap<>();
+    private final Cache<String, PortfolioReportJob> finishedJobs;
+
+    public PortfolioReportJobService(PdfReportService pdfReportService,
+                                     ThreadPoolExecutor pdfReportExecutor,
+                                     @Qualifier("pdfRenderPool") ForkJoinPool pdfRenderPool,
+                                     ReportStorage reportStorage,
+                                     @Value("${pdf.jobs.retention:1h}") Duration retention,
+                                     @Value("${pdf.jobs.maximum-size:10000}") long maximumSize) {
+        this.pdfReportService = pdfReportService;
+        this.pdfReportExecutor = pdfReportExecutor;
+        this.pdfRenderPool = pdfRenderPool;
+        this.reportStorage = reportStorage;
+        this.finishedJobs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Queue a portfolio report job. A property listed more than once gets a single report, at its
+     * first position, since every report of a property goes into the same ZIP entry.
+     *
+     * @param request the properties and the components to include
+     * @return the queued job
+     * @throws IllegalArgumentException if there are no or too many properties, or a property ID is missing
+     * @throws RejectedExecutionException if the PDF report queue is full
+     */
+    public PortfolioReportJob submitPortfolioReport(PortfolioReportRequest request) {
+        if (request.getPropertyIds() == null || request.getPropertyIds().isEmpty()
+                || request.getPropertyIds().size() > MAX_PROPERTIES) {
+            throw new IllegalArgumentException("Number of properties must be between 1 and " + MAX_PROPERTIES);
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(request.getPropertyIds());
+        if (distinctIds.contains(null)) {
+            throw new IllegalArgumentException("Property IDs must not be null");
+        }
+        List<Long> propertyIds = new ArrayList<>(distinctIds);
+
+        List<PdfReport> pdfReports = pdfReportService.preparePortfolioReports(propertyIds, request.getTitle(),
+                request.isIncludeCostBreakdown(), request.isIncludeLoanCalculation(),
+                request.isIncludeServiceChargeEstimate());
+
+        String jobId = UUID.randomUUID().toString();
+        PortfolioReportJob job = new PortfolioReportJob(jobId, PdfReportJob.Status.QUEUED, pdfReports.size(), 0,
+                null, LocalDateTime.now(), null, null);
+        liveJobs.put(jobId, job);
+
+        try {
+            pdfReportExecutor.execute(() -> run(job, pdfReports));
+        } catch (RejectedExecutionException e) {
+            liveJobs.remove(jobId);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Get the state and progress of a job.
+     *
+     * @param jobId the job ID
+     * @return the job if it is known and has not expired
+     */
+    public Optional<PortfolioReportJob> getJob(String jobId) {
+        // A finishing job is added to the finished jobs before it leaves the live ones
+        PortfolioReportJob live = liveJobs.get(jobId);
+        return Optional.ofNullable(live != null ? live : finishedJobs.getIfPresent(jobId));
+    }
+
+    /**
+     * Get the ZIP of a completed job.
+     *
+     * @param jobId the job ID
+     * @return the report storage key of the ZIP if the job has completed
+     */
+    public Optional<String> getArchive(String jobId) {
+        return getJob(jobId)
+                .filter(job -> job.getStatus() == PdfReportJob.Status.COMPLETED)
+                .map(job -> archiveKey(jobId));
+    }
+
+    static String archiveKey(String jobId) {
+        return "portfolio_" + jobId + ".zip";
+    }
+
+    private void run(PortfolioReportJob queued, List<PdfReport> pdfReports) {
+        // Every state change publishes a new job object, so readers never see one half-updated
+        LocalDateTime startedAt = LocalDateTime.now();
+        publish(queued, PdfReportJob.Status.RUNNING, 0, null, startedAt, null);
+
+        String archive = archiveKey(queued.getJobId());
+        try {
+            // The ZIP is streamed into the storage as the reports complete
+            reportStorage.store(archive, outputStream -> writeArchive(queued, pdfReports, startedAt, outputStream));
+            publish(queued, PdfReportJob.Status.COMPLETED, pdfReports.size(), null, startedAt, LocalDateTime.now());
+        } catch (IOException | RuntimeException | Error e) {
+            // Errors from PDFBox, such as a stack overflow on a deeply nested document, fail the job too
+            log.warn("Portfolio report job {} failed", queued.getJobId(), e);
+            try {
+                reportStorage.delete(archive);
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            PortfolioReportJob current = liveJobs.get(queued.getJobId());
+            int rendered = current != null ? current.getRenderedCount() : 0;
+            publish(queued, PdfReportJob.Status.FAILED, rendered, e.getMessage(), startedAt, LocalDateTime.now());
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Render every report on the render pool and add each one to the ZIP as soon as it is done.
+     */
+    private void writeArchive(PortfolioReportJob job, List<PdfReport> pdfReports, LocalDateTime startedAt,
+                              OutputStream outputStream) throws IOException {
+        CompletionService<RenderedReport> completionService = new ExecutorCompletionService<>(pdfRenderPool);
+        List<Future<RenderedReport>> pending = new ArrayList<>();
+        int maxInFlight = pdfRenderPool.getParallelism() * 2;
+        int nextReport = 0;
+
+        try (ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+            for (int written = 0; written < pdfReports.size(); written++) {
+                while (nextReport < pdfReports.size() && nextReport - written < maxInFlight) {
+                    PdfReport pdfReport = pdfReports.get(nextReport++);
+                    pending.add(completionService.submit(() -> new RenderedReport(
+                            entryName(pdfReport), pdfReportService.renderReportContent(pdfReport))));
+                }
+
+                Future<RenderedReport> completed = completionService.take();
+                pending.remove(completed);
+                RenderedReport rendered = completed.get();
+
+                zip.putNextEntry(new ZipEntry(rendered.entryName));
+                zip.write(rendered.content);
+                zip.closeEntry();
+                publish(job, PdfReportJob.Status.RUNNING, written + 1, null, startedAt, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering the portfolio", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (Future<RenderedReport> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * ZIP entry name of a report: the property id followed by its name, as a safe file name.
+     */
+    private static String entryName(PdfReport pdfReport) {
+        String name = pdfReport.getProperty().getName() != null ? pdfReport.getProperty().getName() : "property";
+        return pdfReport.getProperty().getId() + "_" + name.replaceAll("[^A-Za-z0-9-]+", "_") + ".pdf";
+    }
+
+    private void publish(PortfolioReportJob job, PdfReportJob.Status status, int renderedCount, String error,
+                         LocalDateTime startedAt, LocalDateTime finishedAt) {
+        PortfolioReportJob published = new PortfolioReportJob(job.getJobId(), status, job.getPropertyCount(),
+                renderedCount, error, job.getSubmittedAt(), startedAt, finishedAt);
+        if (status == PdfReportJob.Status.COMPLETED || status == PdfReportJob.Status.FAILED) {
+            finishedJobs.put(job.getJobId(), published);
+            liveJobs.remove(job.getJobId());
+        } else {
+            liveJobs.put(job.getJobId(), published);
+        }
+    }
+
+    /**
+     * A rendered report on its way into the ZIP.
+     */
+    private static final class RenderedReport {
+        private final String entryName;
+        private final byte[] content;
+
+        RenderedReport(String entryName, byte[] content) {
+            this.entryName = entryName;
+            this.content = content;
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertyComparisonSummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
 import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,15 +24,21 @@ public class PropertyComparisonService {
 
     private final PropertyComparisonRepository propertyComparisonRepository;
     private final PropertyRepository propertyRepository;
+    private final CalculationMetrics calculationMetrics;
 
     /**
-     * Get all property comparisons.
+     * Get a page of property comparisons in ID order, optionally within a comparison date range.
      *
-     * @return list of all property comparisons
+     * @param afterId only property comparisons with a greater ID are returned
+     * @param from the first comparison date, or null for no lower bound
+     * @param to the last comparison date, or null for no upper bound
+     * @param limit the maximum number of property comparisons
+     * @return the summaries of the page of property comparisons
      */
     @Transactional(readOnly = true)
-    public List<PropertyComparison> getAllPropertyComparisons() {
-        return propertyComparisonRepository.findAll();
+    public List<PropertyComparisonSummary> getPropertyComparisonPage(long afterId, LocalDate from, LocalDate to,
+            int limit) {
+        return propertyComparisonRepository.findPage(afterId, from, to, PageRequest.of(0, limit));
     }
 
     /**
@@ -68,6 +76,35 @@ public class PropertyComparisonService {
      */
     public PropertyComparison compareProperties(Long property1Id, Long property2Id, 
                                                Double propertyAppreciationRate, Integer holdingPeriodYears) {
+        PropertyComparison comparison = buildPropertyComparison(
+                property1Id, property2Id, propertyAppreciationRate, holdingPeriodYears);
+        calculationMetrics.recordPersisted(CalculationMetrics.PROPERTY_COMPARISON);
+        return propertyComparisonRepository.save(comparison);
+    }
+
+    /**
+     * Compare two properties without saving the comparison.
+     *
+     * @param property1Id the first property ID
+     * @param property2Id the second property ID
+     * @param propertyAppreciationRate the expected annual property appreciation rate (in percentage)
+     * @param holdingPeriodYears the expected holding period in years
+     * @return the unsaved property comparison
+     */
+    @Transactional(readOnly = true)
+    public PropertyComparison previewCompareProperties(Long property1Id, Long property2Id,
+                                                       Double propertyAppreciationRate, Integer holdingPeriodYears) {
+        PropertyComparison comparison = buildPropertyComparison(
+                property1Id, property2Id, propertyAppreciationRate, holdingPeriodYears);
+        calculationMetrics.recordPreview(CalculationMetrics.PROPERTY_COMPARISON);
+        return comparison;
+    }
+
+    /**
+     * Validate the inputs and compute a comparison of two properties.
+     */
+    private PropertyComparison buildPropertyComparison(Long property1Id, Long property2Id,
+                                                       Double propertyAppreciationRate, Integer holdingPeriodYears) {
         Property property1 = propertyRepository.findById(property1Id)
                 .orElseThrow(() -> new RuntimeException("Property 1 not found with id " + property1Id));
 
@@ -116,7 +153,7 @@ public class PropertyComparisonService {
         double property2Roi = ((property2FutureValue - property2.getPrice()) / property2.getPrice()) * 100;
         comparison.setProperty2Roi(property2Roi);
 
-        return propertyComparisonRepository.save(comparison);
+        return comparison;
     }
 
     /**
@@ -133,6 +170,39 @@ public class PropertyComparisonService {
     public PropertyComparison compareRentVsBuy(Long propertyId, Double monthlyRent, Double annualRentIncrease,
                                               Double investmentReturnRate, Double propertyAppreciationRate,
                                               Integer holdingPeriodYears) {
+        PropertyComparison comparison = buildRentVsBuyComparison(propertyId, monthlyRent, annualRentIncrease,
+                investmentReturnRate, propertyAppreciationRate, holdingPeriodYears);
+        calculationMetrics.recordPersisted(CalculationMetrics.PROPERTY_COMPARISON);
+        return propertyComparisonRepository.save(comparison);
+    }
+
+    /**
+     * Compare renting vs buying a property without saving the comparison.
+     *
+     * @param propertyId the property ID (for buying)
+     * @param monthlyRent the monthly rent amount
+     * @param annualRentIncrease the annual rent increase percentage
+     * @param investmentReturnRate the investment return rate for opportunity cost calculation
+     * @param propertyAppreciationRate the expected annual property appreciation rate
+     * @param holdingPeriodYears the expected holding period in years
+     * @return the unsaved property comparison
+     */
+    @Transactional(readOnly = true)
+    public PropertyComparison previewCompareRentVsBuy(Long propertyId, Double monthlyRent, Double annualRentIncrease,
+                                                      Double investmentReturnRate, Double propertyAppreciationRate,
+                                                      Integer holdingPeriodYears) {
+        PropertyComparison comparison = buildRentVsBuyComparison(propertyId, monthlyRent, annualRentIncrease,
+                investmentReturnRate, propertyAppreciationRate, holdingPeriodYears);
+        calculationMetrics.recordPreview(CalculationMetrics.PROPERTY_COMPARISON);
+        return comparison;
+    }
+
+    /**
+     * Validate the inputs and compute a rent vs buy comparison for a property.
+     */
+    private PropertyComparison buildRentVsBuyComparison(Long propertyId, Double monthlyRent, Double annualRentIncrease,
+                                                        Double investmentReturnRate, Double propertyAppreciationRate,
+                                                        Integer holdingPeriodYears) {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
 
@@ -187,7 +257,7 @@ public class PropertyComparisonService {
         double propertyTotalCost = calculateTotalCostOfOwnership(property, holdingPeriodYears);
         comparison.setProperty1TotalCost(propertyTotalCost);
 
-        return propertyComparisonRepository.save(comparison);
+        return comparison;
     }
 
     /**
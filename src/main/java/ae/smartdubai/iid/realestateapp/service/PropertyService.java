@@ -1,11 +1,23 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertySummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
+import ae.smartdubai.iid.realestateapp.repository.DocumentChecklistRepository;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.repository.RentVsBuyAnalysisRepository;
+import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,15 +30,26 @@ import java.util.Optional;
 public class PropertyService {
 
     private final PropertyRepository propertyRepository;
+    private final CalculationCache calculationCache;
+    private final PdfReportRepository pdfReportRepository;
+    private final PdfReportService pdfReportService;
+    private final PropertyComparisonRepository propertyComparisonRepository;
+    private final LoanCalculationRepository loanCalculationRepository;
+    private final CostBreakdownRepository costBreakdownRepository;
+    private final RentVsBuyAnalysisRepository rentVsBuyAnalysisRepository;
+    private final ServiceChargeEstimateRepository serviceChargeEstimateRepository;
+    private final DocumentChecklistRepository documentChecklistRepository;
 
     /**
-     * Get all properties.
+     * Get a page of properties in ID order.
      *
-     * @return list of all properties
+     * @param afterId only properties with a greater ID are returned
+     * @param limit the maximum number of properties
+     * @return the summaries of the page of properties
      */
     @Transactional(readOnly = true)
-    public List<Property> getAllProperties() {
-        return propertyRepository.findAll();
+    public List<PropertySummary> getPropertyPage(long afterId, int limit) {
+        return propertyRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
     }
 
     /**
@@ -51,7 +74,8 @@ public class PropertyService {
     }
 
     /**
-     * Update an existing property.
+     * Update an existing property. The PDF reports that print the property are marked stale,
+     * so they can be regenerated.
      *
      * @param id the property ID
      * @param propertyDetails the updated property details
@@ -91,18 +115,40 @@ public class PropertyService {
                     if (propertyDetails.getYearBuilt() != null) {
                         existingProperty.setYearBuilt(propertyDetails.getYearBuilt());
                     }
+                    // Cached calculator results depend on the property, so drop them
+                    invalidateCalculationsAfterCommit(id);
+                    pdfReportRepository.markStaleByProperty(id, LocalDateTime.now());
                     return propertyRepository.save(existingProperty);
                 })
                 .orElseThrow(() -> new RuntimeException("Property not found with id " + id));
     }
 
     /**
-     * Delete a property.
+     * Delete a property with everything that depends on it, in one transaction. Rows are deleted
+     * in dependency order with one DELETE statement per table and kind, however many calculations
+     * the property has: the PDF reports that print the property, the comparisons with it, its
+     * calculations and checklists, and finally the property. The report files are removed in the
+     * background once the transaction has committed. Nothing happens if the property does not exist.
      *
      * @param id the property ID
      */
     public void deleteProperty(Long id) {
-        propertyRepository.deleteById(id);
+        Optional<Property> existing = propertyRepository.findById(id);
+        if (existing.isEmpty()) {
+            return;
+        }
+        Property property = existing.get();
+
+        // Reports point to the comparisons and calculations, so they go first
+        pdfReportService.deletePdfReportsPrintingProperty(property);
+        propertyComparisonRepository.deleteByProperty1OrProperty2(property, property);
+        loanCalculationRepository.deleteByProperty(property);
+        costBreakdownRepository.deleteByProperty(property);
+        rentVsBuyAnalysisRepository.deleteByProperty(property);
+        serviceChargeEstimateRepository.deleteByProperty(property);
+        documentChecklistRepository.deleteByProperty(property);
+        propertyRepository.delete(property);
+        invalidateCalculationsAfterCommit(id);
     }
 
     /**
@@ -136,7 +182,7 @@ public class PropertyService {
      */
     @Transactional(readOnly = true)
     public List<Property> findPropertiesByType(String propertyType) {
-        return propertyRepository.findByPropertyTypeIgnoreCase(propertyType);
+        return propertyRepository.findByPropertyType(propertyType);
     }
 
     /**
@@ -149,4 +195,22 @@ public class PropertyService {
     public List<Property> findPropertiesByCommunity(String communityName) {
         return propertyRepository.findByCommunityNameContainingIgnoreCase(communityName);
     }
-}
\ No newline at end of file
+
+    /**
+     * Drop the cached calculator results of a property once the transaction has committed.
+     * Dropping them earlier would let a calculation that still reads the old property cache its
+     * result again for the full TTL.
+     */
+    private void invalidateCalculationsAfterCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    calculationCache.invalidateProperty(id);
+                }
+            });
+        } else {
+            calculationCache.invalidateProperty(id);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuyAnalysisSummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.model.RentVsBuyAnalysis;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
 import ae.smartdubai.iid.realestateapp.repository.RentVsBuyAnalysisRepository;
+import ae.smartdubai.iid.realestateapp.util.AnnuityMath;
+import ae.smartdubai.iid.realestateapp.util.RentVsBuySimulation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,15 +26,21 @@ public class RentVsBuyAnalysisService {
 
     private final RentVsBuyAnalysisRepository rentVsBuyAnalysisRepository;
     private final PropertyRepository propertyRepository;
+    private final CalculationMetrics calculationMetrics;
 
     /**
-     * Get all rent vs buy analyses.
+     * Get a page of rent vs buy analyses in ID order, optionally within an analysis date range.
      *
-     * @return list of all rent vs buy analyses
+     * @param afterId only rent vs buy analyses with a greater ID are returned
+     * @param from the first analysis date, or null for no lower bound
+     * @param to the last analysis date, or null for no upper bound
+     * @param limit the maximum number of rent vs buy analyses
+     * @return the summaries of the page of rent vs buy analyses
      */
     @Transactional(readOnly = true)
-    public List<RentVsBuyAnalysis> getAllRentVsBuyAnalyses() {
-        return rentVsBuyAnalysisRepository.findAll();
+    public List<RentVsBuyAnalysisSummary> getRentVsBuyAnalysisPage(long afterId, LocalDate from, LocalDate to,
+            int limit) {
+        return rentVsBuyAnalysisRepository.findPage(afterId, from, to, PageRequest.of(0, limit));
     }
 
     /**
@@ -87,6 +97,87 @@ public class RentVsBuyAnalysisService {
             Double securityDeposit,
             Double investmentReturnRate,
             Integer analysisPeriodYears) {
+        RentVsBuyAnalysis analysis = buildRentVsBuyAnalysis(
+                propertyId,
+                downPayment,
+                interestRate,
+                loanTenureYears,
+                propertyAppreciationRate,
+                annualMaintenanceCost,
+                annualPropertyTax,
+                monthlyRent,
+                annualRentIncreaseRate,
+                securityDeposit,
+                investmentReturnRate,
+                analysisPeriodYears);
+        calculationMetrics.recordPersisted(CalculationMetrics.RENT_VS_BUY);
+        return rentVsBuyAnalysisRepository.save(analysis);
+    }
+
+    /**
+     * Calculate a rent vs buy analysis for a property without saving it.
+     *
+     * @param propertyId the property ID
+     * @param downPayment the down payment amount
+     * @param interestRate the annual interest rate (in percentage)
+     * @param loanTenureYears the loan tenure in years
+     * @param propertyAppreciationRate the annual property appreciation rate (in percentage)
+     * @param annualMaintenanceCost the annual maintenance cost
+     * @param annualPropertyTax the annual property tax
+     * @param monthlyRent the monthly rent amount
+     * @param annualRentIncreaseRate the annual rent increase rate (in percentage)
+     * @param securityDeposit the security deposit amount
+     * @param investmentReturnRate the annual investment return rate (in percentage)
+     * @param analysisPeriodYears the analysis period in years
+     * @return the calculated, unsaved rent vs buy analysis
+     */
+    @Transactional(readOnly = true)
+    public RentVsBuyAnalysis previewRentVsBuy(
+            Long propertyId,
+            Double downPayment,
+            Double interestRate,
+            Integer loanTenureYears,
+            Double propertyAppreciationRate,
+            Double annualMaintenanceCost,
+            Double annualPropertyTax,
+            Double monthlyRent,
+            Double annualRentIncreaseRate,
+            Double securityDeposit,
+            Double investmentReturnRate,
+            Integer analysisPeriodYears) {
+        RentVsBuyAnalysis analysis = buildRentVsBuyAnalysis(
+                propertyId,
+                downPayment,
+                interestRate,
+                loanTenureYears,
+                propertyAppreciationRate,
+                annualMaintenanceCost,
+                annualPropertyTax,
+                monthlyRent,
+                annualRentIncreaseRate,
+                securityDeposit,
+                investmentReturnRate,
+                analysisPeriodYears);
+        calculationMetrics.recordPreview(CalculationMetrics.RENT_VS_BUY);
+        return analysis;
+    }
+
+    /**
+     * Validate the inputs and compute a rent vs buy analysis for a property.
+     */
+    private RentVsBuyAnalysis buildRentVsBuyAnalysis(
+            Long propertyId,
+            Double downPayment,
+            Double interestRate,
+            Integer loanTenureYears,
+            Double propertyAppreciationRate,
+            Double annualMaintenanceCost,
+            Double annualPropertyTax,
+            Double monthlyRent,
+            Double annualRentIncreaseRate,
+            Double securityDeposit,
+            Double investmentReturnRate,
+            Integer analysisPeriodYears) {
         
         // Validate property
         Property property = propertyRepository.findById(propertyId)
@@ -147,21 +238,6 @@ public class RentVsBuyAnalysisService {
                 analysisPeriodYears
         );
         
-        double propertyValueAtEnd = calculatePropertyValueAtEnd(
-                property.getPrice(),
-                propertyAppreciationRate,
-                analysisPeriodYears
-        );
-        
-        double remainingMortgageBalance = calculateRemainingMortgageBalance(
-                loanAmount,
-                monthlyInterestRate,
-                totalPayments,
-                Math.min(analysisPeriodYears * 12, totalPayments)
-        );
-        
-        double netWorthAfterBuying = propertyValueAtEnd - remainingMortgageBalance;
-        
         // Calculate renting scenario
         double totalCostOfRenting = calculateTotalCostOfRenting(
                 monthlyRent,
@@ -170,34 +246,28 @@ public class RentVsBuyAnalysisService {
                 analysisPeriodYears
         );
         
-        double investmentValue = calculateInvestmentValue(
+        // Simulate both scenarios month by month for net worth and the break-even point
+        RentVsBuySimulation simulation = RentVsBuySimulation.run(
+                property.getPrice(),
                 downPayment,
+                interestRate,
+                loanTenureYears,
+                propertyAppreciationRate,
+                annualMaintenanceCost,
+                annualPropertyTax,
                 monthlyRent,
-                monthlyMortgagePayment,
-                annualMaintenanceCost / 12,
-                annualPropertyTax / 12,
-                investmentReturnRate,
                 annualRentIncreaseRate,
-                analysisPeriodYears
+                investmentReturnRate,
+                RentVsBuySimulation.MAX_YEARS
         );
         
-        double netWorthAfterRenting = investmentValue;
+        double netWorthAfterBuying = simulation.buyNetWorthAt(analysisPeriodYears);
+        double netWorthAfterRenting = simulation.rentNetWorthAt(analysisPeriodYears);
         
         // Determine if buying is better
         boolean isBuyingBetter = netWorthAfterBuying > netWorthAfterRenting;
         
-        // Calculate break-even point
-        double breakEvenYears = calculateBreakEvenYears(
-                property.getPrice(),
-                downPayment,
-                monthlyMortgagePayment,
-                annualMaintenanceCost,
-                annualPropertyTax,
-                monthlyRent,
-                annualRentIncreaseRate,
-                investmentReturnRate,
-                propertyAppreciationRate
-        );
+        double breakEvenYears = simulation.breakEvenYears();
         
         // Set the results
         analysis.setTotalCostOfBuying(totalCostOfBuying);
@@ -207,8 +277,7 @@ public class RentVsBuyAnalysisService {
         analysis.setIsBuyingBetter(isBuyingBetter);
         analysis.setBreakEvenYears(breakEvenYears);
         
-        // Save and return the analysis
-        return rentVsBuyAnalysisRepository.save(analysis);
+        return analysis;
     }
 
     /**
@@ -234,7 +303,7 @@ public class RentVsBuyAnalysisService {
     /**
      * Validate input parameters for the rent vs buy analysis.
      */
-    private void validateInputParameters(
+    static void validateInputParameters(
             Double propertyPrice,
             Double downPayment,
             Double interestRate,
@@ -301,12 +370,7 @@ public class RentVsBuyAnalysisService {
      * Calculate monthly mortgage payment.
      */
     private double calculateMonthlyMortgagePayment(double loanAmount, double monthlyInterestRate, int totalPayments) {
-        if (monthlyInterestRate == 0) {
-            return loanAmount / totalPayments;
-        }
-        
-        return loanAmount * monthlyInterestRate * Math.pow(1 + monthlyInterestRate, totalPayments) 
-                / (Math.pow(1 + monthlyInterestRate, totalPayments) - 1);
+        return AnnuityMath.payment(loanAmount, monthlyInterestRate, totalPayments);
     }
 
     /**
@@ -328,36 +392,6 @@ public class RentVsBuyAnalysisService {
         return downPayment + totalMortgagePayments + totalMaintenanceCost + totalPropertyTax;
     }
 
-    /**
-     * Calculate property value at the end of the analysis period.
-     */
-    private double calculatePropertyValueAtEnd(double propertyPrice, double annualAppreciationRate, int years) {
-        return propertyPrice * Math.pow(1 + annualAppreciationRate / 100, years);
-    }
-
-    /**
-     * Calculate remaining mortgage balance after a certain number of payments.
-     */
-    private double calculateRemainingMortgageBalance(
-            double loanAmount,
-            double monthlyInterestRate,
-            int totalPayments,
-            int paymentsMade) {
-        
-        if (paymentsMade >= totalPayments) {
-            return 0;
-        }
-        
-        if (monthlyInterestRate == 0) {
-            return loanAmount * (1 - (double) paymentsMade / totalPayments);
-        }
-        
-        double monthlyPayment = calculateMonthlyMortgagePayment(loanAmount, monthlyInterestRate, totalPayments);
-        
-        return (monthlyPayment / monthlyInterestRate) * 
-               (1 - Math.pow(1 + monthlyInterestRate, -(totalPayments - paymentsMade)));
-    }
-
     /**
      * Calculate total cost of renting over the analysis period.
      */
@@ -378,96 +412,4 @@ public class RentVsBuyAnalysisService {
         // Security deposit is typically returned, so not included in total cost
         return totalRent;
     }
-
-    /**
-     * Calculate investment value at the end of the analysis period.
-     * This represents the value of investing the down payment and the monthly savings from renting vs buying.
-     */
-    private double calculateInvestmentValue(
-            double initialInvestment,
-            double initialMonthlyRent,
-            double monthlyMortgagePayment,
-            double monthlyMaintenanceCost,
-            double monthlyPropertyTax,
-            double annualInvestmentReturnRate,
-            double annualRentIncreaseRate,
-            int years) {
-        
-        double monthlyInvestmentReturnRate = annualInvestmentReturnRate / 100 / 12;
-        double investmentValue = initialInvestment;
-        double monthlyRent = initialMonthlyRent;
-        
-        for (int month = 0; month < years * 12; month++) {
-            // Calculate monthly savings (or additional cost) from renting vs buying
-            double monthlyCostOfOwning = monthlyMortgagePayment + monthlyMaintenanceCost + monthlyPropertyTax;
-            double monthlySavings = monthlyCostOfOwning - monthlyRent;
-            
-            // If renting is cheaper, add the savings to the investment
-            if (monthlySavings > 0) {
-                investmentValue += monthlySavings;
-            }
-            
-            // Apply monthly investment return
-            investmentValue *= (1 + monthlyInvestmentReturnRate);
-            
-            // Increase rent annually
-            if (month % 12 == 11) {
-                monthlyRent *= (1 + annualRentIncreaseRate / 100);
-            }
-        }
-        
-        return investmentValue;
-    }
-
-    /**
-     * Calculate the break-even point in years.
-     * This is the point at which the net worth from buying equals the net worth from renting.
-     */
-    private double calculateBreakEvenYears(
-            double propertyPrice,
-            double downPayment,
-            double monthlyMortgagePayment,
-            double annualMaintenanceCost,
-            double annualPropertyTax,
-            double initialMonthlyRent,
-            double annualRentIncreaseRate,
-            double annualInvestmentReturnRate,
-            double annualPropertyAppreciationRate) {
-        
-        // Simple approximation - in a real application, this would be more sophisticated
-        double monthlyMaintenanceCost = annualMaintenanceCost / 12;
-        double monthlyPropertyTax = annualPropertyTax / 12;
-        
-        for (int year = 1; year <= 30; year++) {
-            // Calculate net worth if buying
-            double propertyValue = calculatePropertyValueAtEnd(propertyPrice, annualPropertyAppreciationRate, year);
-            double remainingMortgage = calculateRemainingMortgageBalance(
-                    propertyPrice - downPayment,
-                    (annualInvestmentReturnRate / 100) / 12,
-                    30 * 12,
-                    year * 12
-            );
-            double netWorthBuying = propertyValue - remainingMortgage;
-            
-            // Calculate net worth if renting
-            double investmentValue = calculateInvestmentValue(
-                    downPayment,
-                    initialMonthlyRent,
-                    monthlyMortgagePayment,
-                    monthlyMaintenanceCost,
-                    monthlyPropertyTax,
-                    annualInvestmentReturnRate,
-                    annualRentIncreaseRate,
-                    year
-            );
-            
-            // If buying net worth exceeds renting net worth, we've found the break-even point
-            if (netWorthBuying >= investmentValue) {
-                return year;
-            }
-        }
-        
-        // If no break-even point found within 30 years, return a value indicating this
-        return Double.POSITIVE_INFINITY;
-    }
 }
\ No newline at end of file
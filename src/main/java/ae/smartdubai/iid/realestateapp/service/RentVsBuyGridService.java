@@ -0,0 +1,161 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuyGridRequest;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.RentVsBuyGrid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Service for rent vs buy sensitivity grids.
+ * <p>
+ * Grids are evaluated in memory without saving anything. Rows run in parallel on the simulation
+ * fork-join pool and are written out in the order they complete, so every cell carries its own
+ * row and column index.
+ */
+@Service
+@RequiredArgsConstructor
+public class RentVsBuyGridService {
+
+    // Maximum number of values on each axis
+    public static final int MAX_AXIS_VALUES = 500;
+
+    private final PropertyRepository propertyRepository;
+    private final ForkJoinPool simulationPool;
+
+    /**
+     * Validate a grid request and build the grid for a property.
+     *
+     * @param request the base inputs and the two swept parameters
+     * @return the grid, ready to be written
+     */
+    @Transactional(readOnly = true)
+    public RentVsBuyGrid prepareGrid(RentVsBuyGridRequest request) {
+        if (request.getRowParameter() == null || request.getColumnParameter() == null) {
+            throw new IllegalArgumentException("Row and column parameters are required");
+        }
+        if (request.getRowParameter() == request.getColumnParameter()) {
+            throw new IllegalArgumentException("Row and column parameters must be different");
+        }
+        validateAxis(request.getRowValues(), "Row");
+        validateAxis(request.getColumnValues(), "Column");
+
+        Long propertyId = request.getPropertyId();
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
+
+        if (property.getPrice() == null || property.getPrice() <= 0) {
+            throw new IllegalArgumentException("Property price must be positive");
+        }
+
+        // Parameters are validated independently, so checking each axis value against the base
+        // inputs covers every cell
+        validate(property.getPrice(), request, null, 0);
+        for (double value : request.getRowValues()) {
+            validate(property.getPrice(), request, request.getRowParameter(), value);
+        }
+        for (double value : request.getColumnValues()) {
+            validate(property.getPrice(), request, request.getColumnParameter(), value);
+        }
+
+        return new RentVsBuyGrid(
+                property.getPrice(),
+                request.getDownPayment(),
+                request.getInterestRate(),
+                request.getLoanTenureYears(),
+                request.getPropertyAppreciationRate(),
+                request.getAnnualMaintenanceCost(),
+                request.getAnnualPropertyTax(),
+                request.getMonthlyRent(),
+                request.getAnnualRentIncreaseRate(),
+                request.getInvestmentReturnRate(),
+                request.getAnalysisPeriodYears(),
+                request.getRowParameter(),
+                request.getRowValues(),
+                request.getColumnParameter(),
+                request.getColumnValues());
+    }
+
+    /**
+     * Evaluate a grid and write its cells as NDJSON, one row at a time as rows complete.
+     * At most a few rows per pool thread are in flight, so memory stays bounded for large grids.
+     * Not transactional, since it runs while the response streams and needs no database access.
+     *
+     * @param grid the grid to evaluate
+     * @param writer the writer to write cells to, flushed after every row
+     * @throws IOException if writing fails; pending rows are cancelled
+     */
+    public void writeGrid(RentVsBuyGrid grid, Writer writer) throws IOException {
+        CompletionService<String> completionService = new ExecutorCompletionService<>(simulationPool);
+        List<Future<String>> pending = new ArrayList<>();
+        int maxInFlight = simulationPool.getParallelism() * 2;
+        int nextRow = 0;
+
+        try {
+            for (int written = 0; written < grid.getRows(); written++) {
+                while (nextRow < grid.getRows() && nextRow - written < maxInFlight) {
+                    int row = nextRow++;
+                    pending.add(completionService.submit(() -> {
+                        StringBuilder out = new StringBuilder(grid.getColumns() * 160);
+                        grid.appendRow(row, out);
+                        return out.toString();
+                    }));
+                }
+
+                Future<String> completed = completionService.take();
+                pending.remove(completed);
+                writer.write(completed.get());
+                writer.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while evaluating the grid");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to evaluate the grid", e.getCause());
+        } finally {
+            for (Future<String> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static void validateAxis(double[] values, String name) {
+        if (values == null || values.length == 0 || values.length > MAX_AXIS_VALUES) {
+            throw new IllegalArgumentException(name + " values must contain between 1 and " + MAX_AXIS_VALUES + " values");
+        }
+    }
+
+    /**
+     * Validate the base inputs with one parameter replaced by a swept value.
+     */
+    private static void validate(double propertyPrice, RentVsBuyGridRequest request,
+                                 RentVsBuyGrid.Parameter parameter, double value) {
+        Double swept = value;
+        RentVsBuyAnalysisService.validateInputParameters(
+                propertyPrice,
+                parameter == RentVsBuyGrid.Parameter.DOWN_PAYMENT ? swept : request.getDownPayment(),
+                parameter == RentVsBuyGrid.Parameter.INTEREST_RATE ? swept : request.getInterestRate(),
+                request.getLoanTenureYears(),
+                parameter == RentVsBuyGrid.Parameter.PROPERTY_APPRECIATION_RATE ? swept : request.getPropertyAppreciationRate(),
+                request.getAnnualMaintenanceCost(),
+                request.getAnnualPropertyTax(),
+                parameter == RentVsBuyGrid.Parameter.MONTHLY_RENT ? swept : request.getMonthlyRent(),
+                parameter == RentVsBuyGrid.Parameter.ANNUAL_RENT_INCREASE_RATE ? swept : request.getAnnualRentIncreaseRate(),
+                0.0,
+                parameter == RentVsBuyGrid.Parameter.INVESTMENT_RETURN_RATE ? swept : request.getInvestmentReturnRate(),
+                request.getAnalysisPeriodYears());
+    }
+}
@@ -0,0 +1,274 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuySimulationRequest;
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuySimulationResult;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.AnnuityMath;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Service for Monte Carlo rent vs buy simulations.
+ * <p>
+ * Paths are simulated in fixed blocks on the simulation fork-join pool. Each block gets its own
+ * {@link SplittableRandom}, split from the seed in block order before any work starts, so the
+ * result depends only on the seed and the inputs, never on the number of threads.
+ * <p>
+ * Not transactional: the property is read in the repository's own short transaction, so a
+ * simulation never holds a database connection while it runs.
+ */
+@Service
+@RequiredArgsConstructor
+public class RentVsBuySimulationService {
+
+    public static final int DEFAULT_PATHS = 100_000;
+    public static final int MAX_PATHS = 1_000_000;
+
+    // Paths per block: the unit of work stealing and of random stream splitting
+    static final int BLOCK_SIZE = 1024;
+
+    // Percentile levels reported for both scenarios
+    private static final double[] PERCENTILES = {5, 10, 25, 50, 75, 90, 95};
+
+    private final PropertyRepository propertyRepository;
+    private final ForkJoinPool simulationPool;
+
+    /**
+     * Run a Monte Carlo rent vs buy simulation for a property.
+     *
+     * @param request the simulation inputs
+     * @return the net worth distributions and the probability that buying is better
+     */
+    public RentVsBuySimulationResult simulate(RentVsBuySimulationRequest request) {
+        int paths = request.getPaths() != null ? request.getPaths() : DEFAULT_PATHS;
+        if (paths < 1 || paths > MAX_PATHS) {
+            throw new IllegalArgumentException("Number of paths must be between 1 and " + MAX_PATHS);
+        }
+
+        validateVolatility(request.getPropertyAppreciationVolatility(), "Property appreciation");
+        validateVolatility(request.getAnnualRentIncreaseVolatility(), "Annual rent increase");
+        validateVolatility(request.getInvestmentReturnVolatility(), "Investment return");
+
+        Long propertyId = request.getPropertyId();
+        Property property = propertyRepository.findById(propertyId)
+                .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
+
+        if (property.getPrice() == null || property.getPrice() <= 0) {
+            throw new IllegalArgumentException("Property price must be positive");
+        }
+
+        // The security deposit is refunded at the end, so it does not affect net worth
+        RentVsBuyAnalysisService.validateInputParameters(
+                property.getPrice(),
+                request.getDownPayment(),
+                request.getInterestRate(),
+                request.getLoanTenureYears(),
+                request.getPropertyAppreciationRate(),
+                request.getAnnualMaintenanceCost(),
+                request.getAnnualPropertyTax(),
+                request.getMonthlyRent(),
+                request.getAnnualRentIncreaseRate(),
+                0.0,
+                request.getInvestmentReturnRate(),
+                request.getAnalysisPeriodYears());
+
+        long seed = request.getSeed() != null ? request.getSeed() : new SplittableRandom().nextLong();
+        PathModel model = new PathModel(property.getPrice(), request);
+
+        double[] buyNetWorth = new double[paths];
+        double[] rentNetWorth = new double[paths];
+        run(model, seed, buyNetWorth, rentNetWorth);
+
+        return summarize(propertyId, seed, request.getAnalysisPeriodYears(), buyNetWorth, rentNetWorth);
+    }
+
+    /**
+     * Simulate every path on the pool, writing each path's final net worths into the arrays.
+     */
+    void run(PathModel model, long seed, double[] buyNetWorth, double[] rentNetWorth) {
+        int blocks = (buyNetWorth.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        // Split the random streams up front, in block order, to keep runs reproducible
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[blocks];
+        for (int block = 0; block < blocks; block++) {
+            randoms[block] = root.split();
+        }
+
+        simulationPool.invoke(new PathBlockTask(model, randoms, 0, blocks, buyNetWorth, rentNetWorth));
+    }
+
+    /**
+     * Reduce the per-path results to percentiles, means and the probability of buying being better.
+     */
+    private RentVsBuySimulationResult summarize(Long propertyId, long seed, int analysisPeriodYears,
+                                                double[] buyNetWorth, double[] rentNetWorth) {
+        int paths = buyNetWorth.length;
+        int buyingBetter = 0;
+        double buySum = 0;
+        double rentSum = 0;
+        for (int path = 0; path < paths; path++) {
+            if (buyNetWorth[path] > rentNetWorth[path]) {
+                buyingBetter++;
+            }
+            buySum += buyNetWorth[path];
+            rentSum += rentNetWorth[path];
+        }
+
+        // Pairs are no longer needed, so both columns can be sorted in place
+        Arrays.sort(buyNetWorth);
+        Arrays.sort(rentNetWorth);
+
+        double[] buyPercentiles = new double[PERCENTILES.length];
+        double[] rentPercentiles = new double[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            buyPercentiles[i] = percentile(buyNetWorth, PERCENTILES[i]);
+            rentPercentiles[i] = percentile(rentNetWorth, PERCENTILES[i]);
+        }
+
+        return new RentVsBuySimulationResult(
+                propertyId,
+                paths,
+                seed,
+                analysisPeriodYears,
+                PERCENTILES.clone(),
+                buyPercentiles,
+                rentPercentiles,
+                buySum / paths,
+                rentSum / paths,
+                (double) buyingBetter / paths);
+    }
+
+    /**
+     * Percentile of sorted values, interpolating linearly between the closest ranks.
+     */
+    static double percentile(double[] sorted, double level) {
+        double rank = level / 100 * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    private static void validateVolatility(Double volatility, String name) {
+        if (volatility == null || volatility < 0 || volatility > 50) {
+            throw new IllegalArgumentException(name + " volatility must be between 0 and 50");
+        }
+    }
+
+    /**
+     * Inputs of a single path, as primitives, and the path simulation itself.
+     * Rates are stored as fractions.
+     */
+    static final class PathModel {
+        private final double propertyPrice;
+        private final double downPayment;
+        private final double mortgagePayment;
+        private final int loanTenureYears;
+        private final double mortgageBalanceAtEnd;
+        private final double monthlyOwningCost;
+        private final double monthlyRent;
+        private final int years;
+        private final double appreciationMean;
+        private final double appreciationVolatility;
+        private final double rentIncreaseMean;
+        private final double rentIncreaseVolatility;
+        private final double returnMean;
+        private final double returnVolatility;
+
+        PathModel(double propertyPrice, RentVsBuySimulationRequest request) {
+            double loanAmount = propertyPrice - request.getDownPayment();
+            double monthlyInterestRate = AnnuityMath.monthlyRate(request.getInterestRate());
+            int loanPayments = request.getLoanTenureYears() * 12;
+
+            this.propertyPrice = propertyPrice;
+            this.downPayment = request.getDownPayment();
+            this.mortgagePayment = AnnuityMath.payment(loanAmount, monthlyInterestRate, loanPayments);
+            this.loanTenureYears = request.getLoanTenureYears();
+            // The mortgage rate is fixed, so the balance at the end is the same on every path
+            this.mortgageBalanceAtEnd = AnnuityMath.balanceAfter(loanAmount, monthlyInterestRate, loanPayments,
+                    request.getAnalysisPeriodYears() * 12);
+            this.monthlyOwningCost = (request.getAnnualMaintenanceCost() + request.getAnnualPropertyTax()) / 12;
+            this.monthlyRent = request.getMonthlyRent();
+            this.years = request.getAnalysisPeriodYears();
+            this.appreciationMean = request.getPropertyAppreciationRate() / 100;
+            this.appreciationVolatility = request.getPropertyAppreciationVolatility() / 100;
+            this.rentIncreaseMean = request.getAnnualRentIncreaseRate() / 100;
+            this.rentIncreaseVolatility = request.getAnnualRentIncreaseVolatility() / 100;
+            this.returnMean = request.getInvestmentReturnRate() / 100;
+            this.returnVolatility = request.getInvestmentReturnVolatility() / 100;
+        }
+
+        /**
+         * Simulate one path and store its final net worths at the given index.
+         * Follows the same rules as {@code RentVsBuySimulation}, with the three rates redrawn every year.
+         */
+        void simulate(SplittableRandom random, int path, double[] buyNetWorth, double[] rentNetWorth) {
+            double propertyValue = propertyPrice;
+            double investmentValue = downPayment;
+            double rent = monthlyRent;
+
+            for (int year = 0; year < years; year++) {
+                // Rates cannot fall below -100%
+                double appreciation = Math.max(-1, appreciationMean + appreciationVolatility * random.nextGaussian());
+                double rentIncrease = Math.max(-1, rentIncreaseMean + rentIncreaseVolatility * random.nextGaussian());
+                double monthlyReturn = 1 + Math.max(-1, returnMean + returnVolatility * random.nextGaussian()) / 12;
+
+                double costOfOwning = year < loanTenureYears ? monthlyOwningCost + mortgagePayment : monthlyOwningCost;
+                double monthlySavings = Math.max(0, costOfOwning - rent);
+                for (int month = 0; month < 12; month++) {
+                    investmentValue = (investmentValue + monthlySavings) * monthlyReturn;
+                }
+
+                propertyValue *= 1 + appreciation;
+                rent *= 1 + rentIncrease;
+            }
+
+            buyNetWorth[path] = propertyValue - mortgageBalanceAtEnd;
+            rentNetWorth[path] = investmentValue;
+        }
+    }
+
+    /**
+     * Fork-join task over a range of path blocks.
+     */
+    private static final class PathBlockTask extends RecursiveAction {
+        private final PathModel model;
+        private final SplittableRandom[] randoms;
+        private final int fromBlock;
+        private final int toBlock;
+        private final double[] buyNetWorth;
+        private final double[] rentNetWorth;
+
+        PathBlockTask(PathModel model, SplittableRandom[] randoms, int fromBlock, int toBlock,
+                      double[] buyNetWorth, double[] rentNetWorth) {
+            this.model = model;
+            this.randoms = randoms;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.buyNetWorth = buyNetWorth;
+            this.rentNetWorth = rentNetWorth;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int middle = (fromBlock + toBlock) >>> 1;
+                invokeAll(new PathBlockTask(model, randoms, fromBlock, middle, buyNetWorth, rentNetWorth),
+                        new PathBlockTask(model, randoms, middle, toBlock, buyNetWorth, rentNetWorth));
+                return;
+            }
+
+            SplittableRandom random = randoms[fromBlock];
+            int end = Math.min((fromBlock + 1) * BLOCK_SIZE, buyNetWorth.length);
+            for (int path = fromBlock * BLOCK_SIZE; path < end; path++) {
+                model.simulate(random, path, buyNetWorth, rentNetWorth);
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
+import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
+import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import ae.smartdubai.iid.realestateapp.model.ServiceChargeEstimate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 of everything a rendered PDF report depends on: the property snapshot and photo, the
+ * title and generation date, the id and printed values of every included component, and the
+ * fonts and logo of the render context.
+ * <p>
+ * Two reports with the same hash render to the same document, so they can share one file.
+ * Every value is written with its name and length, so no two different sets of inputs produce
+ * the same byte sequence. Components are only hashed when the report would render them.
+ * <p>
+ * The same values also key the sections of a report on their own, so a report rendered again
+ * after its property changed reuses the wrapped sections of the components that did not.
+ */
+final class ReportContentHash {
+
+    // Bump whenever the PDF layout changes, so files rendered by older code are not reused
+    static final int LAYOUT_VERSION = 2;
+
+    private final MessageDigest digest;
+
+    private ReportContentHash() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Hash the inputs of a prepared report.
+     *
+     * @param pdfReport the prepared PDF report
+     * @param renderFingerprint the fingerprint of the fonts and images the report is rendered with
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String of(PdfReport pdfReport, String renderFingerprint) {
+        ReportContentHash hash = new ReportContentHash();
+        hash.field("layoutVersion", LAYOUT_VERSION);
+        hash.field("renderFingerprint", renderFingerprint);
+        hash.field("title", pdfReport.getTitle());
+        hash.field("generationDate", pdfReport.getGenerationDate());
+        hash.property(pdfReport.getProperty());
+
+        if (Boolean.TRUE.equals(pdfReport.getIncludesCostBreakdown()) && pdfReport.getCostBreakdown() != null) {
+            hash.costBreakdown(pdfReport.getCostBreakdown());
+        }
+        if (Boolean.TRUE.equals(pdfReport.getIncludesLoanCalculation()) && pdfReport.getLoanCalculation() != null) {
+            hash.loanCalculation(pdfReport.getLoanCalculation());
+        }
+        if (Boolean.TRUE.equals(pdfReport.getIncludesPropertyComparison()) && pdfReport.getPropertyComparison() != null) {
+            hash.propertyComparison(pdfReport.getPropertyComparison());
+        }
+        if (Boolean.TRUE.equals(pdfReport.getIncludesDocumentChecklist()) && pdfReport.getDocumentChecklist() != null) {
+            hash.documentChecklist(pdfReport.getDocumentChecklist());
+        }
+        if (Boolean.TRUE.equals(pdfReport.getIncludesServiceChargeEstimate()) && pdfReport.getServiceChargeEstimate() != null) {
+            hash.serviceChargeEstimate(pdfReport.getServiceChargeEstimate());
+        }
+
+        return hash.hex();
+    }
+
+    /**
+     * Hash the inputs of the header section: the title and the property details.
+     *
+     * @param title the report title
+     * @param property the property
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String ofHeader(String title, Property property) {
+        ReportContentHash hash = section("header");
+        hash.field("title", title);
+        hash.property(property);
+        return hash.hex();
+    }
+
+    /**
+     * Hash the inputs of a cost breakdown section.
+     *
+     * @param costBreakdown the cost breakdown
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String ofCostBreakdown(CostBreakdown costBreakdown) {
+        ReportContentHash hash = section("costBreakdown");
+        hash.costBreakdown(costBreakdown);
+        return hash.hex();
+    }
+
+    /**
+     * Hash the inputs of a loan calculation section.
+     *
+     * @param loanCalculation the loan calculation
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String ofLoanCalculation(LoanCalculation loanCalculation) {
+        ReportContentHash hash = section("loanCalculation");
+        hash.loanCalculation(loanCalculation);
+        return hash.hex();
+    }
+
+    /**
+     * Hash the inputs of a property comparison section, including the names of the compared
+     * properties.
+     *
+     * @param propertyComparison the property comparison
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String ofPropertyComparison(PropertyComparison propertyComparison) {
+        ReportContentHash hash = section("propertyComparison");
+        hash.propertyComparison(propertyComparison);
+        return hash.hex();
+    }
+
+    /**
+     * Hash the inputs of a document checklist section.
+     *
+     * @param documentChecklist the document checklist
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String ofDocumentChecklist(DocumentChecklist documentChecklist) {
+        ReportContentHash hash = section("documentChecklist");
+        hash.documentChecklist(documentChecklist);
+        return hash.hex();
+    }
+
+    /**
+     * Hash the inputs of a service charge estimate section.
+     *
+     * @param serviceChargeEstimate the service charge estimate
+     * @return the hash as 64 lowercase hex characters
+     */
+    static String ofServiceChargeEstimate(ServiceChargeEstimate serviceChargeEstimate) {
+        ReportContentHash hash = section("serviceChargeEstimate");
+        hash.serviceChargeEstimate(serviceChargeEstimate);
+        return hash.hex();
+    }
+
+    private static ReportContentHash section(String name) {
+        ReportContentHash hash = new ReportContentHash();
+        hash.field("layoutVersion", LAYOUT_VERSION);
+        hash.field("section", name);
+        return hash;
+    }
+
+    private String hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void property(Property property) {
+        field("property.id", property.getId());
+        field("property.name", property.getName());
+        field("property.location", property.getLocation());
+        field("property.price", property.getPrice());
+        field("property.size", property.getSize());
+        field("property.bedrooms", property.getBedrooms());
+        field("property.bathrooms", property.getBathrooms());
+        field("property.propertyType", property.getPropertyType());
+        field("property.photo", PdfReportService.firstImage(property));
+    }
+
+    private void costBreakdown(CostBreakdown costBreakdown) {
+        field("costBreakdown.id", costBreakdown.getId());
+        field("costBreakdown.dldFee", costBreakdown.getDldFee());
+        field("costBreakdown.agencyFee", costBreakdown.getAgencyFee());
+        field("costBreakdown.registrationFee", costBreakdown.getRegistrationFee());
+        field("costBreakdown.mortgageRegistrationFee", costBreakdown.getMortgageRegistrationFee());
+        field("costBreakdown.valuationFee", costBreakdown.getValuationFee());
+        field("costBreakdown.mortgageProcessingFee", costBreakdown.getMortgageProcessingFee());
+        field("costBreakdown.lifeInsuranceCost", costBreakdown.getLifeInsuranceCost());
+        field("costBreakdown.propertyInsuranceCost", costBreakdown.getPropertyInsuranceCost());
+        field("costBreakdown.maintenanceDeposit", costBreakdown.getMaintenanceDeposit());
+        field("costBreakdown.utilityConnectionFees", costBreakdown.getUtilityConnectionFees());
+        field("costBreakdown.movingCosts", costBreakdown.getMovingCosts());
+        field("costBreakdown.totalCost", costBreakdown.getTotalCost());
+    }
+
+    private void loanCalculation(LoanCalculation loanCalculation) {
+        field("loanCalculation.id", loanCalculation.getId());
+        field("loanCalculation.loanAmount", loanCalculation.getLoanAmount());
+        field("loanCalculation.downPayment", loanCalculation.getDownPayment());
+        field("loanCalculation.interestRate", loanCalculation.getInterestRate());
+        field("loanCalculation.tenureYears", loanCalculation.getTenureYears());
+        field("loanCalculation.monthlyEmi", loanCalculation.getMonthlyEmi());
+        field("loanCalculation.totalInterest", loanCalculation.getTotalInterest());
+        field("loanCalculation.totalPayable", loanCalculation.getTotalPayable());
+        field("loanCalculation.loanToValueRatio", loanCalculation.getLoanToValueRatio());
+    }
+
+    private void propertyComparison(PropertyComparison propertyComparison) {
+        field("propertyComparison.id", propertyComparison.getId());
+        field("propertyComparison.isRentVsBuy", propertyComparison.getIsRentVsBuy());
+        field("propertyComparison.monthlyRent", propertyComparison.getMonthlyRent());
+        field("propertyComparison.annualRentIncrease", propertyComparison.getAnnualRentIncrease());
+        field("propertyComparison.investmentReturnRate", propertyComparison.getInvestmentReturnRate());
+        field("propertyComparison.propertyAppreciationRate", propertyComparison.getPropertyAppreciationRate());
+        field("propertyComparison.holdingPeriodYears", propertyComparison.getHoldingPeriodYears());
+        field("propertyComparison.breakEvenYears", propertyComparison.getBreakEvenYears());
+        field("propertyComparison.buyingNpv", propertyComparison.getBuyingNpv());
+        field("propertyComparison.rentingNpv", propertyComparison.getRentingNpv());
+        field("propertyComparison.property1", propertyComparison.getProperty1() != null
+                ? propertyComparison.getProperty1().getName() : null);
+        field("propertyComparison.property2", propertyComparison.getProperty2() != null
+                ? propertyComparison.getProperty2().getName() : null);
+        field("propertyComparison.property1TotalCost", propertyComparison.getProperty1TotalCost());
+        field("propertyComparison.property2TotalCost", propertyComparison.getProperty2TotalCost());
+        field("propertyComparison.property1Roi", propertyComparison.getProperty1Roi());
+        field("propertyComparison.property2Roi", propertyComparison.getProperty2Roi());
+    }
+
+    private void documentChecklist(DocumentChecklist documentChecklist) {
+        field("documentChecklist.id", documentChecklist.getId());
+        field("documentChecklist.buyerType", documentChecklist.getBuyerType());
+        field("documentChecklist.selectedBank", documentChecklist.getSelectedBank());
+        field("documentChecklist.nationality", documentChecklist.getNationality());
+        field("documentChecklist.residenceStatus", documentChecklist.getResidenceStatus());
+        list("documentChecklist.identityDocuments", documentChecklist.getIdentityDocuments());
+        list("documentChecklist.incomeProofDocuments", documentChecklist.getIncomeProofDocuments());
+        list("documentChecklist.propertyDocuments", documentChecklist.getPropertyDocuments());
+        list("documentChecklist.bankDocuments", documentChecklist.getBankDocuments());
+        list("documentChecklist.visaDocuments", documentChecklist.getVisaDocuments());
+        list("documentChecklist.additionalDocuments", documentChecklist.getAdditionalDocuments());
+    }
+
+    private void serviceChargeEstimate(ServiceChargeEstimate serviceChargeEstimate) {
+        field("serviceChargeEstimate.id", serviceChargeEstimate.getId());
+        field("serviceChargeEstimate.communityName", serviceChargeEstimate.getCommunityName());
+        field("serviceChargeEstimate.propertyType", serviceChargeEstimate.getPropertyType());
+        field("serviceChargeEstimate.propertySize", serviceChargeEstimate.getPropertySize());
+        field("serviceChargeEstimate.serviceChargeRatePerSqFt", serviceChargeEstimate.getServiceChargeRatePerSqFt());
+        field("serviceChargeEstimate.annualServiceCharge", serviceChargeEstimate.getAnnualServiceCharge());
+        field("serviceChargeEstimate.coolingCharges", serviceChargeEstimate.getCoolingCharges());
+        field("serviceChargeEstimate.buildingMaintenanceFee", serviceChargeEstimate.getBuildingMaintenanceFee());
+        field("serviceChargeEstimate.securityFee", serviceChargeEstimate.getSecurityFee());
+        field("serviceChargeEstimate.cleaningFee", serviceChargeEstimate.getCleaningFee());
+        field("serviceChargeEstimate.parkingFee", serviceChargeEstimate.getParkingFee());
+        field("serviceChargeEstimate.gymAndPoolFee", serviceChargeEstimate.getGymAndPoolFee());
+        field("serviceChargeEstimate.miscCharges", serviceChargeEstimate.getMiscCharges());
+        field("serviceChargeEstimate.totalAnnualCharges", serviceChargeEstimate.getTotalAnnualCharges());
+        field("serviceChargeEstimate.monthlyCharges", serviceChargeEstimate.getMonthlyCharges());
+    }
+
+    private void list(String name, List<String> values) {
+        field(name, values == null ? null : values.size());
+        if (values != null) {
+            for (String value : values) {
+                field(name, value);
+            }
+        }
+    }
+
+    /**
+     * Add a named value; null is hashed differently from every string, including "null".
+     */
+    private void field(String name, Object value) {
+        bytes(name.getBytes(StandardCharsets.UTF_8));
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+        } else {
+            bytes(value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void bytes(byte[] bytes) {
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
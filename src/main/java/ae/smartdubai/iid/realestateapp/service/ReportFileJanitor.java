@@ -0,0 +1,243 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background worker that keeps the report storage in line with the database.
+ * <p>
+ * Every run does three things, each bounded so a run stays short:
+ * <ul>
+ * <li>deletes the oldest reports past the report retention, if one is configured;</li>
+ * <li>deletes the files handed over by deleted reports, unless another report still uses them;</li>
+ * <li>lists the next page of the storage and deletes report files no report points to (left
+ * behind when saving a report failed, or when the database lost its rows) and portfolio
+ * archives past the job retention.</li>
+ * </ul>
+ * The listing cursor is kept between runs, so the storage is walked incrementally and starts
+ * over once the walk reaches the end. Files younger than the minimum age are never deleted, by
+ * the walk or as released files: a report's file is stored, or touched when an identical
+ * report reuses it, before its row is inserted. The age is checked again right before each
+ * delete, since a file may be reused while the janitor waits for its turn, and the delete only
+ * goes through if the file has not been touched since that check. Young released files are
+ * kept for a later run. Deletes are paced to a maximum rate, so a large cleanup does not
+ * flood the storage; the pacing holds a scheduler thread, so the scheduler needs more than one.
+ * <p>
+ * Deleted files are counted in {@code reports.janitor.deleted}, tagged with the reason.
+ */
+@Slf4j
+@Service
+public class ReportFileJanitor {
+
+    private static final String REPORT_PREFIX = "report_";
+    private static final String ARCHIVE_PREFIX = "portfolio_";
+
+    private final ReportStorage reportStorage;
+    private final PdfReportRepository pdfReportRepository;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration minAge;
+    private final Duration archiveRetention;
+    private final Duration reportRetention;
+    private final long deleteIntervalNanos;
+    private final Queue<String> releasedFiles = new ConcurrentLinkedQueue<>();
+
+    // Only touched by run(), which is synchronized
+    private String cursor;
+    private long nextDeleteNanos;
+
+    public ReportFileJanitor(ReportStorage reportStorage,
+                             PdfReportRepository pdfReportRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${report.janitor.batch-size:200}") int batchSize,
+                             @Value("${report.janitor.min-age:1h}") Duration minAge,
+                             @Value("${pdf.jobs.retention:1h}") Duration archiveRetention,
+                             @Value("${report.janitor.report-retention:0d}") Duration reportRetention,
+                             @Value("${report.janitor.deletes-per-second:20}") double deletesPerSecond) {
+        this.reportStorage = reportStorage;
+        this.pdfReportRepository = pdfReportRepository;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.minAge = minAge;
+        this.archiveRetention = archiveRetention;
+        this.reportRetention = reportRetention;
+        this.deleteIntervalNanos = deletesPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / deletesPerSecond) : 0;
+        this.nextDeleteNanos = System.nanoTime();
+    }
+
+    /**
+     * Hand over the files of deleted reports. They are deleted on the next run unless another
+     * report still uses them; files lost here, e.g. by a restart, are found by the walk.
+     *
+     * @param filePaths the storage keys of the files of the deleted reports
+     */
+    public void releaseFiles(Collection<String> filePaths) {
+        for (String filePath : filePaths) {
+            if (filePath != null) {
+                releasedFiles.add(filePath);
+            }
+        }
+    }
+
+    /**
+     * Run one round of cleanup.
+     */
+    @Scheduled(fixedDelayString = "${report.janitor.interval:1m}", initialDelayString = "${report.janitor.interval:1m}")
+    public synchronized void run() {
+        try {
+            expireReports();
+        } catch (RuntimeException e) {
+            log.warn("Expired PDF reports could not be deleted", e);
+        }
+        try {
+            deleteReleasedFiles();
+            sweep();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Report storage cleanup failed", e);
+        }
+    }
+
+    /**
+     * Delete the oldest reports past the retention and release their files. Reports only keep
+     * their generation date, so a report counts as generated at the end of that day: it is
+     * never deleted before the retention has passed, and at most a day after.
+     */
+    void expireReports() {
+        if (reportRetention.isZero() || reportRetention.isNegative()) {
+            return;
+        }
+        LocalDate cutoff = LocalDateTime.now().minus(reportRetention).toLocalDate();
+        List<PdfReport> expired = pdfReportRepository.findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(cutoff);
+        if (expired.isEmpty()) {
+            return;
+        }
+        pdfReportRepository.deleteAllInBatch(expired);
+        releaseFiles(expired.stream().map(PdfReport::getFilePath).toList());
+        log.info("Deleted {} PDF reports generated before {}", expired.size(), cutoff);
+    }
+
+    /**
+     * Delete a batch of released files that no report uses any more. Files younger than the
+     * minimum age are handed over again, for a later run.
+     */
+    void deleteReleasedFiles() throws IOException {
+        Set<String> filePaths = new LinkedHashSet<>();
+        String filePath;
+        while (filePaths.size() < batchSize && (filePath = releasedFiles.poll()) != null) {
+            filePaths.add(filePath);
+        }
+        if (filePaths.isEmpty()) {
+            return;
+        }
+        Set<String> referenced = pdfReportRepository.findReferencedFilePaths(filePaths);
+        List<String> young = new ArrayList<>();
+        try {
+            for (String key : filePaths) {
+                if (!referenced.contains(key) && delete(key, "released") == Deletion.YOUNG) {
+                    young.add(key);
+                }
+            }
+        } finally {
+            releasedFiles.addAll(young);
+        }
+    }
+
+    /**
+     * List the next page of the storage and delete what is orphaned or expired on it.
+     */
+    void sweep() throws IOException {
+        ReportStorage.Listing listing = reportStorage.list(cursor, batchSize);
+        Instant now = Instant.now();
+
+        List<String> reportFiles = new ArrayList<>();
+        for (ReportStorage.ListedObject object : listing.getObjects()) {
+            Duration age = Duration.between(object.getLastModified(), now);
+            if (age.compareTo(minAge) < 0) {
+                continue;
+            }
+            if (object.getKey().startsWith(ARCHIVE_PREFIX)) {
+                if (age.compareTo(archiveRetention) > 0) {
+                    delete(object.getKey(), "expired-archive");
+                }
+            } else if (object.getKey().startsWith(REPORT_PREFIX)) {
+                reportFiles.add(object.getKey());
+            }
+        }
+
+        if (!reportFiles.isEmpty()) {
+            Set<String> referenced = pdfReportRepository.findReferencedFilePaths(reportFiles);
+            for (String key : reportFiles) {
+                if (!referenced.contains(key)) {
+                    delete(key, "orphaned");
+                }
+            }
+        }
+
+        cursor = listing.getNextCursor();
+        if (cursor == null) {
+            log.debug("Report storage walk completed");
+        }
+    }
+
+    /**
+     * Delete a file unless it is younger than the minimum age. The file is checked right before
+     * it is deleted, because the janitor may have waited for its turn since it was listed, and
+     * the delete is conditional on that check, because a report may reuse the file in between.
+     */
+    private Deletion delete(String key, String reason) throws IOException {
+        pace();
+        Optional<ReportStorage.StoredObject> stored = reportStorage.stat(key);
+        if (stored.isEmpty()) {
+            return Deletion.MISSING;
+        }
+        if (Duration.between(stored.get().getLastModified(), Instant.now()).compareTo(minAge) < 0
+                || !reportStorage.deleteIfUnmodifiedSince(key, stored.get().getLastModified())) {
+            return Deletion.YOUNG;
+        }
+        Counter.builder("reports.janitor.deleted")
+                .tag("reason", reason)
+                .description("Report files deleted by the janitor")
+                .register(meterRegistry)
+                .increment();
+        log.debug("Deleted {} report file {}", reason, key);
+        return Deletion.DELETED;
+    }
+
+    /**
+     * Wait until the next delete is allowed by the maximum rate.
+     */
+    private void pace() {
+        long now = System.nanoTime();
+        long wait = nextDeleteNanos - now;
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        nextDeleteNanos = (wait > 0 ? nextDeleteNanos : now) + deleteIntervalNanos;
+    }
+
+    private enum Deletion {
+        DELETED, MISSING, YOUNG
+    }
+}
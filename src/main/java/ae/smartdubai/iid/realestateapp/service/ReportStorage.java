@@ -0,0 +1,166 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for generated report files, addressed by key.
+ * <p>
+ * Content is streamed in and out, so a report never has to sit fully in heap. Keys are
+ * plain file names made of letters, digits, dots, dashes and underscores; the backend decides
+ * where the object actually lives. Implementations must be safe for concurrent use. Objects
+ * never change once stored: storing a key that already exists keeps the existing object, so
+ * readers never see a partial object, and a key always stands for the same bytes. Report keys
+ * are derived from the report inputs and used as strong ETags, which relies on this.
+ */
+public interface ReportStorage {
+
+    /**
+     * Writes the content of an object to a stream.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+
+        /**
+         * Write the content.
+         *
+         * @param outputStream the stream to write to; closed by the storage
+         * @throws IOException if the content cannot be written
+         */
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Size and modification time of a stored object.
+     */
+    @Value
+    class StoredObject {
+        // Size in bytes
+        long size;
+
+        Instant lastModified;
+    }
+
+    /**
+     * Key, size and modification time of a listed object.
+     */
+    @Value
+    class ListedObject {
+        String key;
+
+        // Size in bytes
+        long size;
+
+        Instant lastModified;
+    }
+
+    /**
+     * One page of a listing.
+     */
+    @Value
+    class Listing {
+        List<ListedObject> objects;
+
+        // Where the next page starts, or null if this is the last page
+        String nextCursor;
+    }
+
+    /**
+     * Store an object, streaming its content from the writer, unless the key already exists.
+     * The writer may still be called in that case; its content is then discarded.
+     *
+     * @param key the object key
+     * @param writer writes the content
+     * @throws IOException if the object cannot be stored; nothing is stored in that case
+     */
+    void store(String key, ContentWriter writer) throws IOException;
+
+    /**
+     * Get the size and modification time of an object.
+     *
+     * @param key the object key
+     * @return the object's metadata, or empty if it does not exist
+     * @throws IOException if the storage cannot be reached
+     */
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    /**
+     * Set the modification time of an object to now, so that cleanup by age treats it as new.
+     *
+     * @param key the object key
+     * @return the object's metadata after the update, or empty if it does not exist
+     * @throws IOException if the storage cannot be reached
+     */
+    Optional<StoredObject> touch(String key) throws IOException;
+
+    /**
+     * Check whether an object exists.
+     *
+     * @param key the object key
+     * @return true if the object exists
+     * @throws IOException if the storage cannot be reached
+     */
+    default boolean exists(String key) throws IOException {
+        return stat(key).isPresent();
+    }
+
+    /**
+     * Open part of an object for reading.
+     *
+     * @param key the object key
+     * @param offset the first byte to read
+     * @param length the number of bytes to read
+     * @return a stream of exactly the requested bytes
+     * @throws IOException if the object does not exist or cannot be read
+     */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    /**
+     * Delete an object. Deleting a missing object is not an error.
+     *
+     * @param key the object key
+     * @throws IOException if the object cannot be deleted
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Delete an object unless it has been modified after a time, e.g. touched by a report that
+     * reuses it since it was seen. The check and the delete are one atomic step. Deleting a
+     * missing object is not an error.
+     *
+     * @param key the object key
+     * @param lastModified the modification time the object was seen with
+     * @return false if the object was kept because it has been modified since
+     * @throws IOException if the object cannot be deleted
+     */
+    boolean deleteIfUnmodifiedSince(String key, Instant lastModified) throws IOException;
+
+    /**
+     * List the stored objects a page at a time, in an order fixed by the backend. Objects
+     * stored or deleted while a listing is in progress may or may not be included.
+     *
+     * @param cursor the next cursor of the previous page, or null to start from the beginning
+     * @param limit the maximum number of objects on the page
+     * @return the page of objects
+     * @throws IOException if the storage cannot be listed
+     */
+    Listing list(String cursor, int limit) throws IOException;
+
+    /**
+     * Get the local file of an object, for backends that keep objects on the local disk,
+     * so that it can be sent without copying it through the JVM.
+     *
+     * @param key the object key
+     * @return the path of the object's file, or empty if objects are not local files
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
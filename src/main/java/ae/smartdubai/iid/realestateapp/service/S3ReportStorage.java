@@ -0,0 +1,410 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Report storage in a bucket of an S3-compatible object store (AWS S3, MinIO, Ceph, ...),
+ * spoken to over its REST API with path-style URLs ({@code <endpoint>/<bucket>/<key>}) and
+ * Signature Version 4 authentication.
+ * <p>
+ * Uploads are spooled to a temporary file first, because a plain PUT needs the content length
+ * up front; the file is then streamed to the store with a conditional PUT that only creates
+ * the object. Downloads stream the response body with a
+ * Range request, so only the requested bytes are fetched and nothing is buffered in heap.
+ * Listings use ListObjectsV2 in key order, with the cursor being the last listed key.
+ */
+public class S3ReportStorage implements ReportStorage {
+
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    // The payload is not part of the signature, so uploads can be streamed
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+
+    /**
+     * Create a storage for a bucket.
+     *
+     * @param endpoint the base URL of the object store, e.g. https://s3.eu-west-1.amazonaws.com
+     * @param bucket the bucket name
+     * @param region the region requests are signed for
+     * @param accessKey the access key id
+     * @param secretKey the secret access key
+     */
+    public S3ReportStorage(URI endpoint, String bucket, String region, String accessKey, String secretKey) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+        this.endpoint = endpoint;
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+    }
+
+    @Override
+    public void store(String key, ContentWriter writer) throws IOException {
+        HttpRequest.Builder request = request("PUT", key);
+        Path spool = Files.createTempFile("report-upload-", ".tmp");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(spool))) {
+                writer.writeTo(outputStream);
+            }
+            // Only create the object; a 412 means it exists, and stored objects never change
+            HttpResponse<Void> response = send(request
+                    .header("If-None-Match", "*")
+                    .PUT(HttpRequest.BodyPublishers.ofFile(spool))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200 && response.statusCode() != 412) {
+                throw failure("PUT", key, response.statusCode());
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        HttpResponse<Void> response = send(request("HEAD", key)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() != 200) {
+            throw failure("HEAD", key, response.statusCode());
+        }
+        long size = response.headers().firstValueAsLong("Content-Length")
+                .orElseThrow(() -> new IOException("S3 HEAD " + key + " returned no Content-Length"));
+        Instant lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())
+                .orElse(Instant.EPOCH);
+        return Optional.of(new StoredObject(size, lastModified));
+    }
+
+    @Override
+    public Optional<StoredObject> touch(String key) throws IOException {
+        // S3 cannot change the time of an object, so the object is copied onto itself
+        Map<String, String> copy = new TreeMap<>();
+        copy.put("x-amz-copy-source", bucket + "/" + key);
+        copy.put("x-amz-metadata-directive", "REPLACE");
+        HttpResponse<Void> response = send(request("PUT", key, copy)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() != 200) {
+            throw failure("COPY", key, response.statusCode());
+        }
+        return stat(key);
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        HttpResponse<InputStream> response = send(request("GET", key)
+                .header("Range", "bytes=" + offset + "-" + (offset + length - 1))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        // A store may ignore the range when it covers the whole object
+        boolean whole = status == 200 && offset == 0
+                && response.headers().firstValueAsLong("Content-Length").orElse(-1) == length;
+        if (status != 206 && !whole) {
+            response.body().close();
+            throw failure("GET", key, status);
+        }
+        return response.body();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpResponse<Void> response = send(request("DELETE", key)
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 204 && response.statusCode() != 200 && response.statusCode() != 404) {
+            throw failure("DELETE", key, response.statusCode());
+        }
+    }
+
+    @Override
+    public boolean deleteIfUnmodifiedSince(String key, Instant lastModified) throws IOException {
+        HttpResponse<Void> response = send(request("DELETE", key)
+                .header("If-Unmodified-Since", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                        lastModified.atOffset(ZoneOffset.UTC)))
+                .DELETE()
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 412) {
+            return false;
+        }
+        if (response.statusCode() != 204 && response.statusCode() != 200 && response.statusCode() != 404) {
+            throw failure("DELETE", key, response.statusCode());
+        }
+        return true;
+    }
+
+    @Override
+    public Listing list(String cursor, int limit) throws IOException {
+        if (cursor != null && !KEY.matcher(cursor).matches()) {
+            throw new IllegalArgumentException("Invalid listing cursor: " + cursor);
+        }
+        // Parameters in canonical order; keys and cursors need no URL encoding
+        String query = "list-type=2&max-keys=" + limit + (cursor != null ? "&start-after=" + cursor : "");
+        HttpResponse<InputStream> response = send(signedRequest("GET", bucketPath(), query)
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("S3 list of " + bucket + " failed with status " + response.statusCode());
+            }
+            return parseListing(body);
+        }
+    }
+
+    /**
+     * Read a ListObjectsV2 result, skipping keys that are not valid report storage keys.
+     */
+    private static Listing parseListing(InputStream body) throws IOException {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            document = factory.newDocumentBuilder().parse(body);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Invalid S3 list response: " + e.getMessage(), e);
+        }
+
+        List<ListedObject> objects = new ArrayList<>();
+        String lastKey = null;
+        NodeList contents = document.getElementsByTagName("Contents");
+        for (int i = 0; i < contents.getLength(); i++) {
+            Element content = (Element) contents.item(i);
+            lastKey = text(content, "Key");
+            if (lastKey != null && KEY.matcher(lastKey).matches()) {
+                objects.add(new ListedObject(lastKey, Long.parseLong(text(content, "Size")),
+                        Instant.parse(text(content, "LastModified"))));
+            }
+        }
+        boolean truncated = "true".equals(text(document.getDocumentElement(), "IsTruncated"));
+        return new Listing(objects, truncated && lastKey != null && KEY.matcher(lastKey).matches() ? lastKey : null);
+    }
+
+    private static String text(Element parent, String name) {
+        NodeList nodes = parent.getElementsByTagName(name);
+        return nodes.getLength() > 0 ? nodes.item(0).getTextContent().trim() : null;
+    }
+
+    /**
+     * Start a signed request for an object.
+     */
+    private HttpRequest.Builder request(String method, String key) {
+        return request(method, key, Map.of());
+    }
+
+    /**
+     * Start a signed request for an object, with extra x-amz-* headers that are signed as well.
+     */
+    private HttpRequest.Builder request(String method, String key, Map<String, String> amzHeaders) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid report storage key: " + key);
+        }
+        return signedRequest(method, objectPath(key), "", amzHeaders);
+    }
+
+    private HttpRequest.Builder signedRequest(String method, String path, String query) {
+        return signedRequest(method, path, query, Map.of());
+    }
+
+    private HttpRequest.Builder signedRequest(String method, String path, String query,
+                                              Map<String, String> amzHeaders) {
+        String amzDate = AMZ_DATE.format(Instant.now().atOffset(ZoneOffset.UTC));
+        String target = query.isEmpty() ? path : path + "?" + query;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint.resolve(target))
+                .timeout(TIMEOUT)
+                .header("x-amz-date", amzDate)
+                .header("x-amz-content-sha256", UNSIGNED_PAYLOAD)
+                .header("Authorization", authorization(method, path, query, host(endpoint), amzDate, amzHeaders));
+        amzHeaders.forEach(builder::header);
+        return builder;
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return httpClient.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling S3: " + request.method() + " " + request.uri());
+        }
+    }
+
+    private static IOException failure(String method, String key, int status) {
+        return new IOException("S3 " + method + " " + key + " failed with status " + status);
+    }
+
+    /**
+     * Absolute path of an object; keys only contain characters that need no URL encoding.
+     *
+     * @param key the object key
+     * @return the path, e.g. /bucket/report_ab12.pdf
+     */
+    String objectPath(String key) {
+        return bucketPath() + "/" + key;
+    }
+
+    private String bucketPath() {
+        String base = endpoint.getPath() == null || endpoint.getPath().isEmpty() ? "/" : endpoint.getPath();
+        return (base.endsWith("/") ? base : base + "/") + bucket;
+    }
+
+    /**
+     * Authorization header of a request without a query string, signed with Signature Version 4
+     * over the host, x-amz-content-sha256 and x-amz-date headers.
+     *
+     * @param method the HTTP method
+     * @param path the absolute request path
+     * @param host the Host header, with the port unless it is the scheme's default
+     * @param amzDate the x-amz-date header
+     * @return the Authorization header
+     */
+    String authorization(String method, String path, String host, String amzDate) {
+        return authorization(method, path, "", host, amzDate);
+    }
+
+    /**
+     * Authorization header of a request, signed with Signature Version 4 over the host,
+     * x-amz-content-sha256 and x-amz-date headers.
+     *
+     * @param method the HTTP method
+     * @param path the absolute request path
+     * @param query the query string, already in canonical form (encoded and sorted by name)
+     * @param host the Host header, with the port unless it is the scheme's default
+     * @param amzDate the x-amz-date header
+     * @return the Authorization header
+     */
+    String authorization(String method, String path, String query, String host, String amzDate) {
+        return authorization(method, path, query, host, amzDate, Map.of());
+    }
+
+    /**
+     * Authorization header of a request, signed with Signature Version 4 over the host,
+     * x-amz-content-sha256 and x-amz-date headers and any other x-amz-* headers it sends.
+     *
+     * @param method the HTTP method
+     * @param path the absolute request path
+     * @param query the query string, already in canonical form (encoded and sorted by name)
+     * @param host the Host header, with the port unless it is the scheme's default
+     * @param amzDate the x-amz-date header
+     * @param amzHeaders the other x-amz-* headers, by lower case name
+     * @return the Authorization header
+     */
+    String authorization(String method, String path, String query, String host, String amzDate,
+                         Map<String, String> amzHeaders) {
+        // Canonical headers are sorted by name
+        Map<String, String> headers = new TreeMap<>(amzHeaders);
+        headers.put("host", host);
+        headers.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        headers.put("x-amz-date", amzDate);
+        StringBuilder canonicalHeaders = new StringBuilder();
+        headers.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value.trim()).append('\n'));
+        String signedHeaders = String.join(";", headers.keySet());
+
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String canonicalRequest = method + "\n"
+                + path + "\n"
+                + query + "\n"
+                + canonicalHeaders + "\n"
+                + signedHeaders + "\n"
+                + UNSIGNED_PAYLOAD;
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n" + HexFormat.of().formatHex(sha256(canonicalRequest));
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return ALGORITHM + " Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + signedHeaders
+                + ", Signature=" + signature;
+    }
+
+    /**
+     * The Host header the HTTP client sends for a URI: the host, plus the port when it is not
+     * the scheme's default.
+     *
+     * @param uri the request URI
+     * @return the Host header
+     */
+    static String host(URI uri) {
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equalsIgnoreCase(uri.getScheme()) && port == 80)
+                || ("https".equalsIgnoreCase(uri.getScheme()) && port == 443);
+        return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // Every Java platform is required to support HmacSHA256
+            throw new IllegalStateException(e);
+        }
+    }
+}
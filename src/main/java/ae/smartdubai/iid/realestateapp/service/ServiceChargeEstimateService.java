@@ -1,10 +1,12 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.ServiceChargeEstimateSummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.model.ServiceChargeEstimate;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
 import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,8 @@ public class ServiceChargeEstimateService {
 
     private final ServiceChargeEstimateRepository serviceChargeEstimateRepository;
     private final PropertyRepository propertyRepository;
+    private final CalculationMetrics calculationMetrics;
+    private final CalculationCache calculationCache;
 
     // Pre-filled service charge rates per square foot for different communities
     private static final Map<String, Double> COMMUNITY_SERVICE_CHARGE_RATES = new HashMap<>();
@@ -71,13 +75,18 @@ public class ServiceChargeEstimateService {
     }
 
     /**
-     * Get all service charge estimates.
+     * Get a page of service charge estimates in ID order, optionally within an estimate date range.
      *
-     * @return list of all service charge estimates
+     * @param afterId only service charge estimates with a greater ID are returned
+     * @param from the first estimate date, or null for no lower bound
+     * @param to the last estimate date, or null for no upper bound
+     * @param limit the maximum number of service charge estimates
+     * @return the summaries of the page of service charge estimates
      */
     @Transactional(readOnly = true)
-    public List<ServiceChargeEstimate> getAllServiceChargeEstimates() {
-        return serviceChargeEstimateRepository.findAll();
+    public List<ServiceChargeEstimateSummary> getServiceChargeEstimatePage(long afterId, LocalDate from, LocalDate to,
+            int limit) {
+        return serviceChargeEstimateRepository.findPage(afterId, from, to, PageRequest.of(0, limit));
     }
 
     /**
@@ -112,7 +121,7 @@ public class ServiceChargeEstimateService {
      */
     @Transactional(readOnly = true)
     public List<ServiceChargeEstimate> getPreFilledEstimatesByCommunity(String communityName) {
-        return serviceChargeEstimateRepository.findByIsPreFilledTrueAndCommunityNameIgnoreCase(communityName);
+        return serviceChargeEstimateRepository.findByIsPreFilledTrueAndCommunityName(communityName);
     }
 
     /**
@@ -126,6 +135,55 @@ public class ServiceChargeEstimateService {
      */
     public ServiceChargeEstimate calculateServiceCharges(Long propertyId, String communityName, 
                                                        String propertyType, Double propertySize) {
+        ServiceChargeEstimate estimate = computeServiceChargeEstimate(propertyId, communityName, propertyType, propertySize);
+        calculationMetrics.recordPersisted(CalculationMetrics.SERVICE_CHARGE);
+        return serviceChargeEstimateRepository.save(estimate);
+    }
+
+    /**
+     * Calculate a service charge estimate for a property without saving it.
+     *
+     * @param propertyId the property ID
+     * @param communityName the community name
+     * @param propertyType the property type
+     * @param propertySize the property size in square feet
+     * @return the calculated, unsaved service charge estimate
+     */
+    @Transactional(readOnly = true)
+    public ServiceChargeEstimate previewServiceCharges(Long propertyId, String communityName,
+                                                       String propertyType, Double propertySize) {
+        ServiceChargeEstimate estimate = computeServiceChargeEstimate(propertyId, communityName, propertyType, propertySize);
+        calculationMetrics.recordPreview(CalculationMetrics.SERVICE_CHARGE);
+        return estimate;
+    }
+
+    /**
+     * Get a service charge estimate from the cache, computing and caching it on a miss.
+     * Community names and property types are matched case-insensitively, so a hit is
+     * relabelled with the names of the current request.
+     */
+    private ServiceChargeEstimate computeServiceChargeEstimate(Long propertyId, String communityName,
+                                                               String propertyType, Double propertySize) {
+        CalculationCache.Key cacheKey = CalculationCache.Key.of(CalculationMetrics.SERVICE_CHARGE, propertyId,
+                communityName, propertyType, propertySize);
+        ServiceChargeEstimate estimate = calculationCache.get(cacheKey, ServiceChargeEstimate.class);
+        if (estimate == null) {
+            estimate = buildServiceChargeEstimate(propertyId, communityName, propertyType, propertySize);
+            calculationCache.put(cacheKey, estimate);
+        } else {
+            estimate.setCommunityName(communityName);
+            estimate.setPropertyType(propertyType);
+            estimate.setEstimateYear(LocalDate.now().getYear());
+            estimate.setEstimateDate(LocalDate.now());
+        }
+        return estimate;
+    }
+
+    /**
+     * Validate the inputs and compute a service charge estimate for a property.
+     */
+    private ServiceChargeEstimate buildServiceChargeEstimate(Long propertyId, String communityName,
+                                                             String propertyType, Double propertySize) {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found with id " + propertyId));
 
@@ -171,7 +229,7 @@ public class ServiceChargeEstimateService {
         double monthlyCharges = totalAnnualCharges / 12;
         estimate.setMonthlyCharges(monthlyCharges);
 
-        return serviceChargeEstimateRepository.save(estimate);
+        return estimate;
     }
 
     /**
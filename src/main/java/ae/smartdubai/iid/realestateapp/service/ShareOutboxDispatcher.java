@@ -0,0 +1,180 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.ShareOutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background dispatcher of the share outbox.
+ * <p>
+ * Every poll claims due events in batches and delivers each batch on the share dispatch pool,
+ * whose size limits how many deliveries run at once. The poll keeps claiming while it finds
+ * full batches, so a backlog drains without waiting for the next poll. Delivery is at least
+ * once: an event is marked as sent only after the transport has returned.
+ * <p>
+ * Published metrics: {@code reports.share.outbox.pending} (events waiting for delivery),
+ * {@code reports.share.outbox.lag} (age of the oldest of them), {@code reports.share.delivery}
+ * (time from share to delivery) and the counters {@code reports.share.sent},
+ * {@code reports.share.retried} and {@code reports.share.failed}. A share is counted as failed
+ * when it runs out of attempts, and when its report has been deleted before it was delivered.
+ */
+@Slf4j
+@Service
+public class ShareOutboxDispatcher {
+
+    private final ShareOutboxService shareOutboxService;
+    private final ShareTransport shareTransport;
+    private final ExecutorService shareDispatchExecutor;
+    private final int batchSize;
+    private final Duration lease;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Timer deliveryTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public ShareOutboxDispatcher(ShareOutboxService shareOutboxService,
+                                 ShareTransport shareTransport,
+                                 @Qualifier("shareDispatchExecutor") ExecutorService shareDispatchExecutor,
+                                 @Value("${report.share.batch-size:50}") int batchSize,
+                                 @Value("${report.share.lease:5m}") Duration lease,
+                                 MeterRegistry meterRegistry) {
+        this.shareOutboxService = shareOutboxService;
+        this.shareTransport = shareTransport;
+        this.shareDispatchExecutor = shareDispatchExecutor;
+        this.batchSize = batchSize;
+        this.lease = lease;
+
+        Gauge.builder("reports.share.outbox.pending", pending, AtomicLong::get)
+                .description("Report shares waiting for delivery")
+                .register(meterRegistry);
+        TimeGauge.builder("reports.share.outbox.lag", oldestPendingMillis, TimeUnit.MILLISECONDS, this::lagMillis)
+                .description("Age of the oldest report share waiting for delivery")
+                .register(meterRegistry);
+        deliveryTimer = Timer.builder("reports.share.delivery")
+                .description("Time from sharing a report to its delivery")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("reports.share.sent")
+                .description("Report shares delivered")
+                .register(meterRegistry);
+        retriedCounter = Counter.builder("reports.share.retried")
+                .description("Failed report share deliveries that will be retried")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("reports.share.failed")
+                .description("Report shares given up after the maximum number of attempts or with a deleted report")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deliver every due share, then refresh the queue metrics.
+     */
+    @Scheduled(fixedDelayString = "${report.share.poll-interval:5s}")
+    public void poll() {
+        try {
+            int dispatched;
+            do {
+                dispatched = dispatchBatch();
+            } while (dispatched == batchSize && !Thread.currentThread().isInterrupted());
+        } finally {
+            refreshQueueMetrics();
+        }
+    }
+
+    /**
+     * Claim one batch of due shares and deliver it.
+     *
+     * @return the number of shares claimed
+     */
+    int dispatchBatch() {
+        ShareOutboxService.Claim claim;
+        try {
+            claim = shareOutboxService.claimDue(batchSize, lease);
+        } catch (OptimisticLockingFailureException e) {
+            // Another dispatcher claimed some of the events; they are left to it
+            log.debug("Share outbox batch claimed concurrently", e);
+            return 0;
+        }
+
+        for (ShareTransport.ShareMessage abandoned : claim.getAbandoned()) {
+            log.warn("Sharing report {} with {} failed, the report has been deleted", abandoned.getPdfReportId(),
+                    abandoned.getRecipient());
+            failedCounter.increment();
+        }
+
+        List<Future<?>> deliveries = new ArrayList<>(claim.getMessages().size());
+        for (ShareTransport.ShareMessage message : claim.getMessages()) {
+            deliveries.add(shareDispatchExecutor.submit(() -> deliver(message)));
+        }
+        for (Future<?> delivery : deliveries) {
+            try {
+                delivery.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Unfinished deliveries are retried once their lease expires
+                break;
+            } catch (ExecutionException e) {
+                log.error("Share delivery could not be recorded", e.getCause());
+            }
+        }
+        return claim.size();
+    }
+
+    private void deliver(ShareTransport.ShareMessage message) {
+        try {
+            shareTransport.send(message);
+        } catch (IOException | RuntimeException e) {
+            if (shareOutboxService.markFailed(message.getEventId(), e.getMessage())) {
+                log.info("Sharing report {} with {} failed, will retry: {}", message.getPdfReportId(),
+                        message.getRecipient(), e.getMessage());
+                retriedCounter.increment();
+            } else {
+                log.warn("Sharing report {} with {} failed, giving up", message.getPdfReportId(),
+                        message.getRecipient(), e);
+                failedCounter.increment();
+            }
+            return;
+        }
+
+        ShareOutboxEvent sent = shareOutboxService.markSent(message.getEventId());
+        sentCounter.increment();
+        deliveryTimer.record(Duration.between(sent.getCreatedAt(), sent.getSentAt()));
+    }
+
+    private void refreshQueueMetrics() {
+        try {
+            pending.set(shareOutboxService.countPending());
+            oldestPendingMillis.set(shareOutboxService.oldestPending()
+                    .map(createdAt -> createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            log.warn("Share outbox metrics could not be refreshed", e);
+        }
+    }
+
+    private double lagMillis(AtomicLong oldestPending) {
+        long createdAt = oldestPending.get();
+        return createdAt == 0 ? 0 : Math.max(0, System.currentTimeMillis() - createdAt);
+    }
+}
@@ -0,0 +1,211 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.ShareOutboxEvent;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import ae.smartdubai.iid.realestateapp.repository.ShareOutboxRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the outbox of report shares.
+ * <p>
+ * A share is recorded as a pending event in the transaction that shares the report, so it is
+ * delivered if and only if the share commits. The dispatcher claims due events in batches,
+ * delivers them outside any transaction and records the outcome here. A failed delivery is
+ * retried with exponential backoff until the maximum number of attempts is reached, after
+ * which the event is marked as failed.
+ */
+@Service
+@Transactional
+public class ShareOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ShareOutboxRepository shareOutboxRepository;
+    private final PdfReportRepository pdfReportRepository;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public ShareOutboxService(ShareOutboxRepository shareOutboxRepository,
+                              PdfReportRepository pdfReportRepository,
+                              @Value("${report.share.max-attempts:8}") int maxAttempts,
+                              @Value("${report.share.initial-backoff:10s}") Duration initialBackoff,
+                              @Value("${report.share.max-backoff:1h}") Duration maxBackoff) {
+        this.shareOutboxRepository = shareOutboxRepository;
+        this.pdfReportRepository = pdfReportRepository;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Events claimed for delivery by one call of {@link #claimDue}.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Claim {
+        // Shares to deliver
+        private final List<ShareTransport.ShareMessage> messages;
+        // Shares of deleted reports, already marked as failed
+        private final List<ShareTransport.ShareMessage> abandoned;
+
+        /**
+         * Get the number of events claimed, delivered or not.
+         *
+         * @return the number of claimed events
+         */
+        public int size() {
+            return messages.size() + abandoned.size();
+        }
+    }
+
+    /**
+     * Record a share to deliver. Joins the caller's transaction.
+     *
+     * @param pdfReport the shared PDF report
+     * @param recipient the email address to send the report to
+     * @return the pending event
+     */
+    public ShareOutboxEvent enqueue(PdfReport pdfReport, String recipient) {
+        LocalDateTime now = LocalDateTime.now();
+        ShareOutboxEvent event = new ShareOutboxEvent();
+        event.setPdfReportId(pdfReport.getId());
+        event.setRecipient(recipient);
+        event.setStatus(ShareOutboxEvent.Status.PENDING);
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        return shareOutboxRepository.save(event);
+    }
+
+    /**
+     * Claim a batch of due events for delivery. A claimed event stays pending but is not due
+     * again until its lease has expired, so an event whose dispatcher died is picked up again.
+     * Events of deleted reports are marked as failed instead, and returned as abandoned, so the
+     * dispatcher counts them with the other failed shares.
+     *
+     * @param limit the maximum number of events to claim
+     * @param lease how long the dispatcher has to deliver the claimed events
+     * @return the messages to deliver and the abandoned ones
+     */
+    public Claim claimDue(int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ShareOutboxEvent> events = shareOutboxRepository
+                .findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                        ShareOutboxEvent.Status.PENDING, now, PageRequest.of(0, limit));
+        if (events.isEmpty()) {
+            return new Claim(List.of(), List.of());
+        }
+
+        List<Long> reportIds = events.stream().map(ShareOutboxEvent::getPdfReportId).distinct().toList();
+        Map<Long, PdfReport> reports = pdfReportRepository.findAllById(reportIds).stream()
+                .collect(Collectors.toMap(PdfReport::getId, Function.identity()));
+
+        List<ShareTransport.ShareMessage> messages = new ArrayList<>();
+        List<ShareTransport.ShareMessage> abandoned = new ArrayList<>();
+        for (ShareOutboxEvent event : events) {
+            PdfReport pdfReport = reports.get(event.getPdfReportId());
+            if (pdfReport == null) {
+                event.setStatus(ShareOutboxEvent.Status.FAILED);
+                event.setLastError("PDF report not found with id " + event.getPdfReportId());
+                abandoned.add(new ShareTransport.ShareMessage(event.getId(), event.getPdfReportId(), null, null,
+                        event.getRecipient()));
+                continue;
+            }
+            event.setNextAttemptAt(now.plus(lease));
+            messages.add(new ShareTransport.ShareMessage(event.getId(), pdfReport.getId(), pdfReport.getTitle(),
+                    pdfReport.getFilePath(), event.getRecipient()));
+        }
+        // A dispatcher that claimed one of the events first makes this commit fail on the version
+        shareOutboxRepository.saveAll(events);
+        return new Claim(messages, abandoned);
+    }
+
+    /**
+     * Record a delivered event.
+     *
+     * @param eventId the event ID
+     * @return the sent event
+     */
+    public ShareOutboxEvent markSent(long eventId) {
+        ShareOutboxEvent event = findEvent(eventId);
+        event.setStatus(ShareOutboxEvent.Status.SENT);
+        event.setSentAt(LocalDateTime.now());
+        event.setLastError(null);
+        return shareOutboxRepository.save(event);
+    }
+
+    /**
+     * Record a failed delivery, scheduling the next attempt unless the event has run out of
+     * attempts.
+     *
+     * @param eventId the event ID
+     * @param error the reason the delivery failed
+     * @return true if the event will be retried, false if it has been marked as failed
+     */
+    public boolean markFailed(long eventId, String error) {
+        ShareOutboxEvent event = findEvent(eventId);
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        boolean retry = event.getAttempts() < maxAttempts;
+        if (retry) {
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(event.getAttempts(), initialBackoff, maxBackoff)));
+        } else {
+            event.setStatus(ShareOutboxEvent.Status.FAILED);
+        }
+        shareOutboxRepository.save(event);
+        return retry;
+    }
+
+    /**
+     * Count the events waiting for delivery.
+     *
+     * @return the number of pending events
+     */
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return shareOutboxRepository.countByStatus(ShareOutboxEvent.Status.PENDING);
+    }
+
+    /**
+     * Get the time the oldest event waiting for delivery was recorded.
+     *
+     * @return the creation time of the oldest pending event, if there is one
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> oldestPending() {
+        return shareOutboxRepository.findFirstByStatusOrderByCreatedAtAsc(ShareOutboxEvent.Status.PENDING)
+                .map(ShareOutboxEvent::getCreatedAt);
+    }
+
+    /**
+     * Delay before the next attempt after a number of failed attempts: the initial backoff,
+     * doubled after every further failure, up to the maximum.
+     */
+    static Duration backoff(int attempts, Duration initialBackoff, Duration maxBackoff) {
+        // Past 2^20 times the initial backoff the maximum has long been reached
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private ShareOutboxEvent findEvent(long eventId) {
+        return shareOutboxRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Share outbox event not found with id " + eventId));
+    }
+}
@@ -0,0 +1,35 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import lombok.Value;
+
+import java.io.IOException;
+
+/**
+ * Delivers shared reports to their recipients. Called by the share dispatcher outside any
+ * transaction; a failed delivery is retried, so a transport may be called more than once for
+ * the same share.
+ */
+public interface ShareTransport {
+
+    /**
+     * A report to deliver.
+     */
+    @Value
+    class ShareMessage {
+        // Id of the outbox event, stable across retries
+        long eventId;
+        long pdfReportId;
+        String title;
+        // Report storage key of the PDF file
+        String storageKey;
+        String recipient;
+    }
+
+    /**
+     * Deliver a report.
+     *
+     * @param message the report and its recipient
+     * @throws IOException if the report could not be delivered
+     */
+    void send(ShareMessage message) throws IOException;
+}
@@ -0,0 +1,50 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a month-by-month amortization schedule as NDJSON or CSV.
+ * <p>
+ * Rows are generated on the fly from primitive state and written field by field through a
+ * {@link RecordWriter}, so writing a 35-year schedule allocates no per-row objects and
+ * never holds more than one row in memory.
+ */
+public final class AmortizationScheduleWriter {
+
+    private static final String[] COLUMNS = {"month", "payment", "principal", "interest", "balance"};
+
+    private AmortizationScheduleWriter() {
+    }
+
+    /**
+     * Write the full schedule of a fixed-rate loan.
+     *
+     * @param loanAmount the loan amount
+     * @param annualRatePercent the annual interest rate (in percentage)
+     * @param totalPayments the number of monthly installments
+     * @param format the output format
+     * @param writer the writer to write rows to (not flushed or closed)
+     * @throws IOException if writing fails
+     */
+    public static void write(double loanAmount, double annualRatePercent, int totalPayments,
+                             RecordWriter.Format format, Writer writer) throws IOException {
+        RecordWriter recordWriter = RecordWriter.start(writer, format, COLUMNS);
+        double monthlyRate = AnnuityMath.monthlyRate(annualRatePercent);
+        double emi = AnnuityMath.payment(loanAmount, monthlyRate, totalPayments);
+        double balance = loanAmount;
+
+        for (int month = 1; month <= totalPayments; month++) {
+            double interest = balance * monthlyRate;
+            double principal = emi - interest;
+            balance -= principal;
+
+            // Absorb floating point drift so the schedule always closes at zero
+            if (month == totalPayments) {
+                balance = 0;
+            }
+
+            recordWriter.field(month).amount(emi).amount(principal).amount(interest).amount(balance).endRecord();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+/**
+ * Closed-form math for fully amortizing, fixed-rate loans (annuities).
+ * <p>
+ * All methods run in constant time, so callers never need to simulate an
+ * amortization schedule month by month just to read a single value out of it.
+ * Payment numbers are 1-based: payment 1 is the first EMI and payment {@code n}
+ * is the last one.
+ */
+public final class AnnuityMath {
+
+    private AnnuityMath() {
+    }
+
+    /**
+     * Convert an annual interest rate in percent to a monthly rate.
+     *
+     * @param annualRatePercent the annual interest rate (in percentage)
+     * @return the monthly interest rate as a fraction
+     */
+    public static double monthlyRate(double annualRatePercent) {
+        return (annualRatePercent / 100) / 12;
+    }
+
+    /**
+     * Calculate the fixed monthly payment (EMI).
+     * Formula: EMI = P * r * (1 + r)^n / ((1 + r)^n - 1)
+     *
+     * @param principal the loan amount
+     * @param monthlyRate the monthly interest rate as a fraction
+     * @param totalPayments the number of monthly installments
+     * @return the monthly payment
+     */
+    public static double payment(double principal, double monthlyRate, int totalPayments) {
+        if (monthlyRate == 0) {
+            return principal / totalPayments;
+        }
+        double growth = Math.pow(1 + monthlyRate, totalPayments);
+        return principal * monthlyRate * growth / (growth - 1);
+    }
+
+    /**
+     * Calculate the outstanding balance after a number of payments have been made.
+     * Formula: B(k) = P * ((1 + r)^n - (1 + r)^k) / ((1 + r)^n - 1)
+     *
+     * @param principal the loan amount
+     * @param monthlyRate the monthly interest rate as a fraction
+     * @param totalPayments the number of monthly installments
+     * @param paymentsMade the number of payments already made
+     * @return the remaining balance, 0 once the loan is fully repaid
+     */
+    public static double balanceAfter(double principal, double monthlyRate, int totalPayments, int paymentsMade) {
+        if (paymentsMade >= totalPayments) {
+            return 0;
+        }
+        if (paymentsMade <= 0) {
+            return principal;
+        }
+        if (monthlyRate == 0) {
+            return principal * (1 - (double) paymentsMade / totalPayments);
+        }
+        double growthTotal = Math.pow(1 + monthlyRate, totalPayments);
+        double growthMade = Math.pow(1 + monthlyRate, paymentsMade);
+        return principal * (growthTotal - growthMade) / (growthTotal - 1);
+    }
+
+    /**
+     * Calculate the interest component of a given payment.
+     *
+     * @param principal the loan amount
+     * @param monthlyRate the monthly interest rate as a fraction
+     * @param totalPayments the number of monthly installments
+     * @param paymentNumber the 1-based payment number
+     * @return the interest part of that payment
+     */
+    public static double interestPortion(double principal, double monthlyRate, int totalPayments, int paymentNumber) {
+        checkPaymentNumber(totalPayments, paymentNumber);
+        return balanceAfter(principal, monthlyRate, totalPayments, paymentNumber - 1) * monthlyRate;
+    }
+
+    /**
+     * Calculate the principal component of a given payment.
+     * Formula: (EMI - P * r) * (1 + r)^(k - 1)
+     *
+     * @param principal the loan amount
+     * @param monthlyRate the monthly interest rate as a fraction
+     * @param totalPayments the number of monthly installments
+     * @param paymentNumber the 1-based payment number
+     * @return the principal part of that payment
+     */
+    public static double principalPortion(double principal, double monthlyRate, int totalPayments, int paymentNumber) {
+        checkPaymentNumber(totalPayments, paymentNumber);
+        double emi = payment(principal, monthlyRate, totalPayments);
+        return (emi - principal * monthlyRate) * Math.pow(1 + monthlyRate, paymentNumber - 1);
+    }
+
+    private static void checkPaymentNumber(int totalPayments, int paymentNumber) {
+        if (paymentNumber < 1 || paymentNumber > totalPayments) {
+            throw new IllegalArgumentException("Payment number must be between 1 and " + totalPayments);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+/**
+ * Event-driven amortization of a mortgage with rate steps and lump-sum prepayments.
+ * <p>
+ * Between two events the rate and the EMI are constant, so the balance and the interest
+ * paid over the whole stretch follow in closed form; only rate resets and prepayments cost
+ * any work. A rate step re-amortizes the balance over the remaining term. A prepayment either
+ * keeps the EMI and shortens the term, or keeps the term and lowers the EMI, and is charged
+ * an early settlement fee. Evaluating a strategy allocates nothing, so one engine can rank
+ * thousands of strategies per second. An engine keeps the state of its last evaluation and
+ * must not be shared between threads.
+ * Month numbers are 1-based payment numbers, as in {@link AnnuityMath}.
+ */
+public final class MortgageScheduleEngine {
+
+    /**
+     * What a prepayment is used for.
+     */
+    public enum PrepaymentMode {
+        // Keep the EMI and finish earlier
+        REDUCE_TENURE,
+        // Keep the end date and pay a lower EMI
+        REDUCE_EMI
+    }
+
+    // Balances below this are treated as fully repaid
+    private static final double SETTLED = 0.005;
+
+    private final double loanAmount;
+    private final int tenureMonths;
+    private final double initialMonthlyRate;
+    private final int[] rateStepMonths;
+    private final double[] rateStepMonthlyRates;
+    private final double feeRate;
+    private final double feeCap;
+    private final double initialEmi;
+
+    // State of the evaluation in progress
+    private double balance;
+    private double monthlyRate;
+    private double emi;
+    private int month;
+    private int endMonth;
+
+    // Results of the last evaluation
+    private double totalInterest;
+    private double totalFees;
+    private double finalEmi;
+
+    /**
+     * Create an engine for a loan.
+     *
+     * @param loanAmount the loan amount
+     * @param interestRate the initial annual interest rate (in percentage)
+     * @param tenureYears the loan tenure in years
+     * @param rateStepMonths the first payment each new rate applies to, in ascending order
+     * @param rateStepRates the annual interest rate (in percentage) from each step on
+     * @param earlySettlementFeeRate the fee charged on every prepaid amount (in percentage)
+     * @param earlySettlementFeeCap the maximum fee per prepayment, 0 for no cap
+     */
+    public MortgageScheduleEngine(double loanAmount, double interestRate, int tenureYears,
+                                  int[] rateStepMonths, double[] rateStepRates,
+                                  double earlySettlementFeeRate, double earlySettlementFeeCap) {
+        this.loanAmount = loanAmount;
+        this.tenureMonths = tenureYears * 12;
+        this.initialMonthlyRate = AnnuityMath.monthlyRate(interestRate);
+        this.rateStepMonths = rateStepMonths.clone();
+        this.rateStepMonthlyRates = new double[rateStepRates.length];
+        for (int i = 0; i < rateStepRates.length; i++) {
+            this.rateStepMonthlyRates[i] = AnnuityMath.monthlyRate(rateStepRates[i]);
+        }
+        this.feeRate = earlySettlementFeeRate / 100;
+        this.feeCap = earlySettlementFeeCap;
+        this.initialEmi = AnnuityMath.payment(loanAmount, initialMonthlyRate, tenureMonths);
+    }
+
+    /**
+     * Amortize the loan with the given prepayments. Each prepayment is made right after the
+     * EMI of its month; a rate step and a prepayment in the same month see the new rate.
+     *
+     * @param prepaymentMonths the payment after which each prepayment is made, in ascending order
+     * @param prepaymentAmounts the amount of each prepayment, capped at the outstanding balance
+     * @param modes what each prepayment is used for
+     */
+    public void evaluate(int[] prepaymentMonths, double[] prepaymentAmounts, PrepaymentMode[] modes) {
+        balance = loanAmount;
+        monthlyRate = initialMonthlyRate;
+        emi = initialEmi;
+        month = 0;
+        endMonth = tenureMonths;
+        totalInterest = 0;
+        totalFees = 0;
+
+        int step = 0;
+        int prepayment = 0;
+        while (month < endMonth) {
+            // A step at month m changes the rate of payment m, so it is applied after payment m - 1
+            int nextStep = step < rateStepMonths.length ? rateStepMonths[step] - 1 : Integer.MAX_VALUE;
+            int nextPrepayment = prepayment < prepaymentMonths.length ? prepaymentMonths[prepayment] : Integer.MAX_VALUE;
+            advanceTo(Math.min(Math.min(nextStep, nextPrepayment), endMonth));
+            if (month == endMonth) {
+                break;
+            }
+
+            while (step < rateStepMonths.length && rateStepMonths[step] - 1 <= month) {
+                monthlyRate = rateStepMonthlyRates[step++];
+                emi = AnnuityMath.payment(balance, monthlyRate, endMonth - month);
+            }
+            while (prepayment < prepaymentMonths.length && prepaymentMonths[prepayment] <= month && month < endMonth) {
+                prepay(prepaymentAmounts[prepayment], modes[prepayment]);
+                prepayment++;
+            }
+        }
+
+        finalEmi = emi;
+    }
+
+    /**
+     * Make every payment up to and including the target month at the current rate and EMI.
+     */
+    private void advanceTo(int target) {
+        int payments = target - month;
+        if (payments <= 0) {
+            return;
+        }
+
+        if (target == endMonth) {
+            // The last payment clears whatever is left, which may be less than a full EMI
+            double growth = Math.pow(1 + monthlyRate, payments - 1);
+            double balanceBeforeLast = balance * growth - emi * (growth - 1) / monthlyRate;
+            double lastPayment = balanceBeforeLast * (1 + monthlyRate);
+            totalInterest += (payments - 1) * emi + lastPayment - balance;
+            balance = 0;
+        } else {
+            double growth = Math.pow(1 + monthlyRate, payments);
+            double newBalance = balance * growth - emi * (growth - 1) / monthlyRate;
+            totalInterest += payments * emi - (balance - newBalance);
+            balance = newBalance;
+        }
+        month = target;
+    }
+
+    private void prepay(double amount, PrepaymentMode mode) {
+        double prepaid = Math.min(amount, balance);
+        double fee = prepaid * feeRate;
+        totalFees += feeCap > 0 ? Math.min(fee, feeCap) : fee;
+        balance -= prepaid;
+
+        if (balance < SETTLED) {
+            balance = 0;
+            endMonth = month;
+        } else if (mode == PrepaymentMode.REDUCE_EMI) {
+            emi = AnnuityMath.payment(balance, monthlyRate, endMonth - month);
+        } else {
+            // Number of full or partial EMIs still needed: n = -ln(1 - r * B / EMI) / ln(1 + r)
+            double remaining = -Math.log(1 - monthlyRate * balance / emi) / Math.log(1 + monthlyRate);
+            endMonth = month + (int) Math.ceil(remaining - 1e-9);
+        }
+    }
+
+    /**
+     * Get the EMI at the start of the loan.
+     *
+     * @return the initial monthly payment
+     */
+    public double getInitialEmi() {
+        return initialEmi;
+    }
+
+    /**
+     * Get the interest paid over the life of the loan in the last evaluation.
+     *
+     * @return the total interest
+     */
+    public double getTotalInterest() {
+        return totalInterest;
+    }
+
+    /**
+     * Get the early settlement fees paid in the last evaluation.
+     *
+     * @return the total fees
+     */
+    public double getTotalFees() {
+        return totalFees;
+    }
+
+    /**
+     * Get the month of the last payment in the last evaluation.
+     *
+     * @return the 1-based payoff month, or the month of the prepayment that settled the loan
+     */
+    public int getPayoffMonth() {
+        return endMonth;
+    }
+
+    /**
+     * Get the EMI in force at the end of the last evaluation.
+     *
+     * @return the final monthly payment
+     */
+    public double getFinalEmi() {
+        return finalEmi;
+    }
+}
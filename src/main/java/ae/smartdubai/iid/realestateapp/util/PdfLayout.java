@@ -0,0 +1,509 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flowing layout of text, lists and tables over as many pages as the content needs.
+ * <p>
+ * Text is measured with the font metrics and wrapped to the content width. A page break is
+ * inserted whenever the next line, table row or heading with its first lines would not fit
+ * above the footer, and table headers are repeated on the new page. Consecutive lines are
+ * written as one text object, with a font change only when the font actually changes, so a
+ * page of text costs a single BT/ET pair. Footers and "Page x of n" are added to every page
+ * by {@link #finish()}, once the number of pages is known. Content that goes into many
+ * documents can be wrapped once as a {@link PdfSection} and added with {@link #section}.
+ * A layout writes to a single document and must not be shared between threads.
+ */
+public final class PdfLayout implements Closeable {
+
+    // Baseline-to-baseline distance as a multiple of the font size
+    private static final float LINE_SPACING = 1.25f;
+
+    // Space between a table header and its rule, and between columns
+    private static final float CELL_PADDING = 4;
+
+    // Space kept between the body and the footer
+    private static final float FOOTER_GAP = 20;
+
+    // Body lines kept on the same page as a heading
+    private static final int LINES_KEPT_WITH_HEADING = 2;
+
+    private final PDDocument document;
+    private final PDRectangle pageSize;
+    private final float margin;
+    private final float contentWidth;
+    private final List<String> footerLines;
+    private final PDFont footerFont;
+    private final float footerFontSize;
+    // Lowest baseline the body may use
+    private final float bodyBottom;
+    private final List<PDPage> pages = new ArrayList<>();
+
+    private PDPageContentStream stream;
+    // Baseline of the last line written on the current page
+    private float cursorY;
+
+    // State of the open text object, if any
+    private boolean inText;
+    private float textX;
+    private float textY;
+    private PDFont textFont;
+    private float textFontSize;
+
+    /**
+     * Create a layout and its first page.
+     *
+     * @param document the document to add pages to
+     * @param pageSize the size of every page
+     * @param margin the margin on every side of the page
+     * @param footerLines the lines written at the bottom of every page
+     * @param footerFont the footer font
+     * @param footerFontSize the footer font size
+     * @throws IOException if the first page cannot be created
+     */
+    public PdfLayout(PDDocument document, PDRectangle pageSize, float margin,
+                     List<String> footerLines, PDFont footerFont, float footerFontSize) throws IOException {
+        this.document = document;
+        this.pageSize = pageSize;
+        this.margin = margin;
+        this.contentWidth = pageSize.getWidth() - 2 * margin;
+        this.footerLines = List.copyOf(footerLines);
+        this.footerFont = footerFont;
+        this.footerFontSize = footerFontSize;
+        this.bodyBottom = margin + footerLines.size() * footerFontSize * LINE_SPACING + FOOTER_GAP;
+        newPage();
+    }
+
+    /**
+     * Get the width available to content between the margins.
+     *
+     * @return the content width in points
+     */
+    public float getContentWidth() {
+        return contentWidth;
+    }
+
+    /**
+     * Get the number of pages laid out so far.
+     *
+     * @return the page count
+     */
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Add a heading. It is moved to the next page if the lines after it would not fit with it.
+     *
+     * @param text the heading text
+     * @param font the heading font
+     * @param fontSize the heading font size
+     * @param bodyFontSize the font size of the content that follows
+     * @throws IOException if the heading cannot be written
+     */
+    public void heading(String text, PDFont font, float fontSize, float bodyFontSize) throws IOException {
+        writeHeading(wrap(text, font, fontSize, contentWidth), font, fontSize, bodyFontSize);
+    }
+
+    /**
+     * Add a paragraph, wrapped to the content width.
+     *
+     * @param text the paragraph text
+     * @param font the font
+     * @param fontSize the font size
+     * @param indent the indent from the left margin
+     * @throws IOException if the paragraph cannot be written
+     */
+    public void text(String text, PDFont font, float fontSize, float indent) throws IOException {
+        for (String line : wrap(text, font, fontSize, contentWidth - indent)) {
+            writeLine(line, font, fontSize, indent);
+        }
+    }
+
+    /**
+     * Add a bulleted list. Items that wrap continue aligned with the text after the bullet.
+     *
+     * @param items the list items
+     * @param font the font
+     * @param fontSize the font size
+     * @param indent the indent of the bullets from the left margin
+     * @throws IOException if the list cannot be written
+     */
+    public void bulletList(List<String> items, PDFont font, float fontSize, float indent) throws IOException {
+        section(PdfSection.builder(contentWidth, font, font)
+                .bulletList(items, PdfSection.Weight.REGULAR, fontSize, indent)
+                .build(), font, font);
+    }
+
+    /**
+     * Add a table. Cells wrap within their column, a row never breaks across pages, and the
+     * header is repeated at the top of every page the table continues on.
+     *
+     * @param headers the column headers
+     * @param rows the cell texts of each row
+     * @param columnWidths the width of each column, as a fraction of the content width
+     * @param rightAligned whether each column is right-aligned
+     * @param headerFont the header font
+     * @param font the cell font
+     * @param fontSize the font size of headers and cells
+     * @throws IOException if the table cannot be written
+     */
+    public void table(String[] headers, List<String[]> rows, float[] columnWidths, boolean[] rightAligned,
+                      PDFont headerFont, PDFont font, float fontSize) throws IOException {
+        section(PdfSection.builder(contentWidth, font, headerFont)
+                .table(headers, rows, columnWidths, rightAligned,
+                        PdfSection.Weight.BOLD, PdfSection.Weight.REGULAR, fontSize)
+                .build(), font, headerFont);
+    }
+
+    /**
+     * Add a section that has already been wrapped, without measuring any of its text again.
+     *
+     * @param section the section, wrapped for the content width of this layout
+     * @param regularFont the regular font, with the metrics the section was built with
+     * @param boldFont the bold font, with the metrics the section was built with
+     * @throws IOException if the section cannot be written
+     * @throws IllegalArgumentException if the section was wrapped for another content width
+     */
+    public void section(PdfSection section, PDFont regularFont, PDFont boldFont) throws IOException {
+        if (section.getContentWidth() != contentWidth) {
+            throw new IllegalArgumentException("Section wrapped for a content width of " + section.getContentWidth()
+                    + " instead of " + contentWidth);
+        }
+        section.writeTo(this, regularFont, boldFont);
+    }
+
+    /**
+     * Add an image at the left margin, scaled down to fit the content width and a maximum
+     * height, keeping its aspect ratio. It is moved to the next page if it does not fit.
+     *
+     * @param image the image
+     * @param maxHeight the maximum height in points
+     * @throws IOException if the image cannot be drawn
+     */
+    public void image(PDImageXObject image, float maxHeight) throws IOException {
+        float scale = Math.min(contentWidth / image.getWidth(), maxHeight / image.getHeight());
+        float width = image.getWidth() * scale;
+        float height = image.getHeight() * scale;
+        ensureSpace(height);
+
+        // Images are drawn outside text objects
+        endText();
+        cursorY -= height;
+        stream.drawImage(image, margin, cursorY, width, height);
+    }
+
+    /**
+     * Add vertical space. Space at the bottom of a page does not carry over to the next one.
+     *
+     * @param height the space in points
+     */
+    public void space(float height) {
+        cursorY = Math.max(bodyBottom, cursorY - height);
+    }
+
+    /**
+     * Close the last page and write the footer and page number on every page.
+     *
+     * @throws IOException if a footer cannot be written
+     */
+    public void finish() throws IOException {
+        closeStream();
+
+        float leading = footerFontSize * LINE_SPACING;
+        float firstBaseline = margin + (footerLines.size() - 1) * leading;
+        for (int i = 0; i < pages.size(); i++) {
+            try (PDPageContentStream footer = new PDPageContentStream(document, pages.get(i),
+                    PDPageContentStream.AppendMode.APPEND, true, true)) {
+                footer.beginText();
+                footer.setFont(footerFont, footerFontSize);
+                footer.newLineAtOffset(margin, firstBaseline);
+                for (int line = 0; line < footerLines.size(); line++) {
+                    if (line > 0) {
+                        footer.newLineAtOffset(0, -leading);
+                    }
+                    footer.showText(encodable(footerLines.get(line), footerFont));
+                }
+                footer.endText();
+
+                String pageNumber = "Page " + (i + 1) + " of " + pages.size();
+                footer.beginText();
+                footer.setFont(footerFont, footerFontSize);
+                footer.newLineAtOffset(margin + contentWidth - width(pageNumber, footerFont, footerFontSize), margin);
+                footer.showText(pageNumber);
+                footer.endText();
+            }
+        }
+    }
+
+    /**
+     * Close the current page's content stream if {@link #finish()} was not reached.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closeStream();
+    }
+
+    /**
+     * Split text into lines that fit the given width, breaking at spaces where possible and
+     * inside words that are wider than a whole line.
+     *
+     * @param text the text, null for an empty line
+     * @param font the font
+     * @param fontSize the font size
+     * @param maxWidth the maximum line width in points
+     * @return the lines, at least one
+     * @throws IOException if the text cannot be measured
+     */
+    public static List<String> wrap(String text, PDFont font, float fontSize, float maxWidth) throws IOException {
+        String encodable = encodable(text != null ? text : "", font);
+        List<String> lines = new ArrayList<>();
+        if (width(encodable, font, fontSize) <= maxWidth) {
+            lines.add(encodable);
+            return lines;
+        }
+
+        float spaceWidth = width(" ", font, fontSize);
+        StringBuilder line = new StringBuilder();
+        float lineWidth = 0;
+        for (String word : encodable.split(" ")) {
+            float wordWidth = width(word, font, fontSize);
+            float needed = line.length() > 0 ? spaceWidth + wordWidth : wordWidth;
+            if (lineWidth + needed <= maxWidth) {
+                if (line.length() > 0) {
+                    line.append(' ');
+                }
+                line.append(word);
+                lineWidth += needed;
+                continue;
+            }
+
+            if (line.length() > 0) {
+                lines.add(line.toString());
+                line.setLength(0);
+                lineWidth = 0;
+            }
+            // A word wider than a line is broken wherever it reaches the edge
+            while (wordWidth > maxWidth) {
+                int fits = fittingPrefix(word, font, fontSize, maxWidth);
+                lines.add(word.substring(0, fits));
+                word = word.substring(fits);
+                wordWidth = width(word, font, fontSize);
+            }
+            line.append(word);
+            lineWidth = wordWidth;
+        }
+        if (line.length() > 0 || lines.isEmpty()) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Width of text in points.
+     *
+     * @param text the text, which the font must be able to encode
+     * @param font the font
+     * @param fontSize the font size
+     * @return the width of the text
+     * @throws IOException if the text cannot be measured
+     */
+    public static float width(String text, PDFont font, float fontSize) throws IOException {
+        return font.getStringWidth(text) / 1000 * fontSize;
+    }
+
+    /**
+     * Replace characters the font cannot encode, such as most non-Latin scripts in the
+     * standard 14 fonts, with '?'.
+     */
+    static String encodable(String text, PDFont font) throws IOException {
+        try {
+            font.encode(text);
+            return text;
+        } catch (IllegalArgumentException e) {
+            StringBuilder encodable = new StringBuilder(text.length());
+            text.codePoints().forEach(codePoint -> {
+                String character = new String(Character.toChars(codePoint));
+                try {
+                    font.encode(character);
+                    encodable.append(character);
+                } catch (IllegalArgumentException | IOException unsupported) {
+                    encodable.append('?');
+                }
+            });
+            return encodable.toString();
+        }
+    }
+
+    private static int fittingPrefix(String word, PDFont font, float fontSize, float maxWidth) throws IOException {
+        int fits = 1;
+        while (fits < word.length() && width(word.substring(0, fits + 1), font, fontSize) <= maxWidth) {
+            fits++;
+        }
+        return fits;
+    }
+
+    /**
+     * Wrap the cells of a table row within their columns.
+     */
+    static List<List<String>> wrapRow(String[] cells, PDFont font, float fontSize, float[] widths) throws IOException {
+        List<List<String>> wrapped = new ArrayList<>(cells.length);
+        for (int column = 0; column < cells.length; column++) {
+            wrapped.add(wrap(cells[column], font, fontSize, widths[column] - CELL_PADDING));
+        }
+        return wrapped;
+    }
+
+    private static int rowLines(List<List<String>> cells) {
+        int lines = 1;
+        for (List<String> cell : cells) {
+            lines = Math.max(lines, cell.size());
+        }
+        return lines;
+    }
+
+    /**
+     * Write the wrapped lines of a heading, on the next page if the lines after it would not fit.
+     */
+    void writeHeading(List<String> lines, PDFont font, float fontSize, float bodyFontSize) throws IOException {
+        ensureSpace(fontSize * LINE_SPACING + LINES_KEPT_WITH_HEADING * bodyFontSize * LINE_SPACING);
+        for (String line : lines) {
+            showLine(line, font, fontSize, margin);
+        }
+    }
+
+    /**
+     * Write one wrapped line at an indent from the left margin.
+     */
+    void writeLine(String line, PDFont font, float fontSize, float indent) throws IOException {
+        showLine(line, font, fontSize, margin + indent);
+    }
+
+    /**
+     * Write a table whose cells are already wrapped, repeating the header on every new page.
+     */
+    void writeTable(List<List<String>> headerCells, List<List<List<String>>> rows, float[] widths,
+                    boolean[] rightAligned, PDFont headerFont, PDFont font, float fontSize) throws IOException {
+        float leading = fontSize * LINE_SPACING;
+        // The header is only useful with at least one row under it
+        ensureSpace((rowLines(headerCells) + 1) * leading + CELL_PADDING);
+        tableHeader(headerCells, widths, rightAligned, headerFont, fontSize);
+
+        for (List<List<String>> cells : rows) {
+            int lines = rowLines(cells);
+            if (cursorY - lines * leading < bodyBottom) {
+                newPage();
+                tableHeader(headerCells, widths, rightAligned, headerFont, fontSize);
+            }
+            showRow(cells, lines, widths, rightAligned, font, fontSize);
+        }
+    }
+
+    private void tableHeader(List<List<String>> cells, float[] widths, boolean[] rightAligned,
+                             PDFont font, float fontSize) throws IOException {
+        showRow(cells, rowLines(cells), widths, rightAligned, font, fontSize);
+
+        // The rule needs the graphics state, so it ends the current text object
+        endText();
+        float ruleY = cursorY - CELL_PADDING;
+        stream.moveTo(margin, ruleY);
+        stream.lineTo(margin + contentWidth, ruleY);
+        stream.stroke();
+        cursorY = ruleY - CELL_PADDING;
+    }
+
+    private void showRow(List<List<String>> cells, int lines, float[] widths, boolean[] rightAligned,
+                         PDFont font, float fontSize) throws IOException {
+        for (int line = 0; line < lines; line++) {
+            float baseline = cursorY - fontSize * LINE_SPACING;
+            float x = margin;
+            for (int column = 0; column < cells.size(); column++) {
+                List<String> cell = cells.get(column);
+                if (line < cell.size() && !cell.get(line).isEmpty()) {
+                    String text = cell.get(line);
+                    float cellX = rightAligned[column]
+                            ? x + widths[column] - CELL_PADDING - width(text, font, fontSize)
+                            : x;
+                    showText(text, font, fontSize, cellX, baseline);
+                }
+                x += widths[column];
+            }
+            cursorY = baseline;
+        }
+    }
+
+    /**
+     * Write one line of text below the previous one, starting a new page if it does not fit.
+     */
+    private void showLine(String text, PDFont font, float fontSize, float x) throws IOException {
+        float leading = fontSize * LINE_SPACING;
+        ensureSpace(leading);
+        cursorY -= leading;
+        showText(text, font, fontSize, x, cursorY);
+    }
+
+    /**
+     * Show already encodable text at a position, reusing the open text object.
+     */
+    private void showText(String text, PDFont font, float fontSize, float x, float y) throws IOException {
+        if (!inText) {
+            stream.beginText();
+            inText = true;
+            textX = 0;
+            textY = 0;
+            textFont = null;
+        }
+        if (font != textFont || fontSize != textFontSize) {
+            stream.setFont(font, fontSize);
+            textFont = font;
+            textFontSize = fontSize;
+        }
+        // Text positions are relative to the start of the previous line in the same text object
+        stream.newLineAtOffset(x - textX, y - textY);
+        textX = x;
+        textY = y;
+        stream.showText(text);
+    }
+
+    private void ensureSpace(float height) throws IOException {
+        if (cursorY - height < bodyBottom) {
+            newPage();
+        }
+    }
+
+    private void newPage() throws IOException {
+        closeStream();
+        PDPage page = new PDPage(pageSize);
+        document.addPage(page);
+        pages.add(page);
+        stream = new PDPageContentStream(document, page);
+        cursorY = pageSize.getHeight() - margin;
+    }
+
+    private void endText() throws IOException {
+        if (inText) {
+            stream.endText();
+            inText = false;
+        }
+    }
+
+    private void closeStream() throws IOException {
+        if (stream != null) {
+            endText();
+            stream.close();
+            stream = null;
+        }
+    }
+}
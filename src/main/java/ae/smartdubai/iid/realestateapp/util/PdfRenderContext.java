@@ -0,0 +1,468 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceRGB;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Fonts and images shared by every PDF render, so each report does not parse the same font
+ * programs and decode the same pictures again.
+ * <p>
+ * TrueType fonts (needed for Arabic and other non-Latin names) are parsed once and embedded
+ * into each document as a subset of the glyphs it uses. The subset itself depends on the
+ * document's text, so it is computed when the document is saved; what is shared is the parsed
+ * font program the subsetter reads from. Without configured fonts the standard Helvetica
+ * fonts are used, which need no parsing or embedding.
+ * <p>
+ * Images (the logo and property photos) are fetched, scaled down to print size and encoded as
+ * JPEG once; each document then wraps the cached JPEG bytes without decoding them again. Failed
+ * images are cached too, so a broken photo URL is not fetched for every report.
+ * <p>
+ * Photo URLs are user input, so web images are only fetched from the configured image hosts,
+ * and never from loopback, private or link-local addresses; redirects are followed by hand so
+ * every hop is checked the same way. The size of an image is read from its header and checked
+ * before it is decoded.
+ * <p>
+ * Report sections are kept wrapped, under a key of their content, so a report rendered again
+ * after one of its inputs changed only lays out the sections that changed. Cached sections
+ * were measured with the fonts of this context, so they are not shared with other contexts.
+ * <p>
+ * A context is safe to share between threads. The fonts and images it returns belong to one
+ * document.
+ */
+@Slf4j
+public final class PdfRenderContext {
+
+    // Longest side of a cached image in pixels, about 220 dpi across the content width of A4
+    private static final int MAX_IMAGE_PIXELS = 1500;
+
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final int IMAGE_TIMEOUT_MILLIS = 5000;
+    private static final long MAX_IMAGE_SOURCE_BYTES = 10 * 1024 * 1024;
+    // Decoded as ARGB, the largest accepted image takes 100 MB
+    private static final long MAX_IMAGE_SOURCE_PIXELS = 25_000_000;
+    private static final int MAX_IMAGE_REDIRECTS = 3;
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private final Path regularFontFile;
+    private final Path boldFontFile;
+    private final String logoSource;
+    private final Set<String> imageHosts;
+    private final boolean privateAddressesAllowed;
+    private final boolean cacheEnabled;
+    private final Map<Path, TrueTypeFont> fonts = new ConcurrentHashMap<>();
+    private final Cache<String, Optional<EncodedImage>> images;
+    private final Cache<String, PdfSection> sections;
+
+    /**
+     * Create a context.
+     *
+     * @param regularFontFile the TrueType file of the regular text font, or null for Helvetica
+     * @param boldFontFile the TrueType file of the bold font, or null for Helvetica Bold
+     * @param logoSource the location of the logo printed on the first page, or null for none
+     * @param imageHosts the hosts web images may be fetched from, including the logo's
+     * @param cacheEnabled whether fonts and images are kept between renders
+     * @param imageCacheBytes the maximum size of the cached images
+     * @param imageCacheTtl how long an image is cached before it is fetched again
+     * @param sectionCacheSize the maximum number of cached report sections
+     */
+    public PdfRenderContext(Path regularFontFile, Path boldFontFile, String logoSource, Set<String> imageHosts,
+                            boolean cacheEnabled, long imageCacheBytes, Duration imageCacheTtl,
+                            long sectionCacheSize) {
+        this(regularFontFile, boldFontFile, logoSource, imageHosts, false,
+                cacheEnabled, imageCacheBytes, imageCacheTtl, sectionCacheSize);
+    }
+
+    /**
+     * Create a context that may also fetch images from loopback and private addresses, for
+     * tests and benchmarks that serve images locally.
+     *
+     * @param regularFontFile the TrueType file of the regular text font, or null for Helvetica
+     * @param boldFontFile the TrueType file of the bold font, or null for Helvetica Bold
+     * @param logoSource the location of the logo printed on the first page, or null for none
+     * @param imageHosts the hosts web images may be fetched from, including the logo's
+     * @param privateAddressesAllowed whether image hosts may resolve to non-public addresses
+     * @param cacheEnabled whether fonts and images are kept between renders
+     * @param imageCacheBytes the maximum size of the cached images
+     * @param imageCacheTtl how long an image is cached before it is fetched again
+     * @param sectionCacheSize the maximum number of cached report sections
+     */
+    public PdfRenderContext(Path regularFontFile, Path boldFontFile, String logoSource, Set<String> imageHosts,
+                     boolean privateAddressesAllowed, boolean cacheEnabled, long imageCacheBytes,
+                     Duration imageCacheTtl, long sectionCacheSize) {
+        this.regularFontFile = regularFontFile;
+        this.boldFontFile = boldFontFile;
+        this.logoSource = logoSource;
+        this.imageHosts = imageHosts.stream()
+                .map(host -> host.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toCollection(TreeSet::new));
+        this.privateAddressesAllowed = privateAddressesAllowed;
+        this.cacheEnabled = cacheEnabled;
+        this.images = Caffeine.newBuilder()
+                .maximumWeight(imageCacheBytes)
+                .weigher((String source, Optional<EncodedImage> image) ->
+                        source.length() + image.map(encoded -> encoded.jpeg.length).orElse(0))
+                .expireAfterWrite(imageCacheTtl)
+                .build();
+        this.sections = Caffeine.newBuilder()
+                .maximumSize(sectionCacheSize)
+                .build();
+    }
+
+    /**
+     * Create a context with the standard fonts, no logo, no web images and caching on.
+     *
+     * @return the context
+     */
+    public static PdfRenderContext standard() {
+        return new PdfRenderContext(null, null, null, Set.of(), true, 64L * 1024 * 1024, Duration.ofHours(1), 10_000);
+    }
+
+    /**
+     * Get a string that changes whenever the configured fonts, logo or image hosts change the
+     * rendered output, for keys of rendered documents.
+     *
+     * @return the fingerprint of the configuration
+     */
+    public String getFingerprint() {
+        return "regular=" + regularFontFile + ";bold=" + boldFontFile + ";logo=" + logoSource
+                + ";imageHosts=" + String.join(",", imageHosts);
+    }
+
+    /**
+     * Get the regular text font for a document.
+     *
+     * @param document the document the font is used in
+     * @return the font
+     * @throws IOException if the font file cannot be read
+     */
+    public PDFont regularFont(PDDocument document) throws IOException {
+        return font(document, regularFontFile, PDType1Font.HELVETICA);
+    }
+
+    /**
+     * Get the bold font for a document.
+     *
+     * @param document the document the font is used in
+     * @return the font
+     * @throws IOException if the font file cannot be read
+     */
+    public PDFont boldFont(PDDocument document) throws IOException {
+        return font(document, boldFontFile, PDType1Font.HELVETICA_BOLD);
+    }
+
+    /**
+     * Get the logo for a document.
+     *
+     * @param document the document the logo is drawn in
+     * @return the logo, or empty if none is configured or it cannot be loaded
+     * @throws IOException if the image cannot be added to the document
+     */
+    public Optional<PDImageXObject> logo(PDDocument document) throws IOException {
+        return logoSource != null ? image(document, logoSource) : Optional.empty();
+    }
+
+    /**
+     * Get an image for a document.
+     *
+     * @param document the document the image is drawn in
+     * @param source the location of the image: an http(s) URL on an image host or a classpath: resource
+     * @return the image, or empty if it cannot be loaded, decoded or is not allowed
+     * @throws IOException if the image cannot be added to the document
+     */
+    public Optional<PDImageXObject> image(PDDocument document, String source) throws IOException {
+        Optional<EncodedImage> encoded = cacheEnabled ? images.get(source, this::encode) : encode(source);
+        if (encoded.isEmpty()) {
+            return Optional.empty();
+        }
+        // Wraps the JPEG bytes as they are; nothing is decoded or compressed again
+        EncodedImage image = encoded.get();
+        return Optional.of(new PDImageXObject(document, new ByteArrayInputStream(image.jpeg), COSName.DCT_DECODE,
+                image.width, image.height, 8, PDDeviceRGB.INSTANCE));
+    }
+
+    /**
+     * Get a wrapped report section, building it only if no section with the same key is cached.
+     * The key must change whenever the content of the section changes.
+     *
+     * @param key the key of the section content
+     * @param builder builds the section with the fonts of the current document
+     * @return the section
+     * @throws IOException if the section cannot be built
+     */
+    public PdfSection section(String key, SectionBuilder builder) throws IOException {
+        if (!cacheEnabled) {
+            return builder.build();
+        }
+        PdfSection section = sections.getIfPresent(key);
+        if (section == null) {
+            // Two renders may build the same section at once; both get the same result
+            section = builder.build();
+            sections.put(key, section);
+        }
+        return section;
+    }
+
+    private PDFont font(PDDocument document, Path file, PDFont standardFont) throws IOException {
+        if (file == null) {
+            return standardFont;
+        }
+        // Loading from a parsed font leaves it open, so it can be embedded into other documents
+        TrueTypeFont trueTypeFont = cacheEnabled ? parsedFont(file) : parse(file);
+        return PDType0Font.load(document, trueTypeFont, true);
+    }
+
+    private TrueTypeFont parsedFont(Path file) throws IOException {
+        try {
+            return fonts.computeIfAbsent(file, path -> {
+                try {
+                    return parse(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parse a font file from memory, so a shared font holds no file handle. The tables are read
+     * up front; glyphs are read on demand, which PDFBox synchronizes.
+     */
+    private static TrueTypeFont parse(Path file) throws IOException {
+        try (InputStream inputStream = new ByteArrayInputStream(Files.readAllBytes(file))) {
+            return new TTFParser().parse(inputStream);
+        }
+    }
+
+    /**
+     * Fetch an image and re-encode it as a baseline RGB JPEG no larger than needed for print.
+     */
+    private Optional<EncodedImage> encode(String source) {
+        try {
+            BufferedImage image = decode(fetch(source));
+            if (image == null) {
+                log.warn("Unsupported image format: {}", source);
+                return Optional.empty();
+            }
+            BufferedImage rgb = flatten(image);
+            return Optional.of(new EncodedImage(jpeg(rgb), rgb.getWidth(), rgb.getHeight()));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Image could not be loaded: {}: {}", source, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private byte[] fetch(String source) throws IOException {
+        InputStream inputStream;
+        if (source.startsWith(CLASSPATH_PREFIX)) {
+            inputStream = PdfRenderContext.class.getClassLoader()
+                    .getResourceAsStream(source.substring(CLASSPATH_PREFIX.length()));
+            if (inputStream == null) {
+                throw new IOException("Resource not found");
+            }
+        } else {
+            inputStream = open(new URL(source));
+        }
+
+        try (inputStream) {
+            byte[] bytes = inputStream.readNBytes((int) MAX_IMAGE_SOURCE_BYTES + 1);
+            if (bytes.length > MAX_IMAGE_SOURCE_BYTES) {
+                throw new IOException("Image larger than " + MAX_IMAGE_SOURCE_BYTES + " bytes");
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Open a web image, following redirects only to URLs that pass the same checks.
+     */
+    private InputStream open(URL url) throws IOException {
+        for (int redirects = 0; ; redirects++) {
+            checkAllowed(url);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(IMAGE_TIMEOUT_MILLIS);
+            connection.setReadTimeout(IMAGE_TIMEOUT_MILLIS);
+            int status = connection.getResponseCode();
+            if (status / 100 == 3 && connection.getHeaderField("Location") != null) {
+                String location = connection.getHeaderField("Location");
+                connection.disconnect();
+                if (redirects == MAX_IMAGE_REDIRECTS) {
+                    throw new IOException("Too many redirects");
+                }
+                url = new URL(url, location);
+                continue;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                connection.disconnect();
+                throw new IOException("Image request failed with status " + status);
+            }
+            return connection.getInputStream();
+        }
+    }
+
+    /**
+     * Check that a URL is a web URL on an image host that resolves only to public addresses, so
+     * a stored image URL can never read local files or reach internal services.
+     */
+    private void checkAllowed(URL url) throws IOException {
+        if (!"http".equals(url.getProtocol()) && !"https".equals(url.getProtocol())) {
+            throw new IOException("Unsupported image URL scheme: " + url.getProtocol());
+        }
+        String host = url.getHost().toLowerCase(Locale.ROOT);
+        if (!imageHosts.contains(host)) {
+            throw new IOException("Image host not allowed: " + host);
+        }
+        if (privateAddressesAllowed) {
+            return;
+        }
+        for (InetAddress address : InetAddress.getAllByName(host)) {
+            if (!isPublic(address)) {
+                throw new IOException("Image host resolves to a non-public address: " + host);
+            }
+        }
+    }
+
+    private static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // Unique local addresses, fc00::/7
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        // Shared address space of carrier-grade NAT, 100.64.0.0/10
+        return !((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64);
+    }
+
+    /**
+     * Decode an image, reading its size from the header first so an image with a huge pixel
+     * count is rejected before any pixels are allocated.
+     *
+     * @return the image, or null if its format is not supported
+     */
+    private static BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_IMAGE_SOURCE_PIXELS) {
+                    throw new IOException("Image larger than " + MAX_IMAGE_SOURCE_PIXELS + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Draw an image onto a white RGB canvas, removing transparency, scaled down so its longest
+     * side is at most {@link #MAX_IMAGE_PIXELS}.
+     */
+    private static BufferedImage flatten(BufferedImage image) {
+        double scale = Math.min(1.0, (double) MAX_IMAGE_PIXELS / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage rgb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Builds a report section that is not cached yet.
+     */
+    @FunctionalInterface
+    public interface SectionBuilder {
+        PdfSection build() throws IOException;
+    }
+
+    /**
+     * An image encoded as JPEG, ready to be embedded into any number of documents.
+     */
+    private static final class EncodedImage {
+        private final byte[] jpeg;
+        private final int width;
+        private final int height;
+
+        EncodedImage(byte[] jpeg, int width, int height) {
+            this.jpeg = jpeg;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
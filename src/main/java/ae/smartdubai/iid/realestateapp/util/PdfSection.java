@@ -0,0 +1,302 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headings, paragraphs, lists and tables that are measured and wrapped once and can then be
+ * written into any number of {@link PdfLayout}s.
+ * <p>
+ * Wrapping is most of the work of laying out text, and it depends only on the text, the font
+ * metrics and the content width. A section keeps the wrapped lines, not the fonts, so a section
+ * built while rendering one document can be written into another. The layout still places the
+ * lines and breaks pages as it goes, so the result is the same as adding the content to the
+ * layout directly. Fonts are referred to by weight and supplied when the section is written;
+ * they must have the same metrics as the fonts the section was built with.
+ * <p>
+ * A section is immutable and safe to share between threads.
+ */
+public final class PdfSection {
+
+    /**
+     * The font a piece of content is written in.
+     */
+    public enum Weight {
+        REGULAR,
+        BOLD
+    }
+
+    private final float contentWidth;
+    private final List<Block> blocks;
+
+    private PdfSection(float contentWidth, List<Block> blocks) {
+        this.contentWidth = contentWidth;
+        this.blocks = List.copyOf(blocks);
+    }
+
+    /**
+     * Start a section.
+     *
+     * @param contentWidth the content width of the layouts the section is written into
+     * @param regularFont the regular font, for measuring
+     * @param boldFont the bold font, for measuring
+     * @return the builder
+     */
+    public static Builder builder(float contentWidth, PDFont regularFont, PDFont boldFont) {
+        return new Builder(contentWidth, regularFont, boldFont);
+    }
+
+    /**
+     * Get the content width the section was wrapped for.
+     *
+     * @return the content width in points
+     */
+    public float getContentWidth() {
+        return contentWidth;
+    }
+
+    /**
+     * Write the section into a layout.
+     */
+    void writeTo(PdfLayout layout, PDFont regularFont, PDFont boldFont) throws IOException {
+        for (Block block : blocks) {
+            block.writeTo(layout, regularFont, boldFont);
+        }
+    }
+
+    private static PDFont font(Weight weight, PDFont regularFont, PDFont boldFont) {
+        return weight == Weight.BOLD ? boldFont : regularFont;
+    }
+
+    /**
+     * Collects the content of a section, wrapping it as it is added.
+     * A builder must not be shared between threads.
+     */
+    public static final class Builder {
+
+        private final float contentWidth;
+        private final PDFont regularFont;
+        private final PDFont boldFont;
+        private final List<Block> blocks = new ArrayList<>();
+
+        private Builder(float contentWidth, PDFont regularFont, PDFont boldFont) {
+            this.contentWidth = contentWidth;
+            this.regularFont = regularFont;
+            this.boldFont = boldFont;
+        }
+
+        /**
+         * Add a heading. It is moved to the next page if the lines after it would not fit with it.
+         *
+         * @param text the heading text
+         * @param weight the heading font
+         * @param fontSize the heading font size
+         * @param bodyFontSize the font size of the content that follows
+         * @return this builder
+         * @throws IOException if the heading cannot be measured
+         */
+        public Builder heading(String text, Weight weight, float fontSize, float bodyFontSize) throws IOException {
+            List<String> lines = PdfLayout.wrap(text, font(weight, regularFont, boldFont), fontSize, contentWidth);
+            blocks.add(new Heading(lines, weight, fontSize, bodyFontSize));
+            return this;
+        }
+
+        /**
+         * Add a paragraph, wrapped to the content width.
+         *
+         * @param text the paragraph text
+         * @param weight the font
+         * @param fontSize the font size
+         * @param indent the indent from the left margin
+         * @return this builder
+         * @throws IOException if the paragraph cannot be measured
+         */
+        public Builder text(String text, Weight weight, float fontSize, float indent) throws IOException {
+            List<String> lines = PdfLayout.wrap(text, font(weight, regularFont, boldFont), fontSize, contentWidth - indent);
+            float[] indents = new float[lines.size()];
+            Arrays.fill(indents, indent);
+            blocks.add(new Lines(lines, indents, weight, fontSize));
+            return this;
+        }
+
+        /**
+         * Add a bulleted list. Items that wrap continue aligned with the text after the bullet.
+         *
+         * @param items the list items
+         * @param weight the font
+         * @param fontSize the font size
+         * @param indent the indent of the bullets from the left margin
+         * @return this builder
+         * @throws IOException if the list cannot be measured
+         */
+        public Builder bulletList(List<String> items, Weight weight, float fontSize, float indent) throws IOException {
+            PDFont font = font(weight, regularFont, boldFont);
+            String bullet = "• ";
+            float bulletWidth = PdfLayout.width(bullet, font, fontSize);
+            List<String> lines = new ArrayList<>();
+            List<Float> indents = new ArrayList<>();
+            for (String item : items) {
+                List<String> itemLines = PdfLayout.wrap(item, font, fontSize, contentWidth - indent - bulletWidth);
+                for (int i = 0; i < itemLines.size(); i++) {
+                    if (i == 0) {
+                        lines.add(bullet + itemLines.get(i));
+                        indents.add(indent);
+                    } else {
+                        lines.add(itemLines.get(i));
+                        indents.add(indent + bulletWidth);
+                    }
+                }
+            }
+            float[] lineIndents = new float[indents.size()];
+            for (int i = 0; i < lineIndents.length; i++) {
+                lineIndents[i] = indents.get(i);
+            }
+            blocks.add(new Lines(lines, lineIndents, weight, fontSize));
+            return this;
+        }
+
+        /**
+         * Add a table. Cells wrap within their column, a row never breaks across pages, and the
+         * header is repeated at the top of every page the table continues on.
+         *
+         * @param headers the column headers
+         * @param rows the cell texts of each row
+         * @param columnWidths the width of each column, as a fraction of the content width
+         * @param rightAligned whether each column is right-aligned
+         * @param headerWeight the header font
+         * @param weight the cell font
+         * @param fontSize the font size of headers and cells
+         * @return this builder
+         * @throws IOException if the table cannot be measured
+         */
+        public Builder table(String[] headers, List<String[]> rows, float[] columnWidths, boolean[] rightAligned,
+                             Weight headerWeight, Weight weight, float fontSize) throws IOException {
+            float[] widths = new float[columnWidths.length];
+            for (int column = 0; column < widths.length; column++) {
+                widths[column] = columnWidths[column] * contentWidth;
+            }
+            PDFont font = font(weight, regularFont, boldFont);
+
+            List<List<String>> headerCells = PdfLayout.wrapRow(headers, font(headerWeight, regularFont, boldFont),
+                    fontSize, widths);
+            List<List<List<String>>> rowCells = new ArrayList<>(rows.size());
+            for (String[] row : rows) {
+                rowCells.add(PdfLayout.wrapRow(row, font, fontSize, widths));
+            }
+            blocks.add(new Table(headerCells, rowCells, widths, rightAligned.clone(), headerWeight, weight, fontSize));
+            return this;
+        }
+
+        /**
+         * Add vertical space. Space at the bottom of a page does not carry over to the next one.
+         *
+         * @param height the space in points
+         * @return this builder
+         */
+        public Builder space(float height) {
+            blocks.add(new Space(height));
+            return this;
+        }
+
+        /**
+         * Finish the section.
+         *
+         * @return the section
+         */
+        public PdfSection build() {
+            return new PdfSection(contentWidth, blocks);
+        }
+    }
+
+    /**
+     * One piece of wrapped content.
+     */
+    private interface Block {
+        void writeTo(PdfLayout layout, PDFont regularFont, PDFont boldFont) throws IOException;
+    }
+
+    private static final class Heading implements Block {
+        private final List<String> lines;
+        private final Weight weight;
+        private final float fontSize;
+        private final float bodyFontSize;
+
+        Heading(List<String> lines, Weight weight, float fontSize, float bodyFontSize) {
+            this.lines = List.copyOf(lines);
+            this.weight = weight;
+            this.fontSize = fontSize;
+            this.bodyFontSize = bodyFontSize;
+        }
+
+        @Override
+        public void writeTo(PdfLayout layout, PDFont regularFont, PDFont boldFont) throws IOException {
+            layout.writeHeading(lines, font(weight, regularFont, boldFont), fontSize, bodyFontSize);
+        }
+    }
+
+    private static final class Lines implements Block {
+        private final List<String> lines;
+        private final float[] indents;
+        private final Weight weight;
+        private final float fontSize;
+
+        Lines(List<String> lines, float[] indents, Weight weight, float fontSize) {
+            this.lines = List.copyOf(lines);
+            this.indents = indents;
+            this.weight = weight;
+            this.fontSize = fontSize;
+        }
+
+        @Override
+        public void writeTo(PdfLayout layout, PDFont regularFont, PDFont boldFont) throws IOException {
+            PDFont font = font(weight, regularFont, boldFont);
+            for (int i = 0; i < lines.size(); i++) {
+                layout.writeLine(lines.get(i), font, fontSize, indents[i]);
+            }
+        }
+    }
+
+    private static final class Table implements Block {
+        private final List<List<String>> headerCells;
+        private final List<List<List<String>>> rows;
+        private final float[] widths;
+        private final boolean[] rightAligned;
+        private final Weight headerWeight;
+        private final Weight weight;
+        private final float fontSize;
+
+        Table(List<List<String>> headerCells, List<List<List<String>>> rows, float[] widths, boolean[] rightAligned,
+              Weight headerWeight, Weight weight, float fontSize) {
+            this.headerCells = headerCells;
+            this.rows = rows;
+            this.widths = widths;
+            this.rightAligned = rightAligned;
+            this.headerWeight = headerWeight;
+            this.weight = weight;
+            this.fontSize = fontSize;
+        }
+
+        @Override
+        public void writeTo(PdfLayout layout, PDFont regularFont, PDFont boldFont) throws IOException {
+            layout.writeTable(headerCells, rows, widths, rightAligned,
+                    font(headerWeight, regularFont, boldFont), font(weight, regularFont, boldFont), fontSize);
+        }
+    }
+
+    private static final class Space implements Block {
+        private final float height;
+
+        Space(float height) {
+            this.height = height;
+        }
+
+        @Override
+        public void writeTo(PdfLayout layout, PDFont regularFont, PDFont boldFont) {
+            layout.space(height);
+        }
+    }
+}
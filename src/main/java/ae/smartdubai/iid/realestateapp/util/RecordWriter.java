@@ -0,0 +1,291 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Writes flat records as NDJSON or CSV, one record at a time.
+ * <p>
+ * Every record is formatted into a single reusable buffer and written straight to the
+ * writer, so the output can be of any length without being held in memory. Values may be
+ * strings, numbers, booleans, dates or null. Numbers are written in plain notation; NaN and
+ * infinities, which JSON cannot represent, are written as null.
+ * <p>
+ * Records of primitive values can also be written field by field, with {@link #field(long)}
+ * and {@link #amount(double)} followed by {@link #endRecord()}, which boxes nothing.
+ */
+public final class RecordWriter {
+
+    /**
+     * Supported output formats.
+     */
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        /**
+         * Parse a format name, ignoring case.
+         *
+         * @param name the format name
+         * @return the format, or null if the name is unknown
+         */
+        public static Format parse(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Writer writer;
+    private final Format format;
+    private final String[] columns;
+    private final StringBuilder row = new StringBuilder(256);
+    private char[] buffer = new char[256];
+    // Number of fields written of the current record
+    private int column;
+
+    private RecordWriter(Writer writer, Format format, String[] columns) {
+        this.writer = writer;
+        this.format = format;
+        this.columns = columns.clone();
+    }
+
+    /**
+     * Start writing records. For CSV the header line is written right away.
+     *
+     * @param writer the writer to write records to (not flushed or closed)
+     * @param format the output format
+     * @param columns the column names, which are also the NDJSON field names
+     * @return the record writer
+     * @throws IOException if writing fails
+     */
+    public static RecordWriter start(Writer writer, Format format, String... columns) throws IOException {
+        RecordWriter recordWriter = new RecordWriter(writer, format, columns);
+        if (format == Format.CSV) {
+            recordWriter.row.setLength(0);
+            for (int column = 0; column < columns.length; column++) {
+                if (column > 0) {
+                    recordWriter.row.append(',');
+                }
+                recordWriter.appendCsv(columns[column]);
+            }
+            recordWriter.flushRow();
+        }
+        return recordWriter;
+    }
+
+    /**
+     * Write a record.
+     *
+     * @param values the values, in column order
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the number of values does not match the columns
+     */
+    public void write(Object... values) throws IOException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values but got " + values.length);
+        }
+        for (Object value : values) {
+            beginField();
+            if (format == Format.CSV) {
+                appendCsvValue(value);
+            } else {
+                appendJsonValue(value);
+            }
+        }
+        endRecord();
+    }
+
+    /**
+     * Write the next field of the current record as a whole number.
+     *
+     * @param value the value
+     * @return this record writer
+     * @throws IllegalArgumentException if the record already has all its fields
+     */
+    public RecordWriter field(long value) {
+        beginField();
+        row.append(value);
+        return this;
+    }
+
+    /**
+     * Write the next field of the current record as an amount rounded to fils (two decimals).
+     *
+     * @param value the amount
+     * @return this record writer
+     * @throws IllegalArgumentException if the record already has all its fields
+     */
+    public RecordWriter amount(double value) {
+        beginField();
+        appendAmount(row, value);
+        return this;
+    }
+
+    /**
+     * Finish the current record and write it.
+     *
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if fields of the record are missing
+     */
+    public void endRecord() throws IOException {
+        if (column != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values but got " + column);
+        }
+        if (format == Format.NDJSON) {
+            row.append('}');
+        }
+        column = 0;
+        flushRow();
+    }
+
+    /**
+     * Append the separator and, for NDJSON, the name of the next field of the current record.
+     */
+    private void beginField() {
+        if (column == columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values");
+        }
+        if (column == 0) {
+            row.setLength(0);
+            if (format == Format.NDJSON) {
+                row.append('{');
+            }
+        } else {
+            row.append(',');
+        }
+        if (format == Format.NDJSON) {
+            appendJsonString(columns[column]);
+            row.append(':');
+        }
+        column++;
+    }
+
+    /**
+     * Append an amount rounded to fils (two decimals) without going through String.format.
+     *
+     * @param row the buffer to append to
+     * @param amount the amount
+     * @return the buffer
+     */
+    static StringBuilder appendAmount(StringBuilder row, double amount) {
+        long fils = Math.round(amount * 100);
+        if (fils < 0) {
+            row.append('-');
+            fils = -fils;
+        }
+        long remainder = fils % 100;
+        row.append(fils / 100).append('.');
+        if (remainder < 10) {
+            row.append('0');
+        }
+        return row.append(remainder);
+    }
+
+    private void flushRow() throws IOException {
+        row.append('\n');
+        int length = row.length();
+        if (buffer.length < length) {
+            buffer = new char[length];
+        }
+        row.getChars(0, length, buffer, 0);
+        writer.write(buffer, 0, length);
+    }
+
+    private void appendJsonValue(Object value) {
+        if (value == null) {
+            row.append("null");
+        } else if (value instanceof Boolean) {
+            row.append(value);
+        } else if (value instanceof Number) {
+            if (!appendNumber((Number) value)) {
+                row.append("null");
+            }
+        } else {
+            appendJsonString(value instanceof LocalDate ? value.toString() : String.valueOf(value));
+        }
+    }
+
+    private void appendCsvValue(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number) {
+            appendNumber((Number) value);
+        } else if (value instanceof Boolean || value instanceof LocalDate) {
+            row.append(value);
+        } else {
+            appendCsv(String.valueOf(value));
+        }
+    }
+
+    /**
+     * Append a number in plain notation, or nothing if it is not finite.
+     *
+     * @return whether the number was appended
+     */
+    private boolean appendNumber(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return false;
+            }
+            // Double.toString switches to exponent notation from 10^7, which spreadsheets mangle
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                row.append((long) value);
+            } else {
+                row.append(BigDecimal.valueOf(value).stripTrailingZeros().toPlainString());
+            }
+        } else {
+            row.append(number);
+        }
+        return true;
+    }
+
+    private void appendJsonString(String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                row.append('\\').append(c);
+            } else if (c == '\n') {
+                row.append("\\n");
+            } else if (c == '\r') {
+                row.append("\\r");
+            } else if (c == '\t') {
+                row.append("\\t");
+            } else if (c < 0x20) {
+                row.append(String.format("\\u%04x", (int) c));
+            } else {
+                row.append(c);
+            }
+        }
+        row.append('"');
+    }
+
+    private void appendCsv(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+}
@@ -0,0 +1,247 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+/**
+ * Two-dimensional sensitivity sweep of the rent vs buy comparison.
+ * <p>
+ * Every cell gives the same net worths as {@link RentVsBuySimulation} at the end of the analysis
+ * period, but is evaluated year by year in closed form instead of month by month. Cells of a row
+ * share every intermediate result the column parameter does not affect (mortgage payment and
+ * balance, rent trajectory, investment growth, property value), so those are computed once per
+ * row. Rows are independent of each other and can be evaluated concurrently.
+ * Rates are annual and in percent.
+ */
+public final class RentVsBuyGrid {
+
+    /**
+     * Inputs that can be swept along an axis of the grid.
+     */
+    public enum Parameter {
+        DOWN_PAYMENT,
+        INTEREST_RATE,
+        PROPERTY_APPRECIATION_RATE,
+        MONTHLY_RENT,
+        ANNUAL_RENT_INCREASE_RATE,
+        INVESTMENT_RETURN_RATE;
+
+        boolean affectsMortgage() {
+            return this == DOWN_PAYMENT || this == INTEREST_RATE;
+        }
+
+        boolean affectsRent() {
+            return this == MONTHLY_RENT || this == ANNUAL_RENT_INCREASE_RATE;
+        }
+    }
+
+    private static final int DOWN_PAYMENT = Parameter.DOWN_PAYMENT.ordinal();
+    private static final int INTEREST_RATE = Parameter.INTEREST_RATE.ordinal();
+    private static final int APPRECIATION = Parameter.PROPERTY_APPRECIATION_RATE.ordinal();
+    private static final int MONTHLY_RENT = Parameter.MONTHLY_RENT.ordinal();
+    private static final int RENT_INCREASE = Parameter.ANNUAL_RENT_INCREASE_RATE.ordinal();
+    private static final int INVESTMENT_RETURN = Parameter.INVESTMENT_RETURN_RATE.ordinal();
+
+    private final double propertyPrice;
+    private final int loanTenureYears;
+    private final double monthlyOwningCost;
+    private final int years;
+    // Base value of every sweepable parameter, indexed by ordinal
+    private final double[] baseValues;
+    private final Parameter rowParameter;
+    private final double[] rowValues;
+    private final Parameter columnParameter;
+    private final double[] columnValues;
+
+    /**
+     * Create a grid.
+     *
+     * @param propertyPrice the property price
+     * @param downPayment the base down payment amount
+     * @param interestRate the base mortgage interest rate (in percentage)
+     * @param loanTenureYears the loan tenure in years
+     * @param propertyAppreciationRate the base property appreciation rate (in percentage)
+     * @param annualMaintenanceCost the annual maintenance cost
+     * @param annualPropertyTax the annual property tax
+     * @param monthlyRent the base initial monthly rent
+     * @param annualRentIncreaseRate the base annual rent increase rate (in percentage)
+     * @param investmentReturnRate the base investment return rate (in percentage)
+     * @param years the analysis period in years
+     * @param rowParameter the parameter swept along the rows
+     * @param rowValues the row values
+     * @param columnParameter the parameter swept along the columns, different from the row parameter
+     * @param columnValues the column values
+     */
+    public RentVsBuyGrid(
+            double propertyPrice,
+            double downPayment,
+            double interestRate,
+            int loanTenureYears,
+            double propertyAppreciationRate,
+            double annualMaintenanceCost,
+            double annualPropertyTax,
+            double monthlyRent,
+            double annualRentIncreaseRate,
+            double investmentReturnRate,
+            int years,
+            Parameter rowParameter,
+            double[] rowValues,
+            Parameter columnParameter,
+            double[] columnValues) {
+
+        if (rowParameter == columnParameter) {
+            throw new IllegalArgumentException("Row and column parameters must be different");
+        }
+
+        this.propertyPrice = propertyPrice;
+        this.loanTenureYears = loanTenureYears;
+        this.monthlyOwningCost = (annualMaintenanceCost + annualPropertyTax) / 12;
+        this.years = years;
+        this.baseValues = new double[Parameter.values().length];
+        this.baseValues[DOWN_PAYMENT] = downPayment;
+        this.baseValues[INTEREST_RATE] = interestRate;
+        this.baseValues[APPRECIATION] = propertyAppreciationRate;
+        this.baseValues[MONTHLY_RENT] = monthlyRent;
+        this.baseValues[RENT_INCREASE] = annualRentIncreaseRate;
+        this.baseValues[INVESTMENT_RETURN] = investmentReturnRate;
+        this.rowParameter = rowParameter;
+        this.rowValues = rowValues.clone();
+        this.columnParameter = columnParameter;
+        this.columnValues = columnValues.clone();
+    }
+
+    /**
+     * Get the number of rows.
+     *
+     * @return the number of row values
+     */
+    public int getRows() {
+        return rowValues.length;
+    }
+
+    /**
+     * Get the number of columns.
+     *
+     * @return the number of column values
+     */
+    public int getColumns() {
+        return columnValues.length;
+    }
+
+    /**
+     * Evaluate every cell of a row. Safe to call concurrently for different rows.
+     *
+     * @param row the row index
+     * @param buyNetWorth receives the net worth after buying of each column
+     * @param rentNetWorth receives the net worth after renting of each column
+     */
+    public void evaluateRow(int row, double[] buyNetWorth, double[] rentNetWorth) {
+        double[] values = baseValues.clone();
+        values[rowParameter.ordinal()] = rowValues[row];
+
+        int column = columnParameter.ordinal();
+        boolean columnIsAppreciation = column == APPRECIATION;
+
+        // Shared prefix: everything the column parameter does not touch is computed once per row
+        double[] mortgage = columnParameter.affectsMortgage() ? null : mortgage(values);
+        double[] rents = columnParameter.affectsRent() ? null : rents(values, new double[years]);
+        double[] growth = column == INVESTMENT_RETURN ? null : growth(values);
+        double propertyValue = columnIsAppreciation ? 0 : propertyValue(values);
+        // Appreciation only moves the buyer's side, so the renter is identical across the row
+        double rowRentNetWorth = columnIsAppreciation ? renterNetWorth(values, mortgage[0], rents, growth) : 0;
+
+        double[] rentBuffer = rents == null ? new double[years] : null;
+        for (int c = 0; c < columnValues.length; c++) {
+            values[column] = columnValues[c];
+
+            double[] cellMortgage = mortgage != null ? mortgage : mortgage(values);
+            buyNetWorth[c] = (columnIsAppreciation ? propertyValue(values) : propertyValue) - cellMortgage[1];
+
+            if (columnIsAppreciation) {
+                rentNetWorth[c] = rowRentNetWorth;
+            } else {
+                double[] cellRents = rents != null ? rents : rents(values, rentBuffer);
+                double[] cellGrowth = growth != null ? growth : growth(values);
+                rentNetWorth[c] = renterNetWorth(values, cellMortgage[0], cellRents, cellGrowth);
+            }
+        }
+    }
+
+    /**
+     * Evaluate a row and append it as NDJSON, one line per cell.
+     *
+     * @param row the row index
+     * @param out the builder to append the lines to
+     */
+    public void appendRow(int row, StringBuilder out) {
+        double[] buyNetWorth = new double[columnValues.length];
+        double[] rentNetWorth = new double[columnValues.length];
+        evaluateRow(row, buyNetWorth, rentNetWorth);
+
+        for (int c = 0; c < columnValues.length; c++) {
+            out.append("{\"row\":").append(row);
+            out.append(",\"column\":").append(c);
+            out.append(",\"rowValue\":").append(rowValues[row]);
+            out.append(",\"columnValue\":").append(columnValues[c]);
+            out.append(",\"netWorthAfterBuying\":");
+            RecordWriter.appendAmount(out, buyNetWorth[c]);
+            out.append(",\"netWorthAfterRenting\":");
+            RecordWriter.appendAmount(out, rentNetWorth[c]);
+            out.append(",\"isBuyingBetter\":").append(buyNetWorth[c] > rentNetWorth[c]);
+            out.append("}\n");
+        }
+    }
+
+    /**
+     * Monthly mortgage payment and outstanding balance at the end of the analysis period.
+     */
+    private double[] mortgage(double[] values) {
+        double loanAmount = propertyPrice - values[DOWN_PAYMENT];
+        double monthlyRate = AnnuityMath.monthlyRate(values[INTEREST_RATE]);
+        int loanPayments = loanTenureYears * 12;
+        return new double[] {
+                AnnuityMath.payment(loanAmount, monthlyRate, loanPayments),
+                AnnuityMath.balanceAfter(loanAmount, monthlyRate, loanPayments, years * 12)
+        };
+    }
+
+    /**
+     * Monthly rent paid in each year of the analysis period.
+     */
+    private double[] rents(double[] values, double[] rents) {
+        double rent = values[MONTHLY_RENT];
+        double increase = 1 + values[RENT_INCREASE] / 100;
+        for (int year = 0; year < years; year++) {
+            rents[year] = rent;
+            rent *= increase;
+        }
+        return rents;
+    }
+
+    /**
+     * Growth over a year of the portfolio, and of a saving added at the start of every month.
+     */
+    private static double[] growth(double[] values) {
+        double monthlyReturn = 1 + values[INVESTMENT_RETURN] / 100 / 12;
+        double yearGrowth = Math.pow(monthlyReturn, 12);
+        double savingsGrowth = monthlyReturn == 1
+                ? 12
+                : monthlyReturn * (yearGrowth - 1) / (monthlyReturn - 1);
+        return new double[] {yearGrowth, savingsGrowth};
+    }
+
+    private double propertyValue(double[] values) {
+        return propertyPrice * Math.pow(1 + values[APPRECIATION] / 100, years);
+    }
+
+    /**
+     * Renter's portfolio at the end of the analysis period. Savings are constant within a year
+     * because rent only changes at year ends and the loan always ends on a year end.
+     */
+    private double renterNetWorth(double[] values, double mortgagePayment, double[] rents, double[] growth) {
+        double investmentValue = values[DOWN_PAYMENT];
+        for (int year = 0; year < years; year++) {
+            double costOfOwning = year < loanTenureYears ? monthlyOwningCost + mortgagePayment : monthlyOwningCost;
+            double monthlySavings = Math.max(0, costOfOwning - rents[year]);
+            investmentValue = investmentValue * growth[0] + monthlySavings * growth[1];
+        }
+        return investmentValue;
+    }
+}
@@ -0,0 +1,159 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+/**
+ * Month-by-month simulation of buying a property versus renting it.
+ * <p>
+ * A single forward pass tracks the buyer's equity (property value minus the outstanding
+ * mortgage) and the renter's portfolio (the down payment plus any monthly savings over the
+ * cost of owning, invested at the investment return rate). Both net worths are recorded at
+ * every year end, together with the first month in which buying catches up with renting.
+ * Rates are annual and in percent.
+ */
+public final class RentVsBuySimulation {
+
+    // Horizon searched for the break-even point
+    public static final int MAX_YEARS = 30;
+
+    private final double[] buyNetWorth;
+    private final double[] rentNetWorth;
+    private final int breakEvenMonth;
+
+    private RentVsBuySimulation(double[] buyNetWorth, double[] rentNetWorth, int breakEvenMonth) {
+        this.buyNetWorth = buyNetWorth;
+        this.rentNetWorth = rentNetWorth;
+        this.breakEvenMonth = breakEvenMonth;
+    }
+
+    /**
+     * Run the simulation.
+     *
+     * @param propertyPrice the property price
+     * @param downPayment the down payment amount
+     * @param interestRate the mortgage interest rate (in percentage)
+     * @param loanTenureYears the loan tenure in years
+     * @param propertyAppreciationRate the property appreciation rate (in percentage)
+     * @param annualMaintenanceCost the annual maintenance cost
+     * @param annualPropertyTax the annual property tax
+     * @param monthlyRent the initial monthly rent
+     * @param annualRentIncreaseRate the annual rent increase rate (in percentage)
+     * @param investmentReturnRate the investment return rate (in percentage)
+     * @param years the number of years to simulate
+     * @return the simulation with yearly snapshots and the break-even month
+     */
+    public static RentVsBuySimulation run(
+            double propertyPrice,
+            double downPayment,
+            double interestRate,
+            int loanTenureYears,
+            double propertyAppreciationRate,
+            double annualMaintenanceCost,
+            double annualPropertyTax,
+            double monthlyRent,
+            double annualRentIncreaseRate,
+            double investmentReturnRate,
+            int years) {
+
+        double loanAmount = propertyPrice - downPayment;
+        double monthlyInterestRate = AnnuityMath.monthlyRate(interestRate);
+        int loanPayments = loanTenureYears * 12;
+        double mortgagePayment = AnnuityMath.payment(loanAmount, monthlyInterestRate, loanPayments);
+        double monthlyOwningCost = (annualMaintenanceCost + annualPropertyTax) / 12;
+
+        double annualAppreciation = 1 + propertyAppreciationRate / 100;
+        double monthlyAppreciation = Math.pow(annualAppreciation, 1.0 / 12);
+        double monthlyReturn = 1 + investmentReturnRate / 100 / 12;
+        double rentIncrease = 1 + annualRentIncreaseRate / 100;
+
+        double[] buyNetWorth = new double[years + 1];
+        double[] rentNetWorth = new double[years + 1];
+        buyNetWorth[0] = downPayment;
+        rentNetWorth[0] = downPayment;
+
+        double propertyValue = propertyPrice;
+        double mortgageBalance = loanAmount;
+        double investmentValue = downPayment;
+        double rent = monthlyRent;
+        int breakEvenMonth = -1;
+
+        for (int month = 1; month <= years * 12; month++) {
+            // Cost of owning this month; the mortgage stops once it is repaid
+            double costOfOwning = monthlyOwningCost;
+            if (month <= loanPayments) {
+                costOfOwning += mortgagePayment;
+                mortgageBalance = month == loanPayments
+                        ? 0
+                        : mortgageBalance * (1 + monthlyInterestRate) - mortgagePayment;
+            }
+
+            // The renter invests whatever owning would have cost on top of the rent
+            double monthlySavings = costOfOwning - rent;
+            if (monthlySavings > 0) {
+                investmentValue += monthlySavings;
+            }
+            investmentValue *= monthlyReturn;
+            propertyValue *= monthlyAppreciation;
+
+            if (month % 12 == 0) {
+                int year = month / 12;
+                // Re-anchor on the annual compounding formula so rounding does not accumulate
+                propertyValue = propertyPrice * Math.pow(annualAppreciation, year);
+                rent *= rentIncrease;
+                buyNetWorth[year] = propertyValue - mortgageBalance;
+                rentNetWorth[year] = investmentValue;
+            }
+
+            if (breakEvenMonth < 0 && propertyValue - mortgageBalance >= investmentValue) {
+                breakEvenMonth = month;
+            }
+        }
+
+        return new RentVsBuySimulation(buyNetWorth, rentNetWorth, breakEvenMonth);
+    }
+
+    /**
+     * Get the buyer's net worth (property value minus outstanding mortgage) at a year end.
+     *
+     * @param year the year, 0 being the purchase date
+     * @return the net worth after buying
+     */
+    public double buyNetWorthAt(int year) {
+        return buyNetWorth[year];
+    }
+
+    /**
+     * Get the renter's net worth (investment portfolio) at a year end.
+     *
+     * @param year the year, 0 being the purchase date
+     * @return the net worth after renting
+     */
+    public double rentNetWorthAt(int year) {
+        return rentNetWorth[year];
+    }
+
+    /**
+     * Get the number of simulated years.
+     *
+     * @return the number of years
+     */
+    public int getYears() {
+        return buyNetWorth.length - 1;
+    }
+
+    /**
+     * Get the first month in which buying is at least as good as renting.
+     *
+     * @return the 1-based month, or -1 if buying never catches up
+     */
+    public int getBreakEvenMonth() {
+        return breakEvenMonth;
+    }
+
+    /**
+     * Get the break-even point in years, with month precision.
+     *
+     * @return the break-even point in years, or positive infinity if buying never catches up
+     */
+    public double breakEvenYears() {
+        return breakEvenMonth < 0 ? Double.POSITIVE_INFINITY : breakEvenMonth / 12.0;
+    }
+}
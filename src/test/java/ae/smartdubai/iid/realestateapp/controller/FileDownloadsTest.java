@@ -0,0 +1,214 @@
+package ae.smartdubai.iid.realestateapp.controller;
+
+import ae.smartdubai.iid.realestateapp.service.LocalReportStorage;
+import ae.smartdubai.iid.realestateapp.service.ReportStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileDownloadsTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    private static final String KEY = "report_abc123.pdf";
+
+    private LocalReportStorage storage;
+
+    @BeforeEach
+    public void setup(@TempDir Path storageDirectory) throws IOException {
+        storage = new LocalReportStorage(storageDirectory);
+        storage.store(KEY, outputStream -> outputStream.write("0123456789".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        return serve(storage, KEY, request);
+    }
+
+    private MockHttpServletResponse serve(ReportStorage reportStorage, String key,
+                                          MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FileDownloads.serve(reportStorage, key, ETAG, MediaType.APPLICATION_PDF, request, response);
+        return response;
+    }
+
+    @Test
+    public void testServeWholeFile() throws IOException {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("GET", "/download"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals(MediaType.APPLICATION_PDF_VALUE, response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment"));
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains(KEY));
+    }
+
+    @Test
+    public void testServeMissingFile() throws IOException {
+        MockHttpServletResponse response = serve(storage, "report_missing.pdf",
+                new MockHttpServletRequest("GET", "/download"));
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    public void testServeRangeFromRemoteStorage() throws IOException {
+        // A storage without local files, like S3, streams the requested range
+        ReportStorage remote = new ReportStorage() {
+            @Override
+            public void store(String key, ContentWriter writer) throws IOException {
+                storage.store(key, writer);
+            }
+
+            @Override
+            public Optional<StoredObject> stat(String key) throws IOException {
+                return storage.stat(key);
+            }
+
+            @Override
+            public Optional<StoredObject> touch(String key) throws IOException {
+                return storage.touch(key);
+            }
+
+            @Override
+            public InputStream open(String key, long offset, long length) throws IOException {
+                return storage.open(key, offset, length);
+            }
+
+            @Override
+            public void delete(String key) throws IOException {
+                storage.delete(key);
+            }
+
+            @Override
+            public boolean deleteIfUnmodifiedSince(String key, Instant lastModified) throws IOException {
+                return storage.deleteIfUnmodifiedSince(key, lastModified);
+            }
+
+            @Override
+            public Listing list(String cursor, int limit) throws IOException {
+                return storage.list(cursor, limit);
+            }
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=3-6");
+
+        MockHttpServletResponse response = serve(remote, KEY, request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("3456", response.getContentAsString());
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    }
+
+    @Test
+    public void testServeNotModified() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testServeRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testServeSuffixAndOpenRanges() throws IOException {
+        MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/download");
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletRequest open = new MockHttpServletRequest("GET", "/download");
+        open.addHeader(HttpHeaders.RANGE, "bytes=8-");
+
+        assertEquals("789", serve(suffix).getContentAsString());
+        assertEquals("89", serve(open).getContentAsString());
+    }
+
+    @Test
+    public void testServeUnsatisfiableRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testServeWholeFileWhenIfRangeDoesNotMatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    public void testServeWholeFileForMultipleRanges() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    public void testServeHeadWritesNoBody() throws IOException {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest("HEAD", "/download"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testServeWithSendfileLeavesBodyToTheConnector() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(storage.localPath(KEY).orElseThrow().toAbsolutePath().toString(),
+                request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(2L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    }
+}
@@ -0,0 +1,69 @@
+package ae.smartdubai.iid.realestateapp.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetPagesTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testCursorRoundTrip() {
+        assertEquals(0, KeysetPages.afterId(null));
+        assertEquals(0, KeysetPages.afterId(""));
+        assertEquals(42, KeysetPages.afterId(KeysetPages.cursor(42)));
+        assertEquals(Long.MAX_VALUE, KeysetPages.afterId(KeysetPages.cursor(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() {
+        String negative = Base64.getUrlEncoder().encodeToString("id:-1".getBytes(StandardCharsets.UTF_8));
+        String foreign = Base64.getUrlEncoder().encodeToString("offset:100".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("%%%", "42", negative, foreign)) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> KeysetPages.afterId(cursor));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+    }
+
+    @Test
+    public void testLimitIsCapped() {
+        assertEquals(KeysetPages.DEFAULT_LIMIT, KeysetPages.limit(null));
+        assertEquals(10, KeysetPages.limit(10));
+        assertEquals(KeysetPages.MAX_LIMIT, KeysetPages.limit(1_000_000));
+        assertThrows(ResponseStatusException.class, () -> KeysetPages.limit(0));
+    }
+
+    @Test
+    public void testRespondLinksToNextPage() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/loan-calculations");
+        request.setQueryString("from=2024-01-01&limit=2");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        ResponseEntity<List<Long>> full = KeysetPages.respond(List.of(3L, 5L, 8L), 2, Function.identity());
+        ResponseEntity<List<Long>> last = KeysetPages.respond(List.of(13L), 2, Function.identity());
+
+        assertEquals(List.of(3L, 5L), full.getBody());
+        assertEquals("<http://localhost/api/loan-calculations?from=2024-01-01&cursor="
+                + KeysetPages.cursor(5) + "&limit=2>; rel=\"next\"", full.getHeaders().getFirst(HttpHeaders.LINK));
+        assertEquals(List.of(13L), last.getBody());
+        assertFalse(last.getHeaders().containsKey(HttpHeaders.LINK));
+    }
+}
@@ -1,5 +1,6 @@
 package ae.smartdubai.iid.realestateapp.controller;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertySummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.service.PropertyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -76,21 +77,39 @@ public class PropertyControllerTest {
 
     @Test
     public void testGetAllProperties() throws Exception {
-        // Mock service method
-        when(propertyService.getAllProperties()).thenReturn(properties);
+        // Mock service method: one row more than the page size means there is a next page
+        PropertySummary summary1 = new PropertySummary();
+        summary1.setId(1L);
+        summary1.setName("Test Property 1");
+        PropertySummary summary2 = new PropertySummary();
+        summary2.setId(2L);
+        summary2.setName("Test Property 2");
+        when(propertyService.getPropertyPage(0, 2)).thenReturn(List.of(summary1, summary2));
+        when(propertyService.getPropertyPage(1, 3)).thenReturn(List.of(summary2));
 
         // Perform GET request and validate response
-        mockMvc.perform(get("/api/properties"))
+        mockMvc.perform(get("/api/properties").param("limit", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is("Test Property 1")))
-                .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].name", is("Test Property 2")));
+                .andExpect(header().string("Link", containsString("cursor=" + KeysetPages.cursor(1))));
+
+        // Follow the cursor to the last page, which has no Link header
+        mockMvc.perform(get("/api/properties").param("limit", "2").param("cursor", KeysetPages.cursor(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(header().doesNotExist("Link"));
+
+        // Reject cursors that were not issued by the server
+        mockMvc.perform(get("/api/properties").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
 
         // Verify service method was called
-        verify(propertyService, times(1)).getAllProperties();
+        verify(propertyService, times(1)).getPropertyPage(0, 2);
+        verify(propertyService, times(1)).getPropertyPage(1, 3);
     }
 
     @Test
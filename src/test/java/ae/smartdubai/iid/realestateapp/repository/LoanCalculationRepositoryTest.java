@@ -1,16 +1,19 @@
 package ae.smartdubai.iid.realestateapp.repository;
 
+import ae.smartdubai.iid.realestateapp.dto.LoanCalculationSummary;
 import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -138,6 +141,29 @@ public class LoanCalculationRepositoryTest {
         assertEquals(loanCalculation2, result.get()); // loanCalculation2 has a more recent date
     }
 
+    @Test
+    public void testFindLatestByPropertyIdIn() {
+        // Test finding only the latest loan calculation of each property
+        List<LoanCalculation> results = loanCalculationRepository.findLatestByPropertyIdIn(
+                List.of(property1.getId(), property2.getId()));
+
+        assertEquals(2, results.size());
+        assertTrue(results.contains(loanCalculation2));
+        assertTrue(results.contains(loanCalculation3));
+
+        // Test that of two calculations on the latest date the one saved last wins
+        LoanCalculation sameDay = new LoanCalculation();
+        sameDay.setProperty(property1);
+        sameDay.setLoanAmount(700000.0);
+        sameDay.setDownPayment(300000.0);
+        sameDay.setInterestRate(3.75);
+        sameDay.setTenureYears(20);
+        sameDay.setCalculationDate(loanCalculation2.getCalculationDate());
+        sameDay = loanCalculationRepository.save(sameDay);
+
+        assertEquals(List.of(sameDay), loanCalculationRepository.findLatestByPropertyIdIn(List.of(property1.getId())));
+    }
+
     @Test
     public void testFindByCalculationDateBetween() {
         // Test finding loan calculations by date range
@@ -204,4 +230,41 @@ public class LoanCalculationRepositoryTest {
         assertFalse(remainingCalculations.contains(loanCalculation1));
         assertFalse(remainingCalculations.contains(loanCalculation2));
     }
+
+    @Test
+    public void testFindPage() {
+        // Test walking all loan calculations in pages of two
+        List<LoanCalculationSummary> firstPage = loanCalculationRepository.findPage(0, null, null, PageRequest.of(0, 2));
+        assertEquals(List.of(loanCalculation1.getId(), loanCalculation2.getId()),
+                firstPage.stream().map(LoanCalculationSummary::getId).toList());
+        assertEquals(property1.getId(), firstPage.get(0).getPropertyId());
+
+        List<LoanCalculationSummary> lastPage = loanCalculationRepository.findPage(
+                loanCalculation2.getId(), null, null, PageRequest.of(0, 2));
+        assertEquals(List.of(loanCalculation3.getId()), lastPage.stream().map(LoanCalculationSummary::getId).toList());
+
+        // Test limiting the pages to a calculation date range
+        List<LoanCalculationSummary> inRange = loanCalculationRepository.findPage(
+                0, LocalDate.of(2023, 2, 1), null, PageRequest.of(0, 2));
+        assertEquals(List.of(loanCalculation2.getId(), loanCalculation3.getId()),
+                inRange.stream().map(LoanCalculationSummary::getId).toList());
+
+        List<LoanCalculationSummary> untilFebruary = loanCalculationRepository.findPage(
+                0, null, LocalDate.of(2023, 2, 28), PageRequest.of(0, 2));
+        assertEquals(List.of(loanCalculation1.getId(), loanCalculation2.getId()),
+                untilFebruary.stream().map(LoanCalculationSummary::getId).toList());
+    }
+
+    @Test
+    public void testStreamAll() {
+        // Test streaming all loan calculations in ID order with their properties
+        try (Stream<LoanCalculation> stream = loanCalculationRepository.streamAll()) {
+            List<LoanCalculation> calculations = stream.toList();
+
+            assertEquals(List.of(loanCalculation1.getId(), loanCalculation2.getId(), loanCalculation3.getId()),
+                    calculations.stream().map(LoanCalculation::getId).toList());
+            assertEquals(property1.getId(), calculations.get(0).getProperty().getId());
+            assertEquals(property2.getId(), calculations.get(2).getProperty().getId());
+        }
+    }
 }
\ No newline at end of file
@@ -2,15 +2,19 @@ package ae.smartdubai.iid.realestateapp.repository;
 
 import ae.smartdubai.iid.realestateapp.model.PdfReport;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +28,12 @@ public class PdfReportRepositoryTest {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private PropertyComparisonRepository propertyComparisonRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Property property1;
     private Property property2;
     private PdfReport report1;
@@ -259,4 +269,101 @@ public class PdfReportRepositoryTest {
         assertFalse(remainingReports.contains(report1));
         assertFalse(remainingReports.contains(report2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCountByFilePath() {
+        // A second report sharing the file of report1
+        PdfReport duplicate = new PdfReport();
+        duplicate.setProperty(property1);
+        duplicate.setTitle(report1.getTitle());
+        duplicate.setReportType(report1.getReportType());
+        duplicate.setFilePath(report1.getFilePath());
+        pdfReportRepository.save(duplicate);
+
+        // Verify counts
+        assertEquals(2, pdfReportRepository.countByFilePath("/reports/property1_cost_breakdown_20230115.pdf"));
+        assertEquals(1, pdfReportRepository.countByFilePath("/reports/property_comparison_20230310.pdf"));
+        assertEquals(0, pdfReportRepository.countByFilePath("/reports/missing.pdf"));
+    }
+
+    @Test
+    public void testFindReferencedFilePaths() {
+        Set<String> referenced = pdfReportRepository.findReferencedFilePaths(List.of(
+                "/reports/property1_cost_breakdown_20230115.pdf", "/reports/missing.pdf"));
+
+        assertEquals(Set.of("/reports/property1_cost_breakdown_20230115.pdf"), referenced);
+    }
+
+    @Test
+    public void testFindOldestReportsGeneratedBefore() {
+        List<PdfReport> results = pdfReportRepository.findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(
+                LocalDate.of(2023, 3, 1));
+
+        assertEquals(2, results.size());
+        assertEquals(report1.getId(), results.get(0).getId());
+        assertEquals(report2.getId(), results.get(1).getId());
+    }
+
+    @Test
+    public void testMarkStaleByPropertyIncludesComparisons() {
+        // report3 belongs to property2 but compares it with property1
+        PropertyComparison comparison = new PropertyComparison();
+        comparison.setProperty1(property1);
+        comparison.setProperty2(property2);
+        comparison.setIsRentVsBuy(false);
+        report3.setPropertyComparison(propertyComparisonRepository.save(comparison));
+        pdfReportRepository.save(report3);
+        LocalDateTime staleSince = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        int marked = pdfReportRepository.markStaleByProperty(property1.getId(), staleSince);
+        entityManager.clear();
+
+        assertEquals(3, marked);
+        for (PdfReport report : pdfReportRepository.findAll()) {
+            assertEquals(staleSince, report.getStaleSince());
+        }
+    }
+
+    @Test
+    public void testDeletePrintingPropertyIncludesComparisons() {
+        // report3 belongs to property2 but compares it with property1
+        PropertyComparison comparison = new PropertyComparison();
+        comparison.setProperty1(property2);
+        comparison.setProperty2(property1);
+        comparison.setIsRentVsBuy(false);
+        report3.setPropertyComparison(propertyComparisonRepository.save(comparison));
+        pdfReportRepository.save(report3);
+
+        List<String> filePaths = pdfReportRepository.findFilePathsPrintingProperty(property1.getId());
+        int deleted = pdfReportRepository.deletePrintingProperty(property1);
+        entityManager.clear();
+
+        assertEquals(Set.of(report1.getFilePath(), report2.getFilePath(), report3.getFilePath()),
+                Set.copyOf(filePaths));
+        assertEquals(3, deleted);
+        assertTrue(pdfReportRepository.findAll().isEmpty());
+    }
+
+    @Test
+    public void testReplaceFileUnlessMarkedStaleAgain() {
+        LocalDateTime staleSince = LocalDateTime.of(2024, 3, 1, 12, 0);
+        pdfReportRepository.markStaleByProperty(property2.getId(), staleSince);
+
+        // A regeneration that started before the last change must not clear the mark
+        assertEquals(0, pdfReportRepository.replaceFile(report3.getId(), staleSince.minusMinutes(5),
+                "report_old.pdf", 10L, "old", LocalDate.of(2024, 3, 1)));
+        assertEquals(1, pdfReportRepository.replaceFile(report3.getId(), staleSince,
+                "report_new.pdf", 12L, "new", LocalDate.of(2024, 3, 2)));
+
+        PdfReport regenerated = pdfReportRepository.findById(report3.getId()).orElseThrow();
+        assertEquals("report_new.pdf", regenerated.getFilePath());
+        assertEquals(12L, regenerated.getFileSize());
+        assertEquals("new", regenerated.getContentHash());
+        assertEquals(LocalDate.of(2024, 3, 2), regenerated.getGenerationDate());
+        assertNull(regenerated.getStaleSince());
+
+        // Reports that are up to date can be regenerated too
+        assertEquals(1, pdfReportRepository.replaceFile(report1.getId(), null,
+                "report_again.pdf", 8L, "again", LocalDate.of(2024, 3, 2)));
+    }
+}
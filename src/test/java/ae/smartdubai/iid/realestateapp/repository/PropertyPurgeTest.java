@@ -0,0 +1,183 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
+import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Purges a property with the statements {@code PropertyService.deleteProperty} issues, in the
+ * same order, against the real schema, so a foreign key left pointing at the property or one of
+ * its components fails the flush.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class PropertyPurgeTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PdfReportRepository pdfReportRepository;
+
+    @Autowired
+    private PropertyComparisonRepository propertyComparisonRepository;
+
+    @Autowired
+    private LoanCalculationRepository loanCalculationRepository;
+
+    @Autowired
+    private CostBreakdownRepository costBreakdownRepository;
+
+    @Autowired
+    private RentVsBuyAnalysisRepository rentVsBuyAnalysisRepository;
+
+    @Autowired
+    private ServiceChargeEstimateRepository serviceChargeEstimateRepository;
+
+    @Autowired
+    private DocumentChecklistRepository documentChecklistRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Property property1;
+    private Property property2;
+    private LoanCalculation loanCalculation2;
+    private PdfReport report2;
+
+    @BeforeEach
+    public void setup() {
+        property1 = propertyRepository.save(property("Test Property 1", 1000000.0));
+        property2 = propertyRepository.save(property("Test Property 2", 1500000.0));
+
+        LoanCalculation loanCalculation1 = loanCalculationRepository.save(loanCalculation(property1));
+        loanCalculation2 = loanCalculationRepository.save(loanCalculation(property2));
+
+        DocumentChecklist checklist1 = new DocumentChecklist();
+        checklist1.setProperty(property1);
+        checklist1.setBuyerType("INDIVIDUAL");
+        checklist1.setCreationDate(LocalDate.of(2023, 1, 15));
+        checklist1 = documentChecklistRepository.save(checklist1);
+
+        PropertyComparison comparison = new PropertyComparison();
+        comparison.setProperty1(property2);
+        comparison.setProperty2(property1);
+        comparison.setIsRentVsBuy(false);
+        comparison.setComparisonDate(LocalDate.of(2023, 2, 1));
+        comparison = propertyComparisonRepository.save(comparison);
+
+        // A report of property 1 with its checklist and loan calculation
+        PdfReport report1 = report(property1, "/reports/property1.pdf");
+        report1.setIncludesLoanCalculation(true);
+        report1.setLoanCalculation(loanCalculation1);
+        report1.setIncludesDocumentChecklist(true);
+        report1.setDocumentChecklist(checklist1);
+        pdfReportRepository.save(report1);
+
+        // A report of property 2 with its own loan calculation, which the purge keeps
+        report2 = report(property2, "/reports/property2.pdf");
+        report2.setIncludesLoanCalculation(true);
+        report2.setLoanCalculation(loanCalculation2);
+        report2 = pdfReportRepository.save(report2);
+
+        // A report of property 2 comparing it with property 1
+        PdfReport comparisonReport = report(property2, "/reports/comparison.pdf");
+        comparisonReport.setIncludesPropertyComparison(true);
+        comparisonReport.setPropertyComparison(comparison);
+        pdfReportRepository.save(comparisonReport);
+
+        // A report of property 2 with the loan calculation of property 1, saved before reports
+        // were checked to include only components of their own property
+        PdfReport crossReport = report(property2, "/reports/cross.pdf");
+        crossReport.setIncludesLoanCalculation(true);
+        crossReport.setLoanCalculation(loanCalculation1);
+        pdfReportRepository.save(crossReport);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static Property property(String name, Double price) {
+        Property property = new Property();
+        property.setName(name);
+        property.setLocation("Dubai Marina");
+        property.setPrice(price);
+        property.setSize(200.0);
+        property.setBedrooms(3);
+        property.setBathrooms(2);
+        property.setPropertyType("Apartment");
+        property.setCommunityName("Test Community");
+        property.setIsFurnished(false);
+        property.setYearBuilt(2020);
+        return property;
+    }
+
+    private static LoanCalculation loanCalculation(Property property) {
+        LoanCalculation loanCalculation = new LoanCalculation();
+        loanCalculation.setProperty(property);
+        loanCalculation.setLoanAmount(800000.0);
+        loanCalculation.setDownPayment(200000.0);
+        loanCalculation.setInterestRate(3.5);
+        loanCalculation.setTenureYears(25);
+        loanCalculation.setCalculationDate(LocalDate.of(2023, 1, 15));
+        return loanCalculation;
+    }
+
+    private static PdfReport report(Property property, String filePath) {
+        PdfReport pdfReport = new PdfReport();
+        pdfReport.setProperty(property);
+        pdfReport.setTitle("Report");
+        pdfReport.setReportType("COMPREHENSIVE");
+        pdfReport.setFilePath(filePath);
+        pdfReport.setGenerationDate(LocalDate.of(2023, 3, 1));
+        pdfReport.setIncludesCostBreakdown(false);
+        pdfReport.setIncludesLoanCalculation(false);
+        pdfReport.setIncludesPropertyComparison(false);
+        pdfReport.setIncludesDocumentChecklist(false);
+        pdfReport.setIncludesServiceChargeEstimate(false);
+        return pdfReport;
+    }
+
+    @Test
+    public void testPurgeProperty() {
+        // Test the files of every report that prints property 1 are found before the delete
+        List<String> filePaths = pdfReportRepository.findFilePathsPrintingProperty(property1.getId());
+        assertEquals(3, filePaths.size());
+        assertTrue(filePaths.containsAll(List.of("/reports/property1.pdf", "/reports/comparison.pdf",
+                "/reports/cross.pdf")));
+
+        // Test the purge leaves no row pointing at property 1 or its components
+        assertEquals(3, pdfReportRepository.deletePrintingProperty(property1));
+        assertEquals(1, propertyComparisonRepository.deleteByProperty1OrProperty2(property1, property1));
+        assertEquals(1, loanCalculationRepository.deleteByProperty(property1));
+        costBreakdownRepository.deleteByProperty(property1);
+        rentVsBuyAnalysisRepository.deleteByProperty(property1);
+        serviceChargeEstimateRepository.deleteByProperty(property1);
+        assertEquals(1, documentChecklistRepository.deleteByProperty(property1));
+        propertyRepository.delete(propertyRepository.findById(property1.getId()).orElseThrow());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Verify property 2 keeps its own report and calculation
+        assertFalse(propertyRepository.existsById(property1.getId()));
+        assertTrue(propertyRepository.existsById(property2.getId()));
+        assertEquals(List.of(report2.getId()), pdfReportRepository.findAll().stream().map(PdfReport::getId).toList());
+        assertEquals(List.of(loanCalculation2.getId()),
+                loanCalculationRepository.findAll().stream().map(LoanCalculation::getId).toList());
+        assertTrue(propertyComparisonRepository.findAll().isEmpty());
+        assertTrue(documentChecklistRepository.findAll().isEmpty());
+    }
+}
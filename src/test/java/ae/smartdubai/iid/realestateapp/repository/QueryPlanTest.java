@@ -0,0 +1,524 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.ShareOutboxEvent;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every repository query is answered through an index rather than a full table
+ * scan. Each query's SQL is captured from Hibernate before it runs and explained by H2 against
+ * seeded tables. The tables hold 10,000 rows each in the regular build; the queryPlanTest task
+ * runs the same checks on 1,000,000 rows each.
+ * <p>
+ * Queries that scan by nature, such as substring searches and filters on a flag, are listed
+ * with the reason in {@link #SCANS}. A new repository method fails the check until it is
+ * either covered by an index or listed there.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ae.smartdubai.iid.realestateapp.repository.QueryPlanTest$SqlCapture")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class QueryPlanTest {
+
+    private static final int ROWS = Integer.getInteger("queryPlan.rows", 10_000);
+
+    private static final Map<String, String> SCANS = Map.ofEntries(
+            Map.entry("PropertyRepository.findByLocationContainingIgnoreCase", "substring search"),
+            Map.entry("PropertyRepository.findByCommunityNameContainingIgnoreCase", "substring search"),
+            Map.entry("DocumentChecklistRepository.findByIsMortgageRequired", "flag matching a large share of rows"),
+            Map.entry("PropertyComparisonRepository.findByIsRentVsBuyTrue", "flag matching a large share of rows"),
+            Map.entry("PropertyComparisonRepository.findByIsRentVsBuyFalse", "flag matching a large share of rows"),
+            Map.entry("PdfReportRepository.findByIncludesCostBreakdownTrue", "flag matching a large share of rows"),
+            Map.entry("PdfReportRepository.findByIncludesLoanCalculationTrue", "flag matching a large share of rows"),
+            Map.entry("PdfReportRepository.findByIncludesPropertyComparisonTrue",
+                    "flag matching a large share of rows"),
+            Map.entry("PdfReportRepository.findByIncludesDocumentChecklistTrue", "flag matching a large share of rows"),
+            Map.entry("PdfReportRepository.findByIncludesServiceChargeEstimateTrue",
+                    "flag matching a large share of rows"),
+            Map.entry("LoanCalculationRepository.streamAll", "export of the whole table"),
+            Map.entry("CostBreakdownRepository.streamAll", "export of the whole table"),
+            Map.entry("RentVsBuyAnalysisRepository.streamAll", "export of the whole table"),
+            Map.entry("ServiceChargeEstimateRepository.streamAll", "export of the whole table"),
+            Map.entry("PropertyComparisonRepository.streamAll", "export of the whole table")
+    );
+
+    // A table read without any index condition, and a read of an index range
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* [\\w.\"]+\\.tableScan \\*/");
+    private static final Pattern INDEX_RANGE = Pattern.compile("/\\* [\\w.\"]+: ");
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private LoanCalculationRepository loanCalculationRepository;
+
+    @Autowired
+    private CostBreakdownRepository costBreakdownRepository;
+
+    @Autowired
+    private RentVsBuyAnalysisRepository rentVsBuyAnalysisRepository;
+
+    @Autowired
+    private ServiceChargeEstimateRepository serviceChargeEstimateRepository;
+
+    @Autowired
+    private PropertyComparisonRepository propertyComparisonRepository;
+
+    @Autowired
+    private DocumentChecklistRepository documentChecklistRepository;
+
+    @Autowired
+    private PdfReportRepository pdfReportRepository;
+
+    @Autowired
+    private ShareOutboxRepository shareOutboxRepository;
+
+    private final Set<String> checked = new HashSet<>();
+
+    private Property property;
+    private Property otherProperty;
+
+    private final LocalDate from = LocalDate.of(2020, 1, 1);
+    private final LocalDate to = LocalDate.of(2020, 12, 31);
+
+    @BeforeEach
+    public void setup() {
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+        property = propertyRepository.findById(1L).orElseThrow();
+        otherProperty = propertyRepository.findById(2L).orElseThrow();
+    }
+
+    @Test
+    public void testPropertyQueriesUseIndexes() {
+        assertIndexed(PropertyRepository.class, "findByPriceBetween",
+                () -> propertyRepository.findByPriceBetween(1_000_000.0, 2_000_000.0));
+        assertIndexed(PropertyRepository.class, "findByPropertyType",
+                () -> propertyRepository.findByPropertyType("villa"));
+        assertIndexed(PropertyRepository.class, "findByBedrooms", () -> propertyRepository.findByBedrooms(3));
+        assertIndexed(PropertyRepository.class, "findBySizeBetween",
+                () -> propertyRepository.findBySizeBetween(1000.0, 1500.0));
+        assertIndexed(PropertyRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> propertyRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+
+        assertAllChecked(PropertyRepository.class);
+    }
+
+    @Test
+    public void testLoanCalculationQueriesUseIndexes() {
+        assertIndexed(LoanCalculationRepository.class, "findByProperty",
+                () -> loanCalculationRepository.findByProperty(property));
+        assertIndexed(LoanCalculationRepository.class, "findLatestByPropertyIdIn",
+                () -> loanCalculationRepository.findLatestByPropertyIdIn(List.of(1L, 2L)));
+        assertIndexed(LoanCalculationRepository.class, "findFirstByPropertyOrderByCalculationDateDesc",
+                () -> loanCalculationRepository.findFirstByPropertyOrderByCalculationDateDesc(property));
+        assertIndexed(LoanCalculationRepository.class, "findByCalculationDateBetween",
+                () -> loanCalculationRepository.findByCalculationDateBetween(from, to));
+        assertIndexed(LoanCalculationRepository.class, "findByLoanAmountBetween",
+                () -> loanCalculationRepository.findByLoanAmountBetween(800_000.0, 900_000.0));
+        assertIndexed(LoanCalculationRepository.class, "findByInterestRateBetween",
+                () -> loanCalculationRepository.findByInterestRateBetween(3.0, 3.5));
+        assertIndexed(LoanCalculationRepository.class, "findByTenureYears",
+                () -> loanCalculationRepository.findByTenureYears(25));
+        assertIndexed(LoanCalculationRepository.class, "deleteByProperty",
+                () -> loanCalculationRepository.deleteByProperty(property));
+        assertIndexed(LoanCalculationRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> loanCalculationRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+        assertIndexed(LoanCalculationRepository.class, "findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc",
+                () -> loanCalculationRepository.findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc(
+                        from, to, 100L, PageRequest.of(0, 50)));
+
+        assertAllChecked(LoanCalculationRepository.class);
+    }
+
+    @Test
+    public void testCostBreakdownQueriesUseIndexes() {
+        assertIndexed(CostBreakdownRepository.class, "findByProperty",
+                () -> costBreakdownRepository.findByProperty(property));
+        assertIndexed(CostBreakdownRepository.class, "findLatestByPropertyIdIn",
+                () -> costBreakdownRepository.findLatestByPropertyIdIn(List.of(1L, 2L)));
+        assertIndexed(CostBreakdownRepository.class, "findFirstByPropertyOrderByCalculationDateDesc",
+                () -> costBreakdownRepository.findFirstByPropertyOrderByCalculationDateDesc(property));
+        assertIndexed(CostBreakdownRepository.class, "findByCalculationDateBetween",
+                () -> costBreakdownRepository.findByCalculationDateBetween(from, to));
+        assertIndexed(CostBreakdownRepository.class, "findByTotalCostBetween",
+                () -> costBreakdownRepository.findByTotalCostBetween(50_000.0, 60_000.0));
+        assertIndexed(CostBreakdownRepository.class, "deleteByProperty",
+                () -> costBreakdownRepository.deleteByProperty(property));
+        assertIndexed(CostBreakdownRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> costBreakdownRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+        assertIndexed(CostBreakdownRepository.class, "findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc",
+                () -> costBreakdownRepository.findByCalculationDateBetweenAndIdGreaterThanOrderByIdAsc(
+                        from, to, 100L, PageRequest.of(0, 50)));
+
+        assertAllChecked(CostBreakdownRepository.class);
+    }
+
+    @Test
+    public void testRentVsBuyAnalysisQueriesUseIndexes() {
+        assertIndexed(RentVsBuyAnalysisRepository.class, "findByProperty",
+                () -> rentVsBuyAnalysisRepository.findByProperty(property));
+        assertIndexed(RentVsBuyAnalysisRepository.class, "deleteByProperty",
+                () -> rentVsBuyAnalysisRepository.deleteByProperty(property));
+        assertIndexed(RentVsBuyAnalysisRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> rentVsBuyAnalysisRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+        assertIndexed(RentVsBuyAnalysisRepository.class, "findByAnalysisDateBetweenAndIdGreaterThanOrderByIdAsc",
+                () -> rentVsBuyAnalysisRepository.findByAnalysisDateBetweenAndIdGreaterThanOrderByIdAsc(
+                        from, to, 100L, PageRequest.of(0, 50)));
+
+        assertAllChecked(RentVsBuyAnalysisRepository.class);
+    }
+
+    @Test
+    public void testServiceChargeEstimateQueriesUseIndexes() {
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByProperty",
+                () -> serviceChargeEstimateRepository.findByProperty(property));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findLatestByPropertyIdIn",
+                () -> serviceChargeEstimateRepository.findLatestByPropertyIdIn(List.of(1L, 2L)));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findFirstByPropertyOrderByEstimateDateDesc",
+                () -> serviceChargeEstimateRepository.findFirstByPropertyOrderByEstimateDateDesc(property));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByCommunityName",
+                () -> serviceChargeEstimateRepository.findByCommunityName("community 7"));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByPropertyType",
+                () -> serviceChargeEstimateRepository.findByPropertyType("villa"));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByPropertySizeBetween",
+                () -> serviceChargeEstimateRepository.findByPropertySizeBetween(1000.0, 1500.0));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByAnnualServiceChargeBetween",
+                () -> serviceChargeEstimateRepository.findByAnnualServiceChargeBetween(10_000.0, 20_000.0));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByEstimateDateBetween",
+                () -> serviceChargeEstimateRepository.findByEstimateDateBetween(from, to));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByIsPreFilledTrue",
+                () -> serviceChargeEstimateRepository.findByIsPreFilledTrue());
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByIsPreFilledTrueAndCommunityName",
+                () -> serviceChargeEstimateRepository.findByIsPreFilledTrueAndCommunityName("community 7"));
+        assertIndexed(ServiceChargeEstimateRepository.class, "deleteByProperty",
+                () -> serviceChargeEstimateRepository.deleteByProperty(property));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> serviceChargeEstimateRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+        assertIndexed(ServiceChargeEstimateRepository.class, "findByEstimateDateBetweenAndIdGreaterThanOrderByIdAsc",
+                () -> serviceChargeEstimateRepository.findByEstimateDateBetweenAndIdGreaterThanOrderByIdAsc(
+                        from, to, 100L, PageRequest.of(0, 50)));
+
+        assertAllChecked(ServiceChargeEstimateRepository.class);
+    }
+
+    @Test
+    public void testPropertyComparisonQueriesUseIndexes() {
+        assertIndexed(PropertyComparisonRepository.class, "findByProperty1",
+                () -> propertyComparisonRepository.findByProperty1(property));
+        assertIndexed(PropertyComparisonRepository.class, "findByProperty2",
+                () -> propertyComparisonRepository.findByProperty2(property));
+        assertIndexed(PropertyComparisonRepository.class, "findByProperty1AndProperty2",
+                () -> propertyComparisonRepository.findByProperty1AndProperty2(property, otherProperty));
+        assertIndexed(PropertyComparisonRepository.class, "findFirstByProperty1OrderByComparisonDateDesc",
+                () -> propertyComparisonRepository.findFirstByProperty1OrderByComparisonDateDesc(property));
+        assertIndexed(PropertyComparisonRepository.class, "findByComparisonDateBetween",
+                () -> propertyComparisonRepository.findByComparisonDateBetween(from, to));
+        assertIndexed(PropertyComparisonRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> propertyComparisonRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+        assertIndexed(PropertyComparisonRepository.class, "findByComparisonDateBetweenAndIdGreaterThanOrderByIdAsc",
+                () -> propertyComparisonRepository.findByComparisonDateBetweenAndIdGreaterThanOrderByIdAsc(
+                        from, to, 100L, PageRequest.of(0, 50)));
+        assertIndexed(PropertyComparisonRepository.class, "deleteByProperty1",
+                () -> propertyComparisonRepository.deleteByProperty1(property));
+        assertIndexed(PropertyComparisonRepository.class, "deleteByProperty2",
+                () -> propertyComparisonRepository.deleteByProperty2(property));
+
+        assertAllChecked(PropertyComparisonRepository.class);
+    }
+
+    @Test
+    public void testDocumentChecklistQueriesUseIndexes() {
+        assertIndexed(DocumentChecklistRepository.class, "findByProperty",
+                () -> documentChecklistRepository.findByProperty(property));
+        assertIndexed(DocumentChecklistRepository.class, "findFirstByPropertyOrderByCreationDateDesc",
+                () -> documentChecklistRepository.findFirstByPropertyOrderByCreationDateDesc(property));
+        assertIndexed(DocumentChecklistRepository.class, "findByBuyerType",
+                () -> documentChecklistRepository.findByBuyerType("Investor"));
+        assertIndexed(DocumentChecklistRepository.class, "findBySelectedBank",
+                () -> documentChecklistRepository.findBySelectedBank("Bank 3"));
+        assertIndexed(DocumentChecklistRepository.class, "findByNationality",
+                () -> documentChecklistRepository.findByNationality("Nationality 12"));
+        assertIndexed(DocumentChecklistRepository.class, "findByResidenceStatus",
+                () -> documentChecklistRepository.findByResidenceStatus("Resident"));
+        assertIndexed(DocumentChecklistRepository.class, "findByCreationDateBetween",
+                () -> documentChecklistRepository.findByCreationDateBetween(from, to));
+        assertIndexed(DocumentChecklistRepository.class, "deleteByProperty",
+                () -> documentChecklistRepository.deleteByProperty(property));
+        assertIndexed(DocumentChecklistRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> documentChecklistRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+        assertIndexed(DocumentChecklistRepository.class, "findByCreationDateBetweenAndIdGreaterThanOrderByIdAsc",
+                () -> documentChecklistRepository.findByCreationDateBetweenAndIdGreaterThanOrderByIdAsc(
+                        from, to, 100L, PageRequest.of(0, 50)));
+
+        assertAllChecked(DocumentChecklistRepository.class);
+    }
+
+    @Test
+    public void testPdfReportQueriesUseIndexes() {
+        LocalDateTime staleSince = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        assertIndexed(PdfReportRepository.class, "findByProperty",
+                () -> pdfReportRepository.findByProperty(property));
+        assertIndexed(PdfReportRepository.class, "findFirstByPropertyOrderByGenerationDateDesc",
+                () -> pdfReportRepository.findFirstByPropertyOrderByGenerationDateDesc(property));
+        assertIndexed(PdfReportRepository.class, "findByReportType",
+                () -> pdfReportRepository.findByReportType("LOAN_CALCULATION"));
+        assertIndexed(PdfReportRepository.class, "findByGenerationDateBetween",
+                () -> pdfReportRepository.findByGenerationDateBetween(from, to));
+        assertIndexed(PdfReportRepository.class, "findBySharedToEmail",
+                () -> pdfReportRepository.findBySharedToEmail("buyer7@example.com"));
+        assertIndexed(PdfReportRepository.class, "findBySharedDateBetween",
+                () -> pdfReportRepository.findBySharedDateBetween(from, to));
+        assertIndexed(PdfReportRepository.class, "countByFilePath",
+                () -> pdfReportRepository.countByFilePath("reports/7.pdf"));
+        assertIndexed(PdfReportRepository.class, "findReferencedFilePaths",
+                () -> pdfReportRepository.findReferencedFilePaths(List.of("reports/7.pdf", "reports/8.pdf")));
+        assertIndexed(PdfReportRepository.class, "findTop500ByGenerationDateBeforeOrderByGenerationDateAsc",
+                () -> pdfReportRepository.findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(from));
+        assertIndexed(PdfReportRepository.class, "markStaleOfProperty",
+                () -> pdfReportRepository.markStaleOfProperty(1L, staleSince));
+        assertIndexed(PdfReportRepository.class, "markStaleComparingAsProperty1",
+                () -> pdfReportRepository.markStaleComparingAsProperty1(1L, staleSince));
+        assertIndexed(PdfReportRepository.class, "markStaleComparingAsProperty2",
+                () -> pdfReportRepository.markStaleComparingAsProperty2(1L, staleSince));
+        assertIndexed(PdfReportRepository.class, "replaceFile",
+                () -> pdfReportRepository.replaceFile(1L, null, "reports/new.pdf", 12L, "hash", to));
+        assertIndexed(PdfReportRepository.class, "deleteByProperty",
+                () -> pdfReportRepository.deleteByProperty(property));
+        assertIndexed(PdfReportRepository.class, "deleteComparingAsProperty1",
+                () -> pdfReportRepository.deleteComparingAsProperty1(1L));
+        assertIndexed(PdfReportRepository.class, "deleteComparingAsProperty2",
+                () -> pdfReportRepository.deleteComparingAsProperty2(1L));
+        assertIndexed(PdfReportRepository.class, "findFilePathsOfProperty",
+                () -> pdfReportRepository.findFilePathsOfProperty(1L));
+        assertIndexed(PdfReportRepository.class, "findFilePathsComparingAsProperty1",
+                () -> pdfReportRepository.findFilePathsComparingAsProperty1(1L));
+        assertIndexed(PdfReportRepository.class, "findFilePathsComparingAsProperty2",
+                () -> pdfReportRepository.findFilePathsComparingAsProperty2(1L));
+        assertIndexed(PdfReportRepository.class, "deleteWithCostBreakdownOf",
+                () -> pdfReportRepository.deleteWithCostBreakdownOf(1L));
+        assertIndexed(PdfReportRepository.class, "deleteWithLoanCalculationOf",
+                () -> pdfReportRepository.deleteWithLoanCalculationOf(1L));
+        assertIndexed(PdfReportRepository.class, "deleteWithDocumentChecklistOf",
+                () -> pdfReportRepository.deleteWithDocumentChecklistOf(1L));
+        assertIndexed(PdfReportRepository.class, "deleteWithServiceChargeEstimateOf",
+                () -> pdfReportRepository.deleteWithServiceChargeEstimateOf(1L));
+        assertIndexed(PdfReportRepository.class, "findFilePathsWithCostBreakdownOf",
+                () -> pdfReportRepository.findFilePathsWithCostBreakdownOf(1L));
+        assertIndexed(PdfReportRepository.class, "findFilePathsWithLoanCalculationOf",
+                () -> pdfReportRepository.findFilePathsWithLoanCalculationOf(1L));
+        assertIndexed(PdfReportRepository.class, "findFilePathsWithDocumentChecklistOf",
+                () -> pdfReportRepository.findFilePathsWithDocumentChecklistOf(1L));
+        assertIndexed(PdfReportRepository.class, "findFilePathsWithServiceChargeEstimateOf",
+                () -> pdfReportRepository.findFilePathsWithServiceChargeEstimateOf(1L));
+        assertIndexed(PdfReportRepository.class, "findByIdGreaterThanOrderByIdAsc",
+                () -> pdfReportRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 50)));
+        assertIndexed(PdfReportRepository.class, "findByGenerationDateBetweenAndIdGreaterThanOrderByIdAsc",
+                () -> pdfReportRepository.findByGenerationDateBetweenAndIdGreaterThanOrderByIdAsc(
+                        from, to, 100L, PageRequest.of(0, 50)));
+
+        assertAllChecked(PdfReportRepository.class);
+    }
+
+    @Test
+    public void testShareOutboxQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        assertIndexed(ShareOutboxRepository.class, "findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc",
+                () -> shareOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                        ShareOutboxEvent.Status.PENDING, now, PageRequest.of(0, 50)));
+        assertIndexed(ShareOutboxRepository.class, "findFirstByStatusOrderByCreatedAtAsc",
+                () -> shareOutboxRepository.findFirstByStatusOrderByCreatedAtAsc(ShareOutboxEvent.Status.PENDING));
+        assertIndexed(ShareOutboxRepository.class, "countByStatus",
+                () -> shareOutboxRepository.countByStatus(ShareOutboxEvent.Status.FAILED));
+        assertIndexed(ShareOutboxRepository.class, "findByPdfReportId",
+                () -> shareOutboxRepository.findByPdfReportId(7L));
+
+        assertAllChecked(ShareOutboxRepository.class);
+    }
+
+    /**
+     * Assert that the first statement a repository method issues reads every table through an
+     * index condition.
+     */
+    private void assertIndexed(Class<?> repository, String method, Runnable query) {
+        String plan = plan(query);
+        String name = repository.getSimpleName() + "." + method;
+        assertFalse(FULL_SCAN.matcher(plan).find(), name + " scans a table: " + plan);
+        assertTrue(INDEX_RANGE.matcher(plan).find(), name + " reads no index range: " + plan);
+        checked.add(method);
+    }
+
+    /**
+     * Assert that every query method of a repository has been checked or is a listed scan.
+     */
+    private void assertAllChecked(Class<?> repository) {
+        Set<String> unchecked = new TreeSet<>();
+        for (Method method : repository.getDeclaredMethods()) {
+            String name = method.getName();
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers()) && !checked.contains(name)
+                    && !SCANS.containsKey(repository.getSimpleName() + "." + name)) {
+                unchecked.add(name);
+            }
+        }
+        assertTrue(unchecked.isEmpty(), "Query plans not checked for " + repository.getSimpleName() + ": " + unchecked);
+    }
+
+    /**
+     * Capture the first statement a query issues, without running it, and get its H2 plan.
+     */
+    private String plan(Runnable query) {
+        SqlCapture.start();
+        try {
+            // Modifying queries need a transaction before they build their statement
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> query.run());
+        } catch (RuntimeException e) {
+            // Expected, the statement is aborted once it is captured
+        }
+        String sql = SqlCapture.stop();
+        assertNotNull(sql, "The query issued no statement");
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                // Plans are made when the statement is prepared, so the values do not matter
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private void seed() {
+        String rows = "from system_range(1, " + ROWS + ")";
+        String day = "dateadd(day, mod(x, 3650), date '2015-01-01')";
+        String propertyId = "mod(x * 7, " + ROWS + ") + 1";
+
+        jdbcTemplate.execute("insert into property (name, location, price, size, bedrooms, bathrooms, property_type, "
+                + "community_name, is_furnished, year_built) "
+                + "select 'Property ' || x, 'Location ' || mod(x, 200), 500000 + mod(x * 7919, 20000000), "
+                + "400 + mod(x * 31, 10000), mod(x, 6) + 1, mod(x, 5) + 1, "
+                + "case mod(x, 3) when 0 then 'Villa' when 1 then 'Apartment' else 'Townhouse' end, "
+                + "'Community ' || mod(x, 300), mod(x, 2) = 0, 1990 + mod(x, 35) " + rows);
+        jdbcTemplate.execute("insert into loan_calculation (property_id, loan_amount, down_payment, interest_rate, "
+                + "tenure_years, monthly_emi, total_interest, total_payable, loan_to_value_ratio, calculation_date) "
+                + "select " + propertyId + ", 400000 + mod(x * 7919, 5000000), 100000, 2.5 + mod(x, 400) / 100.0, "
+                + "5 + mod(x, 26), 4000, 300000, 1000000, 80, " + day + " " + rows);
+        jdbcTemplate.execute("insert into cost_breakdown (property_id, dld_fee, agency_fee, total_cost, "
+                + "calculation_date) "
+                + "select " + propertyId + ", 40000, 20000, 30000 + mod(x * 7919, 500000), " + day + " " + rows);
+        jdbcTemplate.execute("insert into rent_vs_buy_analysis (property_id, down_payment, interest_rate, "
+                + "loan_tenure_years, property_appreciation_rate, annual_maintenance_cost, annual_property_tax, "
+                + "monthly_rent, annual_rent_increase_rate, security_deposit, investment_return_rate, "
+                + "analysis_period_years, analysis_date) "
+                + "select " + propertyId + ", 200000, 4, 25, 3, 10000, 0, 8000, 5, 8000, 6, 10, " + day + " " + rows);
+        jdbcTemplate.execute("insert into service_charge_estimate (property_id, community_name, property_type, "
+                + "property_size, service_charge_rate_per_sq_ft, annual_service_charge, estimate_year, "
+                + "estimate_date, is_pre_filled) "
+                + "select " + propertyId + ", 'Community ' || mod(x, 300), "
+                + "case mod(x, 3) when 0 then 'Villa' when 1 then 'Apartment' else 'Townhouse' end, "
+                + "400 + mod(x * 31, 10000), 15, 6000 + mod(x * 7919, 100000), 2015 + mod(x, 10), "
+                + day + ", mod(x, 100) = 0 " + rows);
+        jdbcTemplate.execute("insert into property_comparison (property1_id, property2_id, is_rent_vs_buy, "
+                + "comparison_date) "
+                + "select " + propertyId + ", mod(x * 13, " + ROWS + ") + 1, mod(x, 2) = 0, " + day + " " + rows);
+        jdbcTemplate.execute("insert into document_checklist (property_id, buyer_type, selected_bank, nationality, "
+                + "residence_status, creation_date, is_mortgage_required) "
+                + "select " + propertyId + ", case mod(x, 3) when 0 then 'Investor' when 1 then 'End User' "
+                + "else 'First Time' end, 'Bank ' || mod(x, 20), 'Nationality ' || mod(x, 150), "
+                + "case mod(x, 2) when 0 then 'Resident' else 'Non-Resident' end, " + day + ", mod(x, 2) = 0 "
+                + rows);
+        jdbcTemplate.execute("insert into pdf_report (property_id, title, report_type, file_path, file_size, "
+                + "generation_date, shared_to_email, shared_date, includes_cost_breakdown, "
+                + "includes_loan_calculation, includes_property_comparison, includes_document_checklist, "
+                + "includes_service_charge_estimate, property_comparison_id) "
+                + "select " + propertyId + ", 'Report ' || x, "
+                + "case mod(x, 3) when 0 then 'LOAN_CALCULATION' when 1 then 'COST_BREAKDOWN' else 'FULL' end, "
+                + "'reports/' || x || '.pdf', 120, " + day + ", "
+                + "case when mod(x, 10) = 0 then 'buyer' || mod(x, 5000) || '@example.com' end, "
+                + "case when mod(x, 10) = 0 then " + day + " end, mod(x, 2) = 0, mod(x, 2) = 1, mod(x, 5) = 0, "
+                + "mod(x, 4) = 0, mod(x, 3) = 0, case when mod(x, 5) = 0 then x end " + rows);
+        jdbcTemplate.execute("insert into share_outbox_event (pdf_report_id, recipient, status, attempts, created_at, "
+                + "next_attempt_at) "
+                + "select x, 'buyer' || mod(x, 5000) || '@example.com', "
+                + "case when mod(x, 100) = 0 then 'PENDING' when mod(x, 100) = 1 then 'FAILED' else 'SENT' end, "
+                + "mod(x, 3), dateadd(minute, x, timestamp '2024-01-01 00:00:00'), "
+                + "dateadd(minute, x + 10, timestamp '2024-01-01 00:00:00') " + rows);
+        // Column statistics, so that H2 weighs the indexes as it would in production
+        jdbcTemplate.execute("analyze");
+    }
+
+    /**
+     * Hibernate statement inspector that, while capturing, records the first statement of the
+     * current thread and aborts it.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        private static final ThreadLocal<String[]> CAPTURED = new ThreadLocal<>();
+
+        static void start() {
+            CAPTURED.set(new String[1]);
+        }
+
+        static String stop() {
+            String[] captured = CAPTURED.get();
+            CAPTURED.remove();
+            return captured[0];
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String[] captured = CAPTURED.get();
+            if (captured == null) {
+                return sql;
+            }
+            if (captured[0] == null) {
+                captured[0] = sql;
+            }
+            throw new IllegalStateException("Captured for its query plan");
+        }
+    }
+}
@@ -175,9 +175,9 @@ public class ServiceChargeEstimateRepositoryTest {
     }
 
     @Test
-    public void testFindByCommunityNameIgnoreCase() {
+    public void testFindByCommunityName() {
         // Test finding service charge estimates by community name
-        List<ServiceChargeEstimate> results = serviceChargeEstimateRepository.findByCommunityNameIgnoreCase("dubai marina");
+        List<ServiceChargeEstimate> results = serviceChargeEstimateRepository.findByCommunityName("dubai marina");
         
         // Verify results
         assertEquals(3, results.size());
@@ -188,9 +188,9 @@ public class ServiceChargeEstimateRepositoryTest {
     }
 
     @Test
-    public void testFindByPropertyTypeIgnoreCase() {
+    public void testFindByPropertyType() {
         // Test finding service charge estimates by property type
-        List<ServiceChargeEstimate> results = serviceChargeEstimateRepository.findByPropertyTypeIgnoreCase("apartment");
+        List<ServiceChargeEstimate> results = serviceChargeEstimateRepository.findByPropertyType("apartment");
         
         // Verify results
         assertEquals(3, results.size());
@@ -259,9 +259,9 @@ public class ServiceChargeEstimateRepositoryTest {
     }
 
     @Test
-    public void testFindByIsPreFilledTrueAndCommunityNameIgnoreCase() {
+    public void testFindByIsPreFilledTrueAndCommunityName() {
         // Test finding pre-filled service charge estimates by community name
-        List<ServiceChargeEstimate> results = serviceChargeEstimateRepository.findByIsPreFilledTrueAndCommunityNameIgnoreCase("dubai marina");
+        List<ServiceChargeEstimate> results = serviceChargeEstimateRepository.findByIsPreFilledTrueAndCommunityName("dubai marina");
         
         // Verify results
         assertEquals(1, results.size());
@@ -0,0 +1,79 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import ae.smartdubai.iid.realestateapp.model.ShareOutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class ShareOutboxRepositoryTest {
+
+    @Autowired
+    private ShareOutboxRepository shareOutboxRepository;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @BeforeEach
+    public void setup() {
+        // Clear any existing data
+        shareOutboxRepository.deleteAll();
+
+        shareOutboxRepository.save(event(1L, ShareOutboxEvent.Status.PENDING, now.minusMinutes(10), now.minusMinutes(1)));
+        shareOutboxRepository.save(event(2L, ShareOutboxEvent.Status.PENDING, now.minusMinutes(5), now.minusMinutes(5)));
+        // Leased or backing off
+        shareOutboxRepository.save(event(3L, ShareOutboxEvent.Status.PENDING, now.minusMinutes(20), now.plusMinutes(1)));
+        shareOutboxRepository.save(event(4L, ShareOutboxEvent.Status.SENT, now.minusHours(1), now.minusHours(1)));
+        shareOutboxRepository.save(event(5L, ShareOutboxEvent.Status.FAILED, now.minusHours(2), now.minusHours(2)));
+    }
+
+    private static ShareOutboxEvent event(Long pdfReportId, ShareOutboxEvent.Status status, LocalDateTime createdAt,
+                                          LocalDateTime nextAttemptAt) {
+        ShareOutboxEvent event = new ShareOutboxEvent();
+        event.setPdfReportId(pdfReportId);
+        event.setRecipient("user" + pdfReportId + "@example.com");
+        event.setStatus(status);
+        event.setCreatedAt(createdAt);
+        event.setNextAttemptAt(nextAttemptAt);
+        return event;
+    }
+
+    @Test
+    public void testFindDueEventsOldestDueFirst() {
+        List<ShareOutboxEvent> due = shareOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                ShareOutboxEvent.Status.PENDING, now, PageRequest.of(0, 10));
+
+        assertEquals(List.of(2L, 1L), due.stream().map(ShareOutboxEvent::getPdfReportId).toList());
+
+        List<ShareOutboxEvent> limited = shareOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                ShareOutboxEvent.Status.PENDING, now, PageRequest.of(0, 1));
+        assertEquals(1, limited.size());
+        assertEquals(2L, limited.get(0).getPdfReportId());
+    }
+
+    @Test
+    public void testPendingQueueState() {
+        assertEquals(3, shareOutboxRepository.countByStatus(ShareOutboxEvent.Status.PENDING));
+        assertEquals(3L, shareOutboxRepository.findFirstByStatusOrderByCreatedAtAsc(ShareOutboxEvent.Status.PENDING)
+                .orElseThrow().getPdfReportId());
+    }
+
+    @Test
+    public void testVersionIsIncrementedOnUpdate() {
+        ShareOutboxEvent event = shareOutboxRepository.findByPdfReportId(1L).get(0);
+        Long version = event.getVersion();
+
+        event.setNextAttemptAt(now.plusMinutes(5));
+        shareOutboxRepository.saveAndFlush(event);
+
+        assertEquals(version + 1, shareOutboxRepository.findByPdfReportId(1L).get(0).getVersion());
+    }
+}
@@ -0,0 +1,154 @@
+package ae.smartdubai.iid.realestateapp.repository;
+
+import ae.smartdubai.iid.realestateapp.model.DocumentChecklist;
+import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the list queries run a fixed number of SQL statements however many rows they
+ * return, rather than one or more statements per row for the property and the element
+ * collections of each row.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class StatementCountTest {
+
+    private static final int ROWS = 100;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2023, 1, 1);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private LoanCalculationRepository loanCalculationRepository;
+
+    @Autowired
+    private DocumentChecklistRepository documentChecklistRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        // One property with two images, one loan calculation and one checklist per day
+        for (int i = 0; i < ROWS; i++) {
+            Property property = new Property();
+            property.setName("Property " + i);
+            property.setLocation("Dubai Marina");
+            property.setPrice(1000000.0 + i);
+            property.setSize(1200.0);
+            property.setBedrooms(2);
+            property.setBathrooms(2);
+            property.setPropertyType("Apartment");
+            property.setImages(List.of("https://example.com/" + i + "/1.jpg", "https://example.com/" + i + "/2.jpg"));
+            property = propertyRepository.save(property);
+
+            LoanCalculation loanCalculation = new LoanCalculation();
+            loanCalculation.setProperty(property);
+            loanCalculation.setLoanAmount(800000.0);
+            loanCalculation.setDownPayment(200000.0);
+            loanCalculation.setInterestRate(3.5);
+            loanCalculation.setTenureYears(25);
+            loanCalculation.setCalculationDate(FIRST_DATE.plusDays(i));
+            loanCalculationRepository.save(loanCalculation);
+
+            DocumentChecklist checklist = new DocumentChecklist();
+            checklist.setProperty(property);
+            checklist.setBuyerType("SALARIED");
+            checklist.setIdentityDocuments(List.of("Passport", "Emirates ID"));
+            checklist.setIncomeProofDocuments(List.of("Salary Certificate"));
+            checklist.setPropertyDocuments(List.of("Title Deed"));
+            checklist.setBankDocuments(List.of("Bank Statements"));
+            checklist.setVisaDocuments(List.of("Residence Visa"));
+            checklist.setAdditionalDocuments(List.of("Pre-approval Letter"));
+            checklist.setCreationDate(FIRST_DATE.plusDays(i));
+            documentChecklistRepository.save(checklist);
+        }
+        entityManager.flush();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testSummaryPagesRunOneStatement() {
+        // Test pages of 10 and of 100 rows, with and without a date range
+        assertEquals(1, statementsFor(() -> loanCalculationRepository.findPage(
+                0, null, null, PageRequest.of(0, 10))));
+        assertEquals(1, statementsFor(() -> loanCalculationRepository.findPage(
+                0, null, null, PageRequest.of(0, ROWS))));
+        assertEquals(1, statementsFor(() -> loanCalculationRepository.findPage(
+                0, FIRST_DATE, null, PageRequest.of(0, ROWS))));
+        assertEquals(1, statementsFor(() -> propertyRepository.findByIdGreaterThanOrderByIdAsc(
+                0L, PageRequest.of(0, ROWS))));
+        assertEquals(1, statementsFor(() -> documentChecklistRepository.findPage(
+                0, null, null, PageRequest.of(0, ROWS))));
+    }
+
+    @Test
+    public void testCalculationsLoadPropertiesAndImagesInBatches() {
+        // Test that 100 calculations with their properties and images take as many statements as 10
+        long ten = statementsFor(() -> readCalculations(10));
+        long hundred = statementsFor(() -> readCalculations(ROWS));
+
+        assertEquals(ten, hundred);
+        assertTrue(hundred <= 2, "statements: " + hundred);
+    }
+
+    @Test
+    public void testChecklistsLoadDocumentListsInBatches() {
+        // Test that 100 checklists with their six document lists take as many statements as 10
+        long ten = statementsFor(() -> readChecklists(10));
+        long hundred = statementsFor(() -> readChecklists(ROWS));
+
+        assertEquals(ten, hundred);
+        assertTrue(hundred <= 8, "statements: " + hundred);
+    }
+
+    private void readCalculations(int days) {
+        List<LoanCalculation> calculations = loanCalculationRepository.findByCalculationDateBetween(
+                FIRST_DATE, FIRST_DATE.plusDays(days - 1));
+        assertEquals(days, calculations.size());
+        for (LoanCalculation calculation : calculations) {
+            assertEquals(2, calculation.getProperty().getImages().size());
+        }
+    }
+
+    private void readChecklists(int days) {
+        List<DocumentChecklist> checklists = documentChecklistRepository.findByCreationDateBetween(
+                FIRST_DATE, FIRST_DATE.plusDays(days - 1));
+        assertEquals(days, checklists.size());
+        for (DocumentChecklist checklist : checklists) {
+            assertEquals(2, checklist.getIdentityDocuments().size());
+            assertEquals(1, checklist.getIncomeProofDocuments().size());
+            assertEquals(1, checklist.getPropertyDocuments().size());
+            assertEquals(1, checklist.getBankDocuments().size());
+            assertEquals(1, checklist.getVisaDocuments().size());
+            assertEquals(1, checklist.getAdditionalDocuments().size());
+            assertEquals(2, checklist.getProperty().getImages().size());
+        }
+    }
+
+    private long statementsFor(Runnable query) {
+        // Start from an empty persistence context so nothing is served from the rows saved in setup
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
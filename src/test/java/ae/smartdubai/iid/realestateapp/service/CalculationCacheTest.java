@@ -0,0 +1,68 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalculationCacheTest {
+
+    private CalculationCache calculationCache;
+
+    @BeforeEach
+    public void setup() {
+        calculationCache = new CalculationCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void testGetReturnsCopy() {
+        // Arrange
+        CalculationCache.Key key = CalculationCache.Key.of(CalculationMetrics.LOAN, 1L, 200000.0, 4.5, 25);
+        LoanCalculation loanCalculation = new LoanCalculation();
+        loanCalculation.setLoanAmount(800000.0);
+        calculationCache.put(key, loanCalculation);
+
+        // Act
+        LoanCalculation first = calculationCache.get(key, LoanCalculation.class);
+        first.setId(3L);
+        LoanCalculation second = calculationCache.get(key, LoanCalculation.class);
+
+        // Assert
+        assertEquals(800000.0, second.getLoanAmount());
+        assertNull(second.getId());
+        assertNotSame(loanCalculation, first);
+        assertEquals(2, calculationCache.hitCount());
+    }
+
+    @Test
+    public void testKeyNormalization() {
+        assertEquals(CalculationCache.Key.of(CalculationMetrics.SERVICE_CHARGE, 1L, "Dubai Marina", "Apartment", 100.0),
+                CalculationCache.Key.of(CalculationMetrics.SERVICE_CHARGE, 1L, "DUBAI MARINA", "apartment", 100.0));
+        assertEquals(CalculationCache.Key.of(CalculationMetrics.COST_BREAKDOWN, 1L, -0.0),
+                CalculationCache.Key.of(CalculationMetrics.COST_BREAKDOWN, 1L, 0.0));
+        assertNotEquals(CalculationCache.Key.of(CalculationMetrics.LOAN, 1L, 200000.0, 4.5, 25),
+                CalculationCache.Key.of(CalculationMetrics.LOAN, 2L, 200000.0, 4.5, 25));
+    }
+
+    @Test
+    public void testInvalidateProperty() {
+        // Arrange
+        CalculationCache.Key key1 = CalculationCache.Key.of(CalculationMetrics.LOAN, 1L, 200000.0, 4.5, 25);
+        CalculationCache.Key key2 = CalculationCache.Key.of(CalculationMetrics.LOAN, 2L, 200000.0, 4.5, 25);
+        calculationCache.put(key1, new LoanCalculation());
+        calculationCache.put(key2, new LoanCalculation());
+
+        // Act
+        calculationCache.invalidateProperty(1L);
+
+        // Assert
+        assertNull(calculationCache.get(key1, LoanCalculation.class));
+        assertNotNull(calculationCache.get(key2, LoanCalculation.class));
+        assertEquals(1, calculationCache.missCount());
+        assertEquals(1, calculationCache.hitCount());
+    }
+}
@@ -0,0 +1,103 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
+import ae.smartdubai.iid.realestateapp.repository.RentVsBuyAnalysisRepository;
+import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
+import ae.smartdubai.iid.realestateapp.util.RecordWriter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CalculationExportServiceTest {
+
+    @Mock
+    private LoanCalculationRepository loanCalculationRepository;
+
+    @Mock
+    private CostBreakdownRepository costBreakdownRepository;
+
+    @Mock
+    private RentVsBuyAnalysisRepository rentVsBuyAnalysisRepository;
+
+    @Mock
+    private ServiceChargeEstimateRepository serviceChargeEstimateRepository;
+
+    @Mock
+    private PropertyComparisonRepository propertyComparisonRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private CalculationExportService calculationExportService;
+
+    @Test
+    public void testExportLoanCalculations() throws IOException {
+        // Arrange
+        Property property = new Property();
+        property.setId(7L);
+        LoanCalculation calculation = new LoanCalculation();
+        calculation.setId(1L);
+        calculation.setProperty(property);
+        calculation.setLoanAmount(800000.0);
+        calculation.setInterestRate(3.5);
+        calculation.setTenureYears(25);
+        calculation.setCalculationDate(LocalDate.of(2023, 1, 15));
+        AtomicBoolean closed = new AtomicBoolean();
+        when(loanCalculationRepository.streamAll()).thenReturn(Stream.of(calculation).onClose(() -> closed.set(true)));
+        StringWriter writer = new StringWriter();
+
+        // Act
+        long count = calculationExportService.exportLoanCalculations(RecordWriter.Format.CSV, writer);
+
+        // Assert
+        assertEquals(1, count);
+        String[] lines = writer.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,propertyId,loanAmount,downPayment,interestRate,tenureYears,"));
+        assertEquals("1,7,800000,,3.5,25,,,,,2023-01-15,,,,", lines[1]);
+        assertTrue(closed.get());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    public void testExportClearsPersistenceContextInBatches() throws IOException {
+        // Arrange
+        int rows = 2 * CalculationExportService.CLEAR_INTERVAL + 1;
+        Stream<PropertyComparison> comparisons = LongStream.rangeClosed(1, rows)
+                .mapToObj(id -> {
+                    PropertyComparison comparison = new PropertyComparison();
+                    comparison.setId(id);
+                    return comparison;
+                });
+        when(propertyComparisonRepository.streamAll()).thenReturn(comparisons);
+        StringWriter writer = new StringWriter();
+
+        // Act
+        long count = calculationExportService.exportPropertyComparisons(RecordWriter.Format.NDJSON, writer);
+
+        // Assert
+        assertEquals(rows, count);
+        assertTrue(writer.toString().startsWith("{\"id\":1,\"property1Id\":null,\"property2Id\":null,"));
+        verify(entityManager, times(2)).clear();
+    }
+}
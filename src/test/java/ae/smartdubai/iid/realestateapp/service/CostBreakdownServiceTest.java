@@ -1,5 +1,6 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.CostBreakdownSummary;
 import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -29,6 +31,12 @@ public class CostBreakdownServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private CalculationMetrics calculationMetrics;
+
+    @Mock
+    private CalculationCache calculationCache;
+
     @InjectMocks
     private CostBreakdownService costBreakdownService;
 
@@ -103,18 +111,22 @@ public class CostBreakdownServiceTest {
     }
 
     @Test
-    public void testGetAllCostBreakdowns() {
+    public void testGetCostBreakdownPage() {
         // Arrange
-        List<CostBreakdown> expectedBreakdowns = Arrays.asList(costBreakdown1, costBreakdown2);
-        when(costBreakdownRepository.findAll()).thenReturn(expectedBreakdowns);
+        CostBreakdownSummary summary1 = new CostBreakdownSummary();
+        summary1.setId(1L);
+        CostBreakdownSummary summary2 = new CostBreakdownSummary();
+        summary2.setId(2L);
+        List<CostBreakdownSummary> expectedBreakdowns = Arrays.asList(summary1, summary2);
+        when(costBreakdownRepository.findPage(0L, null, null, PageRequest.of(0, 50))).thenReturn(expectedBreakdowns);
 
         // Act
-        List<CostBreakdown> actualBreakdowns = costBreakdownService.getAllCostBreakdowns();
+        List<CostBreakdownSummary> actualBreakdowns = costBreakdownService.getCostBreakdownPage(0, null, null, 50);
 
         // Assert
         assertEquals(expectedBreakdowns.size(), actualBreakdowns.size());
         assertEquals(expectedBreakdowns, actualBreakdowns);
-        verify(costBreakdownRepository, times(1)).findAll();
+        verify(costBreakdownRepository, times(1)).findPage(0L, null, null, PageRequest.of(0, 50));
     }
 
     @Test
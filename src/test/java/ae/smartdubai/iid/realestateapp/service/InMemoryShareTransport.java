@@ -0,0 +1,57 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Share transport for tests: keeps delivered messages in memory, can fail a number of
+ * deliveries first and records the highest number of deliveries that ran at once.
+ */
+class InMemoryShareTransport implements ShareTransport {
+
+    private final List<ShareMessage> delivered = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final long deliveryMillis;
+
+    InMemoryShareTransport(long deliveryMillis) {
+        this.deliveryMillis = deliveryMillis;
+    }
+
+    /**
+     * Fail the next deliveries.
+     */
+    void failNext(int failures) {
+        failuresLeft.set(failures);
+    }
+
+    List<ShareMessage> delivered() {
+        return delivered;
+    }
+
+    int maxRunning() {
+        return maxRunning.get();
+    }
+
+    @Override
+    public void send(ShareMessage message) throws IOException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            if (deliveryMillis > 0) {
+                Thread.sleep(deliveryMillis);
+            }
+            if (failuresLeft.getAndUpdate(left -> Math.max(left - 1, 0)) > 0) {
+                throw new IOException("Connection refused");
+            }
+            delivered.add(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.LoanCalculationSummary;
 import ae.smartdubai.iid.realestateapp.model.LoanCalculation;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -18,6 +20,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +32,12 @@ public class LoanCalculationServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private CalculationMetrics calculationMetrics;
+
+    @Mock
+    private CalculationCache calculationCache;
+
     @InjectMocks
     private LoanCalculationService loanCalculationService;
 
@@ -103,18 +112,22 @@ public class LoanCalculationServiceTest {
     }
 
     @Test
-    public void testGetAllLoanCalculations() {
+    public void testGetLoanCalculationPage() {
         // Arrange
-        List<LoanCalculation> expectedCalculations = Arrays.asList(loanCalculation1, loanCalculation2);
-        when(loanCalculationRepository.findAll()).thenReturn(expectedCalculations);
+        LoanCalculationSummary summary1 = new LoanCalculationSummary();
+        summary1.setId(1L);
+        LoanCalculationSummary summary2 = new LoanCalculationSummary();
+        summary2.setId(2L);
+        List<LoanCalculationSummary> expectedCalculations = Arrays.asList(summary1, summary2);
+        when(loanCalculationRepository.findPage(0L, null, null, PageRequest.of(0, 50))).thenReturn(expectedCalculations);
 
         // Act
-        List<LoanCalculation> actualCalculations = loanCalculationService.getAllLoanCalculations();
+        List<LoanCalculationSummary> actualCalculations = loanCalculationService.getLoanCalculationPage(0, null, null, 50);
 
         // Assert
         assertEquals(expectedCalculations.size(), actualCalculations.size());
         assertEquals(expectedCalculations, actualCalculations);
-        verify(loanCalculationRepository, times(1)).findAll();
+        verify(loanCalculationRepository, times(1)).findPage(0L, null, null, PageRequest.of(0, 50));
     }
 
     @Test
@@ -217,6 +230,45 @@ public class LoanCalculationServiceTest {
         assertNotNull(calculatedLoan.getCalculationDate());
         verify(propertyRepository, times(1)).findById(1L);
         verify(loanCalculationRepository, times(1)).save(any(LoanCalculation.class));
+        verify(calculationMetrics, times(1)).recordPersisted(CalculationMetrics.LOAN);
+    }
+
+    @Test
+    public void testPreviewLoan() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property1));
+
+        // Act
+        LoanCalculation previewedLoan = loanCalculationService.previewLoan(1L, 200000.0, 4.5, 25);
+
+        // Assert
+        assertNotNull(previewedLoan);
+        assertNull(previewedLoan.getId());
+        assertEquals(800000.0, previewedLoan.getLoanAmount());
+        assertEquals(4446.66, previewedLoan.getMonthlyEmi(), 1.0);
+        verify(loanCalculationRepository, never()).save(any());
+        verify(calculationMetrics, times(1)).recordPreview(CalculationMetrics.LOAN);
+        verify(calculationMetrics, never()).recordPersisted(any());
+    }
+
+    @Test
+    public void testPreviewLoanFromCache() {
+        // Arrange
+        LoanCalculation cachedLoan = new LoanCalculation();
+        cachedLoan.setProperty(property1);
+        cachedLoan.setLoanAmount(800000.0);
+        cachedLoan.setMonthlyEmi(4446.66);
+        cachedLoan.setCalculationDate(LocalDate.now().minusDays(1));
+        when(calculationCache.get(any(CalculationCache.Key.class), eq(LoanCalculation.class))).thenReturn(cachedLoan);
+
+        // Act
+        LoanCalculation previewedLoan = loanCalculationService.previewLoan(1L, 200000.0, 4.5, 25);
+
+        // Assert
+        assertEquals(800000.0, previewedLoan.getLoanAmount());
+        assertEquals(LocalDate.now(), previewedLoan.getCalculationDate());
+        verify(propertyRepository, never()).findById(any());
+        verify(calculationCache, never()).put(any(), any());
     }
 
     @Test
@@ -0,0 +1,156 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchRequest;
+import ae.smartdubai.iid.realestateapp.dto.LoanQuoteBatchResult;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationBatchRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.AnnuityMath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoanQuoteBatchServiceTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private LoanCalculationBatchRepository loanCalculationBatchRepository;
+
+    @InjectMocks
+    private LoanQuoteBatchService loanQuoteBatchService;
+
+    private Property property;
+
+    @BeforeEach
+    public void setup() {
+        property = new Property();
+        property.setId(1L);
+        property.setName("Test Property 1");
+        property.setLocation("Dubai Marina");
+        property.setPrice(1000000.0);
+    }
+
+    @Test
+    public void testQuoteLoans() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        LoanQuoteBatchRequest request = new LoanQuoteBatchRequest(1L,
+                new double[]{200000.0, 250000.0, 300000.0},
+                new double[]{4.5, 3.75, 5.0},
+                new int[]{25, 20, 30},
+                false);
+
+        // Act
+        LoanQuoteBatchResult result = loanQuoteBatchService.quoteLoans(request);
+
+        // Assert
+        assertEquals(3, result.getScenarioCount());
+        assertEquals(0, result.getPersistedCount());
+        assertEquals(800000.0, result.getLoanAmounts()[0]);
+        assertEquals(80.0, result.getLoanToValueRatios()[0]);
+        assertEquals(4446.66, result.getMonthlyEmis()[0], 0.01);
+
+        for (int i = 0; i < 3; i++) {
+            double loanAmount = result.getLoanAmounts()[i];
+            double monthlyRate = AnnuityMath.monthlyRate(request.getInterestRates()[i]);
+            int installments = request.getTenureYears()[i] * 12;
+
+            assertEquals(AnnuityMath.payment(loanAmount, monthlyRate, installments), result.getMonthlyEmis()[i], 1e-6);
+            assertEquals(result.getTotalPayables()[i] - loanAmount, result.getTotalInterests()[i], 1e-6);
+            assertEquals(AnnuityMath.interestPortion(loanAmount, monthlyRate, installments, installments),
+                    result.getLastEmiInterests()[i], 1e-6);
+            assertEquals(AnnuityMath.principalPortion(loanAmount, monthlyRate, installments, installments),
+                    result.getLastEmiPrincipals()[i], 1e-6);
+        }
+
+        // The property is loaded once for the whole batch and nothing is written
+        verify(propertyRepository, times(1)).findById(1L);
+        verify(loanCalculationBatchRepository, never()).insertAll(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testQuoteLoansWithPersistence() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(loanCalculationBatchRepository.insertAll(any(), any(), any(), any(), eq(LocalDate.now()))).thenReturn(2);
+        LoanQuoteBatchRequest request = new LoanQuoteBatchRequest(1L,
+                new double[]{200000.0, 250000.0},
+                new double[]{4.5, 3.75},
+                new int[]{25, 20},
+                true);
+
+        // Act
+        LoanQuoteBatchResult result = loanQuoteBatchService.quoteLoans(request);
+
+        // Assert
+        assertEquals(2, result.getPersistedCount());
+        verify(loanCalculationBatchRepository, times(1)).insertAll(eq(result), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testQuoteLoansMismatchedColumns() {
+        LoanQuoteBatchRequest request = new LoanQuoteBatchRequest(1L,
+                new double[]{200000.0, 250000.0},
+                new double[]{4.5},
+                new int[]{25, 20},
+                false);
+
+        assertThrows(IllegalArgumentException.class, () -> loanQuoteBatchService.quoteLoans(request));
+        verify(propertyRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testQuoteLoansInvalidScenario() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        LoanQuoteBatchRequest request = new LoanQuoteBatchRequest(1L,
+                new double[]{200000.0, 200000.0},
+                new double[]{4.5, 4.5},
+                new int[]{25, 36},
+                true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> loanQuoteBatchService.quoteLoans(request));
+        verify(loanCalculationBatchRepository, never()).insertAll(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testQuoteLoansZeroDownPayment() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        LoanQuoteBatchRequest request = new LoanQuoteBatchRequest(1L,
+                new double[]{200000.0, 0.0},
+                new double[]{4.5, 4.5},
+                new int[]{25, 25},
+                true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> loanQuoteBatchService.quoteLoans(request));
+        verify(loanCalculationBatchRepository, never()).insertAll(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void testQuoteLoansPropertyNotFound() {
+        // Arrange
+        when(propertyRepository.findById(3L)).thenReturn(Optional.empty());
+        LoanQuoteBatchRequest request = new LoanQuoteBatchRequest(3L,
+                new double[]{200000.0}, new double[]{4.5}, new int[]{25}, false);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> loanQuoteBatchService.quoteLoans(request));
+    }
+}
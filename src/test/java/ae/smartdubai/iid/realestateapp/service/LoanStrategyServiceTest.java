@@ -0,0 +1,118 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.LoanStrategyRanking;
+import ae.smartdubai.iid.realestateapp.dto.LoanStrategyRequest;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.MortgageScheduleEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LoanStrategyServiceTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @InjectMocks
+    private LoanStrategyService loanStrategyService;
+
+    private Property property;
+
+    @BeforeEach
+    public void setup() {
+        property = new Property();
+        property.setId(1L);
+        property.setName("Test Property 1");
+        property.setLocation("Dubai Marina");
+        property.setPrice(2000000.0);
+    }
+
+    private static LoanStrategyRequest.Strategy strategy(String name, int month, double amount,
+                                                         MortgageScheduleEngine.PrepaymentMode mode) {
+        return new LoanStrategyRequest.Strategy(name, new int[] {month}, new double[] {amount},
+                new MortgageScheduleEngine.PrepaymentMode[] {mode});
+    }
+
+    private static LoanStrategyRequest request(List<LoanStrategyRequest.Strategy> strategies) {
+        return new LoanStrategyRequest(1L, 400000.0, 3.99, 25, new int[] {37}, new double[] {5.75},
+                1.0, 10000.0, strategies);
+    }
+
+    @Test
+    public void testRankStrategies() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        List<LoanStrategyRequest.Strategy> strategies = Arrays.asList(
+                strategy("late emi", 120, 100000.0, MortgageScheduleEngine.PrepaymentMode.REDUCE_EMI),
+                strategy("early tenure", 12, 100000.0, MortgageScheduleEngine.PrepaymentMode.REDUCE_TENURE),
+                strategy("early emi", 12, 100000.0, MortgageScheduleEngine.PrepaymentMode.REDUCE_EMI));
+
+        // Act
+        LoanStrategyRanking ranking = loanStrategyService.rankStrategies(request(strategies));
+
+        // Assert
+        assertEquals(1600000.0, ranking.getLoanAmount());
+        assertEquals(300, ranking.getBaselinePayoffMonth());
+        assertEquals(3, ranking.getStrategies().size());
+        assertEquals("early tenure", ranking.getStrategies().get(0).getName());
+        assertEquals(1, ranking.getStrategies().get(0).getIndex());
+        assertEquals("late emi", ranking.getStrategies().get(2).getName());
+        for (int i = 1; i < 3; i++) {
+            assertTrue(ranking.getStrategies().get(i - 1).getInterestSaved() >= ranking.getStrategies().get(i).getInterestSaved());
+        }
+
+        LoanStrategyRanking.RankedStrategy best = ranking.getStrategies().get(0);
+        assertTrue(best.getPayoffMonth() < 300);
+        assertEquals(1000.0, best.getEarlySettlementFees(), 1e-9);
+        assertEquals(best.getInterestSaved() - 1000.0, best.getNetSaving(), 1e-9);
+        assertEquals(ranking.getBaselineTotalInterest() - best.getTotalInterest(), best.getInterestSaved(), 1e-9);
+        verify(propertyRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testRankStrategiesInvalidPrepaymentOrder() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        LoanStrategyRequest.Strategy unordered = new LoanStrategyRequest.Strategy("unordered",
+                new int[] {24, 12}, new double[] {1000.0, 1000.0},
+                new MortgageScheduleEngine.PrepaymentMode[] {
+                        MortgageScheduleEngine.PrepaymentMode.REDUCE_EMI, MortgageScheduleEngine.PrepaymentMode.REDUCE_EMI});
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> loanStrategyService.rankStrategies(request(List.of(unordered))));
+    }
+
+    @Test
+    public void testRankStrategiesInvalidRateStep() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        LoanStrategyRequest request = request(List.of(
+                strategy("tenure", 12, 100000.0, MortgageScheduleEngine.PrepaymentMode.REDUCE_TENURE)));
+        request.setRateStepMonths(new int[] {400});
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> loanStrategyService.rankStrategies(request));
+    }
+
+    @Test
+    public void testRankStrategiesPropertyNotFound() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> loanStrategyService.rankStrategies(request(List.of())));
+    }
+}
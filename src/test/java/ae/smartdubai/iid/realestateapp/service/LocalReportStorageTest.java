@@ -0,0 +1,169 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalReportStorageTest {
+
+    @TempDir
+    Path root;
+
+    private LocalReportStorage storage;
+
+    @BeforeEach
+    public void setup() {
+        storage = new LocalReportStorage(root);
+    }
+
+    private void store(String key, String content) throws IOException {
+        storage.store(key, outputStream -> outputStream.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String read(String key, long offset, long length) throws IOException {
+        try (InputStream inputStream = storage.open(key, offset, length)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testStoreShardsByKeyHash() throws IOException {
+        store("report_abc.pdf", "content");
+
+        Path path = storage.localPath("report_abc.pdf").orElseThrow();
+        assertTrue(Files.isRegularFile(path));
+        assertEquals("report_abc.pdf", path.getFileName().toString());
+        assertEquals(2, path.getParent().getFileName().toString().length());
+        assertEquals(2, path.getParent().getParent().getFileName().toString().length());
+        assertEquals(root, path.getParent().getParent().getParent());
+    }
+
+    @Test
+    public void testStatAndOpenRange() throws IOException {
+        store("report_abc.pdf", "0123456789");
+
+        ReportStorage.StoredObject stored = storage.stat("report_abc.pdf").orElseThrow();
+        assertEquals(10, stored.getSize());
+        assertNotNull(stored.getLastModified());
+        assertEquals("0123456789", read("report_abc.pdf", 0, 10));
+        assertEquals("345", read("report_abc.pdf", 3, 3));
+        assertTrue(storage.stat("report_missing.pdf").isEmpty());
+        assertFalse(storage.exists("report_missing.pdf"));
+    }
+
+    @Test
+    public void testTouchRefreshesModificationTime() throws IOException {
+        store("report_abc.pdf", "content");
+        Path path = storage.localPath("report_abc.pdf").orElseThrow();
+        Instant old = Instant.now().minus(Duration.ofDays(1));
+        Files.setLastModifiedTime(path, FileTime.from(old));
+
+        ReportStorage.StoredObject touched = storage.touch("report_abc.pdf").orElseThrow();
+
+        assertTrue(touched.getLastModified().isAfter(old.plus(Duration.ofHours(23))));
+        assertEquals(7, touched.getSize());
+        assertEquals("content", read("report_abc.pdf", 0, 7));
+        assertTrue(storage.touch("report_missing.pdf").isEmpty());
+    }
+
+    @Test
+    public void testStoreKeepsExistingAndDeletes() throws IOException {
+        store("report_abc.pdf", "first");
+        store("report_abc.pdf", "second");
+
+        // Stored objects never change, and no temporary file is left behind
+        assertEquals("first", read("report_abc.pdf", 0, 6));
+        try (Stream<Path> files = Files.list(storage.localPath("report_abc.pdf").orElseThrow().getParent())) {
+            assertEquals(1, files.count());
+        }
+
+        storage.delete("report_abc.pdf");
+        storage.delete("report_abc.pdf");
+        assertFalse(storage.exists("report_abc.pdf"));
+    }
+
+    @Test
+    public void testDeleteIfUnmodifiedSinceKeepsTouchedFile() throws IOException {
+        store("report_abc.pdf", "content");
+        Path path = storage.localPath("report_abc.pdf").orElseThrow();
+        Instant seen = Instant.now().minus(Duration.ofDays(1));
+        Files.setLastModifiedTime(path, FileTime.from(seen));
+
+        // Touched by a report that reuses the file after the janitor has seen it
+        storage.touch("report_abc.pdf");
+        assertFalse(storage.deleteIfUnmodifiedSince("report_abc.pdf", seen));
+        assertEquals("content", read("report_abc.pdf", 0, 7));
+        try (Stream<Path> files = Files.list(path.getParent())) {
+            assertEquals(1, files.count());
+        }
+
+        Instant touched = storage.stat("report_abc.pdf").orElseThrow().getLastModified();
+        assertTrue(storage.deleteIfUnmodifiedSince("report_abc.pdf", touched));
+        assertFalse(storage.exists("report_abc.pdf"));
+        assertTrue(storage.deleteIfUnmodifiedSince("report_abc.pdf", touched));
+    }
+
+    @Test
+    public void testFailedStoreLeavesNothingBehind() throws IOException {
+        store("report_abc.pdf", "complete");
+
+        assertThrows(IOException.class, () -> storage.store("report_abc.pdf", outputStream -> {
+            outputStream.write("partial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Renderer failed");
+        }));
+
+        assertEquals("complete", read("report_abc.pdf", 0, 8));
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void testInvalidKeysAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> storage.stat("../secrets.txt"));
+        assertThrows(IllegalArgumentException.class, () -> storage.stat("nested/report.pdf"));
+        assertThrows(IllegalArgumentException.class, () -> storage.stat(".hidden"));
+    }
+
+    @Test
+    public void testListPagesThroughAllObjects() throws IOException {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 25; i++) {
+            keys.add("report_" + i + ".pdf");
+            store("report_" + i + ".pdf", "content " + i);
+        }
+        // Left behind by an upload that never finished
+        Files.writeString(storage.localPath("report_0.pdf").orElseThrow().resolveSibling("report_0.pdf123.tmp"), "x");
+
+        Set<String> listed = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ReportStorage.Listing listing = storage.list(cursor, 10);
+            for (ReportStorage.ListedObject object : listing.getObjects()) {
+                assertTrue(listed.add(object.getKey()), "listed twice: " + object.getKey());
+                assertEquals(storage.stat(object.getKey()).orElseThrow().getSize(), object.getSize());
+            }
+            cursor = listing.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(keys, listed);
+        assertEquals(3, pages);
+        assertTrue(new LocalReportStorage(root.resolve("missing")).list(null, 10).getObjects().isEmpty());
+    }
+}
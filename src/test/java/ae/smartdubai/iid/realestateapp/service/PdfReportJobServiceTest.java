@@ -0,0 +1,214 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.PdfReportJob;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PdfReportJobServiceTest {
+
+    @Mock
+    private PdfReportService pdfReportService;
+
+    private ThreadPoolExecutor pdfReportExecutor;
+    private PdfReportJobService pdfReportJobService;
+
+    private PdfReport pdfReport;
+
+    @BeforeEach
+    public void setup() {
+        // One worker and room for one waiting job
+        pdfReportExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        pdfReportJobService = new PdfReportJobService(pdfReportService, pdfReportExecutor, Duration.ofMinutes(5), 100);
+
+        pdfReport = new PdfReport();
+        pdfReport.setTitle("Test Report");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pdfReportExecutor.shutdownNow();
+    }
+
+    private PdfReportJob submit() {
+        return pdfReportJobService.submitPdfReport(1L, "Test Report", true, 1L, false, null,
+                false, null, false, null, false, null);
+    }
+
+    private PdfReportJob awaitFinished(String jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            PdfReportJob job = pdfReportJobService.getJob(jobId).orElseThrow();
+            if (job.getStatus() == PdfReportJob.Status.COMPLETED || job.getStatus() == PdfReportJob.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+
+    private void stubPrepare() {
+        when(pdfReportService.prepareReport(eq(1L), anyString(), anyBoolean(), any(), anyBoolean(), isNull(),
+                anyBoolean(), isNull(), anyBoolean(), isNull(), anyBoolean(), isNull())).thenReturn(pdfReport);
+    }
+
+    @Test
+    public void testSubmitPdfReport() throws InterruptedException {
+        // Arrange
+        stubPrepare();
+        when(pdfReportService.renderReport(pdfReport)).thenReturn(pdfReport);
+        PdfReport saved = new PdfReport();
+        saved.setId(7L);
+        when(pdfReportService.saveReport(pdfReport)).thenReturn(saved);
+
+        // Act
+        PdfReportJob submitted = submit();
+        PdfReportJob finished = awaitFinished(submitted.getJobId());
+
+        // Assert
+        assertEquals(PdfReportJob.Status.QUEUED, submitted.getStatus());
+        assertEquals(PdfReportJob.Status.COMPLETED, finished.getStatus());
+        assertEquals(7L, finished.getReportId());
+        assertNotNull(finished.getStartedAt());
+        assertNotNull(finished.getFinishedAt());
+        verify(pdfReportService, times(1)).renderReport(pdfReport);
+        verify(pdfReportService, times(1)).saveReport(pdfReport);
+    }
+
+    @Test
+    public void testSubmitPdfReportRenderFailure() throws InterruptedException {
+        // Arrange
+        stubPrepare();
+        when(pdfReportService.renderReport(pdfReport)).thenThrow(new RuntimeException("Error generating PDF: disk full"));
+
+        // Act
+        PdfReportJob finished = awaitFinished(submit().getJobId());
+
+        // Assert
+        assertEquals(PdfReportJob.Status.FAILED, finished.getStatus());
+        assertEquals("Error generating PDF: disk full", finished.getError());
+        assertNull(finished.getReportId());
+        verify(pdfReportService, never()).saveReport(any());
+    }
+
+    @Test
+    public void testSubmitPdfReportRenderError() throws InterruptedException {
+        // Arrange
+        stubPrepare();
+        when(pdfReportService.renderReport(pdfReport)).thenThrow(new StackOverflowError("nested too deep"));
+
+        // Act
+        PdfReportJob finished = awaitFinished(submit().getJobId());
+
+        // Assert
+        assertEquals(PdfReportJob.Status.FAILED, finished.getStatus());
+        assertEquals("nested too deep", finished.getError());
+        verify(pdfReportService, never()).saveReport(any());
+    }
+
+    @Test
+    public void testLiveJobsAreNeverEvicted() throws InterruptedException {
+        // Arrange: no finished job is kept, and the worker is blocked
+        pdfReportJobService = new PdfReportJobService(pdfReportService, pdfReportExecutor, Duration.ofMinutes(5), 0);
+        stubPrepare();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(pdfReportService.renderReport(pdfReport)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return pdfReport;
+        });
+        when(pdfReportService.saveReport(pdfReport)).thenReturn(pdfReport);
+
+        // Act
+        PdfReportJob running = submit();
+        PdfReportJob queued = submit();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(PdfReportJob.Status.RUNNING,
+                pdfReportJobService.getJob(running.getJobId()).orElseThrow().getStatus());
+        assertEquals(PdfReportJob.Status.QUEUED,
+                pdfReportJobService.getJob(queued.getJobId()).orElseThrow().getStatus());
+        release.countDown();
+    }
+
+    @Test
+    public void testSubmitPdfReportRejectedWhenQueueIsFull() throws InterruptedException {
+        // Arrange: the first job blocks the only worker and the second fills the queue
+        stubPrepare();
+        CountDownLatch release = new CountDownLatch(1);
+        when(pdfReportService.renderReport(pdfReport)).thenAnswer(invocation -> {
+            release.await();
+            return pdfReport;
+        });
+        when(pdfReportService.saveReport(pdfReport)).thenReturn(pdfReport);
+        PdfReportJob running = submit();
+        PdfReportJob queued = submit();
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, this::submit);
+        assertEquals(1, pdfReportJobService.getQueueDepth());
+
+        release.countDown();
+        assertEquals(PdfReportJob.Status.COMPLETED, awaitFinished(running.getJobId()).getStatus());
+        assertEquals(PdfReportJob.Status.COMPLETED, awaitFinished(queued.getJobId()).getStatus());
+    }
+
+    @Test
+    public void testSubmitPdfReportPropertyNotFound() {
+        // Arrange
+        when(pdfReportService.prepareReport(eq(1L), anyString(), anyBoolean(), any(), anyBoolean(), isNull(),
+                anyBoolean(), isNull(), anyBoolean(), isNull(), anyBoolean(), isNull()))
+                .thenThrow(new RuntimeException("Property not found with id 1"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, this::submit);
+        assertEquals(0, pdfReportExecutor.getTaskCount());
+    }
+
+    @Test
+    public void testSubmitRegeneration() throws InterruptedException {
+        // Arrange
+        Property property = new Property();
+        property.setId(1L);
+        pdfReport.setId(7L);
+        pdfReport.setProperty(property);
+        when(pdfReportService.prepareRegeneration(7L)).thenReturn(pdfReport);
+        when(pdfReportService.renderReport(pdfReport)).thenReturn(pdfReport);
+        when(pdfReportService.saveRegeneratedReport(pdfReport)).thenReturn(pdfReport);
+
+        // Act
+        PdfReportJob finished = awaitFinished(pdfReportJobService.submitRegeneration(7L).getJobId());
+
+        // Assert
+        assertEquals(PdfReportJob.Status.COMPLETED, finished.getStatus());
+        assertEquals(7L, finished.getReportId());
+        verify(pdfReportService, never()).saveReport(any());
+    }
+
+    @Test
+    public void testGetUnknownJob() {
+        assertTrue(pdfReportJobService.getJob("unknown").isEmpty());
+    }
+}
@@ -0,0 +1,363 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.CostBreakdown;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.model.PropertyComparison;
+import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
+import ae.smartdubai.iid.realestateapp.repository.DocumentChecklistRepository;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
+import ae.smartdubai.iid.realestateapp.util.PdfRenderContext;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PdfReportServiceTest {
+
+    @Mock
+    private PdfReportRepository pdfReportRepository;
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private CostBreakdownRepository costBreakdownRepository;
+
+    @Mock
+    private LoanCalculationRepository loanCalculationRepository;
+
+    @Mock
+    private PropertyComparisonRepository propertyComparisonRepository;
+
+    @Mock
+    private DocumentChecklistRepository documentChecklistRepository;
+
+    @Mock
+    private ServiceChargeEstimateRepository serviceChargeEstimateRepository;
+
+    @Mock
+    private ShareOutboxService shareOutboxService;
+
+    @Mock
+    private ReportFileJanitor reportFileJanitor;
+
+    private ReportStorage reportStorage;
+    private PdfReportService pdfReportService;
+
+    private Property property;
+    private CostBreakdown costBreakdown;
+
+    @BeforeEach
+    public void setup(@TempDir Path storageDirectory) {
+        reportStorage = new LocalReportStorage(storageDirectory);
+        pdfReportService = new PdfReportService(pdfReportRepository, propertyRepository, costBreakdownRepository,
+                loanCalculationRepository, propertyComparisonRepository, documentChecklistRepository,
+                serviceChargeEstimateRepository, reportStorage, PdfRenderContext.standard(), shareOutboxService,
+                reportFileJanitor);
+
+        property = new Property();
+        property.setId(1L);
+        property.setName("Test Property 1");
+        property.setLocation("Dubai Marina");
+        property.setPrice(1600000.0);
+
+        costBreakdown = new CostBreakdown();
+        costBreakdown.setId(5L);
+        costBreakdown.setDldFee(64000.0);
+        costBreakdown.setAgencyFee(32000.0);
+        costBreakdown.setTotalCost(100000.0);
+    }
+
+    private PdfReport report(String title) {
+        PdfReport pdfReport = new PdfReport();
+        pdfReport.setProperty(property);
+        pdfReport.setTitle(title);
+        pdfReport.setGenerationDate(LocalDate.of(2024, 3, 1));
+        pdfReport.setIncludesCostBreakdown(true);
+        pdfReport.setIncludesLoanCalculation(false);
+        pdfReport.setIncludesPropertyComparison(false);
+        pdfReport.setIncludesDocumentChecklist(false);
+        pdfReport.setIncludesServiceChargeEstimate(false);
+        pdfReport.setCostBreakdown(costBreakdown);
+        return pdfReport;
+    }
+
+    private static String hash(PdfReport pdfReport) {
+        return ReportContentHash.of(pdfReport, PdfRenderContext.standard().getFingerprint());
+    }
+
+    private PdfReport render(PdfReport pdfReport) {
+        return pdfReportService.renderReport(pdfReport);
+    }
+
+    @Test
+    public void testContentHashDependsOnRenderedInputsOnly() {
+        String hash = hash(report("Report"));
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, hash(report("Report")));
+        assertNotEquals(hash, hash(report("Other Report")));
+
+        // A component that is not rendered does not change the hash
+        PdfReport excluded = report("Report");
+        excluded.setIncludesCostBreakdown(false);
+        PdfReport excludedWithOtherValues = report("Report");
+        excludedWithOtherValues.setIncludesCostBreakdown(false);
+        excludedWithOtherValues.setCostBreakdown(new CostBreakdown());
+        assertEquals(hash(excluded), hash(excludedWithOtherValues));
+
+        // The photo and the render context are part of the rendered output
+        PdfReport withPhoto = report("Report");
+        withPhoto.getProperty().setImages(List.of("https://images.example.com/1.jpg"));
+        assertNotEquals(hash, hash(withPhoto));
+        property.setImages(new ArrayList<>());
+        assertNotEquals(hash, ReportContentHash.of(report("Report"), "regular=NotoNaskhArabic.ttf"));
+
+        costBreakdown.setDldFee(64001.0);
+        assertNotEquals(hash, hash(report("Report")));
+    }
+
+    @Test
+    public void testRenderReportReusesFileForIdenticalInputs() throws IOException {
+        // Act
+        PdfReport first = render(report("Repeated Report"));
+        ReportStorage.StoredObject firstStored = reportStorage.stat(first.getFilePath()).orElseThrow();
+        // Age the file, as if the first report had been deleted long ago
+        Path file = reportStorage.localPath(first.getFilePath()).orElseThrow();
+        Instant old = Instant.now().minus(Duration.ofDays(1));
+        Files.setLastModifiedTime(file, FileTime.from(old));
+        byte[] firstContent = Files.readAllBytes(file);
+        PdfReport second = render(report("Repeated Report"));
+        PdfReport other = render(report("Different Report"));
+
+        // Assert: the file is reused as it is, with a fresh time so the janitor leaves it alone
+        assertEquals(first.getContentHash(), second.getContentHash());
+        assertEquals(first.getFilePath(), second.getFilePath());
+        assertArrayEquals(firstContent, Files.readAllBytes(file));
+        assertTrue(reportStorage.stat(second.getFilePath()).orElseThrow().getLastModified()
+                .isAfter(old.plus(Duration.ofHours(23))));
+        assertEquals("report_" + first.getContentHash() + ".pdf", first.getFilePath());
+        assertNotEquals(first.getFilePath(), other.getFilePath());
+        assertTrue(firstStored.getSize() > 0);
+        assertEquals(firstStored.getSize() / 1024, first.getFileSize());
+    }
+
+    @Test
+    public void testDeletePdfReportReleasesFileToJanitor() throws IOException {
+        // Arrange
+        PdfReport rendered = render(report("Single Report"));
+        rendered.setId(11L);
+        when(pdfReportRepository.findById(11L)).thenReturn(Optional.of(rendered));
+
+        // Act
+        pdfReportService.deletePdfReport(11L);
+
+        // Assert
+        verify(pdfReportRepository, times(1)).deleteById(11L);
+        verify(reportFileJanitor, times(1)).releaseFiles(List.of(rendered.getFilePath()));
+        // The file is deleted by the janitor, not in the request
+        assertTrue(reportStorage.exists(rendered.getFilePath()));
+    }
+
+    @Test
+    public void testDeleteAllPdfReportsForPropertyReleasesFilesToJanitor() {
+        // Arrange
+        PdfReport first = render(report("Property Report"));
+        PdfReport second = render(report("Other Property Report"));
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(pdfReportRepository.findFilePathsOfProperty(1L))
+                .thenReturn(List.of(first.getFilePath(), second.getFilePath()));
+
+        // Act
+        pdfReportService.deleteAllPdfReportsForProperty(1L);
+
+        // Assert
+        verify(pdfReportRepository, times(1)).deleteByProperty(property);
+        verify(pdfReportRepository, never()).findByProperty(any());
+        verify(reportFileJanitor, times(1)).releaseFiles(List.of(first.getFilePath(), second.getFilePath()));
+        verify(pdfReportRepository, never()).countByFilePath(anyString());
+    }
+
+    @Test
+    public void testDeletePdfReportsPrintingPropertyReleasesFilesToJanitor() {
+        // Arrange
+        List<String> filePaths = List.of("report_1.pdf", "report_2.pdf");
+        when(pdfReportRepository.findFilePathsPrintingProperty(1L)).thenReturn(filePaths);
+        when(pdfReportRepository.deletePrintingProperty(property)).thenReturn(2);
+
+        // Act
+        int deleted = pdfReportService.deletePdfReportsPrintingProperty(property);
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(reportFileJanitor, times(1)).releaseFiles(filePaths);
+    }
+
+    @Test
+    public void testSharePdfReportQueuesEmail() {
+        // Arrange
+        PdfReport pdfReport = report("Shared Report");
+        pdfReport.setId(12L);
+        when(pdfReportRepository.findById(12L)).thenReturn(Optional.of(pdfReport));
+        when(pdfReportRepository.save(pdfReport)).thenReturn(pdfReport);
+
+        // Act
+        PdfReport shared = pdfReportService.sharePdfReport(12L, "buyer@example.com");
+
+        // Assert
+        assertEquals("buyer@example.com", shared.getSharedToEmail());
+        assertNotNull(shared.getSharedDate());
+        verify(shareOutboxService, times(1)).enqueue(pdfReport, "buyer@example.com");
+    }
+
+    private static String text(byte[] pdf) throws IOException {
+        try (PDDocument document = PDDocument.load(pdf)) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+
+    @Test
+    public void testReportWithCachedSectionsMatchesFreshRender() throws IOException {
+        // Arrange: the first render caches the wrapped header and cost breakdown
+        PdfReport pdfReport = report("Cached Report");
+        pdfReportService.renderReportContent(pdfReport);
+        property.setPrice(1700000.0);
+        PdfReportService uncachedService = new PdfReportService(pdfReportRepository, propertyRepository,
+                costBreakdownRepository, loanCalculationRepository, propertyComparisonRepository,
+                documentChecklistRepository, serviceChargeEstimateRepository, reportStorage,
+                new PdfRenderContext(null, null, null, Set.of(), false, 0, Duration.ZERO, 0), shareOutboxService,
+                reportFileJanitor);
+
+        // Act: the header is laid out again, the cost breakdown comes from the cache
+        String regenerated = text(pdfReportService.renderReportContent(pdfReport));
+        String fresh = text(uncachedService.renderReportContent(pdfReport));
+
+        // Assert
+        assertEquals(fresh, regenerated);
+        assertTrue(regenerated.contains("Price: AED 1,700,000.00"));
+        assertTrue(regenerated.contains("64,000.00"));
+    }
+
+    @Test
+    public void testSaveRegeneratedReportReleasesPreviousFile() {
+        // Arrange
+        PdfReport stored = render(report("Regenerated Report"));
+        stored.setId(11L);
+        LocalDateTime staleSince = LocalDateTime.of(2024, 3, 2, 9, 0);
+        stored.setStaleSince(staleSince);
+        property.setPrice(1700000.0);
+        PdfReport regenerated = render(report("Regenerated Report"));
+        regenerated.setId(11L);
+        regenerated.setStaleSince(staleSince);
+        when(pdfReportRepository.findById(11L)).thenReturn(Optional.of(stored));
+        when(pdfReportRepository.replaceFile(11L, staleSince, regenerated.getFilePath(), regenerated.getFileSize(),
+                regenerated.getContentHash(), regenerated.getGenerationDate())).thenReturn(1);
+
+        // Act
+        pdfReportService.saveRegeneratedReport(regenerated);
+
+        // Assert
+        assertNotEquals(stored.getFilePath(), regenerated.getFilePath());
+        verify(reportFileJanitor, times(1)).releaseFiles(List.of(stored.getFilePath()));
+        assertTrue(reportStorage.exists(regenerated.getFilePath()));
+    }
+
+    @Test
+    public void testSaveRegeneratedReportFailsWhenMarkedStaleAgain() {
+        // Arrange
+        PdfReport stored = render(report("Regenerated Report"));
+        stored.setId(11L);
+        property.setPrice(1700000.0);
+        PdfReport regenerated = render(report("Regenerated Report"));
+        regenerated.setId(11L);
+        regenerated.setStaleSince(LocalDateTime.of(2024, 3, 2, 9, 0));
+        when(pdfReportRepository.findById(11L)).thenReturn(Optional.of(stored));
+        when(pdfReportRepository.replaceFile(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        // Act & Assert: the report keeps its file, the new one is handed to the janitor
+        assertThrows(RuntimeException.class, () -> pdfReportService.saveRegeneratedReport(regenerated));
+        verify(reportFileJanitor, times(1)).releaseFiles(List.of(regenerated.getFilePath()));
+        verify(reportFileJanitor, never()).releaseFiles(List.of(stored.getFilePath()));
+    }
+
+    @Test
+    public void testPrepareReportRejectsComponentOfAnotherProperty() {
+        // Arrange
+        Property otherProperty = new Property();
+        otherProperty.setId(2L);
+        costBreakdown.setProperty(otherProperty);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(costBreakdownRepository.findById(5L)).thenReturn(Optional.of(costBreakdown));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> pdfReportService.prepareReport(1L, "Report",
+                true, 5L, false, null, false, null, false, null, false, null));
+        verify(pdfReportRepository, never()).save(any());
+    }
+
+    @Test
+    public void testPrepareReportRejectsComparisonOfOtherProperties() {
+        // Arrange
+        Property otherProperty1 = new Property();
+        otherProperty1.setId(2L);
+        Property otherProperty2 = new Property();
+        otherProperty2.setId(3L);
+        PropertyComparison comparison = new PropertyComparison();
+        comparison.setId(6L);
+        comparison.setProperty1(otherProperty1);
+        comparison.setProperty2(otherProperty2);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyComparisonRepository.findById(6L)).thenReturn(Optional.of(comparison));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> pdfReportService.prepareReport(1L, "Report",
+                false, null, false, null, true, 6L, false, null, false, null));
+        verify(pdfReportRepository, never()).save(any());
+    }
+
+    @Test
+    public void testPrepareReportAcceptsComparisonWithItsProperty() {
+        // Arrange
+        Property otherProperty = new Property();
+        otherProperty.setId(2L);
+        PropertyComparison comparison = new PropertyComparison();
+        comparison.setId(6L);
+        comparison.setProperty1(otherProperty);
+        comparison.setProperty2(property);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        when(propertyComparisonRepository.findById(6L)).thenReturn(Optional.of(comparison));
+
+        // Act
+        PdfReport result = pdfReportService.prepareReport(1L, "Report",
+                false, null, false, null, true, 6L, false, null, false, null);
+
+        // Assert
+        assertSame(comparison, result.getPropertyComparison());
+    }
+}
@@ -0,0 +1,207 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.PdfReportJob;
+import ae.smartdubai.iid.realestateapp.dto.PortfolioReportJob;
+import ae.smartdubai.iid.realestateapp.dto.PortfolioReportRequest;
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PortfolioReportJobServiceTest {
+
+    @Mock
+    private PdfReportService pdfReportService;
+
+    private ThreadPoolExecutor pdfReportExecutor;
+    private ForkJoinPool pdfRenderPool;
+    private ReportStorage reportStorage;
+    private PortfolioReportJobService portfolioReportJobService;
+
+    @BeforeEach
+    public void setup(@TempDir Path storageDirectory) {
+        pdfReportExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        pdfRenderPool = new ForkJoinPool(2);
+        reportStorage = new LocalReportStorage(storageDirectory);
+        portfolioReportJobService = new PortfolioReportJobService(pdfReportService, pdfReportExecutor,
+                pdfRenderPool, reportStorage, Duration.ofMinutes(5), 100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pdfReportExecutor.shutdownNow();
+        pdfRenderPool.shutdownNow();
+    }
+
+    private List<PdfReport> reports(int count) {
+        List<PdfReport> pdfReports = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Property property = new Property();
+            property.setId(id);
+            property.setName("Marina Tower / Unit " + id);
+            PdfReport pdfReport = new PdfReport();
+            pdfReport.setProperty(property);
+            pdfReports.add(pdfReport);
+        }
+        return pdfReports;
+    }
+
+    private PortfolioReportJob submit(List<Long> propertyIds) {
+        return portfolioReportJobService.submitPortfolioReport(
+                new PortfolioReportRequest(propertyIds, "Portfolio", true, true, false));
+    }
+
+    private PortfolioReportJob awaitFinished(String jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            PortfolioReportJob job = portfolioReportJobService.getJob(jobId).orElseThrow();
+            if (job.getStatus() == PdfReportJob.Status.COMPLETED || job.getStatus() == PdfReportJob.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+
+    @Test
+    public void testSubmitPortfolioReport() throws Exception {
+        // Arrange
+        List<PdfReport> pdfReports = reports(12);
+        when(pdfReportService.preparePortfolioReports(anyList(), anyString(), anyBoolean(), anyBoolean(), anyBoolean()))
+                .thenReturn(pdfReports);
+        when(pdfReportService.renderReportContent(any(PdfReport.class)))
+                .thenAnswer(invocation -> ("%PDF " + invocation.<PdfReport>getArgument(0).getProperty().getId())
+                        .getBytes());
+
+        // Act
+        PortfolioReportJob submitted = submit(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L));
+        PortfolioReportJob finished = awaitFinished(submitted.getJobId());
+
+        // Assert
+        assertEquals(PdfReportJob.Status.QUEUED, submitted.getStatus());
+        assertEquals(PdfReportJob.Status.COMPLETED, finished.getStatus());
+        assertEquals(12, finished.getPropertyCount());
+        assertEquals(12, finished.getRenderedCount());
+        assertNotNull(finished.getFinishedAt());
+
+        String archive = portfolioReportJobService.getArchive(submitted.getJobId()).orElseThrow();
+        long size = reportStorage.stat(archive).orElseThrow().getSize();
+        Set<String> entries = new HashSet<>();
+        try (InputStream inputStream = reportStorage.open(archive, 0, size);
+             ZipInputStream zip = new ZipInputStream(inputStream)) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+                String id = entry.getName().substring(0, entry.getName().indexOf('_'));
+                assertEquals("%PDF " + id, new String(zip.readAllBytes()));
+            }
+        }
+        assertEquals(12, entries.size());
+        assertTrue(entries.contains("3_Marina_Tower_Unit_3.pdf"));
+        verify(pdfReportService, times(12)).renderReportContent(any(PdfReport.class));
+    }
+
+    @Test
+    public void testSubmitPortfolioReportRenderFailure() throws Exception {
+        // Arrange
+        when(pdfReportService.preparePortfolioReports(anyList(), anyString(), anyBoolean(), anyBoolean(), anyBoolean()))
+                .thenReturn(reports(3));
+        when(pdfReportService.renderReportContent(any(PdfReport.class)))
+                .thenThrow(new RuntimeException("Error generating PDF: font missing"));
+
+        // Act
+        PortfolioReportJob submitted = submit(List.of(1L, 2L, 3L));
+        PortfolioReportJob finished = awaitFinished(submitted.getJobId());
+
+        // Assert
+        assertEquals(PdfReportJob.Status.FAILED, finished.getStatus());
+        assertEquals("Error generating PDF: font missing", finished.getError());
+        assertTrue(portfolioReportJobService.getArchive(submitted.getJobId()).isEmpty());
+        assertFalse(reportStorage.exists(PortfolioReportJobService.archiveKey(submitted.getJobId())));
+    }
+
+    @Test
+    public void testSubmitPortfolioReportRenderError() throws Exception {
+        // Arrange
+        when(pdfReportService.preparePortfolioReports(anyList(), anyString(), anyBoolean(), anyBoolean(), anyBoolean()))
+                .thenReturn(reports(2));
+        when(pdfReportService.renderReportContent(any(PdfReport.class)))
+                .thenThrow(new StackOverflowError("nested too deep"));
+
+        // Act
+        PortfolioReportJob finished = awaitFinished(submit(List.of(1L, 2L)).getJobId());
+
+        // Assert
+        assertEquals(PdfReportJob.Status.FAILED, finished.getStatus());
+        assertEquals("nested too deep", finished.getError());
+    }
+
+    @Test
+    public void testSubmitPortfolioReportRepeatedProperty() throws Exception {
+        // Arrange
+        when(pdfReportService.preparePortfolioReports(eq(List.of(2L, 1L)), anyString(), anyBoolean(), anyBoolean(),
+                anyBoolean())).thenReturn(reports(2));
+        when(pdfReportService.renderReportContent(any(PdfReport.class))).thenReturn("%PDF".getBytes());
+
+        // Act
+        PortfolioReportJob submitted = submit(List.of(2L, 1L, 2L));
+        PortfolioReportJob finished = awaitFinished(submitted.getJobId());
+
+        // Assert
+        assertEquals(2, submitted.getPropertyCount());
+        assertEquals(PdfReportJob.Status.COMPLETED, finished.getStatus());
+        assertEquals(2, finished.getRenderedCount());
+    }
+
+    @Test
+    public void testSubmitPortfolioReportNullProperty() {
+        assertThrows(IllegalArgumentException.class, () -> submit(Arrays.asList(1L, null)));
+        verify(pdfReportService, never()).preparePortfolioReports(anyList(), anyString(), anyBoolean(),
+                anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testSubmitPortfolioReportInvalidPropertyCount() {
+        assertThrows(IllegalArgumentException.class, () -> submit(List.of()));
+        verify(pdfReportService, never()).preparePortfolioReports(anyList(), anyString(), anyBoolean(),
+                anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    public void testSubmitPortfolioReportPropertyNotFound() {
+        // Arrange
+        when(pdfReportService.preparePortfolioReports(anyList(), anyString(), anyBoolean(), anyBoolean(), anyBoolean()))
+                .thenThrow(new RuntimeException("Property not found with id 2"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> submit(List.of(1L, 2L)));
+        assertEquals(0, pdfReportExecutor.getTaskCount());
+    }
+}
@@ -1,20 +1,34 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.PropertySummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.CostBreakdownRepository;
+import ae.smartdubai.iid.realestateapp.repository.DocumentChecklistRepository;
+import ae.smartdubai.iid.realestateapp.repository.LoanCalculationRepository;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import ae.smartdubai.iid.realestateapp.repository.PropertyComparisonRepository;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.repository.RentVsBuyAnalysisRepository;
+import ae.smartdubai.iid.realestateapp.repository.ServiceChargeEstimateRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +37,33 @@ public class PropertyServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private CalculationCache calculationCache;
+
+    @Mock
+    private PdfReportRepository pdfReportRepository;
+
+    @Mock
+    private PdfReportService pdfReportService;
+
+    @Mock
+    private PropertyComparisonRepository propertyComparisonRepository;
+
+    @Mock
+    private LoanCalculationRepository loanCalculationRepository;
+
+    @Mock
+    private CostBreakdownRepository costBreakdownRepository;
+
+    @Mock
+    private RentVsBuyAnalysisRepository rentVsBuyAnalysisRepository;
+
+    @Mock
+    private ServiceChargeEstimateRepository serviceChargeEstimateRepository;
+
+    @Mock
+    private DocumentChecklistRepository documentChecklistRepository;
+
     @InjectMocks
     private PropertyService propertyService;
 
@@ -63,17 +104,22 @@ public class PropertyServiceTest {
     }
 
     @Test
-    public void testGetAllProperties() {
+    public void testGetPropertyPage() {
         // Arrange
-        when(propertyRepository.findAll()).thenReturn(properties);
+        PropertySummary summary1 = new PropertySummary();
+        summary1.setId(1L);
+        PropertySummary summary2 = new PropertySummary();
+        summary2.setId(2L);
+        List<PropertySummary> summaries = Arrays.asList(summary1, summary2);
+        when(propertyRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 50))).thenReturn(summaries);
 
         // Act
-        List<Property> result = propertyService.getAllProperties();
+        List<PropertySummary> result = propertyService.getPropertyPage(0, 50);
 
         // Assert
         assertEquals(2, result.size());
-        assertEquals(properties, result);
-        verify(propertyRepository, times(1)).findAll();
+        assertEquals(summaries, result);
+        verify(propertyRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 50));
     }
 
     @Test
@@ -182,6 +228,8 @@ public class PropertyServiceTest {
         assertEquals("Dubai Marina", result.getLocation()); // Unchanged field
         verify(propertyRepository, times(1)).findById(1L);
         verify(propertyRepository, times(1)).save(any(Property.class));
+        verify(calculationCache, times(1)).invalidateProperty(1L);
+        verify(pdfReportRepository, times(1)).markStaleByProperty(eq(1L), any(LocalDateTime.class));
 
         // Test property not found
         assertThrows(RuntimeException.class, () -> {
@@ -190,16 +238,63 @@ public class PropertyServiceTest {
         verify(propertyRepository, times(1)).findById(3L);
     }
 
+    @Test
+    public void testUpdatePropertyInvalidatesCacheAfterCommit() {
+        // Arrange
+        Property updatedDetails = new Property();
+        updatedDetails.setPrice(1100000.0);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property1));
+        when(propertyRepository.save(property1)).thenReturn(property1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            propertyService.updateProperty(1L, updatedDetails);
+
+            // Assert: a calculation running before the commit must not be able to re-cache old results
+            verify(calculationCache, never()).invalidateProperty(any());
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            verify(calculationCache, times(1)).invalidateProperty(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     public void testDeleteProperty() {
         // Arrange
-        doNothing().when(propertyRepository).deleteById(1L);
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property1));
 
         // Act
         propertyService.deleteProperty(1L);
 
+        // Assert: dependent rows go before the rows they point to, the property last
+        InOrder inOrder = inOrder(pdfReportService, propertyComparisonRepository, loanCalculationRepository,
+                documentChecklistRepository, propertyRepository);
+        inOrder.verify(pdfReportService).deletePdfReportsPrintingProperty(property1);
+        inOrder.verify(propertyComparisonRepository).deleteByProperty1OrProperty2(property1, property1);
+        inOrder.verify(loanCalculationRepository).deleteByProperty(property1);
+        inOrder.verify(documentChecklistRepository).deleteByProperty(property1);
+        inOrder.verify(propertyRepository).delete(property1);
+        verify(costBreakdownRepository, times(1)).deleteByProperty(property1);
+        verify(rentVsBuyAnalysisRepository, times(1)).deleteByProperty(property1);
+        verify(serviceChargeEstimateRepository, times(1)).deleteByProperty(property1);
+        verify(calculationCache, times(1)).invalidateProperty(1L);
+    }
+
+    @Test
+    public void testDeletePropertyNotFound() {
+        // Arrange
+        when(propertyRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        propertyService.deleteProperty(99L);
+
         // Assert
-        verify(propertyRepository, times(1)).deleteById(1L);
+        verifyNoInteractions(pdfReportService, loanCalculationRepository, calculationCache);
+        verify(propertyRepository, never()).delete(any());
     }
 
     @Test
@@ -233,7 +328,7 @@ public class PropertyServiceTest {
     @Test
     public void testFindPropertiesByType() {
         // Arrange
-        when(propertyRepository.findByPropertyTypeIgnoreCase("Apartment")).thenReturn(Arrays.asList(property1));
+        when(propertyRepository.findByPropertyType("Apartment")).thenReturn(Arrays.asList(property1));
 
         // Act
         List<Property> result = propertyService.findPropertiesByType("Apartment");
@@ -241,7 +336,7 @@ public class PropertyServiceTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(property1, result.get(0));
-        verify(propertyRepository, times(1)).findByPropertyTypeIgnoreCase("Apartment");
+        verify(propertyRepository, times(1)).findByPropertyType("Apartment");
     }
 
     @Test
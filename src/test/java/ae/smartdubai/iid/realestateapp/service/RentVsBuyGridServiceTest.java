@@ -0,0 +1,126 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuyGridRequest;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.RentVsBuyGrid;
+import ae.smartdubai.iid.realestateapp.util.RentVsBuySimulation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RentVsBuyGridServiceTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private ForkJoinPool simulationPool;
+    private RentVsBuyGridService rentVsBuyGridService;
+
+    private Property property;
+
+    @BeforeEach
+    public void setup() {
+        simulationPool = new ForkJoinPool(4);
+        rentVsBuyGridService = new RentVsBuyGridService(propertyRepository, simulationPool);
+
+        property = new Property();
+        property.setId(1L);
+        property.setName("Test Property 1");
+        property.setLocation("Dubai Marina");
+        property.setPrice(2000000.0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        simulationPool.shutdown();
+    }
+
+    private RentVsBuyGridRequest request(double[] rowValues, double[] columnValues) {
+        return new RentVsBuyGridRequest(1L, 400000.0, 4.5, 25, 3.0, 15000.0, 0.0, 8000.0, 3.0, 6.0, 20,
+                RentVsBuyGrid.Parameter.PROPERTY_APPRECIATION_RATE, rowValues,
+                RentVsBuyGrid.Parameter.ANNUAL_RENT_INCREASE_RATE, columnValues);
+    }
+
+    @Test
+    public void testWriteGrid() throws Exception {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        double[] rowValues = new double[40];
+        for (int i = 0; i < rowValues.length; i++) {
+            rowValues[i] = -10 + i * 0.5;
+        }
+        RentVsBuyGrid grid = rentVsBuyGridService.prepareGrid(request(rowValues, new double[] {0.0, 2.5, 5.0}));
+        StringWriter writer = new StringWriter();
+
+        // Act
+        rentVsBuyGridService.writeGrid(grid, writer);
+
+        // Assert
+        String[] lines = writer.toString().split("\n");
+        assertEquals(120, lines.length);
+        Set<String> cells = new HashSet<>();
+        for (String line : lines) {
+            cells.add(line.substring(0, line.indexOf(",\"rowValue\"")));
+        }
+        assertEquals(120, cells.size());
+
+        // Spot check one cell against the deterministic simulation
+        RentVsBuySimulation expected = RentVsBuySimulation.run(2000000.0, 400000.0, 4.5, 25,
+                -10.0, 15000.0, 0.0, 8000.0, 5.0, 6.0, 20);
+        String cell = findLine(lines, "{\"row\":0,\"column\":2,");
+        assertNotNull(cell);
+        assertTrue(cell.contains("\"isBuyingBetter\":" + (expected.buyNetWorthAt(20) > expected.rentNetWorthAt(20))));
+    }
+
+    private static String findLine(String[] lines, String prefix) {
+        for (String line : lines) {
+            if (line.startsWith(prefix)) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testPrepareGridInvalidAxisValue() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+
+        // Act & Assert: rent increase rates above 20% are rejected
+        assertThrows(IllegalArgumentException.class,
+                () -> rentVsBuyGridService.prepareGrid(request(new double[] {3.0}, new double[] {5.0, 25.0})));
+    }
+
+    @Test
+    public void testPrepareGridTooManyValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> rentVsBuyGridService.prepareGrid(
+                        request(new double[RentVsBuyGridService.MAX_AXIS_VALUES + 1], new double[] {3.0})));
+        verify(propertyRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testPrepareGridPropertyNotFound() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class,
+                () -> rentVsBuyGridService.prepareGrid(request(new double[] {3.0}, new double[] {3.0})));
+    }
+}
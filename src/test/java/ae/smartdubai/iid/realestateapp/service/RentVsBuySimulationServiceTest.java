@@ -0,0 +1,148 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuySimulationRequest;
+import ae.smartdubai.iid.realestateapp.dto.RentVsBuySimulationResult;
+import ae.smartdubai.iid.realestateapp.model.Property;
+import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
+import ae.smartdubai.iid.realestateapp.util.RentVsBuySimulation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RentVsBuySimulationServiceTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private ForkJoinPool singleThreadPool;
+    private ForkJoinPool parallelPool;
+    private RentVsBuySimulationService singleThreadService;
+    private RentVsBuySimulationService parallelService;
+
+    private Property property;
+
+    @BeforeEach
+    public void setup() {
+        singleThreadPool = new ForkJoinPool(1);
+        parallelPool = new ForkJoinPool(4);
+        singleThreadService = new RentVsBuySimulationService(propertyRepository, singleThreadPool);
+        parallelService = new RentVsBuySimulationService(propertyRepository, parallelPool);
+
+        property = new Property();
+        property.setId(1L);
+        property.setName("Test Property 1");
+        property.setLocation("Dubai Marina");
+        property.setPrice(2000000.0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        singleThreadPool.shutdown();
+        parallelPool.shutdown();
+    }
+
+    private RentVsBuySimulationRequest request(double volatility, int paths, Long seed) {
+        return new RentVsBuySimulationRequest(1L, 400000.0, 4.5, 25, 15000.0, 0.0, 8000.0, 20,
+                3.0, volatility, 3.0, volatility, 6.0, volatility, paths, seed);
+    }
+
+    @Test
+    public void testSimulateIsReproducibleAcrossThreadCounts() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+
+        // Act
+        RentVsBuySimulationResult single = singleThreadService.simulate(request(5.0, 10000, 42L));
+        RentVsBuySimulationResult parallel = parallelService.simulate(request(5.0, 10000, 42L));
+
+        // Assert
+        assertEquals(10000, single.getPaths());
+        assertEquals(42L, single.getSeed());
+        assertArrayEquals(single.getNetWorthAfterBuyingPercentiles(), parallel.getNetWorthAfterBuyingPercentiles());
+        assertArrayEquals(single.getNetWorthAfterRentingPercentiles(), parallel.getNetWorthAfterRentingPercentiles());
+        assertEquals(single.getProbabilityBuyingBetter(), parallel.getProbabilityBuyingBetter());
+        assertEquals(single.getMeanNetWorthAfterBuying(), parallel.getMeanNetWorthAfterBuying());
+    }
+
+    @Test
+    public void testSimulateDistribution() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+
+        // Act
+        RentVsBuySimulationResult result = parallelService.simulate(request(5.0, 20000, 7L));
+
+        // Assert
+        double[] percentiles = result.getPercentiles();
+        double[] buying = result.getNetWorthAfterBuyingPercentiles();
+        double[] renting = result.getNetWorthAfterRentingPercentiles();
+        assertEquals(percentiles.length, buying.length);
+        for (int i = 1; i < percentiles.length; i++) {
+            assertTrue(buying[i] >= buying[i - 1]);
+            assertTrue(renting[i] >= renting[i - 1]);
+        }
+        assertTrue(buying[0] < buying[buying.length - 1]);
+        assertTrue(result.getProbabilityBuyingBetter() > 0 && result.getProbabilityBuyingBetter() < 1);
+
+        RentVsBuySimulationResult otherSeed = parallelService.simulate(request(5.0, 20000, 8L));
+        assertNotEquals(result.getMeanNetWorthAfterBuying(), otherSeed.getMeanNetWorthAfterBuying());
+    }
+
+    @Test
+    public void testSimulateWithoutVolatilityMatchesDeterministicSimulation() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.of(property));
+        RentVsBuySimulation deterministic = RentVsBuySimulation.run(2000000.0, 400000.0, 4.5, 25,
+                3.0, 15000.0, 0.0, 8000.0, 3.0, 6.0, 20);
+
+        // Act
+        RentVsBuySimulationResult result = singleThreadService.simulate(request(0.0, 100, 1L));
+
+        // Assert
+        for (double value : result.getNetWorthAfterBuyingPercentiles()) {
+            assertEquals(deterministic.buyNetWorthAt(20), value, 1e-4);
+        }
+        for (double value : result.getNetWorthAfterRentingPercentiles()) {
+            assertEquals(deterministic.rentNetWorthAt(20), value, 1e-4);
+        }
+        double expectedProbability = deterministic.buyNetWorthAt(20) > deterministic.rentNetWorthAt(20) ? 1.0 : 0.0;
+        assertEquals(expectedProbability, result.getProbabilityBuyingBetter());
+    }
+
+    @Test
+    public void testSimulateInvalidPaths() {
+        assertThrows(IllegalArgumentException.class,
+                () -> parallelService.simulate(request(5.0, RentVsBuySimulationService.MAX_PATHS + 1, 1L)));
+        verify(propertyRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testSimulatePropertyNotFound() {
+        // Arrange
+        when(propertyRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> parallelService.simulate(request(5.0, 1000, 1L)));
+    }
+
+    @Test
+    public void testPercentile() {
+        double[] sorted = {1.0, 2.0, 3.0, 4.0, 5.0};
+
+        assertEquals(1.0, RentVsBuySimulationService.percentile(sorted, 0));
+        assertEquals(3.0, RentVsBuySimulationService.percentile(sorted, 50));
+        assertEquals(4.6, RentVsBuySimulationService.percentile(sorted, 90), 1e-9);
+        assertEquals(5.0, RentVsBuySimulationService.percentile(sorted, 100));
+    }
+}
@@ -0,0 +1,231 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.MeterNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportFileJanitorTest {
+
+    @Mock
+    private PdfReportRepository pdfReportRepository;
+
+    private Path storageDirectory;
+    private LocalReportStorage reportStorage;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup(@TempDir Path storageDirectory) {
+        this.storageDirectory = storageDirectory;
+        reportStorage = new LocalReportStorage(storageDirectory);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ReportFileJanitor janitor(int batchSize, Duration reportRetention, double deletesPerSecond) {
+        return new ReportFileJanitor(reportStorage, pdfReportRepository, meterRegistry, batchSize,
+                Duration.ofHours(1), Duration.ofHours(1), reportRetention, deletesPerSecond);
+    }
+
+    private void store(String key, Duration age) throws IOException {
+        reportStorage.store(key, outputStream -> outputStream.write(1));
+        Files.setLastModifiedTime(reportStorage.localPath(key).orElseThrow(),
+                FileTime.from(Instant.now().minus(age)));
+    }
+
+    private void referenced(String... keys) {
+        Set<String> referenced = Set.of(keys);
+        when(pdfReportRepository.findReferencedFilePaths(any())).thenAnswer(invocation -> {
+            Set<String> result = new HashSet<>(invocation.<Collection<String>>getArgument(0));
+            result.retainAll(referenced);
+            return result;
+        });
+    }
+
+    private double deleted(String reason) {
+        return meterRegistry.get("reports.janitor.deleted").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    public void testSweepDeletesOrphanedFilesAndExpiredArchives() throws IOException {
+        // Arrange
+        store("report_used.pdf", Duration.ofDays(2));
+        store("report_orphaned.pdf", Duration.ofDays(2));
+        // Stored moments ago, its report may not be saved yet
+        store("report_new.pdf", Duration.ofMinutes(1));
+        store("portfolio_old.zip", Duration.ofHours(3));
+        store("portfolio_recent.zip", Duration.ofMinutes(10));
+        store("unknown.bin", Duration.ofDays(2));
+        referenced("report_used.pdf");
+
+        // Act
+        janitor(100, Duration.ZERO, 0).run();
+
+        // Assert
+        assertTrue(reportStorage.exists("report_used.pdf"));
+        assertFalse(reportStorage.exists("report_orphaned.pdf"));
+        assertTrue(reportStorage.exists("report_new.pdf"));
+        assertFalse(reportStorage.exists("portfolio_old.zip"));
+        assertTrue(reportStorage.exists("portfolio_recent.zip"));
+        assertTrue(reportStorage.exists("unknown.bin"));
+        assertEquals(1, deleted("orphaned"));
+        assertEquals(1, deleted("expired-archive"));
+        verify(pdfReportRepository, never()).findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(any());
+    }
+
+    @Test
+    public void testSweepWalksStorageIncrementally() throws IOException {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            store("report_" + i + ".pdf", Duration.ofDays(2));
+        }
+        referenced();
+        ReportFileJanitor janitor = janitor(4, Duration.ZERO, 0);
+
+        // Act & Assert: every run handles one page of four files
+        janitor.run();
+        assertEquals(6, reportStorage.list(null, 100).getObjects().size());
+        janitor.run();
+        janitor.run();
+        assertTrue(reportStorage.list(null, 100).getObjects().isEmpty());
+        assertEquals(10, deleted("orphaned"));
+    }
+
+    @Test
+    public void testReleasedFilesAreDeletedUnlessShared() throws IOException {
+        // Arrange
+        store("report_shared.pdf", Duration.ofDays(2));
+        store("report_released.pdf", Duration.ofDays(2));
+        referenced("report_shared.pdf");
+        ReportFileJanitor janitor = janitor(100, Duration.ZERO, 0);
+
+        // Act
+        janitor.releaseFiles(List.of("report_shared.pdf", "report_released.pdf", "report_released.pdf"));
+        janitor.deleteReleasedFiles();
+
+        // Assert
+        assertTrue(reportStorage.exists("report_shared.pdf"));
+        assertFalse(reportStorage.exists("report_released.pdf"));
+        assertEquals(1, deleted("released"));
+    }
+
+    @Test
+    public void testYoungReleasedFilesAreKeptForALaterRun() throws IOException {
+        // Arrange: reused by a report whose row is not inserted yet
+        store("report_reused.pdf", Duration.ofMinutes(1));
+        referenced();
+        ReportFileJanitor janitor = janitor(100, Duration.ZERO, 0);
+
+        // Act
+        janitor.releaseFiles(List.of("report_reused.pdf"));
+        janitor.deleteReleasedFiles();
+
+        // Assert: kept, and deleted once it is old enough if still unused
+        assertTrue(reportStorage.exists("report_reused.pdf"));
+        Files.setLastModifiedTime(reportStorage.localPath("report_reused.pdf").orElseThrow(),
+                FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        janitor.deleteReleasedFiles();
+        assertFalse(reportStorage.exists("report_reused.pdf"));
+        assertEquals(1, deleted("released"));
+    }
+
+    @Test
+    public void testFileReusedAfterTheAgeCheckIsKept() throws IOException {
+        // Arrange: a report touches the file right after the janitor has checked its age
+        reportStorage = new LocalReportStorage(storageDirectory) {
+            @Override
+            public Optional<StoredObject> stat(String key) throws IOException {
+                Optional<StoredObject> stored = super.stat(key);
+                Files.setLastModifiedTime(localPath(key).orElseThrow(), FileTime.from(Instant.now()));
+                return stored;
+            }
+        };
+        store("report_reused.pdf", Duration.ofHours(2));
+        referenced();
+        ReportFileJanitor janitor = janitor(100, Duration.ZERO, 0);
+
+        // Act
+        janitor.releaseFiles(List.of("report_reused.pdf"));
+        janitor.deleteReleasedFiles();
+
+        // Assert
+        assertTrue(reportStorage.exists("report_reused.pdf"));
+        assertThrows(MeterNotFoundException.class, () -> deleted("released"));
+    }
+
+    @Test
+    public void testExpiredReportsAreDeletedWithTheirFiles() throws IOException {
+        // Arrange
+        store("report_expired.pdf", Duration.ofDays(31));
+        PdfReport expired = new PdfReport();
+        expired.setId(3L);
+        expired.setFilePath("report_expired.pdf");
+        when(pdfReportRepository.findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(
+                LocalDate.now().minusDays(30))).thenReturn(List.of(expired));
+        referenced();
+
+        // Act
+        janitor(100, Duration.ofDays(30), 0).run();
+
+        // Assert
+        verify(pdfReportRepository, times(1)).deleteAllInBatch(List.of(expired));
+        assertFalse(reportStorage.exists("report_expired.pdf"));
+    }
+
+    @Test
+    public void testRetentionShorterThanADayIsNotTruncated() {
+        // Arrange
+        when(pdfReportRepository.findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(any()))
+                .thenReturn(List.of());
+
+        // Act
+        janitor(100, Duration.ofHours(12), 0).expireReports();
+
+        // Assert: only reports generated on a day that ended more than 12 hours ago are deleted
+        verify(pdfReportRepository, times(1)).findTop500ByGenerationDateBeforeOrderByGenerationDateAsc(
+                LocalDateTime.now().minusHours(12).toLocalDate());
+    }
+
+    @Test
+    public void testDeletesAreRateLimited() throws IOException {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            store("report_" + i + ".pdf", Duration.ofDays(2));
+        }
+        referenced();
+
+        // Act
+        long start = System.nanoTime();
+        janitor(100, Duration.ZERO, 20).run();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Assert: 20 per second leaves 50 ms between deletes
+        assertEquals(5, deleted("orphaned"));
+        assertTrue(elapsedMillis >= 190, "took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,246 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for an S3-compatible object store, for tests: one bucket kept in memory,
+ * serving PUT (including copies within the bucket and If-None-Match), GET (with single byte
+ * ranges), HEAD and DELETE (including If-Unmodified-Since) on path-style URLs and ListObjectsV2 on the bucket, and rejecting
+ * requests whose Signature Version 4 Authorization header does not match the credentials.
+ */
+class S3StandIn implements AutoCloseable {
+
+    static final String BUCKET = "reports";
+    static final String REGION = "eu-west-1";
+    static final String ACCESS_KEY = "test-access-key";
+    static final String SECRET_KEY = "test-secret-key";
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    private final HttpServer server;
+    private final S3ReportStorage signer;
+    private final Map<String, StoredBytes> objects = new ConcurrentHashMap<>();
+
+    S3StandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        signer = new S3ReportStorage(endpoint(), BUCKET, REGION, ACCESS_KEY, SECRET_KEY);
+    }
+
+    URI endpoint() {
+        return URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + server.getAddress().getPort());
+    }
+
+    /**
+     * A storage client for the bucket, signing with the given secret key.
+     */
+    S3ReportStorage client(String secretKey) {
+        return new S3ReportStorage(endpoint(), BUCKET, REGION, ACCESS_KEY, secretKey);
+    }
+
+    boolean contains(String key) {
+        return objects.containsKey(key);
+    }
+
+    /**
+     * Put an object directly into the bucket, bypassing the API.
+     */
+    void put(String key, byte[] content, Instant lastModified) {
+        objects.put(key, new StoredBytes(content, lastModified));
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getRawPath();
+            String query = exchange.getRequestURI().getRawQuery() != null ? exchange.getRequestURI().getRawQuery() : "";
+            Map<String, String> amzHeaders = new TreeMap<>();
+            exchange.getRequestHeaders().forEach((name, values) -> {
+                String lowerCase = name.toLowerCase(Locale.ROOT);
+                if (lowerCase.startsWith("x-amz-") && !lowerCase.equals("x-amz-date")
+                        && !lowerCase.equals("x-amz-content-sha256")) {
+                    amzHeaders.put(lowerCase, values.get(0));
+                }
+            });
+            String expected = signer.authorization(method, path, query,
+                    exchange.getRequestHeaders().getFirst("Host"),
+                    exchange.getRequestHeaders().getFirst("x-amz-date"), amzHeaders);
+            if (!expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                drain(exchange);
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+
+            if (path.equals("/" + BUCKET) && method.equals("GET")) {
+                list(exchange, query);
+                return;
+            }
+            String prefix = "/" + BUCKET + "/";
+            if (!path.startsWith(prefix)) {
+                drain(exchange);
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            String key = path.substring(prefix.length());
+
+            switch (method) {
+                case "PUT" -> {
+                    byte[] content = exchange.getRequestBody().readAllBytes();
+                    String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+                    if (copySource != null) {
+                        StoredBytes source = objects.get(copySource.substring(BUCKET.length() + 1));
+                        if (source == null) {
+                            exchange.sendResponseHeaders(404, -1);
+                            return;
+                        }
+                        content = source.content;
+                    } else if ("*".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))
+                            && objects.containsKey(key)) {
+                        exchange.sendResponseHeaders(412, -1);
+                        return;
+                    }
+                    objects.put(key, new StoredBytes(content, Instant.now().truncatedTo(ChronoUnit.SECONDS)));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "HEAD" -> {
+                    StoredBytes stored = objects.get(key);
+                    if (stored == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(stored.content.length));
+                    exchange.getResponseHeaders().set("Last-Modified", httpDate(stored.lastModified));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> get(exchange, objects.get(key));
+                case "DELETE" -> {
+                    String unmodifiedSince = exchange.getRequestHeaders().getFirst("If-Unmodified-Since");
+                    StoredBytes stored = objects.get(key);
+                    if (unmodifiedSince != null && stored != null && stored.lastModified.isAfter(
+                            ZonedDateTime.parse(unmodifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant())) {
+                        exchange.sendResponseHeaders(412, -1);
+                        return;
+                    }
+                    objects.remove(key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private static void get(HttpExchange exchange, StoredBytes stored) throws IOException {
+        if (stored == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        int start = 0;
+        int end = stored.content.length - 1;
+        int status = 200;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null) {
+            Matcher matcher = RANGE.matcher(range);
+            if (!matcher.matches()) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            start = Integer.parseInt(matcher.group(1));
+            end = Math.min(Integer.parseInt(matcher.group(2)), stored.content.length - 1);
+            if (start > end) {
+                exchange.sendResponseHeaders(416, -1);
+                return;
+            }
+            status = 206;
+            exchange.getResponseHeaders().set("Content-Range",
+                    "bytes " + start + "-" + end + "/" + stored.content.length);
+        }
+        exchange.getResponseHeaders().set("Last-Modified", httpDate(stored.lastModified));
+        exchange.sendResponseHeaders(status, end - start + 1);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(stored.content, start, end - start + 1);
+        }
+    }
+
+    private void list(HttpExchange exchange, String query) throws IOException {
+        Map<String, String> parameters = new TreeMap<>();
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+            }
+        }
+        int maxKeys = Integer.parseInt(parameters.getOrDefault("max-keys", "1000"));
+        String startAfter = parameters.getOrDefault("start-after", "");
+
+        List<String> keys = new TreeMap<>(objects).keySet().stream()
+                .filter(key -> key.compareTo(startAfter) > 0)
+                .toList();
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                + "<Name>" + BUCKET + "</Name>"
+                + "<IsTruncated>" + (keys.size() > maxKeys) + "</IsTruncated>");
+        for (String key : keys.subList(0, Math.min(maxKeys, keys.size()))) {
+            StoredBytes stored = objects.get(key);
+            xml.append("<Contents><Key>").append(key).append("</Key>")
+                    .append("<LastModified>").append(DateTimeFormatter.ISO_INSTANT.format(stored.lastModified))
+                    .append("</LastModified>")
+                    .append("<Size>").append(stored.content.length).append("</Size></Contents>");
+        }
+        xml.append("</ListBucketResult>");
+
+        byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static String httpDate(Instant instant) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(instant.atOffset(ZoneOffset.UTC));
+    }
+
+    private static final class StoredBytes {
+        private final byte[] content;
+        private final Instant lastModified;
+
+        StoredBytes(byte[] content, Instant lastModified) {
+            this.content = content;
+            this.lastModified = lastModified;
+        }
+    }
+}
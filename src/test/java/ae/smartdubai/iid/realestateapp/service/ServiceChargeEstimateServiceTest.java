@@ -1,5 +1,6 @@
 package ae.smartdubai.iid.realestateapp.service;
 
+import ae.smartdubai.iid.realestateapp.dto.ServiceChargeEstimateSummary;
 import ae.smartdubai.iid.realestateapp.model.Property;
 import ae.smartdubai.iid.realestateapp.model.ServiceChargeEstimate;
 import ae.smartdubai.iid.realestateapp.repository.PropertyRepository;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -29,6 +31,12 @@ public class ServiceChargeEstimateServiceTest {
     @Mock
     private PropertyRepository propertyRepository;
 
+    @Mock
+    private CalculationMetrics calculationMetrics;
+
+    @Mock
+    private CalculationCache calculationCache;
+
     @InjectMocks
     private ServiceChargeEstimateService serviceChargeEstimateService;
 
@@ -156,18 +164,25 @@ public class ServiceChargeEstimateServiceTest {
     }
 
     @Test
-    public void testGetAllServiceChargeEstimates() {
+    public void testGetServiceChargeEstimatePage() {
         // Arrange
-        List<ServiceChargeEstimate> expectedEstimates = Arrays.asList(estimate1, estimate2, estimate3, estimate4);
-        when(serviceChargeEstimateRepository.findAll()).thenReturn(expectedEstimates);
+        ServiceChargeEstimateSummary summary1 = new ServiceChargeEstimateSummary();
+        summary1.setId(1L);
+        ServiceChargeEstimateSummary summary2 = new ServiceChargeEstimateSummary();
+        summary2.setId(2L);
+        List<ServiceChargeEstimateSummary> expectedEstimates = Arrays.asList(summary1, summary2);
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 3, 31);
+        when(serviceChargeEstimateRepository.findPage(0L, from, to, PageRequest.of(0, 50))).thenReturn(expectedEstimates);
 
         // Act
-        List<ServiceChargeEstimate> actualEstimates = serviceChargeEstimateService.getAllServiceChargeEstimates();
+        List<ServiceChargeEstimateSummary> actualEstimates =
+                serviceChargeEstimateService.getServiceChargeEstimatePage(0, from, to, 50);
 
         // Assert
         assertEquals(expectedEstimates.size(), actualEstimates.size());
         assertEquals(expectedEstimates, actualEstimates);
-        verify(serviceChargeEstimateRepository, times(1)).findAll();
+        verify(serviceChargeEstimateRepository, times(1)).findPage(0L, from, to, PageRequest.of(0, 50));
     }
 
     @Test
@@ -222,7 +237,7 @@ public class ServiceChargeEstimateServiceTest {
     public void testGetPreFilledEstimatesByCommunity() {
         // Arrange
         List<ServiceChargeEstimate> preFilledEstimates = Arrays.asList(estimate4);
-        when(serviceChargeEstimateRepository.findByIsPreFilledTrueAndCommunityNameIgnoreCase("Dubai Marina"))
+        when(serviceChargeEstimateRepository.findByIsPreFilledTrueAndCommunityName("Dubai Marina"))
                 .thenReturn(preFilledEstimates);
 
         // Act
@@ -231,7 +246,7 @@ public class ServiceChargeEstimateServiceTest {
         // Assert
         assertEquals(preFilledEstimates.size(), actualEstimates.size());
         assertEquals(preFilledEstimates, actualEstimates);
-        verify(serviceChargeEstimateRepository, times(1)).findByIsPreFilledTrueAndCommunityNameIgnoreCase("Dubai Marina");
+        verify(serviceChargeEstimateRepository, times(1)).findByIsPreFilledTrueAndCommunityName("Dubai Marina");
     }
 
     @Test
@@ -0,0 +1,162 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.ShareOutboxEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShareOutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 4;
+    private static final int CONCURRENCY = 2;
+
+    @Mock
+    private ShareOutboxService shareOutboxService;
+
+    private InMemoryShareTransport shareTransport;
+    private ExecutorService shareDispatchExecutor;
+    private MeterRegistry meterRegistry;
+    private ShareOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    public void setup() {
+        shareTransport = new InMemoryShareTransport(20);
+        shareDispatchExecutor = Executors.newFixedThreadPool(CONCURRENCY);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new ShareOutboxDispatcher(shareOutboxService, shareTransport, shareDispatchExecutor,
+                BATCH_SIZE, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        shareDispatchExecutor.shutdownNow();
+    }
+
+    private static ShareOutboxService.Claim claim(int firstId, int count) {
+        return new ShareOutboxService.Claim(messages(firstId, count), List.of());
+    }
+
+    private static List<ShareTransport.ShareMessage> messages(int firstId, int count) {
+        List<ShareTransport.ShareMessage> messages = new ArrayList<>();
+        for (int id = firstId; id < firstId + count; id++) {
+            messages.add(new ShareTransport.ShareMessage(id, 100 + id, "Report " + id, "report_" + id + ".pdf",
+                    "user" + id + "@example.com"));
+        }
+        return messages;
+    }
+
+    private static ShareOutboxEvent sentEvent() {
+        ShareOutboxEvent event = new ShareOutboxEvent();
+        event.setCreatedAt(LocalDateTime.now().minusSeconds(3));
+        event.setSentAt(LocalDateTime.now());
+        return event;
+    }
+
+    @Test
+    public void testPollDrainsFullBatchesWithLimitedConcurrency() {
+        // Arrange
+        when(shareOutboxService.claimDue(BATCH_SIZE, Duration.ofMinutes(5)))
+                .thenReturn(claim(1, BATCH_SIZE), claim(5, 2));
+        when(shareOutboxService.markSent(anyLong())).thenAnswer(invocation -> sentEvent());
+
+        // Act
+        dispatcher.poll();
+
+        // Assert
+        assertEquals(6, shareTransport.delivered().size());
+        assertEquals(CONCURRENCY, shareTransport.maxRunning());
+        verify(shareOutboxService, times(2)).claimDue(BATCH_SIZE, Duration.ofMinutes(5));
+        verify(shareOutboxService, times(6)).markSent(anyLong());
+        assertEquals(6, meterRegistry.get("reports.share.sent").counter().count());
+        assertEquals(6, meterRegistry.get("reports.share.delivery").timer().count());
+    }
+
+    @Test
+    public void testFailedDeliveryIsRetriedOrGivenUp() {
+        // Arrange
+        shareTransport.failNext(2);
+        when(shareOutboxService.claimDue(BATCH_SIZE, Duration.ofMinutes(5))).thenReturn(claim(1, 1), claim(2, 1));
+        when(shareOutboxService.markFailed(1L, "Connection refused")).thenReturn(true);
+        when(shareOutboxService.markFailed(2L, "Connection refused")).thenReturn(false);
+
+        // Act
+        dispatcher.dispatchBatch();
+        dispatcher.dispatchBatch();
+
+        // Assert
+        assertTrue(shareTransport.delivered().isEmpty());
+        verify(shareOutboxService, never()).markSent(anyLong());
+        assertEquals(1, meterRegistry.get("reports.share.retried").counter().count());
+        assertEquals(1, meterRegistry.get("reports.share.failed").counter().count());
+    }
+
+    @Test
+    public void testSharesOfDeletedReportsAreCountedAsFailed() {
+        // Arrange: one share to deliver and one whose report has been deleted
+        when(shareOutboxService.claimDue(BATCH_SIZE, Duration.ofMinutes(5))).thenReturn(new ShareOutboxService.Claim(
+                messages(1, 1), List.of(new ShareTransport.ShareMessage(2, 102, null, null, "user2@example.com"))));
+        when(shareOutboxService.markSent(anyLong())).thenAnswer(invocation -> sentEvent());
+
+        // Act
+        int claimed = dispatcher.dispatchBatch();
+
+        // Assert
+        assertEquals(2, claimed);
+        assertEquals(1, shareTransport.delivered().size());
+        assertEquals(1, meterRegistry.get("reports.share.sent").counter().count());
+        assertEquals(1, meterRegistry.get("reports.share.failed").counter().count());
+        verify(shareOutboxService, never()).markFailed(anyLong(), anyString());
+    }
+
+    @Test
+    public void testConcurrentClaimSkipsBatch() {
+        // Arrange
+        when(shareOutboxService.claimDue(BATCH_SIZE, Duration.ofMinutes(5)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ShareOutboxEvent.class, 1L));
+
+        // Act
+        int claimed = dispatcher.dispatchBatch();
+
+        // Assert
+        assertEquals(0, claimed);
+        assertTrue(shareTransport.delivered().isEmpty());
+        verify(shareOutboxService, never()).markFailed(anyLong(), anyString());
+    }
+
+    @Test
+    public void testPollPublishesQueueLag() {
+        // Arrange
+        when(shareOutboxService.claimDue(BATCH_SIZE, Duration.ofMinutes(5))).thenReturn(claim(1, 0));
+        when(shareOutboxService.countPending()).thenReturn(3L);
+        when(shareOutboxService.oldestPending()).thenReturn(Optional.of(LocalDateTime.now().minusMinutes(2)));
+
+        // Act
+        dispatcher.poll();
+
+        // Assert
+        assertEquals(3, meterRegistry.get("reports.share.outbox.pending").gauge().value());
+        double lagSeconds = meterRegistry.get("reports.share.outbox.lag").timeGauge().value(TimeUnit.SECONDS);
+        assertTrue(lagSeconds >= 119 && lagSeconds < 180, "lag was " + lagSeconds);
+    }
+}
@@ -0,0 +1,146 @@
+package ae.smartdubai.iid.realestateapp.service;
+
+import ae.smartdubai.iid.realestateapp.model.PdfReport;
+import ae.smartdubai.iid.realestateapp.model.ShareOutboxEvent;
+import ae.smartdubai.iid.realestateapp.repository.PdfReportRepository;
+import ae.smartdubai.iid.realestateapp.repository.ShareOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShareOutboxServiceTest {
+
+    @Mock
+    private ShareOutboxRepository shareOutboxRepository;
+
+    @Mock
+    private PdfReportRepository pdfReportRepository;
+
+    private ShareOutboxService shareOutboxService;
+
+    @BeforeEach
+    public void setup() {
+        shareOutboxService = new ShareOutboxService(shareOutboxRepository, pdfReportRepository, 3,
+                Duration.ofSeconds(10), Duration.ofMinutes(1));
+    }
+
+    private static ShareOutboxEvent pendingEvent(long id, long pdfReportId) {
+        ShareOutboxEvent event = new ShareOutboxEvent();
+        event.setId(id);
+        event.setPdfReportId(pdfReportId);
+        event.setRecipient("user" + id + "@example.com");
+        event.setStatus(ShareOutboxEvent.Status.PENDING);
+        event.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        event.setNextAttemptAt(LocalDateTime.now().minusMinutes(1));
+        return event;
+    }
+
+    @Test
+    public void testEnqueueRecordsPendingEvent() {
+        // Arrange
+        PdfReport pdfReport = new PdfReport();
+        pdfReport.setId(7L);
+        when(shareOutboxRepository.save(any(ShareOutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ShareOutboxEvent event = shareOutboxService.enqueue(pdfReport, "buyer@example.com");
+
+        // Assert
+        assertEquals(7L, event.getPdfReportId());
+        assertEquals("buyer@example.com", event.getRecipient());
+        assertEquals(ShareOutboxEvent.Status.PENDING, event.getStatus());
+        assertEquals(0, event.getAttempts());
+        assertFalse(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    public void testClaimDueLeasesEventsAndFailsDeletedReports() {
+        // Arrange
+        ShareOutboxEvent shared = pendingEvent(1L, 7L);
+        ShareOutboxEvent orphaned = pendingEvent(2L, 8L);
+        when(shareOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                eq(ShareOutboxEvent.Status.PENDING), any(LocalDateTime.class), eq(PageRequest.of(0, 10))))
+                .thenReturn(List.of(shared, orphaned));
+        PdfReport pdfReport = new PdfReport();
+        pdfReport.setId(7L);
+        pdfReport.setTitle("Marina Report");
+        pdfReport.setFilePath("report_abc.pdf");
+        when(pdfReportRepository.findAllById(List.of(7L, 8L))).thenReturn(List.of(pdfReport));
+
+        // Act
+        ShareOutboxService.Claim claim = shareOutboxService.claimDue(10, Duration.ofMinutes(5));
+
+        // Assert
+        assertEquals(List.of(new ShareTransport.ShareMessage(1L, 7L, "Marina Report", "report_abc.pdf",
+                "user1@example.com")), claim.getMessages());
+        assertEquals(List.of(new ShareTransport.ShareMessage(2L, 8L, null, null, "user2@example.com")),
+                claim.getAbandoned());
+        assertEquals(2, claim.size());
+        assertEquals(ShareOutboxEvent.Status.PENDING, shared.getStatus());
+        assertTrue(shared.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(4)));
+        assertEquals(ShareOutboxEvent.Status.FAILED, orphaned.getStatus());
+        verify(shareOutboxRepository, times(1)).saveAll(List.of(shared, orphaned));
+    }
+
+    @Test
+    public void testMarkFailedBacksOffUntilMaxAttempts() {
+        // Arrange
+        ShareOutboxEvent event = pendingEvent(1L, 7L);
+        when(shareOutboxRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        // Act & Assert
+        assertTrue(shareOutboxService.markFailed(1L, "Connection refused"));
+        assertEquals(1, event.getAttempts());
+        assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(9)));
+        assertEquals("Connection refused", event.getLastError());
+
+        assertTrue(shareOutboxService.markFailed(1L, "Connection refused"));
+        assertFalse(shareOutboxService.markFailed(1L, "x".repeat(2000)));
+        assertEquals(3, event.getAttempts());
+        assertEquals(ShareOutboxEvent.Status.FAILED, event.getStatus());
+        assertEquals(1000, event.getLastError().length());
+    }
+
+    @Test
+    public void testMarkSent() {
+        // Arrange
+        ShareOutboxEvent event = pendingEvent(1L, 7L);
+        event.setLastError("Connection refused");
+        when(shareOutboxRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(shareOutboxRepository.save(event)).thenReturn(event);
+
+        // Act
+        ShareOutboxEvent sent = shareOutboxService.markSent(1L);
+
+        // Assert
+        assertEquals(ShareOutboxEvent.Status.SENT, sent.getStatus());
+        assertNotNull(sent.getSentAt());
+        assertNull(sent.getLastError());
+    }
+
+    @Test
+    public void testBackoffDoublesUpToMaximum() {
+        Duration initial = Duration.ofSeconds(10);
+        Duration max = Duration.ofMinutes(1);
+
+        assertEquals(Duration.ofSeconds(10), ShareOutboxService.backoff(1, initial, max));
+        assertEquals(Duration.ofSeconds(20), ShareOutboxService.backoff(2, initial, max));
+        assertEquals(Duration.ofSeconds(40), ShareOutboxService.backoff(3, initial, max));
+        assertEquals(max, ShareOutboxService.backoff(4, initial, max));
+        assertEquals(max, ShareOutboxService.backoff(100, initial, max));
+    }
+}
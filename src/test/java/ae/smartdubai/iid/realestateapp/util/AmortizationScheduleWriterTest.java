@@ -0,0 +1,38 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AmortizationScheduleWriterTest {
+
+    @Test
+    public void testWriteNdjson() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        AmortizationScheduleWriter.write(800000.0, 4.5, 300, RecordWriter.Format.NDJSON, writer);
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals(300, lines.length);
+        assertEquals("{\"month\":1,\"payment\":4446.66,\"principal\":1446.66,\"interest\":3000.00,\"balance\":798553.34}",
+                lines[0]);
+        assertTrue(lines[299].startsWith("{\"month\":300,"));
+        assertTrue(lines[299].endsWith(",\"balance\":0.00}"));
+    }
+
+    @Test
+    public void testWriteCsv() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        AmortizationScheduleWriter.write(120000.0, 6.0, 12, RecordWriter.Format.CSV, writer);
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals(13, lines.length);
+        assertEquals("month,payment,principal,interest,balance", lines[0]);
+        assertEquals("1,10327.97,9727.97,600.00,110272.03", lines[1]);
+        assertEquals("12,10327.97,10276.59,51.38,0.00", lines[12]);
+    }
+}
@@ -0,0 +1,74 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnnuityMathTest {
+
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    public void testPayment() {
+        // For a loan of 800,000 at 4.5% for 25 years, EMI should be around 4,446.66
+        double emi = AnnuityMath.payment(800000.0, AnnuityMath.monthlyRate(4.5), 300);
+        assertEquals(4446.66, emi, 0.01);
+
+        // Zero interest rate falls back to an even split
+        assertEquals(1000.0, AnnuityMath.payment(120000.0, 0.0, 120), TOLERANCE);
+    }
+
+    @Test
+    public void testBalanceAfterBoundaries() {
+        double monthlyRate = AnnuityMath.monthlyRate(4.5);
+
+        assertEquals(800000.0, AnnuityMath.balanceAfter(800000.0, monthlyRate, 300, 0), TOLERANCE);
+        assertEquals(0.0, AnnuityMath.balanceAfter(800000.0, monthlyRate, 300, 300), TOLERANCE);
+        assertEquals(0.0, AnnuityMath.balanceAfter(800000.0, monthlyRate, 300, 400), TOLERANCE);
+        assertEquals(60000.0, AnnuityMath.balanceAfter(120000.0, 0.0, 120, 60), TOLERANCE);
+    }
+
+    @Test
+    public void testInvalidPaymentNumber() {
+        double monthlyRate = AnnuityMath.monthlyRate(4.5);
+
+        assertThrows(IllegalArgumentException.class, () -> AnnuityMath.interestPortion(800000.0, monthlyRate, 300, 0));
+        assertThrows(IllegalArgumentException.class, () -> AnnuityMath.principalPortion(800000.0, monthlyRate, 300, 301));
+    }
+
+    @Test
+    public void testClosedFormMatchesAmortizationLoopForEveryTenure() {
+        double loanAmount = 800000.0;
+
+        for (double interestRate : new double[]{0.5, 3.5, 4.5, 8.0, 15.0}) {
+            double monthlyRate = AnnuityMath.monthlyRate(interestRate);
+
+            for (int tenureYears = 1; tenureYears <= 35; tenureYears++) {
+                int totalPayments = tenureYears * 12;
+                double emi = AnnuityMath.payment(loanAmount, monthlyRate, totalPayments);
+
+                // Reference: simulate the full amortization schedule
+                double remainingLoan = loanAmount;
+                for (int month = 1; month <= totalPayments; month++) {
+                    double monthlyInterest = remainingLoan * monthlyRate;
+                    double monthlyPrincipal = emi - monthlyInterest;
+
+                    String context = "rate " + interestRate + ", tenure " + tenureYears + ", payment " + month;
+                    assertEquals(monthlyInterest,
+                            AnnuityMath.interestPortion(loanAmount, monthlyRate, totalPayments, month), TOLERANCE, context);
+                    assertEquals(monthlyPrincipal,
+                            AnnuityMath.principalPortion(loanAmount, monthlyRate, totalPayments, month), TOLERANCE, context);
+
+                    remainingLoan -= monthlyPrincipal;
+                    if (month < totalPayments) {
+                        assertEquals(remainingLoan,
+                                AnnuityMath.balanceAfter(loanAmount, monthlyRate, totalPayments, month), TOLERANCE, context);
+                    }
+                }
+
+                // The schedule must be fully repaid after the last payment
+                assertEquals(0.0, remainingLoan, TOLERANCE);
+            }
+        }
+    }
+}
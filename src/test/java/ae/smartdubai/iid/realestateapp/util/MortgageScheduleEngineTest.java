@@ -0,0 +1,126 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MortgageScheduleEngineTest {
+
+    private static final MortgageScheduleEngine.PrepaymentMode TENURE = MortgageScheduleEngine.PrepaymentMode.REDUCE_TENURE;
+    private static final MortgageScheduleEngine.PrepaymentMode EMI = MortgageScheduleEngine.PrepaymentMode.REDUCE_EMI;
+
+    /**
+     * Reference: plain month-by-month loop that re-amortizes over the original end date
+     * after every rate step and prepayment.
+     */
+    private static double referenceInterestReducingEmi(double loanAmount, double interestRate, int tenureMonths,
+                                                       int[] stepMonths, double[] stepRates,
+                                                       int[] prepaymentMonths, double[] prepaymentAmounts) {
+        double rate = AnnuityMath.monthlyRate(interestRate);
+        double balance = loanAmount;
+        double emi = AnnuityMath.payment(balance, rate, tenureMonths);
+        double interest = 0;
+        for (int month = 1; month <= tenureMonths; month++) {
+            for (int i = 0; i < stepMonths.length; i++) {
+                if (stepMonths[i] == month) {
+                    rate = AnnuityMath.monthlyRate(stepRates[i]);
+                    emi = AnnuityMath.payment(balance, rate, tenureMonths - month + 1);
+                }
+            }
+            interest += balance * rate;
+            balance = balance * (1 + rate) - emi;
+            for (int i = 0; i < prepaymentMonths.length; i++) {
+                if (prepaymentMonths[i] == month) {
+                    balance -= prepaymentAmounts[i];
+                    emi = AnnuityMath.payment(balance, rate, tenureMonths - month);
+                }
+            }
+        }
+        return interest;
+    }
+
+    @Test
+    public void testWithoutEventsMatchesFixedRateLoan() {
+        MortgageScheduleEngine engine = new MortgageScheduleEngine(1600000.0, 4.5, 25, new int[0], new double[0], 1.0, 10000.0);
+
+        engine.evaluate(new int[0], new double[0], new MortgageScheduleEngine.PrepaymentMode[0]);
+
+        double emi = AnnuityMath.payment(1600000.0, AnnuityMath.monthlyRate(4.5), 300);
+        assertEquals(emi, engine.getInitialEmi(), 1e-9);
+        assertEquals(emi * 300 - 1600000.0, engine.getTotalInterest(), 1e-4);
+        assertEquals(300, engine.getPayoffMonth());
+        assertEquals(0.0, engine.getTotalFees());
+    }
+
+    @Test
+    public void testRateStepsAndReduceEmiPrepaymentsMatchMonthlyLoop() {
+        int[] stepMonths = {37, 61};
+        double[] stepRates = {5.75, 5.25};
+        int[] prepaymentMonths = {12, 36, 36, 90};
+        double[] prepaymentAmounts = {100000.0, 50000.0, 25000.0, 200000.0};
+        MortgageScheduleEngine engine = new MortgageScheduleEngine(1600000.0, 3.99, 25, stepMonths, stepRates, 0.0, 0.0);
+
+        engine.evaluate(prepaymentMonths, prepaymentAmounts,
+                new MortgageScheduleEngine.PrepaymentMode[] {EMI, EMI, EMI, EMI});
+
+        double expected = referenceInterestReducingEmi(1600000.0, 3.99, 300,
+                stepMonths, stepRates, prepaymentMonths, prepaymentAmounts);
+        assertEquals(expected, engine.getTotalInterest(), 1e-4);
+        assertEquals(300, engine.getPayoffMonth());
+        assertTrue(engine.getFinalEmi() < engine.getInitialEmi());
+    }
+
+    @Test
+    public void testReduceTenurePrepaymentMatchesMonthlyLoop() {
+        MortgageScheduleEngine engine = new MortgageScheduleEngine(1600000.0, 4.5, 25, new int[0], new double[0], 0.0, 0.0);
+
+        engine.evaluate(new int[] {24}, new double[] {300000.0}, new MortgageScheduleEngine.PrepaymentMode[] {TENURE});
+
+        // Reference: keep paying the original EMI until the balance is cleared
+        double rate = AnnuityMath.monthlyRate(4.5);
+        double emi = AnnuityMath.payment(1600000.0, rate, 300);
+        double balance = 1600000.0;
+        double interest = 0;
+        int month = 0;
+        while (balance > 0.005) {
+            month++;
+            interest += balance * rate;
+            balance = balance * (1 + rate) - Math.min(emi, balance * (1 + rate));
+            if (month == 24) {
+                balance -= 300000.0;
+            }
+        }
+
+        assertEquals(month, engine.getPayoffMonth());
+        assertTrue(engine.getPayoffMonth() < 300);
+        assertEquals(interest, engine.getTotalInterest(), 1e-4);
+        assertEquals(emi, engine.getFinalEmi(), 1e-9);
+    }
+
+    @Test
+    public void testEarlySettlementFeesAreCappedPerPrepayment() {
+        MortgageScheduleEngine engine = new MortgageScheduleEngine(1600000.0, 4.5, 25, new int[0], new double[0], 1.0, 10000.0);
+
+        engine.evaluate(new int[] {12, 24}, new double[] {500000.0, 2000000.0},
+                new MortgageScheduleEngine.PrepaymentMode[] {TENURE, TENURE});
+
+        // 1% of 500,000 is 5,000; the second prepayment settles the loan and its fee is capped at 10,000
+        assertEquals(15000.0, engine.getTotalFees(), 1e-9);
+        assertEquals(24, engine.getPayoffMonth());
+    }
+
+    @Test
+    public void testEngineCanBeReused() {
+        MortgageScheduleEngine engine = new MortgageScheduleEngine(1600000.0, 4.5, 25,
+                new int[] {37}, new double[] {6.0}, 1.0, 0.0);
+        engine.evaluate(new int[0], new double[0], new MortgageScheduleEngine.PrepaymentMode[0]);
+        double baseline = engine.getTotalInterest();
+
+        engine.evaluate(new int[] {12}, new double[] {100000.0}, new MortgageScheduleEngine.PrepaymentMode[] {EMI});
+        assertTrue(engine.getTotalInterest() < baseline);
+
+        engine.evaluate(new int[0], new double[0], new MortgageScheduleEngine.PrepaymentMode[0]);
+        assertEquals(baseline, engine.getTotalInterest());
+        assertEquals(0.0, engine.getTotalFees());
+    }
+}
@@ -0,0 +1,144 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfLayoutTest {
+
+    private static final PDFont FONT = PDType1Font.HELVETICA;
+
+    @Test
+    public void testWrapKeepsLinesWithinWidth() throws IOException {
+        String text = "Salary certificate or bank statement for the last six months, stamped by the issuing bank";
+
+        List<String> lines = PdfLayout.wrap(text, FONT, 10, 150);
+
+        assertTrue(lines.size() > 1);
+        for (String line : lines) {
+            assertTrue(PdfLayout.width(line, FONT, 10) <= 150);
+        }
+        assertEquals(text, String.join(" ", lines));
+    }
+
+    @Test
+    public void testWrapBreaksWordsWiderThanALine() throws IOException {
+        String word = "A".repeat(100);
+
+        List<String> lines = PdfLayout.wrap(word, FONT, 12, 100);
+
+        assertTrue(lines.size() > 1);
+        assertEquals(word, String.join("", lines));
+    }
+
+    @Test
+    public void testWrapReplacesUnsupportedCharacters() throws IOException {
+        assertEquals(List.of("Unit ? Marina"), PdfLayout.wrap("Unit ١ Marina", FONT, 12, 500));
+        assertEquals(List.of(""), PdfLayout.wrap(null, FONT, 12, 500));
+    }
+
+    @Test
+    public void testLongListFlowsOntoNewPagesWithFooters() throws IOException {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            items.add("Document " + i);
+        }
+
+        try (PDDocument document = new PDDocument()) {
+            try (PdfLayout layout = new PdfLayout(document, PDRectangle.A4, 50, List.of("Footer line"), FONT, 10)) {
+                layout.heading("Document Checklist", PDType1Font.HELVETICA_BOLD, 14, 10);
+                layout.bulletList(items, FONT, 10, 20);
+                layout.finish();
+
+                assertTrue(layout.getPageCount() > 1);
+                assertEquals(layout.getPageCount(), document.getNumberOfPages());
+            }
+
+            String text = new PDFTextStripper().getText(document);
+            int pages = document.getNumberOfPages();
+            assertTrue(text.contains("Document 0"));
+            assertTrue(text.contains("Document 299"));
+            assertTrue(text.contains("Page 1 of " + pages));
+            assertTrue(text.contains("Page " + pages + " of " + pages));
+            assertEquals(pages, text.split("Footer line", -1).length - 1);
+        }
+    }
+
+    @Test
+    public void testTableRepeatsHeaderOnEveryPage() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(new String[] {"Item " + i, String.format("%,.2f", i * 1000.0)});
+        }
+
+        try (PDDocument document = new PDDocument()) {
+            try (PdfLayout layout = new PdfLayout(document, PDRectangle.A4, 50, List.of(), FONT, 10)) {
+                layout.table(new String[] {"Item", "Amount (AED)"}, rows, new float[] {0.6f, 0.4f},
+                        new boolean[] {false, true}, PDType1Font.HELVETICA_BOLD, FONT, 12);
+                layout.finish();
+            }
+
+            int pages = document.getNumberOfPages();
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(pages > 1);
+            assertEquals(pages, text.split("Amount \\(AED\\)", -1).length - 1);
+            assertTrue(text.contains("Item 119"));
+        }
+    }
+
+    @Test
+    public void testSectionWritesLikeDirectLayout() throws IOException {
+        PDFont bold = PDType1Font.HELVETICA_BOLD;
+        List<String> items = List.of("Passport copy", "Emirates ID copy, front and back, valid for at least six months");
+        List<String[]> rows = List.of(new String[] {"DLD Fee", "64,000.00"}, new String[] {"Agency Fee", "32,000.00"});
+        float[] widths = {0.6f, 0.4f};
+        boolean[] alignment = {false, true};
+
+        String direct;
+        try (PDDocument document = new PDDocument()) {
+            try (PdfLayout layout = new PdfLayout(document, PDRectangle.A4, 50, List.of(), FONT, 10)) {
+                layout.heading("Cost Breakdown", bold, 14, 12);
+                layout.text("Community: Dubai Marina", FONT, 12, 0);
+                layout.bulletList(items, FONT, 10, 20);
+                layout.space(6);
+                layout.table(new String[] {"Item", "Amount (AED)"}, rows, widths, alignment, bold, FONT, 12);
+                layout.finish();
+            }
+            direct = new PDFTextStripper().getText(document);
+        }
+
+        PdfSection section = PdfSection.builder(PDRectangle.A4.getWidth() - 100, FONT, bold)
+                .heading("Cost Breakdown", PdfSection.Weight.BOLD, 14, 12)
+                .text("Community: Dubai Marina", PdfSection.Weight.REGULAR, 12, 0)
+                .bulletList(items, PdfSection.Weight.REGULAR, 10, 20)
+                .space(6)
+                .table(new String[] {"Item", "Amount (AED)"}, rows, widths, alignment,
+                        PdfSection.Weight.BOLD, PdfSection.Weight.REGULAR, 12)
+                .build();
+
+        // The same section is written into two documents
+        for (int i = 0; i < 2; i++) {
+            try (PDDocument document = new PDDocument()) {
+                try (PdfLayout layout = new PdfLayout(document, PDRectangle.A4, 50, List.of(), FONT, 10)) {
+                    layout.section(section, FONT, bold);
+                    layout.finish();
+                }
+                assertEquals(direct, new PDFTextStripper().getText(document));
+            }
+        }
+
+        try (PDDocument document = new PDDocument();
+             PdfLayout layout = new PdfLayout(document, PDRectangle.LETTER, 50, List.of(), FONT, 10)) {
+            assertThrows(IllegalArgumentException.class, () -> layout.section(section, FONT, bold));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PdfRenderContextTest {
+
+    private HttpServer server;
+    private String host;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() throws IOException {
+        byte[] photo = png(3000, 1000, BufferedImage.TYPE_INT_ARGB);
+        // About 30 million pixels, which compresses to a small file
+        byte[] huge = png(6000, 5000, BufferedImage.TYPE_BYTE_BINARY);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            byte[] content = path.equals("/photo.png") ? photo : path.equals("/huge.png") ? huge : null;
+            if (path.startsWith("/redirect/")) {
+                exchange.getResponseHeaders().set("Location", path.substring("/redirect".length()));
+                exchange.sendResponseHeaders(302, -1);
+                exchange.close();
+                return;
+            }
+            if (path.equals("/escape")) {
+                exchange.getResponseHeaders().set("Location",
+                        "http://localhost:" + server.getAddress().getPort() + "/photo.png");
+                exchange.sendResponseHeaders(302, -1);
+                exchange.close();
+                return;
+            }
+            if (content == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, content.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(content);
+            }
+        });
+        server.start();
+        host = InetAddress.getLoopbackAddress().getHostAddress();
+        baseUrl = "http://" + host + ":" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private static byte[] png(int width, int height, int type) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, type), "png", png);
+        return png.toByteArray();
+    }
+
+    // The test server is on the loopback address, so private addresses are allowed here
+    private PdfRenderContext context(boolean cacheEnabled) {
+        return new PdfRenderContext(null, null, null, Set.of(host), true,
+                cacheEnabled, 1024 * 1024, Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    public void testStandardFontsWithoutFontFiles() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            assertSame(PDType1Font.HELVETICA, PdfRenderContext.standard().regularFont(document));
+            assertSame(PDType1Font.HELVETICA_BOLD, PdfRenderContext.standard().boldFont(document));
+        }
+    }
+
+    @Test
+    public void testImageIsFetchedOnceAndScaledDown() throws IOException {
+        PdfRenderContext context = context(true);
+
+        try (PDDocument first = new PDDocument(); PDDocument second = new PDDocument()) {
+            PDImageXObject firstImage = context.image(first, baseUrl + "/photo.png").orElseThrow();
+            PDImageXObject secondImage = context.image(second, baseUrl + "/photo.png").orElseThrow();
+
+            assertEquals(1500, firstImage.getWidth());
+            assertEquals(500, firstImage.getHeight());
+            assertEquals(1500, secondImage.getWidth());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testImageIsFetchedForEveryRenderWithoutCache() throws IOException {
+        PdfRenderContext context = context(false);
+
+        try (PDDocument first = new PDDocument(); PDDocument second = new PDDocument()) {
+            assertTrue(context.image(first, baseUrl + "/photo.png").isPresent());
+            assertTrue(context.image(second, baseUrl + "/photo.png").isPresent());
+        }
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testMissingImageIsSkippedAndRemembered() throws IOException {
+        PdfRenderContext context = context(true);
+
+        try (PDDocument document = new PDDocument()) {
+            assertTrue(context.image(document, baseUrl + "/missing.png").isEmpty());
+            assertTrue(context.image(document, baseUrl + "/missing.png").isEmpty());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testOnlyWebAndClasspathImagesAreLoaded() throws IOException {
+        PdfRenderContext context = context(true);
+
+        try (PDDocument document = new PDDocument()) {
+            assertTrue(context.image(document, "file:///etc/hosts").isEmpty());
+            assertTrue(context.image(document, "classpath:missing.png").isEmpty());
+        }
+    }
+
+    @Test
+    public void testImagesAreOnlyFetchedFromPublicImageHosts() throws IOException {
+        PdfRenderContext otherHosts = new PdfRenderContext(null, null, null, Set.of("images.example.com"), true,
+                true, 1024 * 1024, Duration.ofMinutes(5), 100);
+        PdfRenderContext publicOnly = new PdfRenderContext(null, null, null, Set.of(host),
+                true, 1024 * 1024, Duration.ofMinutes(5), 100);
+
+        try (PDDocument document = new PDDocument()) {
+            assertTrue(otherHosts.image(document, baseUrl + "/photo.png").isEmpty());
+            assertTrue(publicOnly.image(document, baseUrl + "/photo.png").isEmpty());
+        }
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void testRedirectsAreCheckedLikeTheFirstRequest() throws IOException {
+        PdfRenderContext context = context(true);
+
+        try (PDDocument document = new PDDocument()) {
+            assertTrue(context.image(document, baseUrl + "/redirect/photo.png").isPresent());
+            // localhost is not an image host, even though it is the same server
+            assertTrue(context.image(document, baseUrl + "/escape").isEmpty());
+        }
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testImageWithTooManyPixelsIsNotDecoded() throws IOException {
+        PdfRenderContext context = context(true);
+
+        try (PDDocument document = new PDDocument()) {
+            assertTrue(context.image(document, baseUrl + "/huge.png").isEmpty());
+        }
+    }
+
+    @Test
+    public void testImageIsDrawnOnThePage() throws IOException {
+        PdfRenderContext context = context(true);
+
+        try (PDDocument document = new PDDocument()) {
+            Optional<PDImageXObject> image = context.image(document, baseUrl + "/photo.png");
+            try (PdfLayout layout = new PdfLayout(document, PDRectangle.A4, 50, List.of("Footer"),
+                    PDType1Font.HELVETICA, 10)) {
+                layout.text("Photo", PDType1Font.HELVETICA, 12, 0);
+                layout.image(image.orElseThrow(), 200);
+                layout.finish();
+            }
+
+            ByteArrayOutputStream saved = new ByteArrayOutputStream();
+            document.save(saved);
+            try (PDDocument loaded = PDDocument.load(saved.toByteArray())) {
+                assertEquals(1, loaded.getNumberOfPages());
+                int images = 0;
+                for (Object ignored : loaded.getPage(0).getResources().getXObjectNames()) {
+                    images++;
+                }
+                assertEquals(1, images);
+            }
+        }
+    }
+
+    @Test
+    public void testSectionIsBuiltOncePerKey() throws IOException {
+        AtomicInteger builds = new AtomicInteger();
+        PdfRenderContext.SectionBuilder builder = () -> {
+            builds.incrementAndGet();
+            return PdfSection.builder(400, PDType1Font.HELVETICA, PDType1Font.HELVETICA_BOLD)
+                    .text("Property Details", PdfSection.Weight.BOLD, 14, 0)
+                    .build();
+        };
+
+        PdfRenderContext cached = context(true);
+        PdfSection section = cached.section("header", builder);
+        assertSame(section, cached.section("header", builder));
+        cached.section("costBreakdown", builder);
+        assertEquals(2, builds.get());
+
+        PdfRenderContext uncached = context(false);
+        uncached.section("header", builder);
+        uncached.section("header", builder);
+        assertEquals(4, builds.get());
+    }
+}
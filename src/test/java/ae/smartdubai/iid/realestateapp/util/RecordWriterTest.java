@@ -0,0 +1,70 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordWriterTest {
+
+    @Test
+    public void testWriteNdjson() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        RecordWriter recordWriter = RecordWriter.start(writer, RecordWriter.Format.NDJSON,
+                "id", "name", "amount", "date", "flag");
+        recordWriter.write(1L, "Marina \"View\"\n", 12500000.0, LocalDate.of(2024, 3, 1), true);
+        recordWriter.write(2L, null, Double.NaN, null, false);
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"Marina \\\"View\\\"\\n\",\"amount\":12500000,"
+                + "\"date\":\"2024-03-01\",\"flag\":true}", lines[0]);
+        assertEquals("{\"id\":2,\"name\":null,\"amount\":null,\"date\":null,\"flag\":false}", lines[1]);
+    }
+
+    @Test
+    public void testWriteCsv() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        RecordWriter recordWriter = RecordWriter.start(writer, RecordWriter.Format.CSV, "id", "name", "rate", "date");
+        recordWriter.write(1L, "Downtown, \"Tower\"", 3.75, LocalDate.of(2024, 3, 1));
+        recordWriter.write(2L, null, 1.0E-4, null);
+
+        String[] lines = writer.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,name,rate,date", lines[0]);
+        assertEquals("1,\"Downtown, \"\"Tower\"\"\",3.75,2024-03-01", lines[1]);
+        assertEquals("2,,0.0001,", lines[2]);
+    }
+
+    @Test
+    public void testWriteRejectsWrongNumberOfValues() throws IOException {
+        RecordWriter recordWriter = RecordWriter.start(new StringWriter(), RecordWriter.Format.CSV, "id", "name");
+
+        assertThrows(IllegalArgumentException.class, () -> recordWriter.write(1L));
+    }
+
+    @Test
+    public void testWriteFieldByField() throws IOException {
+        StringWriter writer = new StringWriter();
+        RecordWriter recordWriter = RecordWriter.start(writer, RecordWriter.Format.NDJSON, "month", "balance");
+
+        recordWriter.field(1).amount(-1234.5).endRecord();
+        recordWriter.field(2).amount(0.004).endRecord();
+
+        assertEquals("{\"month\":1,\"balance\":-1234.50}\n{\"month\":2,\"balance\":0.00}\n", writer.toString());
+        assertThrows(IllegalArgumentException.class, () -> recordWriter.field(3).endRecord());
+    }
+
+    @Test
+    public void testParseFormat() {
+        assertEquals(RecordWriter.Format.NDJSON, RecordWriter.Format.parse("ndjson"));
+        assertEquals(RecordWriter.Format.CSV, RecordWriter.Format.parse("CSV"));
+        assertNull(RecordWriter.Format.parse("xml"));
+        assertNull(RecordWriter.Format.parse(null));
+    }
+}
@@ -0,0 +1,87 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RentVsBuyGridTest {
+
+    private static final double[] DOWN_PAYMENTS = {200000.0, 400000.0, 800000.0};
+    private static final double[] INTEREST_RATES = {3.0, 4.5, 6.0};
+    private static final double[] APPRECIATION_RATES = {-2.0, 0.0, 3.0};
+    private static final double[] MONTHLY_RENTS = {6000.0, 8000.0, 12000.0};
+    private static final double[] RENT_INCREASE_RATES = {0.0, 3.0, 5.0};
+    private static final double[] RETURN_RATES = {0.0, 4.0, 8.0};
+
+    private static double[] valuesOf(RentVsBuyGrid.Parameter parameter) {
+        switch (parameter) {
+            case DOWN_PAYMENT:
+                return DOWN_PAYMENTS;
+            case INTEREST_RATE:
+                return INTEREST_RATES;
+            case PROPERTY_APPRECIATION_RATE:
+                return APPRECIATION_RATES;
+            case MONTHLY_RENT:
+                return MONTHLY_RENTS;
+            case ANNUAL_RENT_INCREASE_RATE:
+                return RENT_INCREASE_RATES;
+            default:
+                return RETURN_RATES;
+        }
+    }
+
+    private static RentVsBuyGrid grid(RentVsBuyGrid.Parameter rowParameter, RentVsBuyGrid.Parameter columnParameter) {
+        return new RentVsBuyGrid(2000000.0, 400000.0, 4.5, 15, 3.0, 15000.0, 5000.0, 8000.0, 3.0, 6.0, 20,
+                rowParameter, valuesOf(rowParameter), columnParameter, valuesOf(columnParameter));
+    }
+
+    @Test
+    public void testCellsMatchSimulationForEveryParameterPair() {
+        for (RentVsBuyGrid.Parameter rowParameter : RentVsBuyGrid.Parameter.values()) {
+            for (RentVsBuyGrid.Parameter columnParameter : RentVsBuyGrid.Parameter.values()) {
+                if (rowParameter == columnParameter) {
+                    continue;
+                }
+                RentVsBuyGrid grid = grid(rowParameter, columnParameter);
+                double[] buyNetWorth = new double[grid.getColumns()];
+                double[] rentNetWorth = new double[grid.getColumns()];
+
+                for (int row = 0; row < grid.getRows(); row++) {
+                    grid.evaluateRow(row, buyNetWorth, rentNetWorth);
+
+                    for (int column = 0; column < grid.getColumns(); column++) {
+                        double[] inputs = {400000.0, 4.5, 3.0, 8000.0, 3.0, 6.0};
+                        inputs[rowParameter.ordinal()] = valuesOf(rowParameter)[row];
+                        inputs[columnParameter.ordinal()] = valuesOf(columnParameter)[column];
+                        RentVsBuySimulation expected = RentVsBuySimulation.run(2000000.0, inputs[0], inputs[1], 15,
+                                inputs[2], 15000.0, 5000.0, inputs[3], inputs[4], inputs[5], 20);
+
+                        String cell = rowParameter + " x " + columnParameter + " [" + row + "][" + column + "]";
+                        assertEquals(expected.buyNetWorthAt(20), buyNetWorth[column], 1e-4, cell);
+                        assertEquals(expected.rentNetWorthAt(20), rentNetWorth[column], 1e-4, cell);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAppendRow() {
+        RentVsBuyGrid grid = grid(RentVsBuyGrid.Parameter.PROPERTY_APPRECIATION_RATE,
+                RentVsBuyGrid.Parameter.ANNUAL_RENT_INCREASE_RATE);
+
+        StringBuilder out = new StringBuilder();
+        grid.appendRow(1, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[2].startsWith("{\"row\":1,\"column\":2,\"rowValue\":0.0,\"columnValue\":5.0,\"netWorthAfterBuying\":"));
+        assertTrue(lines[2].matches(".*\"isBuyingBetter\":(true|false)}"));
+    }
+
+    @Test
+    public void testSameParameterOnBothAxes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> grid(RentVsBuyGrid.Parameter.MONTHLY_RENT, RentVsBuyGrid.Parameter.MONTHLY_RENT));
+    }
+}
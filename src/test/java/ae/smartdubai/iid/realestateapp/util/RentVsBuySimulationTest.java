@@ -0,0 +1,79 @@
+package ae.smartdubai.iid.realestateapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RentVsBuySimulationTest {
+
+    @Test
+    public void testBuyNetWorthMatchesClosedForm() {
+        RentVsBuySimulation simulation = RentVsBuySimulation.run(2000000.0, 400000.0, 4.5, 25,
+                3.0, 15000.0, 0.0, 8000.0, 5.0, 6.0, 30);
+
+        double monthlyRate = AnnuityMath.monthlyRate(4.5);
+        for (int year = 1; year <= 30; year++) {
+            double propertyValue = 2000000.0 * Math.pow(1.03, year);
+            double balance = AnnuityMath.balanceAfter(1600000.0, monthlyRate, 300, year * 12);
+            assertEquals(propertyValue - balance, simulation.buyNetWorthAt(year), 1e-4, "year " + year);
+        }
+    }
+
+    @Test
+    public void testRentNetWorthInvestsSavingsOverCostOfOwning() {
+        RentVsBuySimulation simulation = RentVsBuySimulation.run(2000000.0, 400000.0, 4.5, 25,
+                3.0, 15000.0, 6000.0, 8000.0, 5.0, 6.0, 20);
+
+        // Reference: plain month-by-month loop while the mortgage is still being paid
+        double monthlyOwningCost = AnnuityMath.payment(1600000.0, AnnuityMath.monthlyRate(4.5), 300) + 21000.0 / 12;
+        double investmentValue = 400000.0;
+        double monthlyRent = 8000.0;
+        for (int month = 0; month < 20 * 12; month++) {
+            investmentValue += Math.max(0, monthlyOwningCost - monthlyRent);
+            investmentValue *= 1 + 0.06 / 12;
+            if (month % 12 == 11) {
+                monthlyRent *= 1.05;
+            }
+        }
+
+        assertEquals(investmentValue, simulation.rentNetWorthAt(20), 1e-6);
+        assertEquals(20, simulation.getYears());
+    }
+
+    @Test
+    public void testMortgageStopsAfterTenure() {
+        RentVsBuySimulation simulation = RentVsBuySimulation.run(2000000.0, 400000.0, 4.5, 10,
+                0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 15);
+
+        // After the loan is repaid there is nothing left to invest, so the portfolio stops growing
+        assertEquals(simulation.rentNetWorthAt(10), simulation.rentNetWorthAt(15), 1e-6);
+        assertEquals(2000000.0, simulation.buyNetWorthAt(10), 1e-6);
+    }
+
+    @Test
+    public void testBreakEvenHasMonthPrecision() {
+        RentVsBuySimulation simulation = RentVsBuySimulation.run(2000000.0, 400000.0, 4.5, 25,
+                0.0, 15000.0, 0.0, 8000.0, 3.0, 4.0, 30);
+
+        // Renting is ahead at first and buying catches up part-way through a later year
+        int breakEvenMonth = simulation.getBreakEvenMonth();
+        assertTrue(breakEvenMonth > 12);
+        assertNotEquals(0, breakEvenMonth % 12);
+        assertEquals(breakEvenMonth / 12.0, simulation.breakEvenYears());
+
+        // Consistent with the yearly snapshots around the break-even month
+        int yearBefore = (breakEvenMonth - 1) / 12;
+        int yearAfter = (breakEvenMonth + 11) / 12;
+        assertTrue(simulation.buyNetWorthAt(yearBefore) < simulation.rentNetWorthAt(yearBefore));
+        assertTrue(simulation.buyNetWorthAt(yearAfter) >= simulation.rentNetWorthAt(yearAfter));
+    }
+
+    @Test
+    public void testNoBreakEven() {
+        RentVsBuySimulation simulation = RentVsBuySimulation.run(2000000.0, 400000.0, 4.5, 25,
+                1.0, 15000.0, 0.0, 6000.0, 2.0, 8.0, 30);
+
+        assertEquals(-1, simulation.getBreakEvenMonth());
+        assertEquals(Double.POSITIVE_INFINITY, simulation.breakEvenYears());
+    }
+}